@@ -4,9 +4,11 @@ package com.vibecheck.VibeCheck_Backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching // Habilita o suporte ao cache
+@EnableScheduling // Habilita tarefas agendadas (@Scheduled), como a limpeza de códigos expirados
 public class VibeCheckBackendApplication {
     public static void main(String[] args) {
         // Inicializa a aplicação Spring Boot.
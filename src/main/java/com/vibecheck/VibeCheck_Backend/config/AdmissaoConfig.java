@@ -0,0 +1,26 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra o AdmissaoInterceptor nas rotas da API. Ele só age nos métodos anotados com @LimiteAdmissao.
+ */
+@Configuration
+public class AdmissaoConfig implements WebMvcConfigurer {
+
+    private final AdmissaoInterceptor admissaoInterceptor;
+
+    @Autowired
+    public AdmissaoConfig(AdmissaoInterceptor admissaoInterceptor) {
+        this.admissaoInterceptor = admissaoInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissaoInterceptor).addPathPatterns("/api/**");
+    }
+}
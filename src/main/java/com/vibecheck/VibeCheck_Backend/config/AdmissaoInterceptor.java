@@ -0,0 +1,73 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.services.AdmissaoService;
+import com.vibecheck.VibeCheck_Backend.services.AdmissaoService.Decisao;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Aplica o @LimiteAdmissao antes da execução do endpoint. Quando um limite é atingido, a requisição
+ * nem chega ao controller (e, portanto, ao banco): responde HTTP 429 (Too Many Requests)
+ * com o cabeçalho Retry-After em segundos.
+ */
+@Component
+public class AdmissaoInterceptor implements HandlerInterceptor {
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    private final AdmissaoService admissaoService;
+
+    @Autowired
+    public AdmissaoInterceptor(AdmissaoService admissaoService) {
+        this.admissaoService = admissaoService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod metodo)) {
+            return true;
+        }
+        LimiteAdmissao anotacao = metodo.getMethodAnnotation(LimiteAdmissao.class);
+        if (anotacao == null) {
+            return true;
+        }
+
+        Decisao decisao = admissaoService.avaliar(anotacao, usuarioAutenticado(),
+                request.getParameter(anotacao.parametroCodigo()));
+        if (decisao.permitida()) {
+            return true;
+        }
+
+        // Arredonda para cima: Retry-After só aceita segundos inteiros.
+        long segundos = Math.max(1, (decisao.esperaNanos() + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("Muitas requisições. Tente novamente em " + segundos + " s.");
+        return false;
+    }
+
+    // ID do Google do usuário autenticado (atributo "sub"), como nos controllers.
+    private static String usuarioAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof OAuth2AuthenticationToken token) {
+            Object sub = token.getPrincipal().getAttributes().get("sub");
+            return sub != null ? sub.toString() : token.getName();
+        }
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
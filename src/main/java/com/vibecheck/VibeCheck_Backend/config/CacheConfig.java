@@ -0,0 +1,147 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import com.vibecheck.VibeCheck_Backend.repositories.InvalidacaoCacheRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração do cache das anotações @Cacheable/@CacheEvict.
+ *
+ * Sem um CacheManager declarado, o Spring usaria ConcurrentMapCache: sem limite de tamanho,
+ * sem expiração e sem estatísticas. Aqui cada região é um CacheLimitado (ver CacheLimitadoManager
+ * para as propriedades). Estatísticas:
+ * - métricas do Micrometer por região: cache.gets (result = hit | miss), cache.puts, cache.evictions,
+ *   cache.size e cache.load.duration (tempo das cargas feitas por @Cacheable(sync = true));
+ * - endpoint do actuator /actuator/cacheestatisticas (ver CacheEstatisticasEndpoint).
+ *
+ * Com várias instâncias atrás do balanceador, um @CacheEvict em uma delas deixaria as outras com o
+ * valor antigo. Por isso cada região é um CacheDuasCamadas: cache local + camada compartilhada
+ * opcional (bean CamadaCompartilhada), com as remoções avisadas às outras instâncias pelo transporte
+ * escolhido em vibecheck.cache.invalidacao.transporte:
+ * - BANCO (padrão): tabela invalidacoes_cache, lida a cada vibecheck.cache.invalidacao.intervalo-ms;
+ * - LOCAL: só dentro desta JVM (uma única instância).
+ */
+@Configuration
+public class CacheConfig {
+
+    public enum TipoTransporte {
+        LOCAL, BANCO
+    }
+
+    // Identifica esta instância nas invalidações, para que ela ignore as que ela mesma publicou.
+    private final String origem = UUID.randomUUID().toString();
+
+    @Bean
+    public TransporteInvalidacao transporteInvalidacao(
+            @Value("${vibecheck.cache.invalidacao.transporte:BANCO}") TipoTransporte tipo,
+            ObjectProvider<InvalidacaoCacheRepository> repository,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            @Value("${vibecheck.cache.invalidacao.margem:5s}") Duration margem,
+            @Value("${vibecheck.cache.invalidacao.retencao:1h}") Duration retencao) {
+        return switch (tipo) {
+            case LOCAL -> new TransporteInvalidacaoLocal();
+            case BANCO -> new TransporteInvalidacaoBanco(repository.getObject(), transactionManager.getObject(),
+                    origem, margem, retencao);
+        };
+    }
+
+    @Bean
+    public CacheManager cacheManager(Environment environment,
+                                     @Value("${vibecheck.cache.nomes:turmasPorProfessor,nomesTurmasPorProfessor}") List<String> nomes,
+                                     TransporteInvalidacao transporteInvalidacao,
+                                     ObjectProvider<CamadaCompartilhada> camadaCompartilhada) {
+        return new CacheLimitadoManager(environment, nomes, transporteInvalidacao,
+                camadaCompartilhada.getIfAvailable(), origem);
+    }
+
+    /**
+     * Ensina o Spring Boot a publicar as métricas das regiões CacheLimitado
+     * (ele as registra para todas as regiões do CacheManager na inicialização).
+     */
+    @Bean
+    public CacheMeterBinderProvider<CacheLimitado> cacheLimitadoMeterBinderProvider() {
+        return (cache, tags) -> new CacheLimitadoMetrics(cache, tags);
+    }
+
+    /**
+     * As métricas das regiões em duas camadas são as da camada local.
+     */
+    @Bean
+    public CacheMeterBinderProvider<CacheDuasCamadas> cacheDuasCamadasMeterBinderProvider() {
+        return (cache, tags) -> new CacheLimitadoMetrics(cache.getLocal(), tags);
+    }
+
+    /**
+     * Métricas padrão de cache do Micrometer a partir dos contadores do CacheLimitado.
+     */
+    static class CacheLimitadoMetrics extends CacheMeterBinder<CacheLimitado> {
+
+        CacheLimitadoMetrics(CacheLimitado cache, Iterable<Tag> tags) {
+            super(cache, cache.getName(), tags);
+        }
+
+        @Override
+        protected Long size() {
+            CacheLimitado cache = getCache();
+            return cache == null ? null : (long) cache.getTamanho();
+        }
+
+        @Override
+        protected long hitCount() {
+            CacheLimitado cache = getCache();
+            return cache == null ? 0 : cache.getAcertos();
+        }
+
+        @Override
+        protected Long missCount() {
+            CacheLimitado cache = getCache();
+            return cache == null ? null : cache.getFaltas();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            CacheLimitado cache = getCache();
+            return cache == null ? null : cache.getRemocoes();
+        }
+
+        @Override
+        protected long putCount() {
+            CacheLimitado cache = getCache();
+            return cache == null ? 0 : cache.getInsercoes();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            CacheLimitado cache = getCache();
+            if (cache == null) {
+                return;
+            }
+            FunctionTimer.builder("cache.load.duration", cache,
+                            CacheLimitado::getCarregamentos, CacheLimitado::getTempoCarregamentoNanos, TimeUnit.NANOSECONDS)
+                    .tags(getTagsWithCacheName())
+                    .description("Cargas de valores ausentes no cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.load.failures", cache, c -> c.getEstatisticas().falhasCarregamento())
+                    .tags(getTagsWithCacheName())
+                    .description("Cargas que terminaram em exceção")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao.Invalidacao;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Região de cache em duas camadas: um CacheLimitado local (perto, sem rede) na frente de uma camada
+ * compartilhada opcional (CamadaCompartilhada).
+ *
+ * - Leitura: local; se faltar, compartilhada (e o valor é copiado para a local); se faltar, carrega.
+ * - evict/clear/put: alteram as duas camadas e publicam uma invalidação; as outras instâncias
+ *   removem a entrada só da camada local (a compartilhada já foi atualizada por quem publicou).
+ * - Cargas de @Cacheable não publicam nada: não alteram um valor que outra instância possa ter.
+ *
+ * As chaves são guardadas na forma de texto (String.valueOf), a mesma que viaja nas invalidações.
+ */
+public class CacheDuasCamadas extends AbstractValueAdaptingCache {
+
+    private final CacheLimitado local;
+    private final Cache compartilhada;
+    private final TransporteInvalidacao transporte;
+    private final String origem;
+
+    /**
+     * @param local         Camada local.
+     * @param compartilhada Camada compartilhada; null para usar só a local.
+     * @param transporte    Canal das invalidações.
+     * @param origem        Identificador desta instância nas invalidações.
+     */
+    public CacheDuasCamadas(CacheLimitado local, Cache compartilhada, TransporteInvalidacao transporte, String origem) {
+        super(true);
+        this.local = local;
+        this.compartilhada = compartilhada;
+        this.transporte = transporte;
+        this.origem = origem;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public CacheLimitado getLocal() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object chave) {
+        String texto = String.valueOf(chave);
+        ValueWrapper valor = local.get(texto);
+        if (valor == null && compartilhada != null) {
+            valor = compartilhada.get(texto);
+            if (valor != null) {
+                local.put(texto, valor.get());
+            }
+        }
+        return valor == null ? null : toStoreValue(valor.get());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object chave, Callable<T> carregador) {
+        String texto = String.valueOf(chave);
+        // A carga única por chave (CacheLimitado) vale também para a ida à camada compartilhada.
+        return local.get(texto, () -> {
+            if (compartilhada != null) {
+                ValueWrapper valor = compartilhada.get(texto);
+                if (valor != null) {
+                    return (T) valor.get();
+                }
+            }
+            T valor = carregador.call();
+            if (compartilhada != null) {
+                compartilhada.put(texto, valor);
+            }
+            return valor;
+        });
+    }
+
+    @Override
+    public void put(Object chave, Object valor) {
+        String texto = String.valueOf(chave);
+        if (compartilhada != null) {
+            compartilhada.put(texto, valor);
+        }
+        local.put(texto, valor);
+        transporte.publicar(new Invalidacao(origem, getName(), texto));
+    }
+
+    @Override
+    public void evict(Object chave) {
+        String texto = String.valueOf(chave);
+        if (compartilhada != null) {
+            compartilhada.evict(texto);
+        }
+        local.evict(texto);
+        transporte.publicar(new Invalidacao(origem, getName(), texto));
+    }
+
+    @Override
+    public void clear() {
+        if (compartilhada != null) {
+            compartilhada.clear();
+        }
+        local.clear();
+        transporte.publicar(new Invalidacao(origem, getName(), null));
+    }
+
+    /**
+     * Aplica na camada local uma invalidação publicada por outra instância.
+     */
+    public void aplicar(Invalidacao invalidacao) {
+        if (origem.equals(invalidacao.origem())) {
+            return;
+        }
+        if (invalidacao.chave() == null) {
+            local.clear();
+        } else {
+            local.evict(invalidacao.chave());
+        }
+    }
+}
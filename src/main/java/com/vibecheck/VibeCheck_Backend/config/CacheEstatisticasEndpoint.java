@@ -0,0 +1,42 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Endpoint do actuator com as estatísticas de cada região de cache (acertos, faltas, taxa de acerto,
+ * remoções por tamanho e por TTL, cargas e tempo médio de carga, ocupação e configuração).
+ * Para regiões em duas camadas, as estatísticas são as da camada local.
+ * GET /actuator/cacheestatisticas, quando exposto (management.endpoints.web.exposure.include).
+ */
+@Component
+@Endpoint(id = "cacheestatisticas")
+public class CacheEstatisticasEndpoint {
+
+    private final CacheManager cacheManager;
+
+    public CacheEstatisticasEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, CacheLimitado.Estatisticas> estatisticas() {
+        Map<String, CacheLimitado.Estatisticas> porRegiao = new TreeMap<>();
+        for (String nome : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache instanceof CacheDuasCamadas duasCamadas) {
+                porRegiao.put(nome, duasCamadas.getLocal().getEstatisticas());
+            } else if (cache instanceof CacheLimitado regiao) {
+                porRegiao.put(nome, regiao.getEstatisticas());
+            }
+        }
+        return porRegiao;
+    }
+}
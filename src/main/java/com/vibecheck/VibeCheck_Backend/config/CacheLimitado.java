@@ -0,0 +1,288 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Região de cache (@Cacheable) com tamanho máximo, tempo de vida (TTL) e estatísticas.
+ *
+ * Substitui o ConcurrentMapCache padrão do Spring, que cresce sem limite e nunca expira.
+ * - Tamanho: ao passar de 'tamanhoMaximo', remove a entrada menos usada (LRU) ou a mais antiga (FIFO).
+ * - TTL: contado a partir da gravação; entradas vencidas são descartadas na leitura e por limparExpiradas().
+ * - Carga: get(chave, loader) executa o loader uma única vez por chave, mesmo com várias threads pedindo
+ *   o mesmo valor ao mesmo tempo (as demais aguardam o resultado).
+ *
+ * O mapa é um LinkedHashMap protegido por uma trava: as regiões são pequenas e as operações sob a
+ * trava são O(1); a carga (que pode ir ao banco) acontece fora dela.
+ */
+public class CacheLimitado extends AbstractValueAdaptingCache {
+
+    /**
+     * Qual entrada sai primeiro quando a região está cheia.
+     */
+    public enum Politica {
+        LRU, // A menos usada recentemente (leituras renovam a posição).
+        FIFO // A gravada há mais tempo (leituras não alteram a ordem).
+    }
+
+    /**
+     * Fotografia das estatísticas de uma região.
+     */
+    public record Estatisticas(long acertos, long faltas, double taxaAcerto, long insercoes,
+                               long remocoesPorTamanho, long remocoesPorExpiracao,
+                               long carregamentos, long falhasCarregamento, double tempoMedioCarregamentoMs,
+                               int tamanho, int tamanhoMaximo, String ttl, String politica) {
+    }
+
+    private record Entrada(Object valor, long expiraEm) {
+    }
+
+    private final String nome;
+    private final int tamanhoMaximo;
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final Politica politica;
+    private final LongSupplier relogio;
+    private final ReentrantLock trava = new ReentrantLock();
+    private final LinkedHashMap<Object, Entrada> entradas;
+    private final Map<Object, CompletableFuture<Object>> carregando = new ConcurrentHashMap<>();
+    // Incrementada a cada evict/clear: uma carga iniciada antes não grava o valor (possivelmente já velho).
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder insercoes = new LongAdder();
+    private final LongAdder remocoesPorTamanho = new LongAdder();
+    private final LongAdder remocoesPorExpiracao = new LongAdder();
+    private final LongAdder carregamentos = new LongAdder();
+    private final LongAdder falhasCarregamento = new LongAdder();
+    private final LongAdder tempoCarregamentoNanos = new LongAdder();
+
+    /**
+     * @param nome          Nome da região (o mesmo usado em @Cacheable).
+     * @param tamanhoMaximo Quantidade máxima de entradas.
+     * @param ttl           Tempo de vida de cada entrada; zero desliga a expiração.
+     * @param politica      Qual entrada remover quando a região está cheia.
+     */
+    public CacheLimitado(String nome, int tamanhoMaximo, Duration ttl, Politica politica) {
+        this(nome, tamanhoMaximo, ttl, politica, System::nanoTime);
+    }
+
+    CacheLimitado(String nome, int tamanhoMaximo, Duration ttl, Politica politica, LongSupplier relogio) {
+        super(true);
+        if (tamanhoMaximo < 1) {
+            throw new IllegalArgumentException("O tamanho máximo da região " + nome + " deve ser positivo.");
+        }
+        this.nome = nome;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.politica = politica;
+        this.relogio = relogio;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, politica == Politica.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> maisAntiga) {
+                if (size() > CacheLimitado.this.tamanhoMaximo) {
+                    remocoesPorTamanho.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object chave) {
+        long agora = relogio.getAsLong();
+        trava.lock();
+        try {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && vencida(entrada, agora)) {
+                entradas.remove(chave);
+                remocoesPorExpiracao.increment();
+                entrada = null;
+            }
+            if (entrada == null) {
+                faltas.increment();
+                return null;
+            }
+            acertos.increment();
+            return entrada.valor();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object chave, Callable<T> carregador) {
+        Object armazenado = lookup(chave);
+        if (armazenado != null) {
+            return (T) fromStoreValue(armazenado);
+        }
+
+        // Só a primeira thread executa o carregador; as outras esperam o mesmo CompletableFuture.
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        CompletableFuture<Object> emAndamento = carregando.putIfAbsent(chave, novo);
+        if (emAndamento != null) {
+            try {
+                return (T) fromStoreValue(emAndamento.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(chave, carregador, e.getCause());
+            }
+        }
+
+        long geracaoInicial = geracao.get();
+        long inicio = relogio.getAsLong();
+        try {
+            T valor = carregador.call();
+            if (geracao.get() == geracaoInicial) {
+                put(chave, valor);
+            }
+            novo.complete(toStoreValue(valor));
+            return valor;
+        } catch (Exception e) {
+            falhasCarregamento.increment();
+            novo.completeExceptionally(e);
+            throw new ValueRetrievalException(chave, carregador, e);
+        } finally {
+            carregamentos.increment();
+            tempoCarregamentoNanos.add(relogio.getAsLong() - inicio);
+            carregando.remove(chave, novo);
+        }
+    }
+
+    @Override
+    public void put(Object chave, Object valor) {
+        Entrada entrada = new Entrada(toStoreValue(valor), relogio.getAsLong() + ttlNanos);
+        trava.lock();
+        try {
+            entradas.put(chave, entrada);
+            insercoes.increment();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void evict(Object chave) {
+        trava.lock();
+        try {
+            geracao.incrementAndGet();
+            entradas.remove(chave);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        trava.lock();
+        try {
+            geracao.incrementAndGet();
+            entradas.clear();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Remove as entradas vencidas (sem isso, uma entrada vencida que nunca mais é lida só sai por tamanho).
+     *
+     * @return Quantas entradas foram removidas.
+     */
+    public int limparExpiradas() {
+        if (ttlNanos <= 0) {
+            return 0;
+        }
+        long agora = relogio.getAsLong();
+        int removidas = 0;
+        trava.lock();
+        try {
+            Iterator<Entrada> iterador = entradas.values().iterator();
+            while (iterador.hasNext()) {
+                if (vencida(iterador.next(), agora)) {
+                    iterador.remove();
+                    removidas++;
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+        remocoesPorExpiracao.add(removidas);
+        return removidas;
+    }
+
+    public int getTamanho() {
+        trava.lock();
+        try {
+            return entradas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getInsercoes() {
+        return insercoes.sum();
+    }
+
+    /**
+     * @return Remoções feitas pela política (tamanho) e pelo TTL; não inclui evict/clear explícitos.
+     */
+    public long getRemocoes() {
+        return remocoesPorTamanho.sum() + remocoesPorExpiracao.sum();
+    }
+
+    public long getCarregamentos() {
+        return carregamentos.sum();
+    }
+
+    public double getTempoCarregamentoNanos() {
+        return tempoCarregamentoNanos.sum();
+    }
+
+    public Estatisticas getEstatisticas() {
+        long a = acertos.sum();
+        long f = faltas.sum();
+        long c = carregamentos.sum();
+        return new Estatisticas(a, f, a + f == 0 ? 0 : (double) a / (a + f), insercoes.sum(),
+                remocoesPorTamanho.sum(), remocoesPorExpiracao.sum(), c, falhasCarregamento.sum(),
+                c == 0 ? 0 : tempoCarregamentoNanos.sum() / 1_000_000.0 / c,
+                getTamanho(), tamanhoMaximo, ttlNanos > 0 ? ttl.toString() : "sem expiração", politica.name());
+    }
+
+    private boolean vencida(Entrada entrada, long agora) {
+        return ttlNanos > 0 && agora - entrada.expiraEm() >= 0;
+    }
+}
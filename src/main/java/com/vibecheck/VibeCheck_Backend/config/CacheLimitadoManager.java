@@ -0,0 +1,111 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.config.CacheLimitado.Politica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CacheManager das regiões CacheLimitado. Cada região lê a sua configuração das propriedades
+ * vibecheck.cache.regioes.[nome].(tamanho-maximo | ttl | politica), com os valores de
+ * vibecheck.cache.padrao.* para o que não for informado.
+ *
+ * As regiões listadas em vibecheck.cache.nomes são criadas na inicialização (e recebem métricas);
+ * um nome não listado usado em @Cacheable ainda funciona, com a configuração padrão.
+ *
+ * Com um TransporteInvalidacao, cada região é um CacheDuasCamadas (ver CacheConfig), e as invalidações
+ * recebidas das outras instâncias são aplicadas na região correspondente.
+ */
+public class CacheLimitadoManager extends AbstractCacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheLimitadoManager.class);
+
+    private final Environment environment;
+    private final List<String> nomes;
+    private final TransporteInvalidacao transporte;
+    private final CamadaCompartilhada camadaCompartilhada;
+    private final String origem;
+
+    /**
+     * @param transporte          Canal das invalidações entre instâncias; null para regiões só locais.
+     * @param camadaCompartilhada Segunda camada das regiões; null para nenhuma.
+     * @param origem              Identificador desta instância nas invalidações.
+     */
+    public CacheLimitadoManager(Environment environment, List<String> nomes, TransporteInvalidacao transporte,
+                                CamadaCompartilhada camadaCompartilhada, String origem) {
+        this.environment = environment;
+        this.nomes = nomes;
+        this.transporte = transporte;
+        this.camadaCompartilhada = camadaCompartilhada;
+        this.origem = origem;
+        if (transporte != null) {
+            transporte.assinar(this::aplicar);
+        }
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> regioes = new ArrayList<>(nomes.size());
+        for (String nome : nomes) {
+            regioes.add(criarRegiao(nome));
+        }
+        return regioes;
+    }
+
+    @Override
+    protected Cache getMissingCache(String nome) {
+        log.warn("Região de cache '{}' não declarada em vibecheck.cache.nomes; usando a configuração padrão e sem métricas.", nome);
+        return criarRegiao(nome);
+    }
+
+    /**
+     * Remove as entradas vencidas de todas as regiões.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.cache.limpeza-ms:60000}")
+    public void limparExpiradas() {
+        for (String nome : getCacheNames()) {
+            Cache cache = getCache(nome);
+            if (cache instanceof CacheDuasCamadas duasCamadas) {
+                duasCamadas.getLocal().limparExpiradas();
+            } else if (cache instanceof CacheLimitado regiao) {
+                regiao.limparExpiradas();
+            }
+        }
+    }
+
+    // Invalidação vinda de outra instância; regiões ainda não criadas aqui não têm o que remover.
+    private void aplicar(TransporteInvalidacao.Invalidacao invalidacao) {
+        if (lookupCache(invalidacao.regiao()) instanceof CacheDuasCamadas regiao) {
+            regiao.aplicar(invalidacao);
+        }
+    }
+
+    private Cache criarRegiao(String nome) {
+        String prefixo = "vibecheck.cache.regioes." + nome + '.';
+        int tamanhoMaximo = propriedade(prefixo, "tamanho-maximo", Integer.class, 1000);
+        Duration ttl = propriedade(prefixo, "ttl", Duration.class, Duration.ofMinutes(10));
+        Politica politica = propriedade(prefixo, "politica", Politica.class, Politica.LRU);
+        log.info("Região de cache '{}': até {} entradas, TTL {}, política {}", nome, tamanhoMaximo, ttl, politica);
+        CacheLimitado local = new CacheLimitado(nome, tamanhoMaximo, ttl, politica);
+        if (transporte == null) {
+            return local;
+        }
+        Cache compartilhada = camadaCompartilhada == null ? null : camadaCompartilhada.regiao(nome);
+        return new CacheDuasCamadas(local, compartilhada, transporte, origem);
+    }
+
+    // Valor da região; se ausente, o padrão de vibecheck.cache.padrao; se ausente, 'valorPadrao'.
+    private <T> T propriedade(String prefixo, String chave, Class<T> tipo, T valorPadrao) {
+        T padrao = environment.getProperty("vibecheck.cache.padrao." + chave, tipo, valorPadrao);
+        return environment.getProperty(prefixo + chave, tipo, padrao);
+    }
+}
@@ -0,0 +1,18 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Segunda camada (compartilhada entre as instâncias) de CacheDuasCamadas, por exemplo um Redis.
+ * Para usá-la, basta declarar um bean deste tipo; sem ele, cada instância tem só o cache local,
+ * mantido coerente pelas invalidações.
+ */
+@FunctionalInterface
+public interface CamadaCompartilhada {
+
+    /**
+     * @return A região compartilhada com este nome.
+     */
+    Cache regiao(String nome);
+}
@@ -0,0 +1,46 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configurações do Hibernate voltadas a desempenho de escrita.
+ *
+ * Com os IDs gerados por sequência (em vez de IDENTITY), o Hibernate consegue agrupar INSERTs
+ * e UPDATEs em lotes JDBC. Aqui habilitamos esse batching e escolhemos o otimizador das sequências.
+ * Todos os valores podem ser sobrescritos por propriedades (vibecheck.jpa.*).
+ */
+@Configuration
+public class JpaConfig {
+
+    /**
+     * Um HibernatePropertiesCustomizer é aplicado pelo Spring Boot às propriedades do Hibernate
+     * antes da criação do EntityManagerFactory.
+     *
+     * - hibernate.jdbc.batch_size: quantos comandos vão em cada lote JDBC.
+     * - hibernate.order_inserts / order_updates: ordena os comandos por entidade, para que INSERTs
+     *   de tabelas diferentes (ex: registros e práticas) intercalados não quebrem os lotes.
+     * - hibernate.id.optimizer.pooled.preferred: "pooled-lo" reserva o bloco [valor, valor + incremento)
+     *   a cada chamada à sequência.
+     * - hibernate.id.sequence.increment_size_mismatch_strategy: com "FIX", o tamanho de alocação
+     *   efetivo passa a ser o INCREMENT BY de cada sequência no banco. Assim o allocationSize de cada
+     *   entidade é configurável com um simples "ALTER SEQUENCE ... INCREMENT BY n", sem recompilar.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchingCustomizer(
+            @Value("${vibecheck.jpa.batch-size:50}") int batchSize,
+            @Value("${vibecheck.jpa.otimizador-id:pooled-lo}") String otimizadorId,
+            @Value("${vibecheck.jpa.divergencia-incremento:FIX}") String divergenciaIncremento) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+            properties.putIfAbsent("hibernate.id.optimizer.pooled.preferred", otimizadorId);
+            properties.putIfAbsent("hibernate.id.sequence.increment_size_mismatch_strategy", divergenciaIncremento);
+        };
+    }
+}
@@ -0,0 +1,42 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint com controle de admissão (limite de taxa), aplicado pelo AdmissaoInterceptor
+ * antes de o método ser executado. Há dois baldes independentes:
+ * - por aluno (googleId do usuário autenticado), contra um cliente que repete a chamada em laço;
+ * - por código (parâmetro da requisição), contra muitas chamadas sobre o mesmo código.
+ *
+ * Os valores daqui são os padrões; cada um pode ser sobrescrito por propriedade, ex:
+ * vibecheck.admissao.verificar-codigo.aluno.por-segundo=2
+ * vibecheck.admissao.verificar-codigo.codigo.rajada=300
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LimiteAdmissao {
+
+    /**
+     * Nome do endpoint, usado nas propriedades e nas métricas.
+     */
+    String value();
+
+    double alunoPorSegundo() default 1;
+
+    int alunoRajada() default 10;
+
+    double codigoPorSegundo() default 20;
+
+    int codigoRajada() default 100;
+
+    /**
+     * Nome do parâmetro da requisição que contém o código de avaliação.
+     */
+    String parametroCodigo() default "codigo";
+}
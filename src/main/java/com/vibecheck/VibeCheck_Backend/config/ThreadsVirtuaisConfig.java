@@ -0,0 +1,70 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Ajustes do modo de threads virtuais (opt-in, via spring.threads.virtual.enabled=true).
+ *
+ * Com a propriedade ligada, o próprio Spring Boot passa a atender as requisições do Tomcat,
+ * os métodos @Scheduled e o @Async em threads virtuais. As threads de segundo plano da aplicação
+ * (coletor da ingestão, drenagem do log, carga do analítico, reconstrução dos resumos) seguem a
+ * mesma propriedade, criadas por {@link #construtor(boolean)}.
+ *
+ * O que muda para o banco: sem o limite de ~200 threads do Tomcat, o pool de conexões do Hikari
+ * passa a ser o único limitador de concorrência. Aqui ele é dimensionado pelo número de núcleos
+ * (não pelo número de requisições), e a espera por conexão fica mais curta, para que uma rajada
+ * acima da capacidade falhe rápido em vez de acumular milhares de threads paradas.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    private static final String PREFIXO_HIKARI = "spring.datasource.hikari.";
+
+    /**
+     * Construtor das threads de segundo plano: virtuais com spring.threads.virtual.enabled=true,
+     * senão de plataforma (daemon, para não segurar o encerramento da JVM).
+     */
+    public static Thread.Builder construtor(boolean threadsVirtuais) {
+        return threadsVirtuais ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+    }
+
+    /**
+     * Ajusta o HikariDataSource assim que ele é criado. Valores definidos explicitamente
+     * em spring.datasource.hikari.* têm prioridade e não são alterados.
+     *
+     * - vibecheck.threads-virtuais.pool-conexoes: tamanho do pool (padrão: 2 x núcleos + 1, mínimo 10).
+     * - vibecheck.threads-virtuais.espera-conexao-ms: tempo máximo de espera por uma conexão (padrão: 5000).
+     */
+    @Bean
+    public static BeanPostProcessor hikariThreadsVirtuaisPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    if (!environment.containsProperty(PREFIXO_HIKARI + "maximum-pool-size")) {
+                        int padrao = Math.max(10, Runtime.getRuntime().availableProcessors() * 2 + 1);
+                        int tamanho = environment.getProperty("vibecheck.threads-virtuais.pool-conexoes", Integer.class, padrao);
+                        hikari.setMaximumPoolSize(tamanho);
+                        // Pool fixo: abrir conexão sob rajada custa mais do que mantê-las ociosas.
+                        if (!environment.containsProperty(PREFIXO_HIKARI + "minimum-idle")) {
+                            hikari.setMinimumIdle(tamanho);
+                        }
+                    }
+                    if (!environment.containsProperty(PREFIXO_HIKARI + "connection-timeout")) {
+                        hikari.setConnectionTimeout(
+                                environment.getProperty("vibecheck.threads-virtuais.espera-conexao-ms", Long.class, 5000L));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal pelo qual as instâncias avisam umas às outras que uma entrada de cache foi removida ou alterada
+ * (ver CacheDuasCamadas). Implementações: TransporteInvalidacaoLocal (na mesma JVM) e
+ * TransporteInvalidacaoBanco (entre instâncias, por uma tabela do banco).
+ */
+public interface TransporteInvalidacao {
+
+    /**
+     * @param origem Identificador da instância que publicou.
+     * @param regiao Região de cache.
+     * @param chave  Chave invalidada (na forma de texto); null quando a região inteira foi limpa.
+     */
+    record Invalidacao(String origem, String regiao, String chave) {
+    }
+
+    void publicar(Invalidacao invalidacao);
+
+    /**
+     * Registra quem recebe as invalidações. Pode receber também as publicadas pela própria instância.
+     */
+    void assinar(Consumer<Invalidacao> assinante);
+}
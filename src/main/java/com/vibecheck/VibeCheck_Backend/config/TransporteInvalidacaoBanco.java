@@ -0,0 +1,159 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.models.InvalidacaoCache;
+import com.vibecheck.VibeCheck_Backend.repositories.InvalidacaoCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Transporte entre instâncias pela tabela invalidacoes_cache (migração 007): publicar grava uma linha
+ * e cada instância lê periodicamente as linhas das outras.
+ *
+ * - Dentro de uma transação, as invalidações são juntadas e gravadas depois do commit, em uma
+ *   transação própria (REQUIRES_NEW) e com um único INSERT em lote: as outras instâncias só as veem
+ *   quando o valor novo já pode ser lido, nada é gravado se a transação for desfeita, e uma falha
+ *   do transporte (ex: migração 007 ainda não aplicada) nunca marca a transação de quem publicou
+ *   como rollback-only. Fora de transação, a gravação é imediata.
+ * - A leitura volta 'margem' no tempo, para não perder linhas commitadas fora de ordem ou gravadas
+ *   com o relógio um pouco atrasado; as já entregues são lembradas e não são repetidas.
+ * - Falhas ao publicar são registradas e não interrompem a operação que removeu a entrada
+ *   (as outras instâncias ficam com o valor antigo até o TTL da região).
+ * - A leitura usa um ReentrantLock, e não synchronized, para não prender a thread portadora
+ *   quando o agendador roda em threads virtuais.
+ */
+public class TransporteInvalidacaoBanco implements TransporteInvalidacao {
+
+    private static final Logger log = LoggerFactory.getLogger(TransporteInvalidacaoBanco.class);
+
+    private final InvalidacaoCacheRepository repository;
+    private final String origem;
+    private final Duration margem;
+    private final Duration retencao;
+    private final TransactionTemplate novaTransacao;
+    private final List<Consumer<Invalidacao>> assinantes = new CopyOnWriteArrayList<>();
+    private final ReentrantLock leitura = new ReentrantLock();
+
+    // Ids já entregues dentro da janela de leitura, com o instante de cada um (para descartá-los depois).
+    private final Map<Long, LocalDateTime> entregues = new HashMap<>();
+    private LocalDateTime ultimaLeitura = LocalDateTime.now();
+
+    public TransporteInvalidacaoBanco(InvalidacaoCacheRepository repository, PlatformTransactionManager transactionManager,
+                                      String origem, Duration margem, Duration retencao) {
+        this.repository = repository;
+        this.origem = origem;
+        this.margem = margem;
+        this.retencao = retencao;
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void publicar(Invalidacao invalidacao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(List.of(invalidacao));
+            return;
+        }
+        // Uma lista por transação, gravada de uma vez no afterCommit.
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Pendentes pendentes && pendentes.transporte == this) {
+                pendentes.invalidacoes.add(invalidacao);
+                return;
+            }
+        }
+        Pendentes pendentes = new Pendentes(this);
+        pendentes.invalidacoes.add(invalidacao);
+        TransactionSynchronizationManager.registerSynchronization(pendentes);
+    }
+
+    /**
+     * Invalidações publicadas durante uma transação.
+     */
+    private static class Pendentes implements TransactionSynchronization {
+
+        private final TransporteInvalidacaoBanco transporte;
+        private final List<Invalidacao> invalidacoes = new ArrayList<>();
+
+        Pendentes(TransporteInvalidacaoBanco transporte) {
+            this.transporte = transporte;
+        }
+
+        @Override
+        public void afterCommit() {
+            transporte.gravar(invalidacoes);
+        }
+    }
+
+    private void gravar(List<Invalidacao> invalidacoes) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<InvalidacaoCache> linhas = new ArrayList<>(invalidacoes.size());
+        for (Invalidacao invalidacao : invalidacoes) {
+            linhas.add(new InvalidacaoCache(null, invalidacao.origem(), invalidacao.regiao(), invalidacao.chave(), agora));
+        }
+        try {
+            // O flush (e o INSERT) acontece no commit da transação nova, ainda dentro do try.
+            novaTransacao.executeWithoutResult(status -> repository.saveAll(linhas));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível publicar {} invalidação(ões), ex: {}: {}",
+                    invalidacoes.size(), invalidacoes.get(0), e.getMessage());
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Invalidacao> assinante) {
+        assinantes.add(assinante);
+    }
+
+    /**
+     * Entrega aos assinantes as invalidações publicadas pelas outras instâncias desde a última leitura.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.cache.invalidacao.intervalo-ms:1000}")
+    public void receber() {
+        leitura.lock();
+        try {
+            lerNovas();
+        } finally {
+            leitura.unlock();
+        }
+    }
+
+    private void lerNovas() {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime desde = ultimaLeitura.minus(margem);
+        for (InvalidacaoCache linha : repository.findByCriadoEmAfterAndOrigemNotOrderByCriadoEm(desde, origem)) {
+            if (entregues.putIfAbsent(linha.getId(), linha.getCriadoEm()) != null) {
+                continue;
+            }
+            Invalidacao invalidacao = new Invalidacao(linha.getOrigem(), linha.getRegiao(), linha.getChave());
+            for (Consumer<Invalidacao> assinante : assinantes) {
+                assinante.accept(invalidacao);
+            }
+        }
+        entregues.values().removeIf(criadoEm -> !criadoEm.isAfter(desde));
+        ultimaLeitura = agora;
+    }
+
+    @Scheduled(fixedDelayString = "${vibecheck.cache.invalidacao.limpeza-ms:600000}")
+    public void apagarAntigas() {
+        int apagadas = repository.apagarAnterioresA(LocalDateTime.now().minus(retencao));
+        if (apagadas > 0) {
+            log.debug("{} invalidações de cache antigas apagadas", apagadas);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+// Define o pacote onde a classe de configuração está localizada.
+package com.vibecheck.VibeCheck_Backend.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transporte dentro da mesma JVM: entrega cada invalidação, de forma síncrona, a todos os assinantes.
+ * Serve para uma única instância e para testar várias "instâncias" (CacheManagers) na mesma máquina.
+ */
+public class TransporteInvalidacaoLocal implements TransporteInvalidacao {
+
+    private final List<Consumer<Invalidacao>> assinantes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publicar(Invalidacao invalidacao) {
+        for (Consumer<Invalidacao> assinante : assinantes) {
+            assinante.accept(invalidacao);
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<Invalidacao> assinante) {
+        assinantes.add(assinante);
+    }
+}
@@ -2,23 +2,42 @@
 package com.vibecheck.VibeCheck_Backend.controllers;
 
 // Importações de DTOs (Data Transfer Objects), Models e Services.
+import com.vibecheck.VibeCheck_Backend.dtos.AnaliticoDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.DashboardRegistroDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.dtos.HumorAoVivoDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PainelProfessorDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.ResumoDiarioDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.LiberarCodigoRequest;
 import com.vibecheck.VibeCheck_Backend.dtos.CodigoAvaliacaoResponseDTO;
 import com.vibecheck.VibeCheck_Backend.models.CodigoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.services.AnaliticoRegistrosService;
 import com.vibecheck.VibeCheck_Backend.services.CodigoAvaliacaoService;
+import com.vibecheck.VibeCheck_Backend.services.HumorAoVivoService;
+import com.vibecheck.VibeCheck_Backend.services.PainelProfessorService;
 import com.vibecheck.VibeCheck_Backend.services.RegistroEmocionalService;
+import com.vibecheck.VibeCheck_Backend.services.ResumoDiarioService;
 import com.vibecheck.VibeCheck_Backend.services.TurmaService;
+import com.vibecheck.VibeCheck_Backend.services.VersaoDados;
 import com.vibecheck.VibeCheck_Backend.dtos.TurmaDTO;
 
 // Importações do Spring Framework.
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @RestController: Combina @Controller e @ResponseBody. Indica que a classe é um controlador de API
@@ -32,6 +51,11 @@ public class CodigoAvaliacaoController {
     // Injeção das camadas de serviço (Services) que contêm a lógica de negócio.
     private final CodigoAvaliacaoService codigoService;
     private final RegistroEmocionalService registroService;
+    private final ResumoDiarioService resumoDiarioService;
+    private final VersaoDados versaoDados;
+    private final HumorAoVivoService humorAoVivoService;
+    private final AnaliticoRegistrosService analiticoService;
+    private final PainelProfessorService painelService;
 
     // A injeção de dependência via @Autowired em campos é funcional, mas a injeção via construtor (abaixo)
     // é geralmente preferida por facilitar os testes e garantir que as dependências obrigatórias existam.
@@ -45,10 +69,20 @@ public class CodigoAvaliacaoController {
     @Autowired
     public CodigoAvaliacaoController(
             CodigoAvaliacaoService codigoService,
-            RegistroEmocionalService registroService
+            RegistroEmocionalService registroService,
+            ResumoDiarioService resumoDiarioService,
+            VersaoDados versaoDados,
+            HumorAoVivoService humorAoVivoService,
+            AnaliticoRegistrosService analiticoService,
+            PainelProfessorService painelService
     ) {
         this.codigoService = codigoService;
         this.registroService = registroService;
+        this.resumoDiarioService = resumoDiarioService;
+        this.versaoDados = versaoDados;
+        this.humorAoVivoService = humorAoVivoService;
+        this.analiticoService = analiticoService;
+        this.painelService = painelService;
     }
 
     /**
@@ -99,13 +133,141 @@ public class CodigoAvaliacaoController {
     }
 
     /**
-     * Endpoint para obter os dados do dashboard geral.
+     * Endpoint da tela inicial do professor: as turmas, as práticas abertas de cada uma e a primeira
+     * página do dashboard, consultados em paralelo (ver PainelProfessorService).
+     * Responde 504 se alguma das consultas passar do prazo.
+     */
+    @GetMapping("/painel")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> getPainel(OAuth2AuthenticationToken authentication) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        try {
+            PainelProfessorDTO painel = painelService.montar(googleId);
+            return ResponseEntity.ok(painel);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint do dashboard do professor: registros emocionais das suas turmas, do mais recente
+     * para o mais antigo, em páginas. Todos os filtros são opcionais.
+     * Ex: GET /api/codigo/dashboard?turmaId=3&de=2025-03-01T00:00:00&tipo=CHECKIN&tamanho=50
+     * Para a próxima página, repetir a chamada com cursor = proximoCursor da resposta.
+     * A resposta traz uma ETag; repetida com If-None-Match e sem registros novos nas turmas do professor,
+     * a chamada retorna 304 Not Modified sem consultar o banco (ver VersaoDados).
      */
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<List<DashboardRegistroDTO>> getDashboard() {
-        // Este método busca registros gerais do dashboard. Não parece filtrar por professor.
-        List<DashboardRegistroDTO> registros = registroService.getDashboardRegistros();
-        return ResponseEntity.ok(registros);
+    public ResponseEntity<?> getDashboard(
+            @RequestParam(required = false) Long turmaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) TipoAvaliacao tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho,
+            OAuth2AuthenticationToken authentication,
+            WebRequest webRequest
+    ) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        // A versão é lida antes da consulta: a página devolvida é no mínimo tão nova quanto a ETag.
+        String etag = versaoDados.etag("dashboard", versaoDados.versaoProfessor(googleId),
+                googleId, turmaId, de, ate, tipo, cursor, tamanho);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified.
+        }
+        try {
+            PaginaDTO<DashboardRegistroDTO> pagina = registroService.consultarDashboard(
+                    googleId, new FiltroDashboard(turmaId, de, ate, tipo), cursor, tamanho);
+            // no-cache (e não no-store): o navegador guarda a resposta e revalida com If-None-Match.
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(pagina);
+        } catch (IllegalArgumentException e) {
+            // Cursor malformado ou tamanho de página inválido.
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint do "humor atual" de uma turma durante a aula: quantidade, média e histograma das emoções
+     * do check-in mais recente e do check-out seguinte, e a variação da média entre eles.
+     * Lido da memória (ver HumorAoVivoService), sem consultar os registros; pode ser chamado a cada poucos segundos.
+     */
+    @GetMapping("/turma/{turmaId}/humor")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<HumorAoVivoDTO> getHumorAoVivo(@PathVariable Long turmaId,
+                                                         OAuth2AuthenticationToken authentication) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        return humorAoVivoService.consultar(googleId, turmaId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint dos resumos diários: por dia, turma e tipo, a quantidade de registros, a soma,
+     * a média e o histograma das emoções. Lê os resumos mantidos a cada registro, então o custo
+     * depende do número de dias, não do número de registros.
+     * Sem período informado, retorna os últimos 30 dias.
+     */
+    @GetMapping("/dashboard/resumos")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> getResumos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Long turmaId,
+            @RequestParam(required = false) TipoAvaliacao tipo,
+            OAuth2AuthenticationToken authentication
+    ) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(29);
+        try {
+            List<ResumoDiarioDTO> resumos = resumoDiarioService.consultar(googleId, inicio, fim, turmaId, tipo);
+            return ResponseEntity.ok(resumos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint analítico: quantidade, média e histograma por dia dos registros das turmas do professor,
+     * calculados por uma varredura do armazenamento colunar em memória (ver AnaliticoRegistrosService),
+     * sem consultar o banco. Sem período informado, usa os últimos 30 dias.
+     * Responde 503 enquanto o armazenamento está sendo carregado.
+     */
+    @GetMapping("/dashboard/analitico")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> getAnalitico(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Long turmaId,
+            @RequestParam(required = false) TipoAvaliacao tipo,
+            OAuth2AuthenticationToken authentication
+    ) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(29);
+        try {
+            AnaliticoDTO analitico = analiticoService.consultar(googleId, inicio, fim, turmaId, tipo);
+            return ResponseEntity.ok(analitico);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint para recalcular os resumos diários das turmas do professor (ou de uma delas)
+     * a partir dos registros emocionais.
+     */
+    @PostMapping("/dashboard/resumos/reconstruir")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<String> reconstruirResumos(
+            @RequestParam(required = false) Long turmaId,
+            OAuth2AuthenticationToken authentication
+    ) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        int turmas = resumoDiarioService.reconstruirDoProfessor(googleId, turmaId);
+        return ResponseEntity.ok("Resumos reconstruídos: " + turmas + " turma(s).");
     }
-}
\ No newline at end of file
+}
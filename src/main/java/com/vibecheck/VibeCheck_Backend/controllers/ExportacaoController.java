@@ -0,0 +1,120 @@
+// Define o pacote para as classes de controlador.
+package com.vibecheck.VibeCheck_Backend.controllers;
+
+// Importações necessárias.
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.services.ExportacaoService;
+import com.vibecheck.VibeCheck_Backend.services.ExportacaoService.FormatoExportacao;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @RestController: Define esta classe como um controlador de API REST.
+ * @RequestMapping("/api/exportacao"): Exportação em CSV ou NDJSON das turmas do professor.
+ * @PreAuthorize("hasRole('PROFESSOR')"): Vale para todos os métodos do controller.
+ *
+ * As linhas são escritas na resposta à medida que saem do banco (ver ExportacaoService), então os
+ * arquivos podem ter qualquer tamanho. Com gzip=true o arquivo é compactado durante o envio
+ * (.csv.gz / .ndjson.gz).
+ * Ex: GET /api/exportacao/turma/3/praticas?formato=CSV&inicio=2025-02-01T00:00:00&gzip=true
+ */
+@RestController
+@RequestMapping("/api/exportacao")
+@PreAuthorize("hasRole('PROFESSOR')")
+public class ExportacaoController {
+
+    // Tamanho do buffer entre a escrita das linhas e a resposta.
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ExportacaoService exportacaoService;
+    private final TurmaRepository turmaRepository;
+
+    @Autowired
+    public ExportacaoController(ExportacaoService exportacaoService, TurmaRepository turmaRepository) {
+        this.exportacaoService = exportacaoService;
+        this.turmaRepository = turmaRepository;
+    }
+
+    /**
+     * Exporta as práticas de uma turma do professor.
+     * @param inicio Início do período (opcional, formato: yyyy-MM-ddTHH:mm:ss).
+     * @param fim Fim do período, exclusivo (opcional).
+     */
+    @GetMapping("/turma/{turmaId}/praticas")
+    public void exportarPraticas(
+            @PathVariable Long turmaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            OAuth2AuthenticationToken authentication,
+            HttpServletResponse response
+    ) throws IOException {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        if (!turmaRepository.existsByIdAndProfessorGoogleId(turmaId, googleId)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Turma não encontrada.");
+            return;
+        }
+        try (Writer destino = abrirResposta(response, "praticas-turma-" + turmaId, formato, gzip)) {
+            exportacaoService.exportarPraticas(googleId, turmaId, inicio, fim, formato, destino);
+        }
+    }
+
+    /**
+     * Exporta os registros emocionais das turmas do professor (ou de uma delas), com os mesmos
+     * filtros do dashboard.
+     */
+    @GetMapping("/registros")
+    public void exportarRegistros(
+            @RequestParam(required = false) Long turmaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) TipoAvaliacao tipo,
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            OAuth2AuthenticationToken authentication,
+            HttpServletResponse response
+    ) throws IOException {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        if (turmaId != null && !turmaRepository.existsByIdAndProfessorGoogleId(turmaId, googleId)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Turma não encontrada.");
+            return;
+        }
+        String nome = turmaId != null ? "registros-turma-" + turmaId : "registros";
+        try (Writer destino = abrirResposta(response, nome, formato, gzip)) {
+            exportacaoService.exportarRegistros(googleId, new FiltroDashboard(turmaId, de, ate, tipo), formato, destino);
+        }
+    }
+
+    // Define os cabeçalhos do download e devolve um Writer (com buffer e, se pedido, gzip) sobre a resposta.
+    private static Writer abrirResposta(HttpServletResponse response, String nome, FormatoExportacao formato,
+                                        boolean gzip) throws IOException {
+        String arquivo = nome + '.' + formato.getExtensao() + (gzip ? ".gz" : "");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"");
+        OutputStream saida = response.getOutputStream();
+        if (gzip) {
+            response.setContentType("application/gzip");
+            saida = new GZIPOutputStream(saida, TAMANHO_BUFFER);
+        } else {
+            response.setContentType(formato.getTipoConteudo() + ";charset=UTF-8");
+        }
+        return new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+}
@@ -0,0 +1,67 @@
+// Define o pacote para as classes de controlador.
+package com.vibecheck.VibeCheck_Backend.controllers;
+
+// Importações necessárias.
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.services.FeedEventosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * @RestController: Define esta classe como um controlador de API REST.
+ * @RequestMapping("/api/feed"): Feed ao vivo (Server-Sent Events) das turmas do professor.
+ * @PreAuthorize("hasRole('PROFESSOR')"): Vale para todos os métodos do controller.
+ *
+ * No navegador: new EventSource("/api/feed/turma/3?codigoId=42"), ouvindo os eventos
+ * REGISTRO, PRATICA_ABERTA, PRATICA_FECHADA e PERDIDOS (ver FeedEventosService).
+ */
+@RestController
+@RequestMapping("/api/feed")
+@PreAuthorize("hasRole('PROFESSOR')")
+public class FeedController {
+
+    private final FeedEventosService feedEventos;
+    private final TurmaRepository turmaRepository;
+
+    @Autowired
+    public FeedController(FeedEventosService feedEventos, TurmaRepository turmaRepository) {
+        this.feedEventos = feedEventos;
+        this.turmaRepository = turmaRepository;
+    }
+
+    /**
+     * Acompanha ao vivo os registros e as práticas de uma turma do professor.
+     * @param codigoId Opcional: só os eventos de um código de avaliação (ex: o check-in em andamento).
+     * @param ultimoEventoId Enviado pelo navegador ao reconectar; os eventos perdidos são reenviados.
+     * @return O fluxo de eventos; 404 se a turma não for do professor; 503 se a instância
+     * já atingiu o limite de conexões do feed.
+     */
+    @GetMapping(path = "/turma/{turmaId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharTurma(
+            @PathVariable Long turmaId,
+            @RequestParam(required = false) Long codigoId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId,
+            OAuth2AuthenticationToken authentication
+    ) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        if (!turmaRepository.existsByIdAndProfessorGoogleId(turmaId, googleId)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            SseEmitter emitter = feedEventos.assinar(turmaId, codigoId, ultimoEventoId);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .header("X-Accel-Buffering", "no") // Evita que um proxy (nginx) segure os eventos em buffer.
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
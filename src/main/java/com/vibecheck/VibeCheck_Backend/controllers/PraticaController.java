@@ -2,19 +2,27 @@
 package com.vibecheck.VibeCheck_Backend.controllers;
 
 // Importações necessárias.
+import com.vibecheck.VibeCheck_Backend.dtos.DuracoesPraticaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.*;
 import com.vibecheck.VibeCheck_Backend.repositories.AlunoRepository;
 import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.services.DuracaoPraticaService;
 import com.vibecheck.VibeCheck_Backend.services.PraticaService;
+import com.vibecheck.VibeCheck_Backend.services.VersaoDados;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.Direcao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +30,10 @@ import java.util.Optional;
 /**
  * @RestController: Define esta classe como um controlador de API REST.
  * @RequestMapping("/api/praticas"): Todos os endpoints aqui serão prefixados com "/api/praticas".
+ *
+ * As listagens são paginadas por cursor (ver PraticaListagemContext.executarEstrategiaPaginada):
+ * ?tamanho=50 (padrão, máximo 200), &direcao=MAIS_RECENTES|MAIS_ANTIGAS e, para a próxima página,
+ * &cursor= com o proximoCursor da resposta.
  */
 @RestController
 @RequestMapping("/api/praticas")
@@ -31,6 +43,8 @@ public class PraticaController {
     private final PraticaService praticaService;
     private final AlunoRepository alunoRepository;
     private final TurmaRepository turmaRepository;
+    private final VersaoDados versaoDados;
+    private final DuracaoPraticaService duracaoPraticaService;
 
     /**
      * Injeção de dependência via construtor (prática recomendada).
@@ -38,27 +52,44 @@ public class PraticaController {
      * @param praticaService Serviço para operações com práticas.
      * @param alunoRepository Repositório para operações com alunos.
      * @param turmaRepository Repositório para operações com turmas.
+     * @param versaoDados Versões das turmas, para as ETags das listagens consultadas periodicamente.
+     * @param duracaoPraticaService Histogramas de duração das práticas, para os percentis por turma e aluno.
      */
     @Autowired
     public PraticaController(PraticaService praticaService, 
                            AlunoRepository alunoRepository, 
-                           TurmaRepository turmaRepository) {
+                           TurmaRepository turmaRepository,
+                           VersaoDados versaoDados,
+                           DuracaoPraticaService duracaoPraticaService) {
         this.praticaService = praticaService;
         this.alunoRepository = alunoRepository;
         this.turmaRepository = turmaRepository;
+        this.versaoDados = versaoDados;
+        this.duracaoPraticaService = duracaoPraticaService;
     }
 
     /**
-     * Endpoint para listar todas as práticas (apenas para professores).
+     * Endpoint para listar as práticas de todas as turmas do professor autenticado.
      * @GetMapping: Mapeia para requisições HTTP GET.
      * @PreAuthorize: Garante que apenas usuários com a role 'PROFESSOR' possam acessar.
-     * @return Lista de práticas resumidas.
+     * @param cursor Cursor da página anterior (opcional).
+     * @param tamanho Itens por página.
+     * @param direcao Sentido da ordenação pelo início da prática.
+     * @param authentication Token de autenticação do professor.
+     * @return Uma página de práticas resumidas.
      */
     @GetMapping
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<List<PraticaResumoDTO>> listarTodas() {
-        List<PraticaResumoDTO> dtos = praticaService.listarTodasPraticas();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> listarTodas(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int tamanho,
+                                         @RequestParam(defaultValue = "MAIS_RECENTES") Direcao direcao,
+                                         OAuth2AuthenticationToken authentication) {
+        try {
+            return ResponseEntity.ok(praticaService.listarPaginaDeTodasPraticas(authentication, cursor, tamanho, direcao));
+        } catch (IllegalArgumentException e) {
+            // Cursor malformado ou tamanho de página inválido.
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -78,21 +109,60 @@ public class PraticaController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Endpoint para buscar várias práticas de uma vez, com uma única consulta ao banco.
+     * Ex: GET /api/praticas/lote?ids=12,15,40
+     * @PreAuthorize: Garante que usuários autenticados possam acessar; cada um só recebe as práticas
+     * que pode ver (professor: das suas turmas; aluno: as suas).
+     * @param ids IDs das práticas (até vibecheck.praticas.lote.maximo, padrão 100).
+     * @param authentication Token de autenticação para identificar o usuário.
+     * @return As práticas na ordem pedida; IDs inexistentes ou não autorizados ficam de fora.
+     */
+    @GetMapping("/lote")
+    @PreAuthorize("hasAnyRole('ALUNO', 'PROFESSOR')")
+    public ResponseEntity<?> buscarLote(@RequestParam List<Long> ids, OAuth2AuthenticationToken authentication) {
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        try {
+            List<PraticaDTO> dtos = praticaService.buscarLote(ids, googleId);
+            return ResponseEntity.ok(dtos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Endpoint para listar práticas de uma turma específica.
      * @GetMapping: Mapeia para requisições HTTP GET.
      * @PreAuthorize: Garante que apenas professores possam acessar.
      * @param turmaId ID da turma.
-     * @return Lista de práticas da turma.
+     * @param cursor Cursor da página anterior (opcional).
+     * @param tamanho Itens por página.
+     * @param direcao Sentido da ordenação pelo início da prática.
+     * @param webRequest Requisição, para o If-None-Match.
+     * @return Uma página de práticas da turma, com ETag; 304 Not Modified, sem consultar o banco,
+     * se a turma não mudou desde a ETag enviada.
      */
     @GetMapping("/turma/{turmaId}")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<List<PraticaResumoDTO>> listarPorTurma(@PathVariable Long turmaId) {
+    public ResponseEntity<?> listarPorTurma(@PathVariable Long turmaId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int tamanho,
+                                            @RequestParam(defaultValue = "MAIS_RECENTES") Direcao direcao,
+                                            WebRequest webRequest) {
+        String etag = versaoDados.etag("praticas-turma", versaoDados.versaoTurma(turmaId), turmaId,
+                cursor, tamanho, direcao);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified.
+        }
         turmaRepository.findById(turmaId)
                 .orElseThrow(() -> new RuntimeException("Turma não encontrada."));
         
-        List<PraticaResumoDTO> dtos = praticaService.listarPraticasPorTurma(turmaId);
-        return ResponseEntity.ok(dtos);
+        try {
+            PaginaDTO<PraticaResumoDTO> pagina = praticaService.listarPaginaPorTurma(turmaId, cursor, tamanho, direcao);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -100,34 +170,60 @@ public class PraticaController {
      * @GetMapping: Mapeia para requisições HTTP GET.
      * @PreAuthorize: Garante que apenas professores possam acessar.
      * @param turmaId ID da turma.
-     * @return Lista de práticas abertas da turma.
+     * @param cursor Cursor da página anterior (opcional).
+     * @param tamanho Itens por página.
+     * @param direcao Sentido da ordenação pelo início da prática.
+     * @param webRequest Requisição, para o If-None-Match.
+     * @return Uma página de práticas abertas da turma, com ETag (ver listarPorTurma).
      */
     @GetMapping("/turma/{turmaId}/abertas")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<List<PraticaResumoDTO>> listarAbertasPorTurma(@PathVariable Long turmaId) {
+    public ResponseEntity<?> listarAbertasPorTurma(@PathVariable Long turmaId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "50") int tamanho,
+                                                   @RequestParam(defaultValue = "MAIS_RECENTES") Direcao direcao,
+                                                   WebRequest webRequest) {
+        String etag = versaoDados.etag("praticas-turma-abertas", versaoDados.versaoTurma(turmaId), turmaId,
+                cursor, tamanho, direcao);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified.
+        }
         Turma turma = turmaRepository.findById(turmaId)
                 .orElseThrow(() -> new RuntimeException("Turma não encontrada."));
         
-        List<PraticaResumoDTO> dtos = praticaService.listarPraticasAbertasPorTurma(turmaId, turma);
-        return ResponseEntity.ok(dtos);
+        try {
+            PaginaDTO<PraticaResumoDTO> pagina = praticaService.listarPaginaAbertasPorTurma(turmaId, turma, cursor, tamanho, direcao);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
      * Endpoint para listar práticas abertas do aluno autenticado.
      * @GetMapping: Mapeia para requisições HTTP GET.
      * @PreAuthorize: Garante que apenas alunos possam acessar.
+     * @param cursor Cursor da página anterior (opcional).
+     * @param tamanho Itens por página.
+     * @param direcao Sentido da ordenação pelo início da prática.
      * @param authentication Token de autenticação para identificar o aluno.
-     * @return Lista de práticas abertas do aluno.
+     * @return Uma página de práticas abertas do aluno.
      */
     @GetMapping("/minhas/abertas")
     @PreAuthorize("hasRole('ALUNO')")
-    public ResponseEntity<List<PraticaResumoDTO>> listarMinhasAbertas(OAuth2AuthenticationToken authentication) {
+    public ResponseEntity<?> listarMinhasAbertas(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int tamanho,
+                                                 @RequestParam(defaultValue = "MAIS_RECENTES") Direcao direcao,
+                                                 OAuth2AuthenticationToken authentication) {
         String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
         Aluno aluno = alunoRepository.findByGoogleId(googleId)
                 .orElseThrow(() -> new RuntimeException("Aluno não encontrado."));
         
-        List<PraticaResumoDTO> dtos = praticaService.listarMinhasPraticasAbertas(aluno, authentication);
-        return ResponseEntity.ok(dtos);
+        try {
+            return ResponseEntity.ok(praticaService.listarPaginaMinhasAbertas(aluno, authentication, cursor, tamanho, direcao));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -163,19 +259,60 @@ public class PraticaController {
      * @param turmaId ID da turma.
      * @param inicio Data de início do período (formato: yyyy-MM-ddTHH:mm:ss).
      * @param fim Data de fim do período (formato: yyyy-MM-ddTHH:mm:ss).
-     * @return Lista de práticas da turma no período.
+     * @param cursor Cursor da página anterior (opcional).
+     * @param tamanho Itens por página.
+     * @param direcao Sentido da ordenação pelo início da prática.
+     * @return Uma página de práticas da turma no período.
      */
     @GetMapping("/turma/{turmaId}/periodo")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<List<PraticaResumoDTO>> listarPorTurmaEPeriodo(
+    public ResponseEntity<?> listarPorTurmaEPeriodo(
             @PathVariable Long turmaId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho,
+            @RequestParam(defaultValue = "MAIS_RECENTES") Direcao direcao) {
         
         Turma turma = turmaRepository.findById(turmaId)
                 .orElseThrow(() -> new RuntimeException("Turma não encontrada."));
         
-        List<PraticaResumoDTO> dtos = praticaService.listarPraticasPorTurmaEPeriodo(turmaId, turma, inicio, fim);
-        return ResponseEntity.ok(dtos);
+        try {
+            return ResponseEntity.ok(praticaService.listarPaginaPorTurmaEPeriodo(turmaId, turma, inicio, fim,
+                    cursor, tamanho, direcao));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint dos percentis (p50, p90, p99) da duração das práticas de uma turma, no total e por aluno.
+     * Calculado somando os histogramas diários de duração (ver DuracaoPraticaService), sem ler as práticas.
+     * @GetMapping: Mapeia para requisições HTTP GET.
+     * @PreAuthorize: Garante que apenas professores possam acessar.
+     * @param turmaId ID da turma.
+     * @param de Primeiro dia (dia de início da prática); padrão: 30 dias antes de 'ate'.
+     * @param ate Último dia, inclusivo; padrão: hoje.
+     * @param alunoId Restringe a um aluno (opcional).
+     * @return Percentis da turma e de cada aluno; 404 se a turma não for do professor.
+     */
+    @GetMapping("/turma/{turmaId}/duracoes")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<?> percentisDeDuracao(
+            @PathVariable Long turmaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Long alunoId,
+            OAuth2AuthenticationToken authentication) {
+
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(29);
+        try {
+            Optional<DuracoesPraticaDTO> duracoes = duracaoPraticaService.consultar(googleId, turmaId, inicio, fim, alunoId);
+            return duracoes.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
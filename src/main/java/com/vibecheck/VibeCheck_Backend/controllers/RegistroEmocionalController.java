@@ -1,9 +1,13 @@
 package com.vibecheck.VibeCheck_Backend.controllers;
 
 // Importações de DTOs, Models e Services.
+import com.vibecheck.VibeCheck_Backend.config.LimiteAdmissao;
+import com.vibecheck.VibeCheck_Backend.dtos.RegistroAceitoDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.RegistroEmocionalDTO;
-import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
+import com.vibecheck.VibeCheck_Backend.dtos.SubmissaoRegistro;
+import com.vibecheck.VibeCheck_Backend.services.IdempotenciaService;
 import com.vibecheck.VibeCheck_Backend.services.RegistroEmocionalService;
+import com.vibecheck.VibeCheck_Backend.services.RegistroIngestaoService;
 
 // Importações do Spring Framework e Spring Security.
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,7 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.web.bind.annotation.*;
 
 import com.vibecheck.VibeCheck_Backend.dtos.DashboardRegistroDTO; // Esta importação não está sendo usada no arquivo.
+import java.time.LocalDateTime;
 import java.util.List; // Esta importação não está sendo usada no arquivo.
 
 /**
@@ -25,14 +30,22 @@ public class RegistroEmocionalController {
 
     // A camada de serviço que contém a lógica de negócio para os registros.
     private final RegistroEmocionalService registroService;
+    // O estágio de ingestão que fica na frente do serviço de registro (group commit).
+    private final RegistroIngestaoService registroIngestaoService;
+    // Deduplica reenvios do cliente que trazem o cabeçalho Idempotency-Key.
+    private final IdempotenciaService idempotenciaService;
 
     /**
      * Injeção de dependência via construtor (prática recomendada).
      * Garante que o controller tenha uma instância do serviço para funcionar.
      */
     @Autowired
-    public RegistroEmocionalController(RegistroEmocionalService registroService) {
+    public RegistroEmocionalController(RegistroEmocionalService registroService,
+                                       RegistroIngestaoService registroIngestaoService,
+                                       IdempotenciaService idempotenciaService) {
         this.registroService = registroService;
+        this.registroIngestaoService = registroIngestaoService;
+        this.idempotenciaService = idempotenciaService;
     }
 
     /**
@@ -42,9 +55,11 @@ public class RegistroEmocionalController {
      * @param codigo O código a ser verificado, recebido como um parâmetro na URL
      * (ex: /api/registro/verificar-codigo?codigo=XYZ123).
      * @return ResponseEntity contendo 'true' se o código for válido, ou 'false' caso contrário.
+     * HTTP 429 se o aluno ou o código excederem o limite de requisições (@LimiteAdmissao).
      */
     @GetMapping("/verificar-codigo")
     @PreAuthorize("hasRole('ALUNO')")
+    @LimiteAdmissao(value = "verificar-codigo", alunoPorSegundo = 1, alunoRajada = 10, codigoPorSegundo = 20, codigoRajada = 100)
     public ResponseEntity<Boolean> verificarCodigo(@RequestParam String codigo) {
         boolean valido = registroService.verificarCodigoValido(codigo);
         return ResponseEntity.ok(valido);
@@ -55,33 +70,49 @@ public class RegistroEmocionalController {
      * @PostMapping: Mapeia para requisições HTTP POST, pois está criando um novo recurso (um registro).
      * @param codigo O código que o aluno está usando.
      * @param emocao O valor numérico da emoção que está sendo registrada.
+     * @param chaveIdempotencia Opcional (cabeçalho Idempotency-Key). Reenvios com a mesma chave recebem
+     * a resposta original, sem criar outro registro nem mexer de novo na prática.
      * @param authentication O token de autenticação para identificar o aluno.
-     * @return Um DTO com os detalhes do registro que acabou de ser criado.
+     * @return Um DTO com os detalhes do registro que acabou de ser criado; no modo assíncrono,
+     * HTTP 202 (Accepted) com a chave da submissão aceita, que será gravada em segundo plano.
+     * HTTP 429 se o aluno ou o código excederem o limite de requisições (@LimiteAdmissao).
      */
     @PostMapping("/registrar")
     @PreAuthorize("hasRole('ALUNO')")
-    public ResponseEntity<RegistroEmocionalDTO> registrar(
+    @LimiteAdmissao(value = "registrar", alunoPorSegundo = 0.5, alunoRajada = 5, codigoPorSegundo = 20, codigoRajada = 200)
+    public ResponseEntity<?> registrar(
             @RequestParam String codigo,
             @RequestParam int emocao,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
             OAuth2AuthenticationToken authentication) {
 
         // Identifica o aluno de forma segura através do ID do Google no token.
         String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
 
-        // Delega a lógica de negócio (validar, encontrar aluno, salvar registro) para o Service.
-        RegistroEmocional registro = registroService.registrarEmocao(googleId, codigo, emocao);
+        // Delega a lógica de negócio (validar, encontrar aluno, salvar registro) para o estágio de ingestão,
+        // que agrupa as submissões concorrentes em lote. O instante registrado é o da chegada da requisição.
+        // O DTO (Data Transfer Object) devolvido evita expor o modelo completo do banco de dados e monta
+        // um objeto com as informações exatas que a interface do usuário precisa.
+        SubmissaoRegistro submissao = new SubmissaoRegistro(googleId, codigo, emocao, LocalDateTime.now());
+        if (chaveIdempotencia == null || chaveIdempotencia.isBlank()) {
+            return registrar(submissao);
+        }
+        if (chaveIdempotencia.length() > IdempotenciaService.TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest().body("Idempotency-Key muito longa.");
+        }
 
-        // Cria um DTO (Data Transfer Object) para enviar uma resposta limpa para o frontend.
-        // Isso evita expor o modelo completo do banco de dados e monta um objeto com as
-        // informações exatas que a interface do usuário precisa.
-        RegistroEmocionalDTO dto = new RegistroEmocionalDTO(
-                registro.getId(),
-                registro.getEmocao(),
-                registro.getCodigoAvaliacaoUsado().getTipo().name(), // Ex: "CHECKIN" ou "CHECKOUT"
-                registro.getCodigoAvaliacaoUsado().getDataCriacao().toString(),
-                registro.getCodigoAvaliacaoUsado().getProfessor().getNome(),
-                registro.getCodigoAvaliacaoUsado().getTurma().getNome()
-        );
+        // A chave é restrita ao aluno: a mesma chave enviada por outro aluno é outra submissão.
+        String chave = IdempotenciaService.chaveDoUsuario(googleId, chaveIdempotencia);
+        return idempotenciaService.executar(chave, () -> registrar(submissao.comChaveIdempotencia(chave)));
+    }
+
+    // Encaminha a submissão conforme o modo de registro configurado.
+    private ResponseEntity<?> registrar(SubmissaoRegistro submissao) {
+        if (registroIngestaoService.isAssincrono()) {
+            RegistroAceitoDTO aceito = registroIngestaoService.aceitar(submissao);
+            return ResponseEntity.accepted().body(aceito);
+        }
+        RegistroEmocionalDTO dto = registroIngestaoService.registrar(submissao);
 
         // Retorna o DTO com um status HTTP 200 (OK).
         return ResponseEntity.ok(dto);
@@ -0,0 +1,43 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+// Importações do Lombok.
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de uma varredura analítica sobre os registros emocionais das turmas do professor.
+ *
+ * @Getter: Anotação do Lombok que gera os métodos getters para todos os campos.
+ * @AllArgsConstructor: Anotação do Lombok que gera um construtor com todos os campos como argumentos.
+ */
+@Getter
+@AllArgsConstructor
+public class AnaliticoDTO {
+
+    private LocalDate de;
+    private LocalDate ate;                 // Inclusivo.
+    private String tipo;                   // "CHECKIN", "CHECKOUT" ou null (ambos).
+    private long quantidade;               // Registros no período.
+    private Double media;                  // Null se não houver registros.
+    private List<Dia> dias;                // Só os dias com registros, em ordem crescente.
+    private Map<Integer, Long> histograma; // Emoção -> quantidade de registros, em ordem crescente de emoção.
+    private long linhasLidas;              // Linhas examinadas pela varredura.
+    private double duracaoMs;              // Tempo da varredura.
+
+    /**
+     * Totais de um dia.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Dia {
+        private LocalDate dia;
+        private long quantidade;
+        private long soma;
+        private double media;
+    }
+}
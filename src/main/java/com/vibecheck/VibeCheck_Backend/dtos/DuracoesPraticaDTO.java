@@ -0,0 +1,46 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+// Importações do Lombok.
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentis da duração das práticas de uma turma em um período, no total e por aluno
+ * (ver DuracaoPraticaService). Os valores têm erro relativo de até 5%.
+ *
+ * @Getter: Anotação do Lombok que gera os métodos getters para todos os campos.
+ * @AllArgsConstructor: Anotação do Lombok que gera um construtor com todos os campos como argumentos.
+ */
+@Getter
+@AllArgsConstructor
+public class DuracoesPraticaDTO {
+
+    private Long turmaId;
+    private LocalDate de;
+    private LocalDate ate;         // Inclusivo (dia de início da prática).
+    private Percentis turma;       // Todas as práticas da turma (ou só as do aluno pedido).
+    private List<Percentis> alunos; // Um item por aluno com práticas no período.
+
+    /**
+     * Percentis de um conjunto de práticas fechadas.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Percentis {
+        private Long alunoId;                  // null no total da turma.
+        private String aluno;
+        private long quantidade;
+        private Long p50Segundos;              // null sem práticas.
+        private Long p90Segundos;
+        private Long p99Segundos;
+        private String p50Formatada;           // "HH:MM:SS".
+        private String p90Formatada;
+        private String p99Formatada;
+        private Map<Long, Long> histograma;    // Maior duração da faixa, em segundos -> quantidade de práticas.
+    }
+}
@@ -0,0 +1,35 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento do feed ao vivo de uma turma (ver FeedEventosService), enviado por Server-Sent Events
+ * com o nome do tipo (event: REGISTRO | PRATICA_ABERTA | PRATICA_FECHADA).
+ *
+ * @param tipo        Tipo do evento.
+ * @param turmaId     Turma.
+ * @param codigoId    Código de avaliação usado; null em práticas fechadas automaticamente.
+ * @param alunoId     Aluno.
+ * @param nomeAluno   Nome do aluno; null em práticas fechadas automaticamente.
+ * @param registroId  Registro emocional que gerou o evento (null no fechamento automático).
+ * @param praticaId   Prática aberta/fechada (null em eventos REGISTRO).
+ * @param tipoCodigo  "CHECKIN" ou "CHECKOUT" (eventos REGISTRO).
+ * @param emocao      Emoção registrada (null no fechamento automático).
+ * @param instante    Momento do registro ou do fechamento.
+ */
+public record EventoFeedDTO(Tipo tipo,
+                            Long turmaId,
+                            Long codigoId,
+                            Long alunoId,
+                            String nomeAluno,
+                            Long registroId,
+                            Long praticaId,
+                            String tipoCodigo,
+                            Integer emocao,
+                            LocalDateTime instante) {
+
+    public enum Tipo {
+        REGISTRO, PRATICA_ABERTA, PRATICA_FECHADA
+    }
+}
@@ -0,0 +1,17 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais da consulta do dashboard. Campos nulos não filtram.
+ *
+ * @param turmaId Restringe a uma turma (sempre dentro das turmas do professor).
+ * @param de      Instante inicial, inclusivo.
+ * @param ate     Instante final, exclusivo.
+ * @param tipo    CHECKIN ou CHECKOUT.
+ */
+public record FiltroDashboard(Long turmaId, LocalDateTime de, LocalDateTime ate, TipoAvaliacao tipo) {
+}
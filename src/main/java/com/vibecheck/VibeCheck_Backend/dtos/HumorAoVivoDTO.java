@@ -0,0 +1,43 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+// Importações do Lombok.
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * "Humor atual" de uma turma: agregados em memória do check-in mais recente e do check-out
+ * aberto depois dele (ver HumorAoVivoService), e a variação da média entre os dois.
+ *
+ * @Getter: Anotação do Lombok que gera os métodos getters para todos os campos.
+ * @AllArgsConstructor: Anotação do Lombok que gera um construtor com todos os campos como argumentos.
+ */
+@Getter
+@AllArgsConstructor
+public class HumorAoVivoDTO {
+
+    private Long turmaId;
+    private Agregado checkin;  // null se nenhum check-in foi liberado recentemente.
+    private Agregado checkout; // null se ainda não houve check-out depois do check-in.
+    private Double deltaMedia; // Média do check-out menos a do check-in; null se algum dos dois não tem registros.
+
+    /**
+     * Agregado dos registros de um código.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Agregado {
+        private Long codigoId;
+        private String codigo;
+        private String tipo;                   // "CHECKIN" ou "CHECKOUT".
+        private LocalDateTime dataExpiracao;
+        private boolean ativo;                 // false depois da expiração (os números ficam congelados).
+        private long quantidade;
+        private long soma;
+        private Double media;                  // null sem registros.
+        private Map<Integer, Long> histograma; // Emoção -> quantidade, em ordem crescente de emoção.
+    }
+}
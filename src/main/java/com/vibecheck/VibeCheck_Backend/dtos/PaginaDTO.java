@@ -0,0 +1,20 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados com paginação por cursor.
+ *
+ * @Data e @AllArgsConstructor: Anotações Lombok (getters, setters, toString, equals/hashCode e construtor).
+ */
+@Data
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> itens;        // Os itens desta página.
+    private String proximoCursor; // Cursor para pedir a próxima página; null se esta for a última.
+}
@@ -0,0 +1,34 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+// Importações do Lombok.
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Visão geral da tela inicial do professor, em uma única resposta (ver PainelProfessorService):
+ * as turmas, as práticas abertas de cada uma e a primeira página do dashboard.
+ *
+ * @Getter: Anotação do Lombok que gera os métodos getters para todos os campos.
+ * @AllArgsConstructor: Anotação do Lombok que gera um construtor com todos os campos como argumentos.
+ */
+@Getter
+@AllArgsConstructor
+public class PainelProfessorDTO {
+
+    private List<TurmaPainel> turmas;                     // Em ordem de ID.
+    private PaginaDTO<DashboardRegistroDTO> dashboard;    // Registros mais recentes de todas as turmas.
+
+    /**
+     * Uma turma do professor com as suas práticas abertas.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TurmaPainel {
+        private Long id;
+        private String nome;
+        private PaginaDTO<PraticaResumoDTO> praticasAbertas; // Mais recentes primeiro; o cursor continua em /api/praticas/turma/{id}/abertas.
+    }
+}
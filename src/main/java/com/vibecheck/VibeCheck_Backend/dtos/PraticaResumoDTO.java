@@ -39,6 +39,26 @@ public class PraticaResumoDTO {
     private Integer emocaoInicial;
     private Integer emocaoFinal;
     
+    /**
+     * Construtor usado pelas consultas de projeção (SELECT new ...) do PraticaRepository:
+     * recebe só as colunas necessárias, lidas em um único SELECT com os JOINs de aluno, turma e professor.
+     * O status e a duração formatada são calculados aqui.
+     */
+    public PraticaResumoDTO(Long id, String nomeAluno, String nomeTurma, String nomeProfessor,
+                            LocalDateTime inicio, LocalDateTime fim, Long duracaoSegundos,
+                            Integer emocaoInicial, Integer emocaoFinal) {
+        this.id = id;
+        this.status = fim == null ? "ABERTA" : "FECHADA";
+        this.nomeAluno = nomeAluno;
+        this.nomeTurma = nomeTurma;
+        this.nomeProfessor = nomeProfessor != null ? nomeProfessor : "N/A";
+        this.inicio = inicio;
+        this.fim = fim;
+        this.duracaoFormatada = com.vibecheck.VibeCheck_Backend.models.Pratica.formatarDuracao(duracaoSegundos);
+        this.emocaoInicial = emocaoInicial;
+        this.emocaoFinal = emocaoFinal;
+    }
+
     /**
      * Construtor para criar DTO a partir de uma entidade Pratica.
      * 
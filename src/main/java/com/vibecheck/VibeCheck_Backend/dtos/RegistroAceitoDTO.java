@@ -0,0 +1,21 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resposta do registro no modo assíncrono (HTTP 202): a submissão foi gravada no log local
+ * e será aplicada ao banco em segundo plano.
+ *
+ * @Data e @AllArgsConstructor: Anotações Lombok (getters, setters, toString, equals/hashCode e construtor).
+ */
+@Data
+@AllArgsConstructor
+public class RegistroAceitoDTO {
+
+    private String chaveIdempotencia; // Identifica a submissão; reenviar com a mesma chave não duplica o registro.
+    private int emocao;               // A emoção que o aluno registrou.
+    private String tipoCodigo;        // O tipo de código usado: "CHECKIN" ou "CHECKOUT".
+    private String timestamp;         // O momento em que a submissão foi aceita.
+}
@@ -1,7 +1,8 @@
 // Define o pacote onde a classe DTO está localizada.
 package com.vibecheck.VibeCheck_Backend.dtos;
 
-// Importações do Lombok.
+// Importações do modelo e do Lombok.
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -28,4 +29,19 @@ public class RegistroEmocionalDTO {
     private String dataCriacao;   // A data de criação do código de avaliação usado.
     private String nomeProfessor; // O nome do professor da turma.
     private String nomeTurma;     // O nome da turma.
+
+    /**
+     * Construtor de mapeamento a partir da entidade. Espera que o código usado já tenha
+     * professor e turma carregados, para não disparar consultas LAZY.
+     *
+     * @param registro O registro emocional recém-criado.
+     */
+    public RegistroEmocionalDTO(RegistroEmocional registro) {
+        this.id = registro.getId();
+        this.emocao = registro.getEmocao();
+        this.tipoCodigo = registro.getCodigoAvaliacaoUsado().getTipo().name(); // Ex: "CHECKIN" ou "CHECKOUT"
+        this.dataCriacao = registro.getCodigoAvaliacaoUsado().getDataCriacao().toString();
+        this.nomeProfessor = registro.getCodigoAvaliacaoUsado().getProfessor().getNome();
+        this.nomeTurma = registro.getCodigoAvaliacaoUsado().getTurma().getNome();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+// Importações do Lombok.
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Resumo de um dia de uma turma para um tipo de submissão (CHECKIN ou CHECKOUT).
+ *
+ * @Getter: Anotação do Lombok que gera os métodos getters para todos os campos.
+ * @AllArgsConstructor: Anotação do Lombok que gera um construtor com todos os campos como argumentos.
+ */
+@Getter
+@AllArgsConstructor
+public class ResumoDiarioDTO {
+
+    private Long turmaId;
+    private String turma;                  // O nome da turma.
+    private LocalDate dia;
+    private String tipo;                   // "CHECKIN" ou "CHECKOUT".
+    private long quantidade;               // Quantos registros no dia.
+    private long soma;                     // Soma das emoções (média = soma / quantidade).
+    private double media;
+    private Map<Integer, Long> histograma; // Emoção -> quantidade de registros, em ordem crescente de emoção.
+}
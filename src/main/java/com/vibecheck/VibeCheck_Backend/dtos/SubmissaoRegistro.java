@@ -0,0 +1,37 @@
+// Define o pacote onde a classe DTO está localizada.
+package com.vibecheck.VibeCheck_Backend.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa uma submissão de emoção feita por um aluno, ainda não persistida.
+ * É o item que circula pelo estágio de ingestão (RegistroIngestaoService) até o RegistroEmocionalService.
+ *
+ * @param googleId          ID do Google do aluno (extraído do token, nunca do corpo da requisição).
+ * @param codigo            Código de avaliação digitado.
+ * @param emocao            Valor da emoção registrada.
+ * @param timestamp         Momento em que a submissão chegou ao servidor.
+ * @param chaveIdempotencia Chave que identifica a submissão; se o mesmo valor chegar de novo, nada é regravado.
+ *                          Pode ser null (sem deduplicação).
+ * @param codigoAvaliacaoId Id do código de avaliação, quando já validado na admissão (modo assíncrono).
+ *                          Nesse caso o código não é revalidado ao aplicar, pois pode ter expirado nesse meio tempo.
+ */
+public record SubmissaoRegistro(String googleId,
+                                String codigo,
+                                int emocao,
+                                LocalDateTime timestamp,
+                                String chaveIdempotencia,
+                                Long codigoAvaliacaoId) {
+
+    public SubmissaoRegistro(String googleId, String codigo, int emocao, LocalDateTime timestamp) {
+        this(googleId, codigo, emocao, timestamp, null, null);
+    }
+
+    public SubmissaoRegistro comChaveIdempotencia(String chave) {
+        return new SubmissaoRegistro(googleId, codigo, emocao, timestamp, chave, codigoAvaliacaoId);
+    }
+
+    public SubmissaoRegistro comCodigoValidado(Long id) {
+        return new SubmissaoRegistro(googleId, codigo, emocao, timestamp, chaveIdempotencia, id);
+    }
+}
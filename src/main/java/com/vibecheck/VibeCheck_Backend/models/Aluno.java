@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 // Importações do Lombok para reduzir código repetitivo.
 import lombok.AllArgsConstructor;
@@ -36,12 +37,15 @@ public class Aluno {
 
     /**
      * @Id: Marca este campo como a chave primária (Primary Key) da tabela.
-     * @GeneratedValue(strategy = GenerationType.IDENTITY): Configura a estratégia de geração da chave primária.
-     * 'IDENTITY' delega a geração do ID para o próprio banco de dados (ex: usando colunas auto-incrementáveis
-     * como SERIAL ou BIGSERIAL no PostgreSQL). É a escolha ideal para a maioria dos casos com PostgreSQL/MySQL.
+     * @GeneratedValue(strategy = GenerationType.SEQUENCE): Configura a estratégia de geração da chave primária.
+     * 'SEQUENCE' busca os IDs de uma sequência do banco. Diferente de 'IDENTITY', o Hibernate conhece o ID
+     * antes do INSERT, o que permite agrupar vários INSERTs em um único lote JDBC (batching).
+     * @SequenceGenerator(allocationSize = ...): Quantos IDs são reservados a cada ida à sequência (otimizador
+     * "pooled-lo"). O valor efetivo segue o INCREMENT BY da sequência no banco (ver config/JpaConfig).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alunos_seq")
+    @SequenceGenerator(name = "alunos_seq", sequenceName = "alunos_seq", allocationSize = 10)
     private Long id;
 
     /**
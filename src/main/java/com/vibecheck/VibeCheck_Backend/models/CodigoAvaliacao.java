@@ -10,10 +10,19 @@ import java.time.LocalDateTime;
 /**
  * @Entity: Marca esta classe como uma entidade JPA, mapeando-a para uma tabela no banco de dados.
  * @Table(name = "codigos_avaliacao"): Especifica o nome da tabela no banco de dados.
+ * O índice em 'codigo' não é único: um código expirado pode ser reutilizado. A unicidade entre
+ * códigos ativos é garantida por um índice único parcial (ver db/migracoes/001_codigo_unico_entre_ativos.sql).
  * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok para código limpo.
  */
 @Entity
-@Table(name = "codigos_avaliacao")
+@Table(
+        name = "codigos_avaliacao",
+        indexes = {
+                @Index(name = "idx_codigos_avaliacao_codigo", columnList = "codigo"),
+                // Atende a busca da janela de check-out de cada turma no fechamento automático de práticas.
+                @Index(name = "idx_codigos_avaliacao_turma_tipo_criacao", columnList = "turma_id, tipo, data_criacao")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,11 +30,13 @@ import java.time.LocalDateTime;
 public class CodigoAvaliacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Chave primária auto-incrementada.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "codigos_avaliacao_seq")
+    @SequenceGenerator(name = "codigos_avaliacao_seq", sequenceName = "codigos_avaliacao_seq", allocationSize = 20)
+    private Long id; // Chave primária, gerada por sequência.
 
-    // A coluna 'codigo' deve ser única, não nula e ter um tamanho fixo de 6 caracteres.
-    @Column(nullable = false, unique = true, length = 6)
+    // A coluna 'codigo' não pode ser nula e tem um tamanho fixo de 6 caracteres.
+    // É única apenas entre os códigos ativos, para permitir a reutilização de códigos expirados.
+    @Column(nullable = false, length = 6)
     private String codigo;
 
     /**
@@ -0,0 +1,48 @@
+// Define o pacote para as classes de modelo.
+package com.vibecheck.VibeCheck_Backend.models;
+
+// Importações do Jakarta Persistence (JPA), Lombok, etc.
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Histograma das durações das práticas: quantas práticas de um aluno em uma turma, iniciadas em um dia,
+ * tiveram duração em cada faixa logarítmica (ver HistogramaLog). Cada linha é uma barra; os percentis
+ * de uma turma ou de um aluno em um período saem da soma das barras dos dias, sem ler praticas.
+ *
+ * É mantido na mesma transação que fecha a prática (ver DuracaoPraticaService).
+ *
+ * @Entity: Marca esta classe como uma entidade JPA (usada só para leitura; a escrita é por SQL nativo).
+ * @Table(name = "duracoes_diarias"): Define o nome da tabela no banco de dados.
+ * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok.
+ */
+@Entity
+@Table(name = "duracoes_diarias")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuracaoDiaria {
+
+    @EmbeddedId
+    private DuracaoDiariaId id; // Chave composta (turma, dia, aluno, faixa).
+
+    /**
+     * @MapsId: As colunas turma_id e aluno_id da chave são também as chaves estrangeiras.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("turmaId")
+    @JoinColumn(name = "turma_id", nullable = false)
+    private Turma turma;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("alunoId")
+    @JoinColumn(name = "aluno_id", nullable = false)
+    private Aluno aluno;
+
+    @Column(nullable = false)
+    private Long quantidade; // Quantas práticas tiveram duração nesta faixa.
+}
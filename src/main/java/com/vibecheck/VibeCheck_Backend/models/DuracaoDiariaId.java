@@ -0,0 +1,38 @@
+// Define o pacote para as classes de modelo.
+package com.vibecheck.VibeCheck_Backend.models;
+
+// Importações do Jakarta Persistence (JPA), Lombok, etc.
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Chave composta da DuracaoDiaria: turma, dia, aluno e faixa de duração.
+ *
+ * @Embeddable: A chave é gravada nas colunas da própria tabela duracoes_diarias.
+ * @EqualsAndHashCode: Obrigatório para chaves compostas (o Hibernate as usa como chave de mapa).
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DuracaoDiariaId implements Serializable {
+
+    @Column(name = "turma_id")
+    private Long turmaId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(name = "aluno_id")
+    private Long alunoId;
+
+    @Column(nullable = false)
+    private Integer faixa; // Faixa logarítmica da duração (ver HistogramaLog).
+}
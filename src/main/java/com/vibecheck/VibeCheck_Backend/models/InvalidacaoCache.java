@@ -0,0 +1,51 @@
+// Define o pacote para as classes de modelo.
+package com.vibecheck.VibeCheck_Backend.models;
+
+// Importações do Jakarta Persistence (JPA), Lombok, etc.
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensagem de invalidação de cache publicada por uma instância para as demais
+ * (ver config/TransporteInvalidacaoBanco). As linhas são apagadas depois do período de retenção.
+ *
+ * @Entity: Marca esta classe como uma entidade JPA.
+ * @Table(name = "invalidacoes_cache"): Define o nome da tabela no banco de dados.
+ * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok.
+ */
+@Entity
+@Table(
+        name = "invalidacoes_cache",
+        indexes = {
+                // Atende a leitura periódica das mensagens recentes e a limpeza das antigas.
+                @Index(name = "idx_invalidacoes_cache_criado_em", columnList = "criado_em")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidacaoCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invalidacoes_cache_seq")
+    @SequenceGenerator(name = "invalidacoes_cache_seq", sequenceName = "invalidacoes_cache_seq", allocationSize = 50)
+    private Long id; // Chave primária.
+
+    @Column(nullable = false, length = 64)
+    private String origem; // Instância que publicou (ela mesma ignora a própria mensagem).
+
+    @Column(nullable = false, length = 128)
+    private String regiao; // Nome da região de cache.
+
+    @Column(length = 512)
+    private String chave; // Chave invalidada; nula quando a região inteira foi limpa.
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -17,7 +17,13 @@ import java.time.LocalDateTime;
  * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok.
  */
 @Entity
-@Table(name = "praticas")
+@Table(
+        name = "praticas",
+        indexes = {
+                // Atende a busca de prática aberta por aluno/turma quando o PraticaAbertaIndex não a conhece.
+                @Index(name = "idx_praticas_aluno_turma_fim", columnList = "aluno_id, turma_id, fim")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +31,8 @@ import java.time.LocalDateTime;
 public class Pratica {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "praticas_seq")
+    @SequenceGenerator(name = "praticas_seq", sequenceName = "praticas_seq", allocationSize = 50)
     private Long id; // Chave primária.
 
     /**
@@ -98,15 +105,36 @@ public class Pratica {
         this.checkout = out;
         this.fim = out.getTimestamp();
         this.emocaoFinal = out.getEmocao();
-        this.duracaoSegundos = Duration.between(inicio, fim).getSeconds();
+        this.duracaoSegundos = duracaoEntre(inicio, fim);
     }
 
     /**
-     * Verifica se a prática está aberta (tem check-in mas não tem check-out).
+     * Método para fechar uma prática sem registro de check-out (fechamento automático).
+     * A emoção final, sem check-out, repete a inicial.
+     * @param fim O horário de fim atribuído à prática.
+     */
+    public void fecharSemCheckout(LocalDateTime fim) {
+        this.fim = fim;
+        this.emocaoFinal = emocaoInicial;
+        this.duracaoSegundos = duracaoEntre(inicio, fim);
+    }
+
+    /**
+     * Calcula a duração, em segundos, entre o início e o fim de uma prática.
+     * Centraliza a regra usada por fechar() e pelos fechamentos feitos diretamente via UPDATE.
+     */
+    public static long duracaoEntre(LocalDateTime inicio, LocalDateTime fim) {
+        return Duration.between(inicio, fim).getSeconds();
+    }
+
+    /**
+     * Verifica se a prática está aberta (ainda não tem horário de fim).
+     * Uma prática pode ser fechada sem registro de check-out (ex: fechamento automático),
+     * por isso o critério é o 'fim', e não o 'checkout'.
      * @return true se a prática está aberta, false caso contrário.
      */
     public boolean isAberta() {
-        return checkout == null;
+        return fim == null;
     }
 
     /**
@@ -114,6 +142,16 @@ public class Pratica {
      * @return String formatada da duração ou "Em andamento" se aberta.
      */
     public String getDuracaoFormatada() {
+        return formatarDuracao(duracaoSegundos);
+    }
+
+    /**
+     * Formata uma duração em segundos como horas:minutos:segundos.
+     * Usado também pelas consultas que leem só as colunas da prática, sem a entidade.
+     * @param duracaoSegundos A duração, ou null se a prática ainda está aberta.
+     * @return String formatada da duração ou "Em andamento" se null.
+     */
+    public static String formatarDuracao(Long duracaoSegundos) {
         if (duracaoSegundos == null) {
             return "Em andamento";
         }
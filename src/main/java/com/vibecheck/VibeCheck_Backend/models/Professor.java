@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -28,11 +29,12 @@ public class Professor {
 
     /**
      * @Id: Define este campo como a chave primária da tabela.
-     * @GeneratedValue(strategy = GenerationType.IDENTITY): Configura o banco de dados (ex: PostgreSQL)
-     * para gerar e gerenciar o valor do ID automaticamente.
+     * @GeneratedValue(strategy = GenerationType.SEQUENCE): Os IDs vêm de uma sequência do banco (ex: PostgreSQL),
+     * reservados em blocos pelo Hibernate, o que mantém o batching de INSERTs habilitado.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "professores_seq")
+    @SequenceGenerator(name = "professores_seq", sequenceName = "professores_seq", allocationSize = 10)
     private Long id;
 
     /**
@@ -16,7 +16,19 @@ import java.time.LocalDateTime;
  * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok.
  */
 @Entity
-@Table(name = "registros_emocionais")
+@Table(
+        name = "registros_emocionais",
+        uniqueConstraints = {
+                // Impede que a mesma submissão (reenvio do cliente ou reaplicação do log) seja gravada duas vezes.
+                @UniqueConstraint(name = "uk_registros_emocionais_chave_idempotencia", columnNames = "chave_idempotencia")
+        },
+        indexes = {
+                // Atende o dashboard por turma, do mais recente para o mais antigo, com paginação por (timestamp, id).
+                @Index(name = "idx_registros_emocionais_turma_timestamp", columnList = "turma_id, timestamp, id"),
+                // Atende a sincronização do armazenamento analítico (registros a partir de um instante, de todas as turmas).
+                @Index(name = "idx_registros_emocionais_timestamp", columnList = "timestamp, id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,7 +36,8 @@ import java.time.LocalDateTime;
 public class RegistroEmocional {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registros_emocionais_seq")
+    @SequenceGenerator(name = "registros_emocionais_seq", sequenceName = "registros_emocionais_seq", allocationSize = 50)
     private Long id; // Chave primária.
 
     @Column(nullable = false)
@@ -41,6 +54,9 @@ public class RegistroEmocional {
     @Column(name = "tipo_submissao", nullable = false)
     private TipoAvaliacao tipoSubmissao;
 
+    @Column(name = "chave_idempotencia", length = 64)
+    private String chaveIdempotencia; // Identifica a submissão de origem (null em registros antigos).
+
     /**
      * @ManyToOne: Muitos registros podem pertencer a um Aluno.
      * fetch = FetchType.LAZY: Otimização de performance. O objeto Aluno só será
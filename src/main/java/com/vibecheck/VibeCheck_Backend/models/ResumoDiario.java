@@ -0,0 +1,44 @@
+// Define o pacote para as classes de modelo.
+package com.vibecheck.VibeCheck_Backend.models;
+
+// Importações do Jakarta Persistence (JPA), Lombok, etc.
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumo (rollup) dos registros emocionais: quantos registros de uma turma, em um dia, de um tipo,
+ * tiveram cada valor de emoção. Cada linha é uma barra do histograma; a quantidade e a soma do dia
+ * saem da soma das barras. Assim o dashboard lê O(dias) linhas em vez de O(registros).
+ *
+ * É mantido incrementalmente na mesma transação que grava os registros (ver ResumoDiarioService)
+ * e pode ser recalculado a partir de registros_emocionais a qualquer momento.
+ *
+ * @Entity: Marca esta classe como uma entidade JPA (usada só para leitura; a escrita é por SQL nativo).
+ * @Table(name = "resumos_diarios"): Define o nome da tabela no banco de dados.
+ * @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor: Anotações Lombok.
+ */
+@Entity
+@Table(name = "resumos_diarios")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoDiario {
+
+    @EmbeddedId
+    private ResumoDiarioId id; // Chave composta (turma, dia, tipo, emoção).
+
+    /**
+     * @MapsId: A coluna turma_id da chave é também a chave estrangeira para a turma.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("turmaId")
+    @JoinColumn(name = "turma_id", nullable = false)
+    private Turma turma;
+
+    @Column(nullable = false)
+    private Long quantidade; // Quantos registros tiveram esta emoção neste dia.
+}
@@ -0,0 +1,39 @@
+// Define o pacote para as classes de modelo.
+package com.vibecheck.VibeCheck_Backend.models;
+
+// Importações do Jakarta Persistence (JPA), Lombok, etc.
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Chave composta do ResumoDiario: turma, dia, tipo de submissão e valor da emoção.
+ *
+ * @Embeddable: A chave é gravada nas colunas da própria tabela resumos_diarios.
+ * @EqualsAndHashCode: Obrigatório para chaves compostas (o Hibernate as usa como chave de mapa).
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ResumoDiarioId implements Serializable {
+
+    @Column(name = "turma_id")
+    private Long turmaId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TipoAvaliacao tipo;
+
+    @Column(nullable = false)
+    private Integer emocao;
+}
@@ -29,7 +29,8 @@ import java.util.List;
 public class Turma {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "turmas_seq")
+    @SequenceGenerator(name = "turmas_seq", sequenceName = "turmas_seq", allocationSize = 10)
     private Long id;
 
     @Column(nullable = false)
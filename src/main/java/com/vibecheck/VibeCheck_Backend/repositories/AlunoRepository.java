@@ -6,6 +6,8 @@ import com.vibecheck.VibeCheck_Backend.models.Aluno;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -39,4 +41,20 @@ public interface AlunoRepository extends JpaRepository<Aluno, Long> {
      * @return Um Optional contendo o Aluno se encontrado, ou um Optional vazio caso contrário.
      */
     Optional<Aluno> findByGoogleId(String googleId);
+
+    /**
+     * Busca vários alunos de uma vez pelos seus Google IDs (cláusula IN).
+     * Usado no registro em lote, para resolver todos os alunos com uma única consulta.
+     * @param googleIds Os IDs do Google a serem procurados.
+     * @return Os alunos encontrados (os IDs inexistentes são simplesmente ignorados).
+     */
+    List<Aluno> findByGoogleIdIn(Collection<String> googleIds);
+
+    /**
+     * Verifica se há um aluno com o Google ID, sem carregar a entidade.
+     * Usado na admissão de registros assíncronos, para recusar um aluno inexistente ainda na requisição.
+     * @param googleId O ID do Google a ser procurado.
+     * @return true se o aluno existir.
+     */
+    boolean existsByGoogleId(String googleId);
 }
\ No newline at end of file
@@ -4,9 +4,13 @@ package com.vibecheck.VibeCheck_Backend.repositories;
 // Importações do modelo e do Spring Data.
 import com.vibecheck.VibeCheck_Backend.models.CodigoAvaliacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +44,22 @@ public interface CodigoAvaliacaoRepository extends JpaRepository<CodigoAvaliacao
      */
     List<CodigoAvaliacao> findByProfessor_IdAndAtivoTrue(Long professorId);
 
+    /**
+     * Lista todos os códigos vivos (ativos e ainda não expirados).
+     * Usado para carregar o CodigoAtivoRegistry na inicialização da aplicação.
+     * @param agora O momento atual, para comparar com a data de expiração.
+     * @return Uma lista com todos os códigos que ainda podem ser usados.
+     */
+    List<CodigoAvaliacao> findByAtivoTrueAndDataExpiracaoAfter(LocalDateTime agora);
+
+    /**
+     * Lista os códigos ativos criados depois de um instante.
+     * Usado na sincronização incremental do CodigoAtivoRegistry com códigos gerados por outras instâncias.
+     * @param desde O instante da última sincronização.
+     * @return Uma lista de códigos ativos criados após o instante informado.
+     */
+    List<CodigoAvaliacao> findByAtivoTrueAndDataCriacaoAfter(LocalDateTime desde);
+
     /**
      * Uma consulta de projeção de existência. Em vez de buscar a entidade inteira,
      * o Spring Data gera uma consulta otimizada (ex: SELECT COUNT(*)...) para
@@ -49,4 +69,24 @@ public interface CodigoAvaliacaoRepository extends JpaRepository<CodigoAvaliacao
      * @return 'true' se o código já existe no banco, 'false' caso contrário.
      */
     boolean existsByCodigo(String codigo);
+
+    /**
+     * Busca vários códigos pelos ids, já com professor e turma carregados (JOIN FETCH),
+     * evitando uma consulta extra por relacionamento LAZY ao montar as respostas.
+     * @param ids Os ids dos códigos.
+     * @return Os códigos encontrados.
+     */
+    @Query("SELECT c FROM CodigoAvaliacao c JOIN FETCH c.professor JOIN FETCH c.turma WHERE c.id IN :ids")
+    List<CodigoAvaliacao> findAllComDetalhesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Atualização em massa que desativa os códigos já expirados.
+     * Como a unicidade de 'codigo' só é exigida entre códigos ativos, isso libera
+     * os valores vencidos para serem reutilizados pelo CodigoAllocator.
+     * @param agora O momento atual.
+     * @return A quantidade de códigos desativados.
+     */
+    @Modifying
+    @Query("UPDATE CodigoAvaliacao c SET c.ativo = false WHERE c.ativo = true AND c.dataExpiracao < :agora")
+    int desativarExpirados(@Param("agora") LocalDateTime agora);
 }
\ No newline at end of file
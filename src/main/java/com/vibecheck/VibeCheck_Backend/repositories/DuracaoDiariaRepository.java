@@ -0,0 +1,90 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+// Importações dos modelos e do Spring Data.
+import com.vibecheck.VibeCheck_Backend.models.DuracaoDiaria;
+import com.vibecheck.VibeCheck_Backend.models.DuracaoDiariaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @Repository: Marca a interface como um componente de repositório do Spring.
+ * Acesso aos histogramas diários de duração das práticas (DuracaoDiaria). Como em ResumoDiarioRepository,
+ * a escrita é por SQL nativo, para que o incremento seja atômico no banco.
+ */
+@Repository
+public interface DuracaoDiariaRepository extends JpaRepository<DuracaoDiaria, DuracaoDiariaId> {
+
+    /**
+     * Uma barra do período, já somada entre os dias, com o nome do aluno (lido no mesmo JOIN).
+     */
+    record LinhaDuracao(Long alunoId, String aluno, Integer faixa, Long quantidade) {
+    }
+
+    /**
+     * Soma 'quantidade' à barra (turma, dia, aluno, faixa), criando-a se ainda não existir.
+     * Atômico mesmo com transações concorrentes, como ResumoDiarioRepository.acumular: UPDATE; se a
+     * barra não existe, INSERT ... ON CONFLICT DO NOTHING; se outra transação a criou antes, UPDATE de novo.
+     */
+    default void acumular(Long turmaId, LocalDate dia, Long alunoId, int faixa, long quantidade) {
+        if (somar(turmaId, dia, alunoId, faixa, quantidade) == 0
+                && inserirSeAusente(turmaId, dia, alunoId, faixa, quantidade) == 0) {
+            somar(turmaId, dia, alunoId, faixa, quantidade);
+        }
+    }
+
+    @Modifying
+    @Query(value = "UPDATE duracoes_diarias SET quantidade = quantidade + :quantidade " +
+            "WHERE turma_id = :turmaId AND dia = :dia AND aluno_id = :alunoId AND faixa = :faixa",
+            nativeQuery = true)
+    int somar(@Param("turmaId") Long turmaId,
+              @Param("dia") LocalDate dia,
+              @Param("alunoId") Long alunoId,
+              @Param("faixa") int faixa,
+              @Param("quantidade") long quantidade);
+
+    @Modifying
+    @Query(value = "INSERT INTO duracoes_diarias (turma_id, dia, aluno_id, faixa, quantidade) " +
+            "VALUES (:turmaId, :dia, :alunoId, :faixa, :quantidade) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int inserirSeAusente(@Param("turmaId") Long turmaId,
+                         @Param("dia") LocalDate dia,
+                         @Param("alunoId") Long alunoId,
+                         @Param("faixa") int faixa,
+                         @Param("quantidade") long quantidade);
+
+    /**
+     * Barras da turma no período [de, ate] (dia de início da prática), somadas entre os dias,
+     * ordenadas por aluno e faixa.
+     */
+    @Query("SELECT new com.vibecheck.VibeCheck_Backend.repositories.DuracaoDiariaRepository$LinhaDuracao(" +
+            "a.id, a.nome, d.id.faixa, SUM(d.quantidade)) " +
+            "FROM DuracaoDiaria d JOIN d.aluno a " +
+            "WHERE d.id.turmaId = :turmaId AND d.id.dia BETWEEN :de AND :ate " +
+            "GROUP BY a.id, a.nome, d.id.faixa " +
+            "ORDER BY a.id, d.id.faixa")
+    List<LinhaDuracao> buscarDaTurma(@Param("turmaId") Long turmaId,
+                                     @Param("de") LocalDate de,
+                                     @Param("ate") LocalDate ate);
+
+    /**
+     * O mesmo que buscarDaTurma, restrito a um aluno. Consulta separada (em vez de um
+     * "(:alunoId IS NULL OR ...)") para que cada uma tenha o seu próprio plano.
+     */
+    @Query("SELECT new com.vibecheck.VibeCheck_Backend.repositories.DuracaoDiariaRepository$LinhaDuracao(" +
+            "a.id, a.nome, d.id.faixa, SUM(d.quantidade)) " +
+            "FROM DuracaoDiaria d JOIN d.aluno a " +
+            "WHERE d.id.turmaId = :turmaId AND d.id.dia BETWEEN :de AND :ate AND d.id.alunoId = :alunoId " +
+            "GROUP BY a.id, a.nome, d.id.faixa " +
+            "ORDER BY d.id.faixa")
+    List<LinhaDuracao> buscarDoAluno(@Param("turmaId") Long turmaId,
+                                     @Param("de") LocalDate de,
+                                     @Param("ate") LocalDate ate,
+                                     @Param("alunoId") Long alunoId);
+}
@@ -0,0 +1,24 @@
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.models.InvalidacaoCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InvalidacaoCacheRepository extends JpaRepository<InvalidacaoCache, Long> {
+
+    // Mensagens publicadas pelas outras instâncias a partir de um instante.
+    List<InvalidacaoCache> findByCriadoEmAfterAndOrigemNotOrderByCriadoEm(LocalDateTime desde, String origem);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InvalidacaoCache i WHERE i.criadoEm < :limite")
+    int apagarAnterioresA(@Param("limite") LocalDateTime limite);
+}
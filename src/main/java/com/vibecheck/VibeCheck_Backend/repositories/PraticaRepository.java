@@ -2,34 +2,81 @@
 package com.vibecheck.VibeCheck_Backend.repositories;
 
 // Importações dos modelos e do Spring Data.
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
 import com.vibecheck.VibeCheck_Backend.models.Pratica;
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * @Repository: Marca a interface como um componente de repositório do Spring.
- * Estende JpaRepository para herdar métodos CRUD para a entidade Pratica.
+ * Estende JpaRepository para herdar métodos CRUD para a entidade Pratica
+ * e PraticaRepositoryCustom para as listagens paginadas montadas dinamicamente.
  */
 @Repository
-public interface PraticaRepository extends JpaRepository<Pratica, Long> {
+public interface PraticaRepository extends JpaRepository<Pratica, Long>, PraticaRepositoryCustom {
+
+    /**
+     * Início comum das consultas de listagem: lê exatamente as colunas do PraticaResumoDTO, com aluno,
+     * turma e professor no mesmo SELECT, em vez de carregar entidades e disparar uma carga LAZY por
+     * turma/professor/aluno ao montar o DTO.
+     */
+    String SELECT_RESUMO = "SELECT new com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO(" +
+            "p.id, a.nome, t.nome, pr.nome, p.inicio, p.fim, p.duracaoSegundos, p.emocaoInicial, p.emocaoFinal) " +
+            "FROM Pratica p JOIN p.aluno a JOIN p.turma t LEFT JOIN t.professor pr ";
+
+    /**
+     * Resumos das práticas de uma turma, da mais recente para a mais antiga.
+     */
+    @Query(SELECT_RESUMO + "WHERE t.id = :turmaId ORDER BY p.inicio DESC")
+    List<PraticaResumoDTO> listarResumosPorTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Resumos das práticas de um conjunto de turmas (ex: as do professor), da mais recente para a mais antiga.
+     */
+    @Query(SELECT_RESUMO + "WHERE t.id IN :turmaIds ORDER BY p.inicio DESC")
+    List<PraticaResumoDTO> listarResumosPorTurmas(@Param("turmaIds") Collection<Long> turmaIds);
+
+    /**
+     * Resumos das práticas abertas de uma turma, da mais recente para a mais antiga.
+     */
+    @Query(SELECT_RESUMO + "WHERE t.id = :turmaId AND p.fim IS NULL ORDER BY p.inicio DESC")
+    List<PraticaResumoDTO> listarResumosAbertosPorTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Resumos das práticas abertas de um aluno, da mais recente para a mais antiga.
+     */
+    @Query(SELECT_RESUMO + "WHERE a.id = :alunoId AND p.fim IS NULL ORDER BY p.inicio DESC")
+    List<PraticaResumoDTO> listarResumosAbertosPorAluno(@Param("alunoId") Long alunoId);
+
+    /**
+     * Resumos das práticas de uma turma iniciadas no período [inicio, fim], da mais recente para a mais antiga.
+     */
+    @Query(SELECT_RESUMO + "WHERE t.id = :turmaId AND p.inicio BETWEEN :inicio AND :fim ORDER BY p.inicio DESC")
+    List<PraticaResumoDTO> listarResumosPorTurmaEPeriodo(@Param("turmaId") Long turmaId,
+                                                         @Param("inicio") LocalDateTime inicio,
+                                                         @Param("fim") LocalDateTime fim);
 
     /**
      * Encontra a prática aberta mais recente de um aluno em uma turma específica.
-     * Uma prática aberta é aquela que tem check-in mas não tem check-out.
+     * Uma prática aberta é aquela que ainda não tem horário de fim.
+     * No fluxo normal é substituída pelo PraticaAbertaIndex; serve de fallback quando o índice não conhece o par.
      * 
      * @param aluno O aluno para buscar a prática aberta.
      * @param turma A turma para buscar a prática aberta.
      * @return Optional contendo a prática aberta mais recente, ou vazio se não houver.
      */
-    Optional<Pratica> findFirstByAlunoAndTurmaAndCheckoutIsNullOrderByInicioDesc(Aluno aluno, Turma turma);
+    Optional<Pratica> findFirstByAlunoAndTurmaAndFimIsNullOrderByInicioDesc(Aluno aluno, Turma turma);
 
     /**
      * Encontra todas as práticas de um aluno específico.
@@ -68,20 +115,20 @@ public interface PraticaRepository extends JpaRepository<Pratica, Long> {
     List<Pratica> findByTurmaAndInicioBetween(Turma turma, LocalDateTime inicio, LocalDateTime fim);
 
     /**
-     * Encontra todas as práticas abertas (sem check-out) de uma turma.
+     * Encontra todas as práticas abertas (sem horário de fim) de uma turma.
      * 
      * @param turma A turma para buscar as práticas abertas.
      * @return Lista de práticas abertas da turma.
      */
-    List<Pratica> findByTurmaAndCheckoutIsNullOrderByInicioDesc(Turma turma);
+    List<Pratica> findByTurmaAndFimIsNullOrderByInicioDesc(Turma turma);
 
     /**
-     * Encontra todas as práticas abertas (sem check-out) de um aluno.
+     * Encontra todas as práticas abertas (sem horário de fim) de um aluno.
      * 
      * @param aluno O aluno para buscar as práticas abertas.
      * @return Lista de práticas abertas do aluno.
      */
-    List<Pratica> findByAlunoAndCheckoutIsNullOrderByInicioDesc(Aluno aluno);
+    List<Pratica> findByAlunoAndFimIsNullOrderByInicioDesc(Aluno aluno);
 
     /**
      * Consulta personalizada para buscar práticas com informações detalhadas do aluno e turma.
@@ -108,5 +155,61 @@ public interface PraticaRepository extends JpaRepository<Pratica, Long> {
            "WHERE t.id = :turmaId " +
            "ORDER BY p.inicio DESC")
     List<Pratica> findByTurmaWithDetails(@Param("turmaId") Long turmaId);
-}
 
+    /**
+     * Busca várias práticas por ID em uma única consulta, já com aluno, turma e professor (usados pelo
+     * PraticaDTO), e apenas as que o usuário pode ver: as das turmas do professor ou as do próprio aluno.
+     * Check-in e check-out não entram no JOIN: o PraticaDTO só lê os IDs, que vêm das chaves estrangeiras.
+     *
+     * @param ids IDs das práticas (até o limite do lote, ver PraticaService.buscarLote).
+     * @param googleId ID do Google do usuário autenticado.
+     * @return As práticas encontradas e autorizadas, em qualquer ordem.
+     */
+    @Query("SELECT p FROM Pratica p " +
+           "JOIN FETCH p.aluno a " +
+           "JOIN FETCH p.turma t " +
+           "LEFT JOIN FETCH t.professor pr " +
+           "WHERE p.id IN :ids AND (pr.googleId = :googleId OR a.googleId = :googleId)")
+    List<Pratica> buscarLoteAutorizado(@Param("ids") Collection<Long> ids, @Param("googleId") String googleId);
+
+    /**
+     * Projeção mínima de todas as práticas abertas, usada para reconstruir o PraticaAbertaIndex.
+     * Cada linha contém: [id da prática, id do aluno, id da turma, início].
+     *
+     * @return Linhas ordenadas por início (a mais recente por último).
+     */
+    @Query("SELECT p.id, p.aluno.id, p.turma.id, p.inicio FROM Pratica p " +
+           "WHERE p.fim IS NULL " +
+           "ORDER BY p.inicio")
+    List<Object[]> listarAbertasParaIndice();
+
+    /**
+     * Fecha uma prática aberta com um registro de check-out em um único UPDATE, sem carregá-la.
+     * flushAutomatically garante que o registro de check-out pendente seja inserido antes.
+     *
+     * @return 1 se a prática estava aberta e foi fechada, 0 caso contrário.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Pratica p SET p.checkout = :checkout, p.fim = :fim, " +
+           "p.emocaoFinal = :emocaoFinal, p.duracaoSegundos = :duracaoSegundos " +
+           "WHERE p.id = :id AND p.fim IS NULL")
+    int fecharComCheckout(@Param("id") Long id,
+                          @Param("checkout") RegistroEmocional checkout,
+                          @Param("fim") LocalDateTime fim,
+                          @Param("emocaoFinal") Integer emocaoFinal,
+                          @Param("duracaoSegundos") Long duracaoSegundos);
+
+    /**
+     * Fecha uma prática aberta sem registro de check-out (fechamento automático), em um único UPDATE.
+     *
+     * @return 1 se a prática estava aberta e foi fechada, 0 caso contrário.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Pratica p SET p.fim = :fim, " +
+           "p.emocaoFinal = :emocaoFinal, p.duracaoSegundos = :duracaoSegundos " +
+           "WHERE p.id = :id AND p.fim IS NULL")
+    int fecharSemCheckout(@Param("id") Long id,
+                          @Param("fim") LocalDateTime fim,
+                          @Param("emocaoFinal") Integer emocaoFinal,
+                          @Param("duracaoSegundos") Long duracaoSegundos);
+}
@@ -0,0 +1,90 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas do PraticaRepository montadas dinamicamente (implementadas em PraticaRepositoryCustomImpl),
+ * para que só os filtros informados entrem no SQL.
+ */
+public interface PraticaRepositoryCustom {
+
+    /**
+     * Filtros das listagens de práticas; todos opcionais.
+     *
+     * @param turmaId        Só as práticas da turma.
+     * @param turmaIds       Só as práticas destas turmas (ex: as do professor); vazio não traz nada.
+     * @param alunoId        Só as práticas do aluno.
+     * @param somenteAbertas Só as práticas sem horário de fim.
+     * @param de             Início da prática a partir de (inclusivo).
+     * @param ate            Início da prática até (inclusivo).
+     */
+    record FiltroPraticas(Long turmaId, Collection<Long> turmaIds, Long alunoId, boolean somenteAbertas,
+                          LocalDateTime de, LocalDateTime ate) {
+    }
+
+    /**
+     * Uma prática fechada pelo fechamento automático, com o que os passos seguintes (índice em memória,
+     * histogramas de duração e feed) precisam, sem carregar a entidade.
+     */
+    record PraticaFechadaAutomaticamente(Long praticaId, Long alunoId, Long turmaId, LocalDateTime inicio,
+                                         LocalDateTime fim, Long duracaoSegundos) {
+    }
+
+    /**
+     * Uma prática na exportação, lida diretamente em colunas (sem carregar entidades).
+     */
+    record LinhaExportacao(Long id, String aluno, String emailAluno, String turma, LocalDateTime inicio,
+                           LocalDateTime fim, Long duracaoSegundos, Integer emocaoInicial, Integer emocaoFinal) {
+    }
+
+    /**
+     * Busca uma página de resumos de práticas ordenados por (inicio, id), com aluno, turma e professor
+     * no mesmo SELECT. A paginação é por keyset, sem OFFSET: com os índices por (turma_id, inicio, id)
+     * e (aluno_id, inicio, id), cada página custa o mesmo, não importa quão fundo esteja no histórico.
+     * O cursor entra como comparação de linha, (p.inicio, p.id) > (:cursorInicio, :cursorId), que o
+     * PostgreSQL resolve como um único limite de faixa no índice.
+     *
+     * @param filtro    Filtros da listagem.
+     * @param cursor    Chave do último item da página anterior (null na primeira página).
+     * @param limite    Quantidade máxima de linhas.
+     * @param crescente true: das mais antigas para as mais recentes; false: o contrário.
+     */
+    List<PraticaResumoDTO> buscarResumos(FiltroPraticas filtro, CursorKeyset cursor, int limite, boolean crescente);
+
+    /**
+     * Fecha até 'tamanho' práticas abandonadas (abertas, em ordem de id) e devolve as que foram fechadas.
+     * Uma prática é abandonada quando:
+     * - a janela de um código de CHECKOUT da turma, liberado depois do início dela, já terminou
+     *   (o fim passa a ser a expiração do primeiro desses códigos); ou
+     * - está aberta há mais de 'duracaoMaximaSegundos' (o fim passa a ser início + duração máxima).
+     *
+     * A emoção final, sem check-out, repete a inicial. Linhas bloqueadas por outra transação
+     * (ex: um check-out em andamento) são puladas (SKIP LOCKED). Deve ser chamado dentro de uma transação.
+     *
+     * No PostgreSQL é um único UPDATE ... RETURNING, com fim, duração e emoção final calculados no
+     * próprio banco. Nos demais bancos (o H2 dos testes não tem LATERAL nem UPDATE ... RETURNING), as
+     * práticas são lidas com bloqueio e fechadas com Pratica.fecharSemCheckout, em UPDATEs por linha.
+     */
+    List<PraticaFechadaAutomaticamente> fecharAbandonadas(LocalDateTime agora, long duracaoMaximaSegundos, int tamanho);
+
+    /**
+     * Lê as práticas de uma turma do professor em ordem cronológica, como um Stream aberto sobre o
+     * cursor JDBC: o driver busca 'fetchSize' linhas por vez e nenhuma entidade fica no contexto de
+     * persistência, então a memória não cresce com o tamanho da turma.
+     * Deve ser consumido dentro de uma transação e fechado ao final (try-with-resources).
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param turmaId           Turma exportada.
+     * @param inicio            Início do período, inclusivo (null = sem limite).
+     * @param fim               Fim do período, exclusivo (null = sem limite).
+     */
+    Stream<LinhaExportacao> streamParaExportacao(String googleIdProfessor, Long turmaId,
+                                                 LocalDateTime inicio, LocalDateTime fim);
+}
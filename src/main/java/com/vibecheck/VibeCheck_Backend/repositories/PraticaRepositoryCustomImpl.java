@@ -0,0 +1,214 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
+import com.vibecheck.VibeCheck_Backend.models.Pratica;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.LockOptions;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementação das consultas dinâmicas do PraticaRepository (o Spring Data a combina
+ * com a interface pelo sufixo "Impl").
+ */
+public class PraticaRepositoryCustomImpl implements PraticaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean dialetoPostgres;
+
+    // Linhas lidas do banco por vez na exportação.
+    private static final int TAMANHO_BUSCA_EXPORTACAO = 500;
+
+    @Override
+    public List<PraticaResumoDTO> buscarResumos(FiltroPraticas filtro, CursorKeyset cursor, int limite, boolean crescente) {
+        List<String> condicoes = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        // Só as condições dos filtros informados, para que o planejador escolha o índice da consulta real.
+        if (filtro.turmaId() != null) {
+            condicoes.add("t.id = :turmaId");
+            parametros.put("turmaId", filtro.turmaId());
+        }
+        if (filtro.turmaIds() != null) {
+            if (filtro.turmaIds().isEmpty()) {
+                return List.of();
+            }
+            condicoes.add("t.id IN :turmaIds");
+            parametros.put("turmaIds", filtro.turmaIds());
+        }
+        if (filtro.alunoId() != null) {
+            condicoes.add("a.id = :alunoId");
+            parametros.put("alunoId", filtro.alunoId());
+        }
+        if (filtro.somenteAbertas()) {
+            condicoes.add("p.fim IS NULL");
+        }
+        if (filtro.de() != null) {
+            condicoes.add("p.inicio >= :de");
+            parametros.put("de", filtro.de());
+        }
+        if (filtro.ate() != null) {
+            condicoes.add("p.inicio <= :ate");
+            parametros.put("ate", filtro.ate());
+        }
+        if (cursor != null) {
+            // Continua estritamente depois do último item, no sentido da ordenação; o id desempata o mesmo início.
+            String comparacao = crescente ? ">" : "<";
+            condicoes.add("(p.inicio, p.id) " + comparacao + " (:cursorInicio, :cursorId)");
+            parametros.put("cursorInicio", cursor.instante());
+            parametros.put("cursorId", cursor.id());
+        }
+        StringBuilder jpql = new StringBuilder(PraticaRepository.SELECT_RESUMO);
+        if (!condicoes.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", condicoes));
+        }
+        jpql.append(crescente ? " ORDER BY p.inicio ASC, p.id ASC" : " ORDER BY p.inicio DESC, p.id DESC");
+
+        TypedQuery<PraticaResumoDTO> query = entityManager.createQuery(jpql.toString(), PraticaResumoDTO.class);
+        parametros.forEach(query::setParameter);
+        return query.setMaxResults(limite).getResultList();
+    }
+
+    @Override
+    public Stream<LinhaExportacao> streamParaExportacao(String googleIdProfessor, Long turmaId,
+                                                        LocalDateTime inicio, LocalDateTime fim) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom$LinhaExportacao(" +
+                "p.id, a.nome, a.email, t.nome, p.inicio, p.fim, p.duracaoSegundos, p.emocaoInicial, p.emocaoFinal) " +
+                "FROM Pratica p JOIN p.aluno a JOIN p.turma t " +
+                "WHERE t.id = :turmaId AND t.professor.googleId = :googleId");
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("turmaId", turmaId);
+        parametros.put("googleId", googleIdProfessor);
+        // Só os limites do período informados, em vez de "(:inicio IS NULL OR ...)": a faixa entra
+        // direto no índice (turma_id, inicio, id), que também entrega a ordenação.
+        if (inicio != null) {
+            jpql.append(" AND p.inicio >= :inicio");
+            parametros.put("inicio", inicio);
+        }
+        if (fim != null) {
+            jpql.append(" AND p.inicio < :fim");
+            parametros.put("fim", fim);
+        }
+        jpql.append(" ORDER BY p.inicio, p.id");
+
+        TypedQuery<LinhaExportacao> query = entityManager.createQuery(jpql.toString(), LinhaExportacao.class);
+        parametros.forEach(query::setParameter);
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_BUSCA_EXPORTACAO)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<PraticaFechadaAutomaticamente> fecharAbandonadas(LocalDateTime agora, long duracaoMaximaSegundos,
+                                                                  int tamanho) {
+        return postgres()
+                ? fecharAbandonadasPostgres(agora, duracaoMaximaSegundos, tamanho)
+                : fecharAbandonadasPortavel(agora, duracaoMaximaSegundos, tamanho);
+    }
+
+    // Um único comando: escolhe, bloqueia e fecha o bloco, com fim, duração e emoção final calculados no banco.
+    private List<PraticaFechadaAutomaticamente> fecharAbandonadasPostgres(LocalDateTime agora, long duracaoMaximaSegundos,
+                                                                          int tamanho) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = entityManager.createNativeQuery(
+                        "WITH alvo AS ( " +
+                        "    SELECT p.id, f.fim FROM praticas p " +
+                        "    CROSS JOIN LATERAL ( " +
+                        "        SELECT COALESCE( " +
+                        "            (SELECT MIN(c.data_expiracao) FROM codigos_avaliacao c " +
+                        "              WHERE c.turma_id = p.turma_id AND c.tipo = 'CHECKOUT' " +
+                        "                AND c.data_criacao >= p.inicio AND c.data_expiracao < :agora), " +
+                        "            p.inicio + make_interval(secs => :duracaoMaximaSegundos)) AS fim " +
+                        "    ) f " +
+                        "    WHERE p.fim IS NULL AND f.fim < :agora " +
+                        "    ORDER BY p.id " +
+                        "    LIMIT :tamanho " +
+                        "    FOR UPDATE OF p SKIP LOCKED " +
+                        ") " +
+                        "UPDATE praticas p SET fim = alvo.fim, " +
+                        "    duracao_segundos = CAST(EXTRACT(EPOCH FROM (alvo.fim - p.inicio)) AS bigint), " +
+                        "    emocao_final = p.emocao_inicial " +
+                        "FROM alvo WHERE p.id = alvo.id AND p.fim IS NULL " +
+                        "RETURNING p.id, p.aluno_id, p.turma_id, p.inicio, p.fim, p.duracao_segundos")
+                .setParameter("agora", agora)
+                .setParameter("duracaoMaximaSegundos", duracaoMaximaSegundos)
+                .setParameter("tamanho", tamanho)
+                .getResultList();
+        List<PraticaFechadaAutomaticamente> fechadas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            fechadas.add(new PraticaFechadaAutomaticamente(((Number) linha[0]).longValue(), ((Number) linha[1]).longValue(),
+                    ((Number) linha[2]).longValue(), comoLocalDateTime(linha[3]), comoLocalDateTime(linha[4]),
+                    ((Number) linha[5]).longValue()));
+        }
+        return fechadas;
+    }
+
+    // Mesmas regras, com o fim calculado em Java e um UPDATE por prática no flush (em lotes JDBC).
+    private List<PraticaFechadaAutomaticamente> fecharAbandonadasPortavel(LocalDateTime agora, long duracaoMaximaSegundos,
+                                                                          int tamanho) {
+        // Expiração do primeiro código de CHECKOUT da turma liberado depois do início, se já terminou.
+        String fimPorCheckout = "(SELECT MIN(c.dataExpiracao) FROM CodigoAvaliacao c " +
+                "WHERE c.turma = p.turma AND c.tipo = :checkout " +
+                "AND c.dataCriacao >= p.inicio AND c.dataExpiracao < :agora)";
+        List<Object[]> alvos = entityManager.createQuery(
+                        "SELECT p, " + fimPorCheckout + " FROM Pratica p " +
+                        "WHERE p.fim IS NULL AND (p.inicio < :limiteInicio OR " + fimPorCheckout + " IS NOT NULL) " +
+                        "ORDER BY p.id", Object[].class)
+                .setParameter("checkout", TipoAvaliacao.CHECKOUT)
+                .setParameter("agora", agora)
+                .setParameter("limiteInicio", agora.minusSeconds(duracaoMaximaSegundos))
+                .setMaxResults(tamanho)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+                .getResultList();
+
+        List<PraticaFechadaAutomaticamente> fechadas = new ArrayList<>(alvos.size());
+        for (Object[] alvo : alvos) {
+            Pratica pratica = (Pratica) alvo[0];
+            LocalDateTime fim = alvo[1] != null
+                    ? (LocalDateTime) alvo[1]
+                    : pratica.getInicio().plusSeconds(duracaoMaximaSegundos);
+            pratica.fecharSemCheckout(fim);
+            fechadas.add(new PraticaFechadaAutomaticamente(pratica.getId(), pratica.getAluno().getId(),
+                    pratica.getTurma().getId(), pratica.getInicio(), pratica.getFim(), pratica.getDuracaoSegundos()));
+        }
+        entityManager.flush();
+        return fechadas;
+    }
+
+    // O dialeto não muda durante a execução: decidido na primeira chamada.
+    private boolean postgres() {
+        Boolean postgres = dialetoPostgres;
+        if (postgres == null) {
+            Dialect dialeto = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect();
+            postgres = dialeto instanceof PostgreSQLDialect;
+            dialetoPostgres = postgres;
+        }
+        return postgres;
+    }
+
+    // O driver pode devolver a coluna TIMESTAMP como java.sql.Timestamp ou LocalDateTime.
+    private static LocalDateTime comoLocalDateTime(Object valor) {
+        return valor instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) valor;
+    }
+}
@@ -6,18 +6,26 @@ import com.vibecheck.VibeCheck_Backend.models.Aluno;
 import com.vibecheck.VibeCheck_Backend.models.CodigoAvaliacao;
 import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
 import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @Repository: Marca a interface como um componente de repositório do Spring.
- * Estende JpaRepository para herdar métodos CRUD para a entidade RegistroEmocional.
+ * Estende JpaRepository para herdar métodos CRUD para a entidade RegistroEmocional
+ * e RegistroEmocionalRepositoryCustom para as consultas montadas dinamicamente (dashboard).
  */
 @Repository
-public interface RegistroEmocionalRepository extends JpaRepository<RegistroEmocional, Long> {
+public interface RegistroEmocionalRepository extends JpaRepository<RegistroEmocional, Long>, RegistroEmocionalRepositoryCustom {
 
     // Encontra todos os registros feitos por um objeto Aluno específico.
     // O Spring Data JPA usa o ID do objeto Aluno para criar a consulta.
@@ -41,10 +49,44 @@ public interface RegistroEmocionalRepository extends JpaRepository<RegistroEmoci
     List<RegistroEmocional> findByTipoSubmissaoAndTimestampBetween(TipoAvaliacao tipoSubmissao, LocalDateTime inicio, LocalDateTime fim);
 
     /**
-     * Busca todos os registros e os ordena pelo campo 'timestamp' em ordem decrescente.
-     * 'OrderByTimestampDesc' é interpretado para adicionar uma cláusula 'ORDER BY timestamp DESC'
-     * à consulta SQL. Útil para exibir um feed de atividades recentes.
-     * @return Uma lista de todos os registros, dos mais recentes para os mais antigos.
+     * Busca os registros já gravados para um conjunto de chaves de idempotência, com o código,
+     * o professor e a turma carregados (necessários para montar o RegistroEmocionalDTO).
+     * @param chaves As chaves de idempotência das submissões.
+     * @return Os registros que já existem para essas chaves.
      */
-    List<RegistroEmocional> findAllByOrderByTimestampDesc();
-}
\ No newline at end of file
+    @Query("SELECT r FROM RegistroEmocional r JOIN FETCH r.codigoAvaliacaoUsado c JOIN FETCH c.professor JOIN FETCH c.turma " +
+            "WHERE r.chaveIdempotencia IN :chaves")
+    List<RegistroEmocional> findComDetalhesByChaveIdempotenciaIn(@Param("chaves") Collection<String> chaves);
+
+    /**
+     * Um registro na carga do armazenamento analítico: só as colunas usadas nas varreduras.
+     */
+    record LinhaAnalitica(Long id, Long turmaId, LocalDateTime timestamp, Integer emocao, TipoAvaliacao tipo) {
+    }
+
+    /**
+     * Lê todos os registros como um Stream aberto sobre o cursor JDBC, sem entidades no contexto
+     * de persistência (ver AnaliticoRegistrosService). Deve ser consumido dentro de uma transação
+     * e fechado ao final (try-with-resources).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository$LinhaAnalitica(" +
+           "r.id, r.turma.id, r.timestamp, r.emocao, r.tipoSubmissao) FROM RegistroEmocional r")
+    Stream<LinhaAnalitica> streamParaAnalitico();
+
+    /**
+     * Os registros com instante posterior a 'desde', para a sincronização do armazenamento analítico
+     * (usa o índice por (timestamp, id)). Mesmas condições de uso de streamParaAnalitico.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository$LinhaAnalitica(" +
+           "r.id, r.turma.id, r.timestamp, r.emocao, r.tipoSubmissao) FROM RegistroEmocional r " +
+           "WHERE r.timestamp > :desde ORDER BY r.timestamp, r.id")
+    Stream<LinhaAnalitica> streamParaAnaliticoDesde(@Param("desde") LocalDateTime desde);
+}
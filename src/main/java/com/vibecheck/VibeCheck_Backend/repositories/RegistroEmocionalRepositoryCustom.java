@@ -0,0 +1,52 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas do RegistroEmocionalRepository montadas dinamicamente (implementadas em
+ * RegistroEmocionalRepositoryCustomImpl), para que só os filtros informados entrem no SQL.
+ */
+public interface RegistroEmocionalRepositoryCustom {
+
+    /**
+     * Uma linha do dashboard, lida diretamente em colunas (sem carregar entidades).
+     */
+    record LinhaDashboard(Long id, LocalDateTime timestamp, Integer emocao, TipoAvaliacao tipo, String turma) {
+    }
+
+    /**
+     * Um registro na exportação, com aluno e turma lidos no mesmo JOIN.
+     */
+    record LinhaExportacao(Long id, LocalDateTime timestamp, TipoAvaliacao tipo, Integer emocao,
+                           String aluno, String emailAluno, String turma) {
+    }
+
+    /**
+     * Busca uma página do dashboard de um professor, do registro mais recente para o mais antigo.
+     * Todos os filtros vão para o WHERE, as linhas ficam restritas às turmas do professor e o nome
+     * da turma vem do mesmo JOIN. A paginação é por keyset (timestamp, id), sem OFFSET.
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param filtro            Filtros opcionais (turma, período, tipo).
+     * @param cursor            Chave do último item da página anterior (null na primeira página).
+     * @param limite            Quantidade máxima de linhas.
+     */
+    List<LinhaDashboard> buscarDashboard(String googleIdProfessor, FiltroDashboard filtro, CursorKeyset cursor, int limite);
+
+    /**
+     * Lê todos os registros das turmas do professor que atendem ao filtro, em ordem cronológica,
+     * como um Stream aberto sobre o cursor JDBC (busca 'fetchSize' linhas por vez, sem entidades
+     * no contexto de persistência). Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param filtro            Filtros opcionais (turma, período, tipo).
+     */
+    Stream<LinhaExportacao> streamParaExportacao(String googleIdProfessor, FiltroDashboard filtro);
+}
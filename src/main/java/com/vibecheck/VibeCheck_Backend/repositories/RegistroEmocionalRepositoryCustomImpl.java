@@ -0,0 +1,90 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementação das consultas dinâmicas do RegistroEmocionalRepository (o Spring Data a combina
+ * com a interface pelo sufixo "Impl").
+ */
+public class RegistroEmocionalRepositoryCustomImpl implements RegistroEmocionalRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Linhas lidas do banco por vez na exportação.
+    private static final int TAMANHO_BUSCA_EXPORTACAO = 500;
+
+    @Override
+    public List<LinhaDashboard> buscarDashboard(String googleIdProfessor, FiltroDashboard filtro, CursorKeyset cursor, int limite) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepositoryCustom$LinhaDashboard(" +
+                "r.id, r.timestamp, r.emocao, r.tipoSubmissao, t.nome) " +
+                "FROM RegistroEmocional r JOIN r.turma t JOIN t.professor p ");
+        Map<String, Object> parametros = new HashMap<>();
+        adicionarFiltros(jpql, parametros, googleIdProfessor, filtro);
+        if (cursor != null) {
+            // Continua estritamente depois do último item (mesmo instante só com id menor), como comparação
+            // de linha: um único limite de faixa no índice, em vez de dois ramos de OR.
+            jpql.append(" AND (r.timestamp, r.id) < (:cursorTimestamp, :cursorId)");
+            parametros.put("cursorTimestamp", cursor.instante());
+            parametros.put("cursorId", cursor.id());
+        }
+        jpql.append(" ORDER BY r.timestamp DESC, r.id DESC");
+
+        TypedQuery<LinhaDashboard> query = entityManager.createQuery(jpql.toString(), LinhaDashboard.class);
+        parametros.forEach(query::setParameter);
+        return query.setMaxResults(limite).getResultList();
+    }
+
+    @Override
+    public Stream<LinhaExportacao> streamParaExportacao(String googleIdProfessor, FiltroDashboard filtro) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepositoryCustom$LinhaExportacao(" +
+                "r.id, r.timestamp, r.tipoSubmissao, r.emocao, a.nome, a.email, t.nome) " +
+                "FROM RegistroEmocional r JOIN r.aluno a JOIN r.turma t JOIN t.professor p ");
+        Map<String, Object> parametros = new HashMap<>();
+        adicionarFiltros(jpql, parametros, googleIdProfessor, filtro);
+        jpql.append(" ORDER BY r.timestamp, r.id");
+
+        TypedQuery<LinhaExportacao> query = entityManager.createQuery(jpql.toString(), LinhaExportacao.class);
+        parametros.forEach(query::setParameter);
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_BUSCA_EXPORTACAO)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Monta só as condições dos filtros informados, em vez de "(:x IS NULL OR ...)",
+    // para que o planejador escolha o índice de acordo com a consulta real.
+    private static void adicionarFiltros(StringBuilder jpql, Map<String, Object> parametros,
+                                         String googleIdProfessor, FiltroDashboard filtro) {
+        jpql.append("WHERE p.googleId = :googleId");
+        parametros.put("googleId", googleIdProfessor);
+        if (filtro.turmaId() != null) {
+            jpql.append(" AND t.id = :turmaId");
+            parametros.put("turmaId", filtro.turmaId());
+        }
+        if (filtro.de() != null) {
+            jpql.append(" AND r.timestamp >= :de");
+            parametros.put("de", filtro.de());
+        }
+        if (filtro.ate() != null) {
+            jpql.append(" AND r.timestamp < :ate");
+            parametros.put("ate", filtro.ate());
+        }
+        if (filtro.tipo() != null) {
+            jpql.append(" AND r.tipoSubmissao = :tipo");
+            parametros.put("tipo", filtro.tipo());
+        }
+    }
+}
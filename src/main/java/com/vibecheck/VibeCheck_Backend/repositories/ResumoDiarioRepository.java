@@ -0,0 +1,103 @@
+// Define o pacote para as interfaces de repositório.
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+// Importações dos modelos e do Spring Data.
+import com.vibecheck.VibeCheck_Backend.models.ResumoDiario;
+import com.vibecheck.VibeCheck_Backend.models.ResumoDiarioId;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @Repository: Marca a interface como um componente de repositório do Spring.
+ * Acesso aos resumos diários (ResumoDiario). A escrita é por SQL nativo, para que o incremento seja
+ * atômico no banco (sem ler, somar e regravar) e a reconstrução seja um único INSERT ... SELECT.
+ */
+@Repository
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, ResumoDiarioId> {
+
+    /**
+     * Uma barra do histograma, com o nome da turma (lido no mesmo JOIN).
+     */
+    record LinhaResumo(Long turmaId, String turma, LocalDate dia, TipoAvaliacao tipo, Integer emocao, Long quantidade) {
+    }
+
+    /**
+     * Soma 'quantidade' à barra (turma, dia, tipo, emoção), criando-a se ainda não existir.
+     * Atômico mesmo com transações concorrentes: o caso comum (a barra já existe) é um único UPDATE;
+     * se duas transações criarem a mesma barra, o INSERT da segunda espera a primeira e não insere
+     * nada, e a segunda soma sobre a linha criada pela primeira.
+     * Usa só SQL que o PostgreSQL e o H2 (testes) aceitam.
+     */
+    default void acumular(Long turmaId, LocalDate dia, String tipo, int emocao, long quantidade) {
+        if (somar(turmaId, dia, tipo, emocao, quantidade) == 0
+                && inserirSeAusente(turmaId, dia, tipo, emocao, quantidade) == 0) {
+            somar(turmaId, dia, tipo, emocao, quantidade);
+        }
+    }
+
+    @Modifying
+    @Query(value = "UPDATE resumos_diarios SET quantidade = quantidade + :quantidade " +
+            "WHERE turma_id = :turmaId AND dia = :dia AND tipo = :tipo AND emocao = :emocao",
+            nativeQuery = true)
+    int somar(@Param("turmaId") Long turmaId,
+              @Param("dia") LocalDate dia,
+              @Param("tipo") String tipo,
+              @Param("emocao") int emocao,
+              @Param("quantidade") long quantidade);
+
+    @Modifying
+    @Query(value = "INSERT INTO resumos_diarios (turma_id, dia, tipo, emocao, quantidade) " +
+            "VALUES (:turmaId, :dia, :tipo, :emocao, :quantidade) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int inserirSeAusente(@Param("turmaId") Long turmaId,
+                         @Param("dia") LocalDate dia,
+                         @Param("tipo") String tipo,
+                         @Param("emocao") int emocao,
+                         @Param("quantidade") long quantidade);
+
+    /**
+     * Bloqueia a linha da turma até o fim da transação. Todo INSERT em registros_emocionais
+     * verifica a chave estrangeira com FOR KEY SHARE na mesma linha, então este bloqueio espera as
+     * gravações em andamento na turma terminarem e segura as novas até a reconstrução confirmar.
+     */
+    @Query(value = "SELECT id FROM turmas WHERE id = :turmaId FOR UPDATE", nativeQuery = true)
+    Long travarTurma(@Param("turmaId") Long turmaId);
+
+    @Modifying
+    @Query(value = "DELETE FROM resumos_diarios WHERE turma_id = :turmaId", nativeQuery = true)
+    int apagarDaTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Recalcula todas as barras de uma turma a partir de registros_emocionais.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO resumos_diarios (turma_id, dia, tipo, emocao, quantidade) " +
+            "SELECT turma_id, CAST(timestamp AS DATE), tipo_submissao, emocao, COUNT(*) " +
+            "FROM registros_emocionais WHERE turma_id = :turmaId " +
+            "GROUP BY turma_id, CAST(timestamp AS DATE), tipo_submissao, emocao",
+            nativeQuery = true)
+    int recalcularDaTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Barras do período [de, ate] nas turmas do professor, ordenadas por dia, turma, tipo e emoção.
+     * Turma e tipo são opcionais (null = todos).
+     */
+    @Query("SELECT new com.vibecheck.VibeCheck_Backend.repositories.ResumoDiarioRepository$LinhaResumo(" +
+            "t.id, t.nome, r.id.dia, r.id.tipo, r.id.emocao, r.quantidade) " +
+            "FROM ResumoDiario r JOIN r.turma t " +
+            "WHERE t.professor.googleId = :googleId AND r.id.dia BETWEEN :de AND :ate " +
+            "AND (:turmaId IS NULL OR t.id = :turmaId) AND (:tipo IS NULL OR r.id.tipo = :tipo) " +
+            "ORDER BY r.id.dia, t.id, r.id.tipo, r.id.emocao")
+    List<LinhaResumo> buscarDoProfessor(@Param("googleId") String googleId,
+                                        @Param("de") LocalDate de,
+                                        @Param("ate") LocalDate ate,
+                                        @Param("turmaId") Long turmaId,
+                                        @Param("tipo") TipoAvaliacao tipo);
+}
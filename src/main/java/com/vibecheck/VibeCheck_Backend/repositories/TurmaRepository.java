@@ -5,6 +5,8 @@ package com.vibecheck.VibeCheck_Backend.repositories;
 import com.vibecheck.VibeCheck_Backend.models.Professor;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository; // Sugestão: Adicionar a anotação @Repository
 
 import java.util.List;
@@ -30,4 +32,28 @@ public interface TurmaRepository extends JpaRepository<Turma, Long> {
      * @return Uma lista de turmas pertencentes ao professor.
      */
     List<Turma> findByProfessor(Professor professor);
+
+    /**
+     * @return Os IDs de todas as turmas (usado pela reconstrução dos resumos diários).
+     */
+    @Query("SELECT t.id FROM Turma t ORDER BY t.id")
+    List<Long> findAllIds();
+
+    /**
+     * @param googleId O ID do Google do professor.
+     * @return Os IDs das turmas do professor, sem carregar as entidades.
+     */
+    @Query("SELECT t.id FROM Turma t WHERE t.professor.googleId = :googleId ORDER BY t.id")
+    List<Long> findIdsByProfessorGoogleId(@Param("googleId") String googleId);
+
+    /**
+     * @param googleId O ID do Google do professor.
+     * @return As turmas do professor, em ordem de ID, sem precisar carregar o Professor antes.
+     */
+    List<Turma> findByProfessorGoogleIdOrderById(String googleId);
+
+    /**
+     * @return true se a turma existir e pertencer ao professor com este ID do Google.
+     */
+    boolean existsByIdAndProfessorGoogleId(Long id, String googleId);
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.LimiteAdmissao;
+import com.vibecheck.VibeCheck_Backend.utils.LimitadorTaxa;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controle de admissão dos endpoints marcados com @LimiteAdmissao.
+ *
+ * Mantém um LimitadorTaxa por endpoint e dimensão (aluno ou código), criado na primeira requisição
+ * com os limites da anotação ou das propriedades vibecheck.admissao.[endpoint].[dimensão].*.
+ * Publica as métricas:
+ * - vibecheck.admissao (contador; tags endpoint, dimensao, resultado = permitida | recusada);
+ * - vibecheck.admissao.chaves (gauge; quantas chaves cada limitador acompanha no momento).
+ */
+@Service
+public class AdmissaoService {
+
+    public static final String DIMENSAO_ALUNO = "aluno";
+    public static final String DIMENSAO_CODIGO = "codigo";
+
+    /**
+     * Resultado da avaliação: se recusada, qual dimensão recusou e quanto esperar.
+     */
+    public record Decisao(boolean permitida, String dimensao, long esperaNanos) {
+
+        private static final Decisao PERMITIDA = new Decisao(true, null, 0);
+    }
+
+    // Um limitador e os seus contadores (guardados para não buscá-los no registro a cada requisição).
+    private record Limite(LimitadorTaxa limitador, Counter permitidas, Counter recusadas) {
+    }
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitada;
+    private final Map<String, Limite> limites = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdmissaoService(Environment environment,
+                           MeterRegistry meterRegistry,
+                           @Value("${vibecheck.admissao.habilitada:true}") boolean habilitada) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Avalia uma requisição: primeiro o balde do aluno, depois o do código.
+     * O balde do código só é consultado se o do aluno permitir, para que um único cliente
+     * insistente não consuma a cota do código de toda a turma.
+     *
+     * @param googleId ID do aluno autenticado (null se não houver).
+     * @param codigo   Código de avaliação da requisição (null se não houver).
+     */
+    public Decisao avaliar(LimiteAdmissao anotacao, String googleId, String codigo) {
+        if (!habilitada) {
+            return Decisao.PERMITIDA;
+        }
+        long agora = System.nanoTime();
+        if (googleId != null) {
+            Decisao decisao = consumir(anotacao, DIMENSAO_ALUNO, googleId, agora);
+            if (!decisao.permitida()) {
+                return decisao;
+            }
+        }
+        if (codigo != null && !codigo.isBlank()) {
+            // Normaliza para que variações de caixa contem como o mesmo código.
+            return consumir(anotacao, DIMENSAO_CODIGO, codigo.trim().toUpperCase(), agora);
+        }
+        return Decisao.PERMITIDA;
+    }
+
+    /**
+     * Remove as chaves ociosas de todos os limitadores. Cada limitador guarda só um long por chave,
+     * então a limpeza é uma passada linear, sem bloquear as requisições em andamento.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.admissao.limpeza-ms:30000}")
+    public void limparOciosas() {
+        long agora = System.nanoTime();
+        limites.values().forEach(limite -> limite.limitador().limparOciosas(agora));
+    }
+
+    private Decisao consumir(LimiteAdmissao anotacao, String dimensao, String chave, long agora) {
+        Limite limite = limites.computeIfAbsent(anotacao.value() + '.' + dimensao, k -> criarLimite(anotacao, dimensao));
+        long espera = limite.limitador().tentar(chave, agora);
+        if (espera == 0) {
+            limite.permitidas().increment();
+            return Decisao.PERMITIDA;
+        }
+        limite.recusadas().increment();
+        return new Decisao(false, dimensao, espera);
+    }
+
+    private Limite criarLimite(LimiteAdmissao anotacao, String dimensao) {
+        boolean porAluno = DIMENSAO_ALUNO.equals(dimensao);
+        String prefixo = "vibecheck.admissao." + anotacao.value() + '.' + dimensao + '.';
+        double porSegundo = environment.getProperty(prefixo + "por-segundo", Double.class,
+                porAluno ? anotacao.alunoPorSegundo() : anotacao.codigoPorSegundo());
+        int rajada = environment.getProperty(prefixo + "rajada", Integer.class,
+                porAluno ? anotacao.alunoRajada() : anotacao.codigoRajada());
+
+        LimitadorTaxa limitador = new LimitadorTaxa(porSegundo, rajada);
+        Gauge.builder("vibecheck.admissao.chaves", limitador, LimitadorTaxa::getQuantidadeChaves)
+                .description("Chaves acompanhadas pelo limitador de admissão")
+                .tag("endpoint", anotacao.value())
+                .tag("dimensao", dimensao)
+                .register(meterRegistry);
+        return new Limite(limitador,
+                contador(anotacao.value(), dimensao, "permitida"),
+                contador(anotacao.value(), dimensao, "recusada"));
+    }
+
+    private Counter contador(String endpoint, String dimensao, String resultado) {
+        return Counter.builder("vibecheck.admissao")
+                .description("Requisições avaliadas pelo controle de admissão")
+                .tag("endpoint", endpoint)
+                .tag("dimensao", dimensao)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,302 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.ThreadsVirtuaisConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.AnaliticoDTO;
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository.LinhaAnalitica;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.utils.ColunasRegistros;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Análises sobre todos os registros emocionais (por dia, período, turma e tipo) sem consultar o banco.
+ *
+ * Os registros ficam em um armazenamento colunar fora do heap (ver ColunasRegistros), carregado uma
+ * vez quando a aplicação sobe e alimentado depois do commit de cada registro novo. Uma consulta é
+ * uma varredura sequencial das colunas: milhões de linhas em milissegundos, sem índices nem resumos.
+ *
+ * - A carga roda em segundo plano; até terminar, as consultas respondem "em carga" (503).
+ * - Com várias instâncias, cada uma só vê no commit os registros que ela mesma gravou. Os das outras
+ *   chegam pela sincronização periódica (vibecheck.analitico.sincronizacao-ms), que lê do banco os
+ *   registros com instante posterior à última leitura; a mesma leitura traz os confirmados durante a carga.
+ * - A leitura volta vibecheck.analitico.margem antes da última, para achar os registros confirmados
+ *   depois dela (o instante é o da submissão, não o do commit). Não serve um "id maior que o último":
+ *   cada instância reserva ids da sequência em blocos, então eles não são confirmados em ordem.
+ *   Os ids dentro da margem ficam em memória para não serem armazenados duas vezes; um registro
+ *   confirmado mais de 'margem' depois do seu instante (ou com o relógio da instância adiantado) só
+ *   aparece nas outras instâncias na próxima carga.
+ * - O armazenamento só cresce: registros não são apagados nem alterados pela aplicação.
+ * - A memória fora do heap é limitada por -XX:MaxDirectMemorySize (padrão: o mesmo que -Xmx).
+ *
+ * Métricas: vibecheck.analitico.linhas, vibecheck.analitico.bytes e vibecheck.analitico.varredura.
+ */
+@Service
+public class AnaliticoRegistrosService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliticoRegistrosService.class);
+
+    private final RegistroEmocionalRepository registroRepository;
+    private final TurmaRepository turmaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final boolean threadsVirtuais;
+    private final int maximoDias;
+    private final Duration margem;
+    private final ColunasRegistros colunas;
+    private final Timer varredura;
+
+    private volatile boolean pronto;
+    private volatile boolean desativado; // Desabilitado na configuração ou a carga falhou: nada é acumulado.
+
+    // Uma sincronização por vez; 'escrita' protege os recentes e é segurada só por linha, para que
+    // o commit de um registro não espere a leitura do banco de uma sincronização.
+    private final ReentrantLock sincronizacao = new ReentrantLock();
+    private final ReentrantLock escrita = new ReentrantLock();
+    private LocalDateTime ultimaSincronizacao; // Protegida por 'sincronizacao'.
+    private final Map<Long, LocalDateTime> recentes = new HashMap<>(); // Id -> instante, dos que a próxima leitura ainda alcança.
+
+    @Autowired
+    public AnaliticoRegistrosService(RegistroEmocionalRepository registroRepository,
+                                     TurmaRepository turmaRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${vibecheck.analitico.habilitado:true}") boolean habilitado,
+                                     @Value("${vibecheck.analitico.capacidade-segmento:65536}") int capacidadeSegmento,
+                                     @Value("${vibecheck.analitico.maximo-dias:3660}") int maximoDias,
+                                     @Value("${vibecheck.analitico.margem:60s}") Duration margem,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.registroRepository = registroRepository;
+        this.turmaRepository = turmaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.desativado = !habilitado;
+        this.threadsVirtuais = threadsVirtuais;
+        this.maximoDias = maximoDias;
+        this.margem = margem;
+        this.colunas = new ColunasRegistros(capacidadeSegmento);
+        Gauge.builder("vibecheck.analitico.linhas", colunas, ColunasRegistros::getTamanho)
+                .description("Registros no armazenamento analítico")
+                .register(meterRegistry);
+        Gauge.builder("vibecheck.analitico.bytes", colunas, ColunasRegistros::getBytesReservados)
+                .description("Memória fora do heap reservada pelo armazenamento analítico")
+                .register(meterRegistry);
+        this.varredura = Timer.builder("vibecheck.analitico.varredura")
+                .description("Duração das varreduras analíticas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Dispara a carga inicial em segundo plano, para não atrasar a subida da aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (habilitado) {
+            ThreadsVirtuaisConfig.construtor(threadsVirtuais).name("analitico-carga").start(this::carregar);
+        }
+    }
+
+    /**
+     * Lê todos os registros do banco para o armazenamento e sincroniza os confirmados durante a leitura.
+     */
+    public void carregar() {
+        long inicio = System.nanoTime();
+        LocalDateTime inicioCarga = LocalDateTime.now();
+        // Os que a primeira sincronização ainda vai ler entram como recentes, para não serem duplicados.
+        LocalDateTime limite = inicioCarga.minus(margem);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<LinhaAnalitica> linhas = registroRepository.streamParaAnalitico()) {
+                    linhas.forEach(linha -> {
+                        if (linha.timestamp() != null && linha.timestamp().isAfter(limite)) {
+                            armazenarSeNovo(linha);
+                        } else {
+                            armazenar(linha);
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Falha na carga do armazenamento analítico; as consultas continuarão indisponíveis", e);
+            desativado = true;
+            return;
+        }
+        sincronizacao.lock();
+        try {
+            ultimaSincronizacao = inicioCarga;
+            pronto = true;
+        } finally {
+            sincronizacao.unlock();
+        }
+        sincronizar();
+        log.info("Armazenamento analítico carregado: {} registros, {} MB fora do heap, em {} ms",
+                colunas.getTamanho(), colunas.getBytesReservados() / (1024 * 1024),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Traz do banco os registros gravados desde a última sincronização (inclusive os de outras instâncias).
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.analitico.sincronizacao-ms:5000}")
+    public void sincronizar() {
+        if (!pronto || desativado) {
+            return;
+        }
+        sincronizacao.lock();
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            LocalDateTime desde = ultimaSincronizacao.minus(margem);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<LinhaAnalitica> linhas = registroRepository.streamParaAnaliticoDesde(desde)) {
+                    linhas.forEach(this::armazenarSeNovo);
+                }
+            });
+            // As próximas leituras começam depois de 'desde': o que ficou para trás não volta mais.
+            escrita.lock();
+            try {
+                recentes.values().removeIf(instante -> !instante.isAfter(desde));
+            } finally {
+                escrita.unlock();
+            }
+            ultimaSincronizacao = agora;
+        } catch (RuntimeException e) {
+            log.warn("Falha na sincronização do armazenamento analítico; nova tentativa no próximo ciclo", e);
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    /**
+     * Acrescenta um registro novo ao armazenamento, a partir do commit da transação em andamento.
+     * Antes do fim da carga não faz nada: a sincronização ao final da carga traz o registro.
+     */
+    public void registroGravado(RegistroEmocional registro) {
+        if (desativado) {
+            return;
+        }
+        LinhaAnalitica linha = new LinhaAnalitica(registro.getId(), registro.getTurma().getId(),
+                registro.getTimestamp(), registro.getEmocao(), registro.getTipoSubmissao());
+        AposCommit.executar(() -> acrescentar(linha));
+    }
+
+    /**
+     * Quantidade, média e histograma por dia dos registros das turmas do professor no período.
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param de                Primeiro dia, inclusivo.
+     * @param ate               Último dia, inclusivo.
+     * @param turmaId           Restringe a uma turma do professor (null = todas).
+     * @param tipo              Restringe a CHECKIN ou CHECKOUT (null = ambos).
+     * @throws IllegalStateException Se o armazenamento ainda não foi carregado (ou está desabilitado).
+     */
+    public AnaliticoDTO consultar(String googleIdProfessor, LocalDate de, LocalDate ate,
+                                  Long turmaId, TipoAvaliacao tipo) {
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial.");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= maximoDias) {
+            throw new IllegalArgumentException("O período máximo é de " + maximoDias + " dias.");
+        }
+        if (!pronto) {
+            throw new IllegalStateException("O armazenamento analítico ainda está em carga.");
+        }
+
+        BitSet turmas = new BitSet();
+        for (Long id : turmaRepository.findIdsByProfessorGoogleId(googleIdProfessor)) {
+            if ((turmaId == null || turmaId.equals(id)) && id <= Integer.MAX_VALUE) {
+                turmas.set(id.intValue());
+            }
+        }
+
+        long inicio = System.nanoTime();
+        ColunasRegistros.Resultado resultado = colunas.agruparPorDia(new ColunasRegistros.Filtro(
+                turmas, de.atStartOfDay(), ate.plusDays(1).atStartOfDay(), tipo == null ? -1 : tipo.ordinal()));
+        long nanos = System.nanoTime() - inicio;
+        varredura.record(Duration.ofNanos(nanos));
+
+        List<AnaliticoDTO.Dia> dias = new ArrayList<>();
+        long quantidade = 0;
+        long soma = 0;
+        for (int i = 0; i < resultado.quantidade().length; i++) {
+            long n = resultado.quantidade()[i];
+            if (n > 0) {
+                long s = resultado.soma()[i];
+                dias.add(new AnaliticoDTO.Dia(resultado.primeiroDia().plusDays(i), n, s, (double) s / n));
+                quantidade += n;
+                soma += s;
+            }
+        }
+        Map<Integer, Long> histograma = new TreeMap<>();
+        for (int emocao = 0; emocao < resultado.histograma().length; emocao++) {
+            if (resultado.histograma()[emocao] > 0) {
+                histograma.put(emocao, resultado.histograma()[emocao]);
+            }
+        }
+        return new AnaliticoDTO(de, ate, tipo == null ? null : tipo.name(), quantidade,
+                quantidade == 0 ? null : (double) soma / quantidade, dias, histograma,
+                resultado.linhasLidas(), nanos / 1_000_000.0);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    private void acrescentar(LinhaAnalitica linha) {
+        if (pronto) {
+            armazenarSeNovo(linha);
+        }
+    }
+
+    /**
+     * Armazena a linha, a menos que ela já tenha chegado pelo commit local ou por outra sincronização.
+     */
+    private void armazenarSeNovo(LinhaAnalitica linha) {
+        if (linha.id() == null || linha.timestamp() == null) {
+            armazenar(linha); // Só registra o aviso.
+            return;
+        }
+        escrita.lock();
+        try {
+            if (recentes.putIfAbsent(linha.id(), linha.timestamp()) == null) {
+                armazenar(linha);
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void armazenar(LinhaAnalitica linha) {
+        if (linha.id() == null || linha.turmaId() == null || linha.timestamp() == null
+                || linha.emocao() == null || linha.tipo() == null
+                || !colunas.adicionar(linha.turmaId(), linha.timestamp(), linha.emocao(), linha.tipo().ordinal())) {
+            log.warn("Registro {} fora do formato do armazenamento analítico; ignorado", linha.id());
+        }
+    }
+}
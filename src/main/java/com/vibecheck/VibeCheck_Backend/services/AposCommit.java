@@ -0,0 +1,59 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ações que só podem acontecer depois que a transação atual for confirmada (publicar em memória
+ * algo que outra thread vai ler, avisar outras instâncias). Fora de uma transação, rodam na hora;
+ * se a transação for desfeita, são descartadas.
+ *
+ * Todas as ações de uma transação ficam em uma única TransactionSynchronization, rodadas em ordem
+ * no afterCommit: um lote de registros agenda N ações, não N sincronizações. Uma ação que falha
+ * é registrada no log e não impede as seguintes (a transação já foi confirmada).
+ */
+final class AposCommit {
+
+    private static final Logger log = LoggerFactory.getLogger(AposCommit.class);
+
+    private AposCommit() {
+    }
+
+    static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Acoes acoes) {
+                acoes.pendentes.add(acao);
+                return;
+            }
+        }
+        Acoes acoes = new Acoes();
+        acoes.pendentes.add(acao);
+        TransactionSynchronizationManager.registerSynchronization(acoes);
+    }
+
+    private static final class Acoes implements TransactionSynchronization {
+
+        private final List<Runnable> pendentes = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            // Por índice: uma ação pode agendar outra, que entra no fim da lista e roda nesta mesma passada.
+            for (int i = 0; i < pendentes.size(); i++) {
+                try {
+                    pendentes.get(i).run();
+                } catch (RuntimeException e) {
+                    log.error("Falha ao aplicar uma alteração depois do commit", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alocador de códigos de 6 caracteres [A-Z0-9] sem colisão e em O(1).
+ *
+ * Cada alocação pega o próximo valor de um contador atômico e o embaralha com uma permutação
+ * pseudoaleatória (rede de Feistel com chaves sorteadas na inicialização) sobre o espaço de 36^6 códigos.
+ * Como a permutação é uma bijeção, o mesmo processo só repete um código depois de percorrer
+ * todo o espaço (~2,18 bilhões de códigos), e os códigos emitidos não são sequenciais nem previsíveis.
+ *
+ * Códigos expirados podem ser reutilizados: a unicidade no banco vale apenas para códigos ativos
+ * (índice único parcial), e {@link #desativarExpirados()} marca os vencidos como inativos.
+ * Colisões residuais (outra instância ou código vencido ainda não desativado) são tratadas
+ * com nova tentativa em CodigoAvaliacaoService.
+ */
+@Component
+public class CodigoAllocator {
+
+    private static final String CARACTERES = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    public static final int TAMANHO = 6;
+    private static final int RODADAS = 4;
+
+    private final CodigoAvaliacaoRepository codigoRepository;
+    private final CodigoAtivoRegistry codigoAtivoRegistry;
+    private final int tamanho;
+    private final long espaco; // 36^tamanho
+    private final int bitsMetade; // Metade da largura da rede de Feistel.
+    private final int[] chaves;
+    private final AtomicLong contador;
+
+    @Autowired
+    public CodigoAllocator(CodigoAvaliacaoRepository codigoRepository, CodigoAtivoRegistry codigoAtivoRegistry) {
+        // Chaves e ponto de partida sorteados por instância: instâncias diferentes percorrem
+        // o espaço em ordens diferentes, tornando colisões entre elas muito improváveis.
+        this(codigoRepository, codigoAtivoRegistry, TAMANHO, sortearChaves(), new SecureRandom().nextLong());
+    }
+
+    // Tamanho, chaves e ponto de partida fixos, para os testes percorrerem um espaço pequeno inteiro.
+    CodigoAllocator(CodigoAvaliacaoRepository codigoRepository, CodigoAtivoRegistry codigoAtivoRegistry,
+                    int tamanho, int[] chaves, long inicio) {
+        this.codigoRepository = codigoRepository;
+        this.codigoAtivoRegistry = codigoAtivoRegistry;
+        this.tamanho = tamanho;
+        long espaco = 1;
+        for (int i = 0; i < tamanho; i++) {
+            espaco *= CARACTERES.length();
+        }
+        this.espaco = espaco;
+        this.bitsMetade = (Long.SIZE - Long.numberOfLeadingZeros(espaco - 1) + 1) / 2;
+        this.chaves = chaves.clone();
+        this.contador = new AtomicLong(Math.floorMod(inicio, espaco));
+    }
+
+    private static int[] sortearChaves() {
+        SecureRandom random = new SecureRandom();
+        int[] chaves = new int[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            chaves[i] = random.nextInt();
+        }
+        return chaves;
+    }
+
+    /**
+     * Aloca um novo código. Seguro para chamadas concorrentes (apenas um getAndIncrement por tentativa).
+     * Códigos ainda vivos no CodigoAtivoRegistry são pulados.
+     */
+    public String alocar() {
+        while (true) {
+            String codigo = codificar(permutar(Math.floorMod(contador.getAndIncrement(), espaco)));
+            if (codigoAtivoRegistry.buscar(codigo).isEmpty()) {
+                return codigo;
+            }
+        }
+    }
+
+    /**
+     * Marca como inativos os códigos cuja data de expiração já passou, liberando-os para reutilização.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.codigos.desativacao-ms:60000}")
+    @Transactional
+    public void desativarExpirados() {
+        codigoRepository.desativarExpirados(LocalDateTime.now());
+    }
+
+    /**
+     * Bijeção sobre [0, 36^tamanho): rede de Feistel balanceada com "cycle walking".
+     * A rede permuta [0, 2^(2 * bitsMetade)), a menor potência de 4 que cobre o espaço (2^32 para
+     * 6 caracteres); reaplicá-la até o resultado cair dentro do espaço preserva a bijeção
+     * (em média, menos de 4 aplicações).
+     */
+    long permutar(long valor) {
+        long x = valor;
+        do {
+            x = feistel(x);
+        } while (x >= espaco);
+        return x;
+    }
+
+    long feistel(long valor) {
+        int mascara = (1 << bitsMetade) - 1;
+        int esquerda = (int) (valor >>> bitsMetade) & mascara;
+        int direita = (int) valor & mascara;
+        for (int chave : chaves) {
+            int nova = esquerda ^ (rodada(direita, chave) & mascara);
+            esquerda = direita;
+            direita = nova;
+        }
+        return ((long) esquerda << bitsMetade) | direita;
+    }
+
+    private static int rodada(int metade, int chave) {
+        int h = (metade ^ chave) * 0x9E3779B1;
+        return h ^ (h >>> 15);
+    }
+
+    private String codificar(long indice) {
+        char[] codigo = new char[tamanho];
+        long resto = indice;
+        for (int i = tamanho - 1; i >= 0; i--) {
+            codigo[i] = CARACTERES.charAt((int) (resto % CARACTERES.length()));
+            resto /= CARACTERES.length();
+        }
+        return new String(codigo);
+    }
+}
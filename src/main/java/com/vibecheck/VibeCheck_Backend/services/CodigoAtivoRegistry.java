@@ -0,0 +1,228 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.CacheLimitado;
+import com.vibecheck.VibeCheck_Backend.models.CodigoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
+import com.vibecheck.VibeCheck_Backend.utils.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro em memória dos códigos de avaliação vivos (ativos e não expirados).
+ *
+ * Evita a consulta findByCodigoAndAtivoTrueAndDataExpiracaoAfter a cada verificação/registro:
+ * - Um mapa concorrente guarda um retrato imutável de cada código vivo (ids de turma/professor, tipo e validade).
+ * - Um filtro de Bloom com todos os códigos vivos no banco (de qualquer instância) até a última
+ *   sincronização, mais os gerados aqui: um código fora dele não está vivo em lugar nenhum e é
+ *   recusado sem consultar o banco, não importa quantos códigos diferentes sejam tentados.
+ *   Um código gerado por outra instância entra na sincronização seguinte (vibecheck.codigos.sincronizacao-ms);
+ *   até lá, é recusado nesta.
+ * - Um cache negativo curto guarda os códigos que passaram pelo filtro (falso positivo, ou desativados
+ *   desde a última reconstrução) e não estão vivos no banco, para que um aluno insistindo neles não
+ *   gere uma consulta por tentativa. Publicar o código remove a entrada negativa.
+ *
+ * Cada código vivo vale até a sua dataExpiracao: a entrada é descartada na primeira leitura depois disso.
+ *
+ * O registro é carregado do banco na inicialização, alimentado por CodigoAvaliacaoService ao gerar
+ * um código, sincronizado a cada poucos segundos com os códigos criados desde a última sincronização
+ * e, periodicamente, recarregado por inteiro com o filtro reconstruído (ver recarregar()).
+ */
+@Component
+public class CodigoAtivoRegistry {
+
+    /**
+     * Retrato imutável de um código vivo. Contém apenas ids, para não manter entidades JPA fora de uma sessão.
+     */
+    public record CodigoAtivo(Long id,
+                              String codigo,
+                              TipoAvaliacao tipo,
+                              Long turmaId,
+                              Long professorId,
+                              LocalDateTime dataCriacao,
+                              LocalDateTime dataExpiracao) {
+
+        public static CodigoAtivo de(CodigoAvaliacao codigo) {
+            // getId() em um proxy LAZY não dispara consulta ao banco.
+            return new CodigoAtivo(
+                    codigo.getId(),
+                    codigo.getCodigo(),
+                    codigo.getTipo(),
+                    codigo.getTurma().getId(),
+                    codigo.getProfessor().getId(),
+                    codigo.getDataCriacao(),
+                    codigo.getDataExpiracao());
+        }
+
+        public boolean isValidoEm(LocalDateTime instante) {
+            return dataExpiracao.isAfter(instante);
+        }
+    }
+
+    private final CodigoAvaliacaoRepository codigoRepository;
+    private final int capacidadeFiltro;
+    private final double taxaFalsoPositivo;
+
+    private final Map<String, CodigoAtivo> codigos = new ConcurrentHashMap<>();
+    private final CacheLimitado invalidos;
+    private final ReentrantLock reconstrucaoLock = new ReentrantLock();
+    private volatile BloomFilter filtro;
+    private volatile LocalDateTime ultimaSincronizacao;
+
+    @Autowired
+    public CodigoAtivoRegistry(CodigoAvaliacaoRepository codigoRepository,
+                               @Value("${vibecheck.codigos.filtro.capacidade:10000}") int capacidadeFiltro,
+                               @Value("${vibecheck.codigos.filtro.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                               @Value("${vibecheck.codigos.cache-negativo.ttl:5s}") Duration ttlNegativo,
+                               @Value("${vibecheck.codigos.cache-negativo.tamanho-maximo:10000}") int tamanhoNegativo) {
+        this.codigoRepository = codigoRepository;
+        this.invalidos = new CacheLimitado("codigosInvalidos", tamanhoNegativo, ttlNegativo, CacheLimitado.Politica.LRU);
+        this.capacidadeFiltro = capacidadeFiltro;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.filtro = new BloomFilter(capacidadeFiltro, taxaFalsoPositivo);
+    }
+
+    /**
+     * Carrega todos os códigos vivos do banco assim que a aplicação sobe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Antes da reaplicação do log de registros (RegistroAssincronoService).
+    public void carregar() {
+        LocalDateTime agora = LocalDateTime.now();
+        codigoRepository.findByAtivoTrueAndDataExpiracaoAfter(agora).forEach(this::registrar);
+        ultimaSincronizacao = agora;
+    }
+
+    /**
+     * Registra (ou substitui) um código recém-persistido.
+     */
+    public void registrar(CodigoAvaliacao codigo) {
+        registrar(CodigoAtivo.de(codigo));
+    }
+
+    public void registrar(CodigoAtivo codigo) {
+        // A ordem importa: primeiro o mapa, depois o filtro (ver reconstruirFiltro())
+        // e a entrada negativa (ver registrarInvalido()).
+        codigos.put(codigo.codigo(), codigo);
+        filtro.adicionar(codigo.codigo());
+        invalidos.evict(codigo.codigo());
+    }
+
+    /**
+     * @return true se o código foi consultado no banco há pouco e não estava vivo.
+     */
+    public boolean invalidoRecente(String codigo) {
+        return invalidos.get(codigo) != null;
+    }
+
+    /**
+     * Guarda, pelo TTL do cache negativo, que o banco não tem o código vivo.
+     */
+    public void registrarInvalido(String codigo) {
+        invalidos.put(codigo, Boolean.TRUE);
+        // Se o código foi publicado durante a consulta ao banco, a entrada negativa não vale:
+        // registrar() coloca no mapa antes de limpar o negativo, então um dos dois lados a remove.
+        if (codigos.containsKey(codigo)) {
+            invalidos.evict(codigo);
+        }
+    }
+
+    /**
+     * Resolve um código vivo: primeiro o filtro, que recusa sem mais nada os códigos que não estavam
+     * vivos em nenhuma instância na última sincronização; depois a memória, o cache negativo e, só
+     * então, o banco.
+     *
+     * @param codigo Código de avaliação digitado.
+     * @return O código vivo, se existir.
+     */
+    public Optional<CodigoAtivo> resolver(String codigo) {
+        if (codigo == null || !filtro.talvezContem(codigo)) {
+            return Optional.empty();
+        }
+        Optional<CodigoAtivo> emMemoria = buscar(codigo);
+        if (emMemoria.isPresent() || invalidoRecente(codigo)) {
+            return emMemoria;
+        }
+        Optional<CodigoAtivo> doBanco = codigoRepository.findByCodigoAndAtivoTrueAndDataExpiracaoAfter(codigo, LocalDateTime.now())
+                .map(CodigoAtivo::de);
+        doBanco.ifPresentOrElse(this::registrar, () -> registrarInvalido(codigo));
+        return doBanco;
+    }
+
+    /**
+     * Busca um código vivo em memória, sem consultar o banco. Entradas vencidas são descartadas na própria leitura.
+     */
+    public Optional<CodigoAtivo> buscar(String codigo) {
+        if (codigo == null) {
+            return Optional.empty();
+        }
+        CodigoAtivo ativo = codigos.get(codigo);
+        if (ativo == null) {
+            return Optional.empty();
+        }
+        if (!ativo.isValidoEm(LocalDateTime.now())) {
+            codigos.remove(codigo, ativo);
+            return Optional.empty();
+        }
+        return Optional.of(ativo);
+    }
+
+    /**
+     * Traz para a memória códigos criados por outras instâncias desde a última sincronização.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.codigos.sincronizacao-ms:5000}",
+               initialDelayString = "${vibecheck.codigos.sincronizacao-ms:5000}")
+    public void sincronizar() {
+        LocalDateTime desde = ultimaSincronizacao;
+        if (desde == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        // Margem de 1s para não perder códigos commitados durante a consulta anterior.
+        codigoRepository.findByAtivoTrueAndDataCriacaoAfter(desde.minusSeconds(1)).stream()
+                .filter(c -> c.getDataExpiracao().isAfter(agora))
+                .forEach(this::registrar);
+        ultimaSincronizacao = agora;
+    }
+
+    /**
+     * Recarrega todos os códigos vivos do banco (inclusive os que a sincronização incremental não vê,
+     * como um código reativado), remove os expirados e reconstrói o filtro, que não suporta remoção.
+     * Códigos do mapa ausentes da consulta não são removidos: podem ter sido gerados aqui e ainda
+     * não estar commitados.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.codigos.limpeza-ms:60000}")
+    public void recarregar() {
+        LocalDateTime agora = LocalDateTime.now();
+        invalidos.limparExpiradas();
+        codigoRepository.findByAtivoTrueAndDataExpiracaoAfter(agora).forEach(this::registrar);
+        codigos.values().removeIf(c -> !c.isValidoEm(agora));
+        reconstruirFiltro();
+    }
+
+    private void reconstruirFiltro() {
+        reconstrucaoLock.lock();
+        try {
+            BloomFilter novo = new BloomFilter(Math.max(capacidadeFiltro, codigos.size() * 2), taxaFalsoPositivo);
+            codigos.keySet().forEach(novo::adicionar);
+            filtro = novo;
+            // Segunda passada: cobre códigos inseridos no mapa enquanto o novo filtro era montado.
+            codigos.keySet().forEach(novo::adicionar);
+        } finally {
+            reconstrucaoLock.unlock();
+        }
+    }
+}
@@ -7,12 +7,14 @@ import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
 import com.vibecheck.VibeCheck_Backend.repositories.ProfessorRepository;
 import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 
 /**
  * @Service: Marca esta classe como um componente de serviço do Spring.
@@ -25,6 +27,12 @@ public class CodigoAvaliacaoService {
     private final CodigoAvaliacaoRepository codigoRepository;
     private final ProfessorRepository professorRepository;
     private final TurmaRepository turmaRepository;
+    private final CodigoAtivoRegistry codigoAtivoRegistry;
+    private final CodigoAllocator codigoAllocator;
+    private final HumorAoVivoService humorAoVivoService;
+
+    // Quantas vezes tentar um novo código se o banco recusar o valor alocado (colisão residual).
+    private static final int TENTATIVAS_ALOCACAO = 5;
 
     /**
      * Injeção de dependências via construtor. É a prática recomendada pelo Spring.
@@ -32,19 +40,35 @@ public class CodigoAvaliacaoService {
     @Autowired
     public CodigoAvaliacaoService(CodigoAvaliacaoRepository codigoRepository,
                                   ProfessorRepository professorRepository,
-                                  TurmaRepository turmaRepository) {
+                                  TurmaRepository turmaRepository,
+                                  CodigoAtivoRegistry codigoAtivoRegistry,
+                                  CodigoAllocator codigoAllocator,
+                                  HumorAoVivoService humorAoVivoService) {
         this.codigoRepository = codigoRepository;
         this.professorRepository = professorRepository;
         this.turmaRepository = turmaRepository;
+        this.codigoAtivoRegistry = codigoAtivoRegistry;
+        this.codigoAllocator = codigoAllocator;
+        this.humorAoVivoService = humorAoVivoService;
     }
 
     // Método público que serve como uma fachada para gerar um código de CHECKIN.
+    // Gerar um código pode criar a turma (ver gerarCodigo): limpa as listas de turmas do professor.
+    @Caching(evict = {
+            @CacheEvict(value = "turmasPorProfessor", key = "#googleId"),
+            @CacheEvict(value = "nomesTurmasPorProfessor", key = "#googleId")
+    })
     public CodigoAvaliacao gerarCodigoCheckin(String googleId, String nomeTurma) {
         // Delega a lógica para um método privado, especificando o tipo. Promove reutilização de código.
         return gerarCodigo(googleId, nomeTurma, TipoAvaliacao.CHECKIN);
     }
 
     // Método público para gerar um código de CHECKOUT.
+    // Gerar um código pode criar a turma (ver gerarCodigo): limpa as listas de turmas do professor.
+    @Caching(evict = {
+            @CacheEvict(value = "turmasPorProfessor", key = "#googleId"),
+            @CacheEvict(value = "nomesTurmasPorProfessor", key = "#googleId")
+    })
     public CodigoAvaliacao gerarCodigoCheckout(String googleId, String nomeTurma) {
         return gerarCodigo(googleId, nomeTurma, TipoAvaliacao.CHECKOUT);
     }
@@ -64,29 +88,31 @@ public class CodigoAvaliacaoService {
                     return turmaRepository.save(nova); // Salva a nova turma e a retorna.
                 });
 
-        // 3. Cria e configura o novo objeto CodigoAvaliacao.
-        CodigoAvaliacao codigo = new CodigoAvaliacao();
-        codigo.setCodigo(gerarCodigoAleatorio(6)); // Gera uma string aleatória.
-        codigo.setAtivo(true);
-        codigo.setDataCriacao(LocalDateTime.now());
-        codigo.setDataExpiracao(LocalDateTime.now().plusMinutes(30)); // Define a validade do código.
-        codigo.setProfessor(professor);
-        codigo.setTipo(tipo);
-        codigo.setTurma(turma);
-
-        // 4. Salva o código no banco e retorna a entidade persistida.
-        return codigoRepository.save(codigo);
-    }
+        // 3. Aloca um código único e tenta salvá-lo. O índice único parcial do banco é a última
+        //    barreira: se recusar o valor (colisão com outra instância), aloca outro e tenta de novo.
+        for (int tentativa = 1; ; tentativa++) {
+            CodigoAvaliacao codigo = new CodigoAvaliacao();
+            codigo.setCodigo(codigoAllocator.alocar());
+            codigo.setAtivo(true);
+            codigo.setDataCriacao(LocalDateTime.now());
+            codigo.setDataExpiracao(LocalDateTime.now().plusMinutes(30)); // Define a validade do código.
+            codigo.setProfessor(professor);
+            codigo.setTipo(tipo);
+            codigo.setTurma(turma);
 
-    // Helper privado para gerar uma string de código aleatório.
-    private String gerarCodigoAleatorio(int tamanho) {
-        String caracteres = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder codigo = new StringBuilder();
-        Random random = new Random();
-        for (int i = 0; i < tamanho; i++) {
-            codigo.append(caracteres.charAt(random.nextInt(caracteres.length())));
+            try {
+                // 4. Salva o código no banco e o publica no registro em memória, para que as validações
+                //    dos alunos não precisem consultar o banco.
+                CodigoAvaliacao salvo = codigoRepository.save(codigo);
+                codigoAtivoRegistry.registrar(salvo);
+                humorAoVivoService.iniciar(CodigoAtivoRegistry.CodigoAtivo.de(salvo)); // Sessão nova, com contagem zero.
+                return salvo;
+            } catch (DataIntegrityViolationException e) {
+                if (tentativa >= TENTATIVAS_ALOCACAO) {
+                    throw new RuntimeException("Não foi possível alocar um código único.", e);
+                }
+            }
         }
-        return codigo.toString();
     }
 
     // Busca todas as turmas de um professor e retorna apenas os nomes.
@@ -0,0 +1,151 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.dtos.DuracoesPraticaDTO;
+import com.vibecheck.VibeCheck_Backend.models.Pratica;
+import com.vibecheck.VibeCheck_Backend.repositories.DuracaoDiariaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.DuracaoDiariaRepository.LinhaDuracao;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.utils.HistogramaLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Histogramas diários da duração das práticas, por turma e aluno (ver DuracaoDiaria e HistogramaLog).
+ *
+ * - acumular: chamado por quem fecha práticas (PraticaService e PraticaFechamentoAutomatico) na mesma
+ *   transação do fechamento, então a barra é confirmada (ou desfeita) junto com a prática;
+ * - consultar: p50/p90/p99 da turma e de cada aluno em um período, somando as barras dos dias.
+ *
+ * A prática conta no dia em que começou (o mesmo critério das listagens por período).
+ */
+@Service
+public class DuracaoPraticaService {
+
+    // Maior período aceito por consulta (as barras são somadas no banco, mas o resultado cresce com os alunos).
+    public static final int MAXIMO_DIAS_CONSULTA = 366;
+
+    private static final double[] PERCENTIS = {50, 90, 99};
+
+    // Ordem fixa de atualização das barras, para que duas transações não entrem em deadlock (ver ResumoDiarioService).
+    private static final Comparator<Barra> ORDEM_BARRAS = Comparator.comparing(Barra::turmaId)
+            .thenComparing(Barra::dia)
+            .thenComparing(Barra::alunoId)
+            .thenComparing(Barra::faixa);
+
+    private record Barra(Long turmaId, LocalDate dia, Long alunoId, Integer faixa) {
+    }
+
+    /**
+     * Uma prática recém-fechada.
+     */
+    public record PraticaFechada(Long turmaId, Long alunoId, LocalDateTime inicio, long duracaoSegundos) {
+    }
+
+    private final DuracaoDiariaRepository duracaoRepository;
+    private final TurmaRepository turmaRepository;
+
+    @Autowired
+    public DuracaoPraticaService(DuracaoDiariaRepository duracaoRepository, TurmaRepository turmaRepository) {
+        this.duracaoRepository = duracaoRepository;
+        this.turmaRepository = turmaRepository;
+    }
+
+    /**
+     * Conta uma prática fechada no histograma do seu dia. Deve ser chamado na transação do fechamento.
+     */
+    @Transactional
+    public void acumular(Long turmaId, Long alunoId, LocalDateTime inicio, long duracaoSegundos) {
+        duracaoRepository.acumular(turmaId, inicio.toLocalDate(), alunoId,
+                HistogramaLog.faixa(duracaoSegundos), 1);
+    }
+
+    /**
+     * Conta uma prática fechada pela entidade (Pratica.fechar).
+     */
+    @Transactional
+    public void acumular(Pratica pratica) {
+        acumular(pratica.getTurma().getId(), pratica.getAluno().getId(), pratica.getInicio(), pratica.getDuracaoSegundos());
+    }
+
+    /**
+     * Conta várias práticas fechadas de uma vez: uma atualização por barra, não por prática.
+     */
+    @Transactional
+    public void acumular(Collection<PraticaFechada> praticas) {
+        Map<Barra, Long> barras = new TreeMap<>(ORDEM_BARRAS);
+        for (PraticaFechada pratica : praticas) {
+            Barra barra = new Barra(pratica.turmaId(), pratica.inicio().toLocalDate(), pratica.alunoId(),
+                    HistogramaLog.faixa(pratica.duracaoSegundos()));
+            barras.merge(barra, 1L, Long::sum);
+        }
+        barras.forEach((barra, quantidade) -> duracaoRepository.acumular(
+                barra.turmaId(), barra.dia(), barra.alunoId(), barra.faixa(), quantidade));
+    }
+
+    /**
+     * Percentis da duração das práticas de uma turma do professor no período.
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param turmaId           Turma consultada.
+     * @param de                Primeiro dia, inclusivo.
+     * @param ate               Último dia, inclusivo.
+     * @param alunoId           Restringe a um aluno (null = todos).
+     * @return Vazio se a turma não existir ou não for do professor.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DuracoesPraticaDTO> consultar(String googleIdProfessor, Long turmaId, LocalDate de, LocalDate ate,
+                                                  Long alunoId) {
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial.");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException("O período máximo é de " + MAXIMO_DIAS_CONSULTA + " dias.");
+        }
+        if (!turmaRepository.existsByIdAndProfessorGoogleId(turmaId, googleIdProfessor)) {
+            return Optional.empty();
+        }
+
+        // As linhas chegam ordenadas por aluno: cada aluno tem o seu histograma, e todos somam no da turma.
+        HistogramaLog total = new HistogramaLog();
+        Map<Long, HistogramaLog> porAluno = new LinkedHashMap<>();
+        Map<Long, String> nomes = new LinkedHashMap<>();
+        List<LinhaDuracao> linhas = alunoId == null
+                ? duracaoRepository.buscarDaTurma(turmaId, de, ate)
+                : duracaoRepository.buscarDoAluno(turmaId, de, ate, alunoId);
+        for (LinhaDuracao linha : linhas) {
+            porAluno.computeIfAbsent(linha.alunoId(), id -> new HistogramaLog()).adicionar(linha.faixa(), linha.quantidade());
+            nomes.put(linha.alunoId(), linha.aluno());
+            total.adicionar(linha.faixa(), linha.quantidade());
+        }
+
+        List<DuracoesPraticaDTO.Percentis> alunos = new ArrayList<>(porAluno.size());
+        porAluno.forEach((id, histograma) -> alunos.add(percentis(id, nomes.get(id), histograma)));
+        return Optional.of(new DuracoesPraticaDTO(turmaId, de, ate, percentis(null, null, total), alunos));
+    }
+
+    private static DuracoesPraticaDTO.Percentis percentis(Long alunoId, String aluno, HistogramaLog histograma) {
+        Long[] valores = new Long[PERCENTIS.length];
+        String[] formatados = new String[PERCENTIS.length];
+        for (int i = 0; i < PERCENTIS.length; i++) {
+            valores[i] = histograma.percentil(PERCENTIS[i]);
+            formatados[i] = valores[i] == null ? null : Pratica.formatarDuracao(valores[i]);
+        }
+        Map<Long, Long> barras = new LinkedHashMap<>();
+        histograma.getFaixas().forEach((faixa, quantidade) -> barras.put(HistogramaLog.limiteSuperior(faixa), quantidade));
+        return new DuracoesPraticaDTO.Percentis(alunoId, aluno, histograma.getQuantidade(),
+                valores[0], valores[1], valores[2], formatados[0], formatados[1], formatados[2], barras);
+    }
+}
@@ -0,0 +1,164 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepositoryCustom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de práticas e registros emocionais em CSV ou NDJSON (um objeto JSON por linha).
+ *
+ * As linhas vêm de um Stream sobre o cursor JDBC (ver os métodos streamParaExportacao dos
+ * repositórios) e são escritas no destino uma a uma, sem montar listas: a memória usada é a mesma
+ * para cem ou para um milhão de linhas. Os métodos mantêm a transação (e o cursor) aberta enquanto
+ * escrevem, então o destino deve ser a própria resposta HTTP.
+ */
+@Service
+public class ExportacaoService {
+
+    /**
+     * Formatos de exportação.
+     */
+    public enum FormatoExportacao {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String tipoConteudo;
+        private final String extensao;
+
+        FormatoExportacao(String tipoConteudo, String extensao) {
+            this.tipoConteudo = tipoConteudo;
+            this.extensao = extensao;
+        }
+
+        public String getTipoConteudo() {
+            return tipoConteudo;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    private final PraticaRepository praticaRepository;
+    private final RegistroEmocionalRepository registroRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportacaoService(PraticaRepository praticaRepository,
+                             RegistroEmocionalRepository registroRepository,
+                             ObjectMapper objectMapper) {
+        this.praticaRepository = praticaRepository;
+        this.registroRepository = registroRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta as práticas de uma turma do professor, em ordem cronológica de início.
+     *
+     * @param inicio Início do período, inclusivo (null = sem limite).
+     * @param fim    Fim do período, exclusivo (null = sem limite).
+     * @return Quantas linhas foram escritas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarPraticas(String googleIdProfessor, Long turmaId, LocalDateTime inicio, LocalDateTime fim,
+                                 FormatoExportacao formato, Writer destino) throws IOException {
+        try (Stream<PraticaRepositoryCustom.LinhaExportacao> linhas =
+                     praticaRepository.streamParaExportacao(googleIdProfessor, turmaId, inicio, fim)) {
+            return escrever(linhas, PraticaRepositoryCustom.LinhaExportacao.class, formato, destino);
+        }
+    }
+
+    /**
+     * Exporta os registros emocionais das turmas do professor que atendem ao filtro, em ordem cronológica.
+     *
+     * @return Quantas linhas foram escritas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarRegistros(String googleIdProfessor, FiltroDashboard filtro,
+                                  FormatoExportacao formato, Writer destino) throws IOException {
+        try (Stream<RegistroEmocionalRepositoryCustom.LinhaExportacao> linhas =
+                     registroRepository.streamParaExportacao(googleIdProfessor, filtro)) {
+            return escrever(linhas, RegistroEmocionalRepositoryCustom.LinhaExportacao.class, formato, destino);
+        }
+    }
+
+    /**
+     * Escreve as linhas no formato pedido. As colunas do CSV (e os campos do JSON) são os
+     * componentes do record, na ordem em que foram declarados.
+     */
+    <T extends Record> long escrever(Stream<T> linhas, Class<T> tipo, FormatoExportacao formato, Writer destino)
+            throws IOException {
+        RecordComponent[] componentes = tipo.getRecordComponents();
+        if (formato == FormatoExportacao.CSV) {
+            for (int i = 0; i < componentes.length; i++) {
+                if (i > 0) {
+                    destino.write(',');
+                }
+                destino.write(componentes[i].getName());
+            }
+            destino.write("\r\n");
+        }
+
+        long total = 0;
+        Iterator<T> iterador = linhas.iterator();
+        while (iterador.hasNext()) {
+            T linha = iterador.next();
+            if (formato == FormatoExportacao.CSV) {
+                escreverCsv(linha, componentes, destino);
+            } else {
+                destino.write(objectMapper.writeValueAsString(linha));
+                destino.write('\n');
+            }
+            total++;
+        }
+        destino.flush();
+        return total;
+    }
+
+    private static void escreverCsv(Record linha, RecordComponent[] componentes, Writer destino) throws IOException {
+        for (int i = 0; i < componentes.length; i++) {
+            if (i > 0) {
+                destino.write(',');
+            }
+            Object valor = valor(linha, componentes[i].getAccessor());
+            if (valor != null) {
+                destino.write(escaparCsv(valor.toString()));
+            }
+        }
+        destino.write("\r\n");
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com as aspas duplicadas.
+    private static String escaparCsv(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + valor.replace("\"", "\"\"") + '"';
+            }
+        }
+        return valor;
+    }
+
+    private static Object valor(Record linha, Method acessor) {
+        try {
+            return acessor.invoke(linha);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Não foi possível ler o campo " + acessor.getName(), e);
+        }
+    }
+}
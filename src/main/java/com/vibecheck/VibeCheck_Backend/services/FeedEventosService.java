@@ -0,0 +1,301 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.dtos.EventoFeedDTO;
+import com.vibecheck.VibeCheck_Backend.models.Pratica;
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
+import com.vibecheck.VibeCheck_Backend.utils.AnelCircular;
+import com.vibecheck.VibeCheck_Backend.utils.AnelCircular.Entrada;
+import com.vibecheck.VibeCheck_Backend.utils.AnelCircular.Leitura;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed ao vivo (Server-Sent Events) dos registros e das práticas de uma turma.
+ *
+ * Os eventos entram, depois do commit, em um AnelCircular de histórico (para reconexões) e no anel
+ * próprio de cada assinante interessado (a turma, e o código se houver filtro), localizado pelo índice
+ * de assinaturas por turma. Quem grava só escreve nos anéis: nunca espera por um navegador. Um
+ * despachante periódico entrega a cada assinante tudo o que chegou no seu anel, em uma thread virtual
+ * por envio; um assinante ainda ocupado com o envio anterior (conexão lenta) é pulado e continua de
+ * onde parou na rodada seguinte.
+ *
+ * Como cada anel só recebe os eventos do seu assinante, uma rajada em outras turmas não o atrasa.
+ * Quem ficar mais de 'capacidade-assinante' eventos para trás recebe um evento PERDIDOS com a
+ * quantidade exata dos seus eventos sobrescritos e segue a partir do mais antigo ainda no anel.
+ * Memória: o histórico mais um anel por assinante, todos de tamanho fixo.
+ *
+ * Os ids dos eventos SSE são "[instância]-[sequência do histórico]": um navegador que reconecta com
+ * Last-Event-ID recebe o que perdeu, se ainda estiver no histórico e a instância for a mesma.
+ *
+ * Os eventos são desta instância: com várias instâncias, o feed mostra os registros recebidos por ela.
+ *
+ * Métricas: vibecheck.feed.assinantes (gauge) e vibecheck.feed.perdidos (eventos pulados por atraso).
+ */
+@Service
+public class FeedEventosService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedEventosService.class);
+
+    // Eventos lidos do anel por envio (e flush); um envio lê em lotes até alcançar o anel.
+    private static final int LOTE_ENVIO = 256;
+
+    private final AnelCircular<EventoFeedDTO> historico;
+    private final String instancia = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<Assinatura> assinaturas = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Assinatura>> assinaturasPorTurma = new ConcurrentHashMap<>();
+    // Publicação e entrada de assinantes se revezam: quem assina recebe o histórico e os eventos
+    // seguintes, nessa ordem, sem buraco nem repetição.
+    private final ReentrantLock publicacao = new ReentrantLock();
+    private final int capacidadeAssinante;
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maximoAssinantes;
+    private final Duration timeout;
+    private final long intervaloPingNanos;
+    private final Counter perdidos;
+
+    @Autowired
+    public FeedEventosService(@Value("${vibecheck.feed.capacidade:4096}") int capacidade,
+                              @Value("${vibecheck.feed.capacidade-assinante:1024}") int capacidadeAssinante,
+                              @Value("${vibecheck.feed.maximo-assinantes:1000}") int maximoAssinantes,
+                              @Value("${vibecheck.feed.timeout:30m}") Duration timeout,
+                              @Value("${vibecheck.feed.ping:15s}") Duration intervaloPing,
+                              MeterRegistry meterRegistry) {
+        this.historico = new AnelCircular<>(capacidade);
+        this.capacidadeAssinante = capacidadeAssinante;
+        this.maximoAssinantes = maximoAssinantes;
+        this.timeout = timeout;
+        this.intervaloPingNanos = intervaloPing.toNanos();
+        Gauge.builder("vibecheck.feed.assinantes", assinaturas, Set::size)
+                .description("Conexões SSE abertas no feed ao vivo")
+                .register(meterRegistry);
+        this.perdidos = Counter.builder("vibecheck.feed.perdidos")
+                .description("Eventos do feed não entregues a assinantes atrasados")
+                .register(meterRegistry);
+    }
+
+    // ========== PUBLICAÇÃO (chamada por quem grava, dentro da transação) ==========
+
+    public void registroGravado(RegistroEmocional registro) {
+        publicar(new EventoFeedDTO(EventoFeedDTO.Tipo.REGISTRO, registro.getTurma().getId(),
+                registro.getCodigoAvaliacaoUsado().getId(), registro.getAluno().getId(), registro.getAluno().getNome(),
+                registro.getId(), null, registro.getTipoSubmissao().name(), registro.getEmocao(), registro.getTimestamp()));
+    }
+
+    public void praticaAberta(Pratica pratica, RegistroEmocional checkin) {
+        publicar(new EventoFeedDTO(EventoFeedDTO.Tipo.PRATICA_ABERTA, checkin.getTurma().getId(),
+                checkin.getCodigoAvaliacaoUsado().getId(), checkin.getAluno().getId(), checkin.getAluno().getNome(),
+                checkin.getId(), pratica.getId(), null, checkin.getEmocao(), pratica.getInicio()));
+    }
+
+    /**
+     * @param registro Registro que fechou a prática (check-out, ou o check-in que substituiu a prática esquecida).
+     */
+    public void praticaFechada(Long praticaId, RegistroEmocional registro, LocalDateTime fim) {
+        publicar(new EventoFeedDTO(EventoFeedDTO.Tipo.PRATICA_FECHADA, registro.getTurma().getId(),
+                registro.getCodigoAvaliacaoUsado().getId(), registro.getAluno().getId(), registro.getAluno().getNome(),
+                registro.getId(), praticaId, null, registro.getEmocao(), fim));
+    }
+
+    public void praticaFechadaAutomaticamente(Long praticaId, Long alunoId, Long turmaId, LocalDateTime fim) {
+        publicar(new EventoFeedDTO(EventoFeedDTO.Tipo.PRATICA_FECHADA, turmaId, null, alunoId, null,
+                null, praticaId, null, null, fim));
+    }
+
+    // Só eventos confirmados chegam aos anéis.
+    private void publicar(EventoFeedDTO evento) {
+        AposCommit.executar(() -> distribuir(evento));
+    }
+
+    // Grava no histórico e no anel de cada assinante da turma que se interessa pelo evento.
+    private void distribuir(EventoFeedDTO evento) {
+        publicacao.lock();
+        try {
+            Entrada<EventoFeedDTO> entrada = new Entrada<>(historico.publicar(evento), evento);
+            for (Assinatura assinatura : assinaturasPorTurma.getOrDefault(evento.turmaId(), Set.of())) {
+                if (assinatura.interessa(evento)) {
+                    assinatura.anel.publicar(entrada);
+                }
+            }
+        } finally {
+            publicacao.unlock();
+        }
+    }
+
+    // ========== ASSINATURA E ENTREGA ==========
+
+    /**
+     * Abre uma assinatura do feed de uma turma.
+     *
+     * @param turmaId       Turma (a posse já deve ter sido verificada).
+     * @param codigoId      Se informado, só eventos desse código (e fechamentos automáticos da turma).
+     * @param ultimoEventoId Cabeçalho Last-Event-ID da reconexão, se houver.
+     * @throws IllegalStateException se o limite de assinantes desta instância foi atingido.
+     */
+    public SseEmitter assinar(Long turmaId, Long codigoId, String ultimoEventoId) {
+        if (assinaturas.size() >= maximoAssinantes) {
+            throw new IllegalStateException("Limite de conexões do feed atingido.");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Assinatura assinatura = new Assinatura(emitter, turmaId, codigoId, new AnelCircular<>(capacidadeAssinante));
+        assinatura.ultimoEnvio = System.nanoTime() - intervaloPingNanos; // Ping logo na primeira rodada (envia os cabeçalhos).
+        emitter.onCompletion(() -> remover(assinatura));
+        emitter.onTimeout(() -> encerrar(assinatura));
+        emitter.onError(erro -> encerrar(assinatura));
+        publicacao.lock();
+        try {
+            // O que perdeu desde o Last-Event-ID entra no anel antes de qualquer evento novo.
+            long desde = inicioDaLeitura(ultimoEventoId);
+            while (desde < historico.getProxima()) {
+                Leitura<EventoFeedDTO> leitura = historico.ler(desde, LOTE_ENVIO);
+                for (Entrada<EventoFeedDTO> entrada : leitura.entradas()) {
+                    if (assinatura.interessa(entrada.item())) {
+                        assinatura.anel.publicar(entrada);
+                    }
+                }
+                desde = leitura.proxima();
+            }
+            assinaturas.add(assinatura);
+            assinaturasPorTurma.compute(turmaId, (id, daTurma) -> {
+                Set<Assinatura> atualizadas = daTurma != null ? daTurma : ConcurrentHashMap.newKeySet();
+                atualizadas.add(assinatura);
+                return atualizadas;
+            });
+        } finally {
+            publicacao.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Entrega os eventos novos (e os pings de manutenção da conexão) aos assinantes livres.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.feed.intervalo-ms:200}")
+    public void despachar() {
+        long agora = System.nanoTime();
+        for (Assinatura assinatura : assinaturas) {
+            boolean temEventos = assinatura.proxima < assinatura.anel.getProxima();
+            boolean precisaPing = agora - assinatura.ultimoEnvio >= intervaloPingNanos;
+            if ((temEventos || precisaPing) && assinatura.ocupada.compareAndSet(false, true)) {
+                envios.execute(() -> entregar(assinatura));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrarTodas() {
+        assinaturas.forEach(a -> a.emitter.complete());
+        envios.shutdownNow();
+    }
+
+    private void entregar(Assinatura assinatura) {
+        try {
+            // Até alcançar o anel do assinante: um lote por envio, para não montar tudo em memória.
+            do {
+                Leitura<Entrada<EventoFeedDTO>> leitura = assinatura.anel.ler(assinatura.proxima, LOTE_ENVIO);
+                Set<ResponseBodyEmitter.DataWithMediaType> dados = new LinkedHashSet<>();
+                if (leitura.perdidos() > 0) {
+                    // O anel só tem eventos deste assinante: a contagem é exatamente o que ele deixou de receber.
+                    perdidos.increment(leitura.perdidos());
+                    dados.addAll(SseEmitter.event().name("PERDIDOS").data(leitura.perdidos()).build());
+                }
+                for (Entrada<Entrada<EventoFeedDTO>> entrada : leitura.entradas()) {
+                    Entrada<EventoFeedDTO> evento = entrada.item();
+                    dados.addAll(SseEmitter.event()
+                            .id(instancia + '-' + evento.sequencia())
+                            .name(evento.item().tipo().name())
+                            .data(evento.item())
+                            .build());
+                }
+                if (dados.isEmpty() && System.nanoTime() - assinatura.ultimoEnvio >= intervaloPingNanos) {
+                    dados.addAll(SseEmitter.event().comment("ping").build());
+                }
+                if (!dados.isEmpty()) {
+                    // Um único envio (e flush) para todos os eventos do lote.
+                    assinatura.emitter.send(dados);
+                    assinatura.ultimoEnvio = System.nanoTime();
+                }
+                assinatura.proxima = leitura.proxima();
+            } while (assinatura.proxima < assinatura.anel.getProxima());
+        } catch (IOException | IllegalStateException e) {
+            // Navegador desconectado ou emitter já encerrado.
+            log.debug("Assinatura do feed da turma {} encerrada: {}", assinatura.turmaId, e.getMessage());
+            encerrar(assinatura);
+        } finally {
+            assinatura.ocupada.set(false);
+        }
+    }
+
+    private void encerrar(Assinatura assinatura) {
+        remover(assinatura);
+        assinatura.emitter.complete();
+    }
+
+    private void remover(Assinatura assinatura) {
+        assinaturas.remove(assinatura);
+        assinaturasPorTurma.computeIfPresent(assinatura.turmaId, (id, daTurma) -> {
+            daTurma.remove(assinatura);
+            return daTurma.isEmpty() ? null : daTurma;
+        });
+    }
+
+    // Sequência de onde começar: logo após o Last-Event-ID, se for desta instância e ainda estiver no histórico.
+    private long inicioDaLeitura(String ultimoEventoId) {
+        long atual = historico.getProxima();
+        if (ultimoEventoId == null || !ultimoEventoId.startsWith(instancia + '-')) {
+            return atual;
+        }
+        try {
+            long seguinte = Long.parseLong(ultimoEventoId.substring(instancia.length() + 1)) + 1;
+            return seguinte <= atual ? Math.max(seguinte, atual - historico.getCapacidade()) : atual;
+        } catch (NumberFormatException e) {
+            return atual;
+        }
+    }
+
+    private static final class Assinatura {
+        private final SseEmitter emitter;
+        private final Long turmaId;
+        private final Long codigoId;
+        // Eventos do histórico que interessam a este assinante, na ordem do histórico.
+        private final AnelCircular<Entrada<EventoFeedDTO>> anel;
+        private final AtomicBoolean ocupada = new AtomicBoolean();
+        // Só a thread de envio (uma por vez, ver 'ocupada') altera estes campos.
+        private volatile long proxima;
+        private volatile long ultimoEnvio;
+
+        private Assinatura(SseEmitter emitter, Long turmaId, Long codigoId, AnelCircular<Entrada<EventoFeedDTO>> anel) {
+            this.emitter = emitter;
+            this.turmaId = turmaId;
+            this.codigoId = codigoId;
+            this.anel = anel;
+        }
+
+        private boolean interessa(EventoFeedDTO evento) {
+            return turmaId.equals(evento.turmaId())
+                    && (codigoId == null || evento.codigoId() == null || codigoId.equals(evento.codigoId()));
+        }
+    }
+}
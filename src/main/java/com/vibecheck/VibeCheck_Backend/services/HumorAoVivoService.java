@@ -0,0 +1,170 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.dtos.HumorAoVivoDTO;
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Humor da turma ao vivo: contagem, média e histograma das emoções de cada código de avaliação ativo,
+ * mantidos em memória a cada registro, para o professor acompanhar a aula sem consultar registros_emocionais.
+ *
+ * - Cada código ativo tem um agregado de LongAdders (quantidade, soma e uma barra por valor de emoção):
+ *   registros simultâneos no mesmo código não disputam um mesmo contador nem uma trava.
+ * - Os registros entram depois do commit (um registro desfeito não conta).
+ * - Quando o código expira, o agregado sai do mapa dos códigos ativos. O último check-in e o último
+ *   check-out de cada turma continuam disponíveis, congelados, para a comparação check-in x check-out,
+ *   até serem substituídos por um código novo ou passarem de vibecheck.humor.retencao (padrão 12h).
+ *
+ * Os números são os dos registros recebidos por esta instância desde que o código foi liberado
+ * (ou desde que a instância subiu); a fonte completa continua sendo o dashboard e os resumos diários.
+ */
+@Service
+public class HumorAoVivoService {
+
+    private final TurmaRepository turmaRepository;
+    private final Duration retencao;
+
+    private final Map<Long, Agregado> ativos = new ConcurrentHashMap<>();
+    private final Map<Long, SessaoTurma> turmas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HumorAoVivoService(TurmaRepository turmaRepository,
+                              @Value("${vibecheck.humor.retencao:12h}") Duration retencao) {
+        this.turmaRepository = turmaRepository;
+        this.retencao = retencao;
+    }
+
+    /**
+     * Começa a acompanhar um código recém-liberado (com contagem zero).
+     */
+    public void iniciar(CodigoAtivo codigo) {
+        agregadoDe(codigo);
+    }
+
+    /**
+     * Soma um registro ao agregado do seu código, a partir do commit da transação em andamento.
+     */
+    public void registroGravado(RegistroEmocional registro) {
+        CodigoAtivo codigo = CodigoAtivo.de(registro.getCodigoAvaliacaoUsado());
+        int emocao = registro.getEmocao();
+        AposCommit.executar(() -> acumular(codigo, emocao));
+    }
+
+    void acumular(CodigoAtivo codigo, int emocao) {
+        if (!codigo.isValidoEm(LocalDateTime.now())) {
+            return; // Registro aceito no limite da expiração: o agregado já foi (ou será) descartado.
+        }
+        agregadoDe(codigo).somar(emocao);
+    }
+
+    /**
+     * Humor atual de uma turma do professor.
+     *
+     * @return Vazio se a turma não existir ou não for do professor.
+     */
+    public Optional<HumorAoVivoDTO> consultar(String googleIdProfessor, Long turmaId) {
+        if (!turmaRepository.existsByIdAndProfessorGoogleId(turmaId, googleIdProfessor)) {
+            return Optional.empty();
+        }
+        SessaoTurma sessao = turmas.get(turmaId);
+        Agregado checkin = sessao == null ? null : sessao.checkin;
+        Agregado checkout = sessao == null ? null : sessao.checkout;
+        // Um check-out anterior ao check-in atual é de outra aula.
+        if (checkin != null && checkout != null && checkout.codigo.dataCriacao().isBefore(checkin.codigo.dataCriacao())) {
+            checkout = null;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        HumorAoVivoDTO.Agregado dtoCheckin = checkin == null ? null : checkin.paraDTO(agora);
+        HumorAoVivoDTO.Agregado dtoCheckout = checkout == null ? null : checkout.paraDTO(agora);
+        Double delta = dtoCheckin != null && dtoCheckout != null && dtoCheckin.getMedia() != null && dtoCheckout.getMedia() != null
+                ? dtoCheckout.getMedia() - dtoCheckin.getMedia() : null;
+        return Optional.of(new HumorAoVivoDTO(turmaId, dtoCheckin, dtoCheckout, delta));
+    }
+
+    /**
+     * Descarta os agregados de códigos expirados e as sessões de turma antigas.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.humor.limpeza-ms:60000}")
+    public void descartarExpirados() {
+        LocalDateTime agora = LocalDateTime.now();
+        ativos.values().removeIf(agregado -> !agregado.codigo.isValidoEm(agora));
+        LocalDateTime limite = agora.minus(retencao);
+        turmas.values().removeIf(sessao -> sessao.ultimaExpiracao().isBefore(limite));
+    }
+
+    private Agregado agregadoDe(CodigoAtivo codigo) {
+        return ativos.computeIfAbsent(codigo.id(), id -> {
+            Agregado novo = new Agregado(codigo);
+            turmas.compute(codigo.turmaId(), (turmaId, sessao) -> {
+                SessaoTurma atualizada = sessao == null ? new SessaoTurma() : sessao;
+                atualizada.substituirSeMaisNovo(novo);
+                return atualizada;
+            });
+            return novo;
+        });
+    }
+
+    private static final class Agregado {
+        private final CodigoAtivo codigo;
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder soma = new LongAdder();
+        private final Map<Integer, LongAdder> histograma = new ConcurrentHashMap<>();
+
+        private Agregado(CodigoAtivo codigo) {
+            this.codigo = codigo;
+        }
+
+        private void somar(int emocao) {
+            histograma.computeIfAbsent(emocao, e -> new LongAdder()).increment();
+            soma.add(emocao);
+            quantidade.increment();
+        }
+
+        private HumorAoVivoDTO.Agregado paraDTO(LocalDateTime agora) {
+            Map<Integer, Long> barras = new TreeMap<>();
+            histograma.forEach((emocao, contador) -> barras.put(emocao, contador.sum()));
+            // Lidos separadamente dos LongAdders: durante um registro simultâneo, podem diferir em uma unidade.
+            long total = quantidade.sum();
+            long somaAtual = soma.sum();
+            return new HumorAoVivoDTO.Agregado(codigo.id(), codigo.codigo(), codigo.tipo().name(),
+                    codigo.dataExpiracao(), codigo.isValidoEm(agora), total, somaAtual,
+                    total == 0 ? null : (double) somaAtual / total, barras);
+        }
+    }
+
+    // Check-in e check-out mais recentes de uma turma (alterados só dentro de turmas.compute).
+    private static final class SessaoTurma {
+        private volatile Agregado checkin;
+        private volatile Agregado checkout;
+
+        private void substituirSeMaisNovo(Agregado novo) {
+            if (novo.codigo.tipo() == TipoAvaliacao.CHECKIN) {
+                if (checkin == null || novo.codigo.dataCriacao().isAfter(checkin.codigo.dataCriacao())) {
+                    checkin = novo;
+                }
+            } else if (checkout == null || novo.codigo.dataCriacao().isAfter(checkout.codigo.dataCriacao())) {
+                checkout = novo;
+            }
+        }
+
+        private LocalDateTime ultimaExpiracao() {
+            LocalDateTime a = checkin == null ? LocalDateTime.MIN : checkin.codigo.dataExpiracao();
+            LocalDateTime b = checkout == null ? LocalDateTime.MIN : checkout.codigo.dataExpiracao();
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
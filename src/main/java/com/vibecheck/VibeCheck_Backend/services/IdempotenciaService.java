@@ -0,0 +1,136 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicação de requisições repetidas pelo cliente (cabeçalho Idempotency-Key).
+ *
+ * Guarda, por um tempo limitado e até uma quantidade máxima de chaves, o resultado da primeira
+ * execução de cada chave. Um reenvio com a mesma chave recebe o mesmo resultado sem tocar no banco;
+ * um reenvio que chega enquanto a primeira execução ainda está em andamento espera por ela.
+ * Execuções que falham não são guardadas, para que o cliente possa tentar de novo.
+ *
+ * O armazenamento é local à instância e some ao reiniciar. Nesses casos o reenvio chega ao
+ * RegistroEmocionalService, que encontra o registro pela chave (restrição UNIQUE em
+ * registros_emocionais.chave_idempotencia) e devolve o original em vez de gravar outro.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 128;
+
+    // Resultado (ou execução em andamento) de uma chave, com o instante em que deixa de valer.
+    private record Entrada(String chave, CompletableFuture<Object> resultado, long expiraEmNanos) {
+    }
+
+    private final long ttlNanos;
+    private final int capacidade;
+    private final long esperaMs;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    // Ordem de inserção. Como o TTL é o mesmo para todas, é também a ordem de expiração.
+    private final Queue<Entrada> ordem = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public IdempotenciaService(@Value("${vibecheck.idempotencia.ttl:10m}") Duration ttl,
+                               @Value("${vibecheck.idempotencia.capacidade:50000}") int capacidade,
+                               @Value("${vibecheck.idempotencia.espera-ms:10000}") long esperaMs) {
+        this.ttlNanos = ttl.toNanos();
+        this.capacidade = capacidade;
+        this.esperaMs = esperaMs;
+    }
+
+    /**
+     * Monta a chave interna a partir da chave enviada pelo cliente, restrita ao usuário autenticado:
+     * a mesma chave enviada por dois alunos diferentes nunca se confunde.
+     *
+     * @return SHA-256 em hexadecimal (64 caracteres, o tamanho da coluna chave_idempotencia).
+     */
+    public static String chaveDoUsuario(String googleId, String chaveCliente) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest((googleId + ':' + chaveCliente).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Executa a operação uma única vez por chave (enquanto o resultado estiver guardado).
+     *
+     * @param chave    Chave interna (ver {@link #chaveDoUsuario(String, String)}).
+     * @param operacao A operação a executar na primeira vez.
+     * @return O resultado da primeira execução bem-sucedida desta chave.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String chave, Supplier<T> operacao) {
+        removerExpiradas();
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        Entrada entrada = new Entrada(chave, novo, System.nanoTime() + ttlNanos);
+        Entrada existente = entradas.putIfAbsent(chave, entrada);
+
+        if (existente != null) {
+            return (T) aguardar(existente.resultado());
+        }
+
+        ordem.add(entrada);
+        try {
+            T resultado = operacao.get();
+            novo.complete(resultado);
+            return resultado;
+        } catch (RuntimeException e) {
+            entradas.remove(chave, entrada);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int getTamanho() {
+        return entradas.size();
+    }
+
+    private Object aguardar(CompletableFuture<Object> resultado) {
+        try {
+            return resultado.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new RuntimeException("Falha ao processar a requisição original.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("A requisição original ainda está em processamento.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Requisição interrompida.", e);
+        }
+    }
+
+    // Remove, a partir das mais antigas, as entradas vencidas e as que excedem a capacidade.
+    private void removerExpiradas() {
+        long agora = System.nanoTime();
+        Entrada maisAntiga;
+        while ((maisAntiga = ordem.peek()) != null
+                && (maisAntiga.expiraEmNanos() - agora <= 0 || entradas.size() > capacidade)) {
+            if (ordem.remove(maisAntiga)) {
+                entradas.remove(maisAntiga.chave(), maisAntiga);
+            }
+        }
+    }
+}
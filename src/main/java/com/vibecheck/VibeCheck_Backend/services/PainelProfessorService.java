@@ -0,0 +1,160 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.dtos.DashboardRegistroDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.dtos.PainelProfessorDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
+import com.vibecheck.VibeCheck_Backend.models.Turma;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.Direcao;
+import com.vibecheck.VibeCheck_Backend.utils.EscopoTarefas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Monta a visão geral do professor (turmas, práticas abertas por turma e dashboard) em uma chamada,
+ * no lugar das chamadas em série que a tela inicial fazia.
+ *
+ * As consultas rodam em paralelo, cada uma em uma thread virtual (ver EscopoTarefas): o dashboard
+ * começa junto com a busca das turmas, e as práticas abertas de cada turma assim que ela chega.
+ * Com vagas livres, a resposta sai em torno do tempo da consulta mais lenta, não da soma delas.
+ *
+ * - Cada consulta tem o seu prazo (vibecheck.painel.prazo-ms), contado a partir de quando ela
+ *   consegue a vaga; se uma falhar ou passar dele, as outras são canceladas e a chamada falha
+ *   inteira, sem resposta parcial.
+ * - O prazo também vale no banco: cada consulta roda em uma transação somente leitura com esse
+ *   timeout, que o Hibernate repassa a cada comando JDBC. Interromper a thread virtual não cancela
+ *   um comando já enviado; o timeout do comando cancela.
+ * - A montagem inteira, fila incluída, tem um prazo total (vibecheck.painel.prazo-total-ms). Sem ele,
+ *   com muitas turmas e poucas vagas, o pior caso seria de vários prazos de consulta em série.
+ * - As vagas são compartilhadas por todas as montagens em andamento: no máximo
+ *   vibecheck.painel.paralelismo consultas do painel, e nunca mais da metade do pool do Hikari,
+ *   ocupam uma conexão ao mesmo tempo, não importa quantos professores abram a tela juntos.
+ *   A thread da requisição não consulta o banco (nem a busca das turmas), para não prender mais
+ *   uma conexão pelo open-in-view enquanto espera.
+ */
+@Service
+public class PainelProfessorService {
+
+    private final TurmaRepository turmaRepository;
+    private final PraticaService praticaService;
+    private final RegistroEmocionalService registroService;
+    private final TransactionTemplate consultaComPrazo;
+    private final Duration prazo;
+    private final Duration prazoTotal;
+    private final Semaphore conexoes;
+    private final int praticasPorTurma;
+    private final int registrosDashboard;
+
+    @Autowired
+    public PainelProfessorService(TurmaRepository turmaRepository,
+                                  PraticaService praticaService,
+                                  RegistroEmocionalService registroService,
+                                  PlatformTransactionManager transactionManager,
+                                  DataSource dataSource,
+                                  @Value("${vibecheck.painel.prazo-ms:3000}") long prazoMs,
+                                  @Value("${vibecheck.painel.prazo-total-ms:5000}") long prazoTotalMs,
+                                  @Value("${vibecheck.painel.paralelismo:4}") int paralelismo,
+                                  @Value("${vibecheck.painel.praticas-por-turma:50}") int praticasPorTurma,
+                                  @Value("${vibecheck.painel.registros-dashboard:50}") int registrosDashboard) {
+        this.turmaRepository = turmaRepository;
+        this.praticaService = praticaService;
+        this.registroService = registroService;
+        this.prazo = Duration.ofMillis(prazoMs);
+        // O timeout da transação é em segundos: arredonda para cima, para não cortar antes do prazo.
+        this.consultaComPrazo = new TransactionTemplate(transactionManager);
+        this.consultaComPrazo.setReadOnly(true);
+        this.consultaComPrazo.setTimeout((int) Math.max(1, (prazoMs + 999) / 1000));
+        this.prazoTotal = Duration.ofMillis(prazoTotalMs);
+        // Justa: sob disputa, as montagens são atendidas por ordem de chegada.
+        this.conexoes = new Semaphore(limiteConexoes(dataSource, paralelismo), true);
+        this.praticasPorTurma = praticasPorTurma;
+        this.registrosDashboard = registrosDashboard;
+    }
+
+    /**
+     * @param googleId ID do Google do professor autenticado.
+     * @return A visão geral das turmas do professor.
+     * @throws TimeoutException Se alguma consulta passou do prazo (na espera ou no próprio banco).
+     */
+    public PainelProfessorDTO montar(String googleId) throws TimeoutException {
+        try (EscopoTarefas escopo = new EscopoTarefas("painel", prazoTotal)) {
+            Supplier<PaginaDTO<DashboardRegistroDTO>> dashboard = escopo.iniciar("dashboard", prazo, conexoes,
+                    comPrazo(() -> registroService.consultarDashboard(
+                            googleId, new FiltroDashboard(null, null, null, null), null, registrosDashboard)));
+
+            // Enquanto o dashboard já está rodando; também com vaga, fora da thread da requisição.
+            List<Turma> turmas;
+            try (EscopoTarefas busca = new EscopoTarefas("painel-turmas", prazoTotal)) {
+                Supplier<List<Turma>> encontradas = busca.iniciar("turmas", prazo, conexoes,
+                        comPrazo(() -> turmaRepository.findByProfessorGoogleIdOrderById(googleId)));
+                busca.juntar();
+                turmas = encontradas.get();
+            }
+            List<Supplier<PaginaDTO<PraticaResumoDTO>>> abertas = new ArrayList<>(turmas.size());
+            for (Turma turma : turmas) {
+                abertas.add(escopo.iniciar("abertas-turma-" + turma.getId(), prazo, conexoes,
+                        comPrazo(() -> praticaService.listarPaginaAbertasPorTurma(
+                                turma.getId(), turma, null, praticasPorTurma, Direcao.MAIS_RECENTES))));
+            }
+
+            escopo.juntar();
+
+            List<PainelProfessorDTO.TurmaPainel> itens = new ArrayList<>(turmas.size());
+            for (int i = 0; i < turmas.size(); i++) {
+                Turma turma = turmas.get(i);
+                itens.add(new PainelProfessorDTO.TurmaPainel(turma.getId(), turma.getNome(), abertas.get(i).get()));
+            }
+            return new PainelProfessorDTO(itens, dashboard.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Montagem do painel interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionTimedOutException || e.getCause() instanceof QueryTimeoutException) {
+                TimeoutException prazoExcedido = new TimeoutException("Uma consulta do painel excedeu o prazo no banco.");
+                prazoExcedido.initCause(e.getCause());
+                throw prazoExcedido;
+            }
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new RuntimeException("Falha ao montar o painel.", e.getCause());
+        }
+    }
+
+    /**
+     * Vagas do painel: o paralelismo configurado, limitado à metade do pool do Hikari, para que
+     * o resto da aplicação sempre tenha conexões mesmo com muitas montagens ao mesmo tempo.
+     */
+    private static int limiteConexoes(DataSource dataSource, int paralelismo) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return Math.max(1, Math.min(paralelismo, hikari.getMaximumPoolSize() / 2));
+        }
+        return Math.max(1, paralelismo);
+    }
+
+    /**
+     * Roda a consulta em uma transação somente leitura com o timeout do painel. Ela começa depois
+     * da vaga (ver EscopoTarefas), então a conexão só é pega por quem vai usá-la.
+     */
+    private <T> Callable<T> comPrazo(Supplier<T> consulta) {
+        return () -> consultaComPrazo.execute(status -> consulta.get());
+    }
+}
@@ -0,0 +1,119 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória das práticas abertas, chaveado por (alunoId, turmaId).
+ *
+ * Evita a consulta findFirstByAlunoAndTurmaAndFimIsNullOrderByInicioDesc quando a prática aberta é
+ * conhecida: o PraticaService a fecha com um UPDATE direto pelo id. O par de ids é empacotado em um
+ * único long (32 bits cada), de modo que cada entrada do mapa custa apenas uma chave e um valor.
+ *
+ * O índice é só uma dica: a ausência de uma entrada não prova que não há prática aberta (ela pode ter
+ * sido aberta por outra instância), então o PraticaService consulta o banco quando não a encontra aqui,
+ * e descarta a entrada quando o UPDATE não fecha nada. Aberturas e fechamentos entram no índice só
+ * depois do commit, na ordem em que aconteceram: uma transação desfeita nunca deixa uma entrada
+ * fantasma. O índice é reconstruído a partir do banco na inicialização.
+ */
+@Component
+public class PraticaAbertaIndex {
+
+    /**
+     * Referência a uma prática aberta: o id e o início bastam para fechá-la com um UPDATE direto.
+     */
+    public record PraticaAberta(Long id, LocalDateTime inicio) {
+    }
+
+    private final PraticaRepository praticaRepository;
+    private final Map<Long, PraticaAberta> abertas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PraticaAbertaIndex(PraticaRepository praticaRepository) {
+        this.praticaRepository = praticaRepository;
+    }
+
+    /**
+     * Reconstrói o índice com todas as práticas abertas do banco.
+     * As linhas vêm em ordem de início; se houver mais de uma aberta por par, a mais recente prevalece.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Antes da reaplicação do log de registros (RegistroAssincronoService).
+    public void reconstruir() {
+        abertas.clear();
+        for (Object[] linha : praticaRepository.listarAbertasParaIndice()) {
+            Long praticaId = (Long) linha[0];
+            Long alunoId = (Long) linha[1];
+            Long turmaId = (Long) linha[2];
+            LocalDateTime inicio = (LocalDateTime) linha[3];
+            if (indexavel(alunoId, turmaId)) {
+                abertas.put(chave(alunoId, turmaId), new PraticaAberta(praticaId, inicio));
+            }
+        }
+    }
+
+    /**
+     * @return A prática aberta do aluno na turma, se o índice a conhecer.
+     */
+    public Optional<PraticaAberta> buscar(Long alunoId, Long turmaId) {
+        if (!indexavel(alunoId, turmaId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(abertas.get(chave(alunoId, turmaId)));
+    }
+
+    /**
+     * @return true se o índice pode responder por este par (ids cabem em 32 bits).
+     */
+    public boolean indexavel(Long alunoId, Long turmaId) {
+        return alunoId != null && turmaId != null
+                && alunoId >= 0 && alunoId <= 0xFFFFFFFFL
+                && turmaId >= 0 && turmaId <= 0xFFFFFFFFL;
+    }
+
+    /**
+     * Registra a prática aberta do par, a partir do commit da transação em andamento (se houver).
+     */
+    public void registrarAbertura(Long alunoId, Long turmaId, Long praticaId, LocalDateTime inicio) {
+        if (!indexavel(alunoId, turmaId)) {
+            return;
+        }
+        long chave = chave(alunoId, turmaId);
+        AposCommit.executar(() -> abertas.put(chave, new PraticaAberta(praticaId, inicio)));
+    }
+
+    /**
+     * Remove a prática do par, a partir do commit (se ela ainda for a registrada).
+     */
+    public void registrarFechamento(Long alunoId, Long turmaId, Long praticaId) {
+        if (!indexavel(alunoId, turmaId)) {
+            return;
+        }
+        long chave = chave(alunoId, turmaId);
+        AposCommit.executar(() -> abertas.computeIfPresent(chave, (k, v) -> v.id().equals(praticaId) ? null : v));
+    }
+
+    /**
+     * Descarta uma entrada que se mostrou desatualizada (ex: fechada por outra instância).
+     * Imediato: no pior caso (transação desfeita), a próxima busca vai ao banco.
+     */
+    public void descartar(Long alunoId, Long turmaId, Long praticaId) {
+        if (indexavel(alunoId, turmaId)) {
+            abertas.computeIfPresent(chave(alunoId, turmaId), (k, v) -> v.id().equals(praticaId) ? null : v);
+        }
+    }
+
+    private static long chave(Long alunoId, Long turmaId) {
+        return (alunoId << 32) | turmaId;
+    }
+}
@@ -0,0 +1,137 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom.PraticaFechadaAutomaticamente;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fechamento automático de práticas abandonadas (aluno que fez check-in e não fez check-out).
+ *
+ * Antes, uma prática esquecida só era fechada quando o mesmo aluno fazia um novo check-in na turma,
+ * e as abertas se acumulavam nas listagens de práticas em andamento. Periodicamente, este componente
+ * fecha as práticas cuja janela de check-out já terminou (ver PraticaRepositoryCustom.fecharAbandonadas)
+ * em blocos de tamanho limitado (um único UPDATE por bloco no PostgreSQL), cada um na sua própria
+ * transação curta.
+ *
+ * Métricas:
+ * - vibecheck.praticas.fechamento.automatico (contador de práticas fechadas);
+ * - vibecheck.praticas.fechamento.automatico.duracao (tempo de cada execução).
+ */
+@Component
+public class PraticaFechamentoAutomatico {
+
+    private static final Logger log = LoggerFactory.getLogger(PraticaFechamentoAutomatico.class);
+
+    private final PraticaRepository praticaRepository;
+    private final PraticaAbertaIndex praticaAbertaIndex;
+    private final VersaoDados versaoDados;
+    private final FeedEventosService feedEventos;
+    private final DuracaoPraticaService duracaoPraticaService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final long duracaoMaximaSegundos;
+    private final int tamanhoBloco;
+    private final int maximoBlocos;
+    private final Counter fechadas;
+    private final Timer duracao;
+
+    @Autowired
+    public PraticaFechamentoAutomatico(PraticaRepository praticaRepository,
+                                       PraticaAbertaIndex praticaAbertaIndex,
+                                       VersaoDados versaoDados,
+                                       FeedEventosService feedEventos,
+                                       DuracaoPraticaService duracaoPraticaService,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${vibecheck.praticas.fechamento.habilitado:true}") boolean habilitado,
+                                       @Value("${vibecheck.praticas.fechamento.duracao-maxima:12h}") Duration duracaoMaxima,
+                                       @Value("${vibecheck.praticas.fechamento.tamanho-bloco:500}") int tamanhoBloco,
+                                       @Value("${vibecheck.praticas.fechamento.maximo-blocos:20}") int maximoBlocos) {
+        this.praticaRepository = praticaRepository;
+        this.praticaAbertaIndex = praticaAbertaIndex;
+        this.versaoDados = versaoDados;
+        this.feedEventos = feedEventos;
+        this.duracaoPraticaService = duracaoPraticaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.duracaoMaximaSegundos = duracaoMaxima.toSeconds();
+        this.tamanhoBloco = tamanhoBloco;
+        this.maximoBlocos = maximoBlocos;
+        this.fechadas = Counter.builder("vibecheck.praticas.fechamento.automatico")
+                .description("Práticas abandonadas fechadas automaticamente")
+                .register(meterRegistry);
+        this.duracao = Timer.builder("vibecheck.praticas.fechamento.automatico.duracao")
+                .description("Duração de cada execução do fechamento automático")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fecha as práticas abandonadas em blocos de até 'tamanho-bloco', parando quando um bloco vem
+     * incompleto ou ao atingir 'maximo-blocos' (o restante fica para a próxima execução).
+     *
+     * @return Quantas práticas foram fechadas nesta execução.
+     */
+    @Scheduled(fixedDelayString = "${vibecheck.praticas.fechamento.intervalo-ms:60000}",
+               initialDelayString = "${vibecheck.praticas.fechamento.intervalo-ms:60000}")
+    public int fecharAbandonadas() {
+        if (!habilitado) {
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        LocalDateTime agora = LocalDateTime.now();
+        int total = 0;
+        for (int bloco = 0; bloco < maximoBlocos; bloco++) {
+            // Os histogramas de duração são atualizados na mesma transação do UPDATE.
+            List<PraticaFechadaAutomaticamente> fechadasNoBloco = transactionTemplate.execute(status -> {
+                List<PraticaFechadaAutomaticamente> praticas =
+                        praticaRepository.fecharAbandonadas(agora, duracaoMaximaSegundos, tamanhoBloco);
+                duracaoPraticaService.acumular(praticas.stream()
+                        .map(pratica -> new DuracaoPraticaService.PraticaFechada(pratica.turmaId(),
+                                pratica.alunoId(), pratica.inicio(), pratica.duracaoSegundos()))
+                        .toList());
+                return praticas;
+            });
+            if (fechadasNoBloco == null || fechadasNoBloco.isEmpty()) {
+                break;
+            }
+            // Já confirmadas no banco: retira do índice em memória, muda a versão das turmas afetadas
+            // e avisa o feed ao vivo.
+            Set<Long> turmas = new HashSet<>();
+            for (PraticaFechadaAutomaticamente pratica : fechadasNoBloco) {
+                praticaAbertaIndex.descartar(pratica.alunoId(), pratica.turmaId(), pratica.praticaId());
+                turmas.add(pratica.turmaId());
+                feedEventos.praticaFechadaAutomaticamente(pratica.praticaId(), pratica.alunoId(), pratica.turmaId(),
+                        pratica.fim());
+            }
+            turmas.forEach(versaoDados::alterouTurma);
+            total += fechadasNoBloco.size();
+            if (fechadasNoBloco.size() < tamanhoBloco) {
+                break;
+            }
+        }
+
+        long nanos = System.nanoTime() - inicio;
+        duracao.record(Duration.ofNanos(nanos));
+        fechadas.increment(total);
+        if (total > 0) {
+            log.info("Fechamento automático: {} práticas abandonadas fechadas em {} ms", total, nanos / 1_000_000);
+        }
+        return total;
+    }
+}
@@ -2,66 +2,139 @@
 package com.vibecheck.VibeCheck_Backend.services;
 
 // Importações necessárias.
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.*;
 import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.services.PraticaAbertaIndex.PraticaAberta;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemContext;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.Direcao;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.TipoEstrategia;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PraticaService {
 
     private final PraticaRepository praticaRepository;
     private final PraticaListagemContext praticaListagemContext;
+    private final PraticaAbertaIndex praticaAbertaIndex;
+    private final FeedEventosService feedEventos;
+    private final DuracaoPraticaService duracaoPraticaService;
+    private final int maximoLote;
 
     @Autowired
-    public PraticaService(PraticaRepository praticaRepository, PraticaListagemContext praticaListagemContext) {
+    public PraticaService(PraticaRepository praticaRepository,
+                          PraticaListagemContext praticaListagemContext,
+                          PraticaAbertaIndex praticaAbertaIndex,
+                          FeedEventosService feedEventos,
+                          DuracaoPraticaService duracaoPraticaService,
+                          @Value("${vibecheck.praticas.lote.maximo:100}") int maximoLote) {
         this.praticaRepository = praticaRepository;
         this.praticaListagemContext = praticaListagemContext;
+        this.praticaAbertaIndex = praticaAbertaIndex;
+        this.feedEventos = feedEventos;
+        this.duracaoPraticaService = duracaoPraticaService;
+        this.maximoLote = maximoLote;
     }
 
     @Transactional
     public Pratica abrirPratica(RegistroEmocional checkinRegistro) {
-        // Verifica se já existe uma prática aberta para este aluno nesta turma
-        Optional<Pratica> praticaAberta = praticaRepository
-                .findFirstByAlunoAndTurmaAndCheckoutIsNullOrderByInicioDesc(
-                        checkinRegistro.getAluno(),
-                        checkinRegistro.getTurma()
-                );
+        Long alunoId = checkinRegistro.getAluno().getId();
+        Long turmaId = checkinRegistro.getTurma().getId();
 
-        if (praticaAberta.isPresent()) {
-            // Se já existe uma prática aberta, fecha ela primeiro (com timestamp atual)
-            Pratica praticaExistente = praticaAberta.get();
-            // Cria um registro de checkout "virtual" para fechar a prática anterior
-            RegistroEmocional checkoutVirtual = new RegistroEmocional();
-            checkoutVirtual.setAluno(checkinRegistro.getAluno());
-            checkoutVirtual.setTurma(checkinRegistro.getTurma());
-            checkoutVirtual.setTimestamp(LocalDateTime.now());
-            checkoutVirtual.setEmocao(checkinRegistro.getEmocao()); // Usa a mesma emoção
-            checkoutVirtual.setTipoSubmissao(TipoAvaliacao.CHECKOUT);
-
-            praticaExistente.fechar(checkoutVirtual);
-            praticaRepository.save(praticaExistente);
+        // Se já existe uma prática aberta para este aluno nesta turma, fecha ela primeiro (com timestamp
+        // atual e a mesma emoção). Não há registro de check-out real, então é fechada sem 'checkout'.
+        // Caminho rápido: o índice conhece a prática aberta, que é fechada com um único UPDATE.
+        Optional<PraticaAberta> indexada = praticaAbertaIndex.buscar(alunoId, turmaId);
+        boolean fechou = indexada.isPresent() && fecharSemCheckout(indexada.get(), checkinRegistro) == 1;
+        if (indexada.isPresent() && !fechou) {
+            // A entrada estava desatualizada (ex: fechada por outra instância); segue para a consulta.
+            praticaAbertaIndex.descartar(alunoId, turmaId, indexada.get().id());
+        }
+        if (!fechou) {
+            // Fallback: a prática pode ter sido aberta por outra instância, que este índice não conhece.
+            praticaRepository.findFirstByAlunoAndTurmaAndFimIsNullOrderByInicioDesc(
+                            checkinRegistro.getAluno(), checkinRegistro.getTurma())
+                    .ifPresent(p -> fecharSemCheckout(new PraticaAberta(p.getId(), p.getInicio()), checkinRegistro));
         }
 
         // Cria e abre uma nova prática
         Pratica novaPratica = new Pratica();
         novaPratica.abrir(checkinRegistro);
-        return praticaRepository.save(novaPratica);
+        Pratica salva = praticaRepository.save(novaPratica);
+        praticaAbertaIndex.registrarAbertura(alunoId, turmaId, salva.getId(), salva.getInicio());
+        feedEventos.praticaAberta(salva, checkinRegistro);
+        return salva;
+    }
+
+    /**
+     * Fecha a prática aberta anterior do aluno no check-in de uma nova.
+     *
+     * @return Quantas práticas o UPDATE fechou (0 se ela já estava fechada).
+     */
+    private int fecharSemCheckout(PraticaAberta existente, RegistroEmocional checkinRegistro) {
+        Long alunoId = checkinRegistro.getAluno().getId();
+        Long turmaId = checkinRegistro.getTurma().getId();
+        LocalDateTime agora = LocalDateTime.now();
+        long duracao = Pratica.duracaoEntre(existente.inicio(), agora);
+        int fechadas = praticaRepository.fecharSemCheckout(
+                existente.id(),
+                agora,
+                checkinRegistro.getEmocao(),
+                duracao);
+        // Só quem de fato fechou avisa: com 0, outra instância ou o fechamento automático chegou antes.
+        if (fechadas == 1) {
+            duracaoPraticaService.acumular(turmaId, alunoId, existente.inicio(), duracao);
+            praticaAbertaIndex.registrarFechamento(alunoId, turmaId, existente.id());
+            feedEventos.praticaFechada(existente.id(), checkinRegistro, agora);
+        }
+        return fechadas;
     }
 
     @Transactional
     public Pratica fecharPratica(RegistroEmocional checkoutRegistro) {
+        Long alunoId = checkoutRegistro.getAluno().getId();
+        Long turmaId = checkoutRegistro.getTurma().getId();
+
+        // Caminho rápido: o índice conhece a prática aberta, que é fechada com um único UPDATE.
+        Optional<PraticaAberta> indexada = praticaAbertaIndex.buscar(alunoId, turmaId);
+        if (indexada.isPresent()) {
+            PraticaAberta aberta = indexada.get();
+            long duracao = Pratica.duracaoEntre(aberta.inicio(), checkoutRegistro.getTimestamp());
+            int fechadas = praticaRepository.fecharComCheckout(
+                    aberta.id(),
+                    checkoutRegistro,
+                    checkoutRegistro.getTimestamp(),
+                    checkoutRegistro.getEmocao(),
+                    duracao);
+            if (fechadas == 1) {
+                duracaoPraticaService.acumular(turmaId, alunoId, aberta.inicio(), duracao);
+                praticaAbertaIndex.registrarFechamento(alunoId, turmaId, aberta.id());
+                feedEventos.praticaFechada(aberta.id(), checkoutRegistro, checkoutRegistro.getTimestamp());
+                return praticaRepository.getReferenceById(aberta.id());
+            }
+            // A entrada estava desatualizada (ex: fechada por outra instância); segue para a consulta.
+            praticaAbertaIndex.descartar(alunoId, turmaId, aberta.id());
+        }
+
+        // Fallback: a prática pode ter sido aberta por outra instância, que este índice não conhece.
         Optional<Pratica> praticaAberta = praticaRepository
-                .findFirstByAlunoAndTurmaAndCheckoutIsNullOrderByInicioDesc(
+                .findFirstByAlunoAndTurmaAndFimIsNullOrderByInicioDesc(
                         checkoutRegistro.getAluno(),
                         checkoutRegistro.getTurma()
                 );
@@ -69,7 +142,10 @@ public class PraticaService {
         if (praticaAberta.isPresent()) {
             Pratica pratica = praticaAberta.get();
             pratica.fechar(checkoutRegistro);
-            return praticaRepository.save(pratica);
+            Pratica salva = praticaRepository.save(pratica);
+            duracaoPraticaService.acumular(salva);
+            feedEventos.praticaFechada(salva.getId(), checkoutRegistro, salva.getFim());
+            return salva;
         }
 
         // Se não encontrar prática aberta, pode criar uma prática "isolada" ou ignorar
@@ -83,6 +159,39 @@ public class PraticaService {
         return praticaRepository.findById(id);
     }
 
+    /**
+     * Busca várias práticas de uma vez, com um único SELECT não importa quantos IDs
+     * (no lugar de uma chamada a buscarPorId por prática, com cargas LAZY em cada uma).
+     *
+     * @param ids IDs pedidos; repetidos contam uma vez.
+     * @param googleId ID do Google do usuário autenticado: o professor vê as práticas das suas turmas,
+     *                 o aluno vê as suas.
+     * @return As práticas na ordem pedida. IDs inexistentes ou de outros usuários ficam de fora.
+     * @throws IllegalArgumentException se não houver IDs ou se passarem do limite do lote.
+     */
+    @Transactional(readOnly = true)
+    public List<PraticaDTO> buscarLote(List<Long> ids, String googleId) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        pedidos.remove(null);
+        if (pedidos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um ID de prática.");
+        }
+        if (pedidos.size() > maximoLote) {
+            throw new IllegalArgumentException("No máximo " + maximoLote + " práticas por consulta.");
+        }
+
+        Map<Long, Pratica> encontradas = praticaRepository.buscarLoteAutorizado(pedidos, googleId).stream()
+                .collect(Collectors.toMap(Pratica::getId, Function.identity()));
+        List<PraticaDTO> dtos = new ArrayList<>(encontradas.size());
+        for (Long id : pedidos) {
+            Pratica pratica = encontradas.get(id);
+            if (pratica != null) {
+                dtos.add(new PraticaDTO(pratica));
+            }
+        }
+        return dtos;
+    }
+
     public List<Pratica> buscarPraticasPorAlunoEPeriodo(Aluno aluno, LocalDateTime inicio, LocalDateTime fim) {
         return praticaRepository.findByAlunoAndInicioBetween(aluno, inicio, fim);
     }
@@ -99,8 +208,8 @@ public class PraticaService {
         return praticaListagemContext.executarEstrategia(tipoEstrategia, turmaId, turma, aluno, inicio, fim, authentication);
     }
 
-    public List<PraticaResumoDTO> listarTodasPraticas() {
-        return listarPraticas(TipoEstrategia.TODAS_PRATICAS, null, null, null, null, null, null);
+    public List<PraticaResumoDTO> listarTodasPraticas(OAuth2AuthenticationToken authentication) {
+        return listarPraticas(TipoEstrategia.TODAS_PRATICAS, null, null, null, null, null, authentication);
     }
 
     public List<PraticaResumoDTO> listarPraticasPorTurma(Long turmaId) {
@@ -118,4 +227,50 @@ public class PraticaService {
     public List<PraticaResumoDTO> listarPraticasPorTurmaEPeriodo(Long turmaId, Turma turma, LocalDateTime inicio, LocalDateTime fim) {
         return listarPraticas(TipoEstrategia.POR_TURMA_PERIODO, turmaId, turma, null, inicio, fim, null);
     }
-}
\ No newline at end of file
+
+    // ========== LISTAGENS PAGINADAS (KEYSET) ==========
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaDePraticas(TipoEstrategia tipoEstrategia,
+                                                             Long turmaId,
+                                                             Turma turma,
+                                                             Aluno aluno,
+                                                             LocalDateTime inicio,
+                                                             LocalDateTime fim,
+                                                             OAuth2AuthenticationToken authentication,
+                                                             String cursor,
+                                                             int tamanho,
+                                                             Direcao direcao) {
+        return praticaListagemContext.executarEstrategiaPaginada(tipoEstrategia, turmaId, turma, aluno, inicio, fim,
+                authentication, cursor, tamanho, direcao);
+    }
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaDeTodasPraticas(OAuth2AuthenticationToken authentication,
+                                                                  String cursor, int tamanho, Direcao direcao) {
+        return listarPaginaDePraticas(TipoEstrategia.TODAS_PRATICAS, null, null, null, null, null, authentication,
+                cursor, tamanho, direcao);
+    }
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaPorTurma(Long turmaId, String cursor, int tamanho, Direcao direcao) {
+        return listarPaginaDePraticas(TipoEstrategia.POR_TURMA, turmaId, null, null, null, null, null,
+                cursor, tamanho, direcao);
+    }
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaAbertasPorTurma(Long turmaId, Turma turma, String cursor, int tamanho,
+                                                                  Direcao direcao) {
+        return listarPaginaDePraticas(TipoEstrategia.ABERTAS_POR_TURMA, turmaId, turma, null, null, null, null,
+                cursor, tamanho, direcao);
+    }
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaMinhasAbertas(Aluno aluno, OAuth2AuthenticationToken authentication,
+                                                                String cursor, int tamanho, Direcao direcao) {
+        return listarPaginaDePraticas(TipoEstrategia.MINHAS_ABERTAS, null, null, aluno, null, null, authentication,
+                cursor, tamanho, direcao);
+    }
+
+    public PaginaDTO<PraticaResumoDTO> listarPaginaPorTurmaEPeriodo(Long turmaId, Turma turma, LocalDateTime inicio,
+                                                                   LocalDateTime fim, String cursor, int tamanho,
+                                                                   Direcao direcao) {
+        return listarPaginaDePraticas(TipoEstrategia.POR_TURMA_PERIODO, turmaId, turma, null, inicio, fim, null,
+                cursor, tamanho, direcao);
+    }
+}
@@ -0,0 +1,331 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.CacheLimitado;
+import com.vibecheck.VibeCheck_Backend.config.ThreadsVirtuaisConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.RegistroAceitoDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.SubmissaoRegistro;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import com.vibecheck.VibeCheck_Backend.services.RegistroEmocionalService.ResultadoRegistro;
+import com.vibecheck.VibeCheck_Backend.services.RegistroIngestaoService.ModoRegistro;
+import com.vibecheck.VibeCheck_Backend.utils.LogAppendOnly;
+import com.vibecheck.VibeCheck_Backend.utils.LogAppendOnly.Entrada;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modo assíncrono (write-behind) do registro de emoções.
+ *
+ * A requisição é confirmada assim que a submissão é anexada ao log local (LogAppendOnly) e o fsync
+ * em grupo a cobre; o banco fica fora do caminho da resposta. Um drenador em segundo plano lê o log
+ * em ordem e aplica as entradas em lotes via RegistroEmocionalService.registrarLote, que grava os
+ * registros e executa os comandos de prática (AbrirPraticaCommand / FecharPraticaCommand).
+ *
+ * Garantias:
+ * - O código é validado na admissão; ao aplicar, vale o código validado, mesmo que já tenha expirado.
+ * - Após uma queda, as entradas não aplicadas são reaplicadas na inicialização. Cada entrada carrega
+ *   uma chave de idempotência, e registros com chave já gravada não são duplicados.
+ * - Falhas transitórias do banco não descartam entradas: o drenador espera e tenta de novo.
+ *
+ * O log é aberto quando vibecheck.registro.modo=ASSINCRONO ou quando sobrou um log de uma execução
+ * anterior (para drená-lo mesmo que o modo tenha mudado).
+ */
+@Service
+public class RegistroAssincronoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroAssincronoService.class);
+    private static final byte VERSAO_FORMATO = 1;
+    private static final long ESPERA_MAXIMA_MS = 5000;
+
+    private final RegistroEmocionalService registroService;
+    private final boolean habilitado;
+    private final Path arquivo;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final long intervaloNanos;
+    private final boolean threadsVirtuais;
+    // Alunos já vistos na admissão. Alunos não são apagados, então só os que existem ficam em cache.
+    private final CacheLimitado alunosAdmitidos;
+
+    private volatile LogAppendOnly logRegistros;
+    private volatile Thread drenador;
+
+    @Autowired
+    public RegistroAssincronoService(RegistroEmocionalService registroService,
+                                     @Value("${vibecheck.registro.modo:LOTE}") ModoRegistro modo,
+                                     @Value("${vibecheck.registro.log.arquivo:dados/registros.log}") Path arquivo,
+                                     @Value("${vibecheck.registro.log.capacidade-mb:64}") int capacidadeMb,
+                                     @Value("${vibecheck.registro.log.tamanho-lote:200}") int tamanhoLote,
+                                     @Value("${vibecheck.registro.log.intervalo-ms:20}") long intervaloMs,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+                                     @Value("${vibecheck.registro.alunos-admitidos.tamanho:10000}") int tamanhoAlunos,
+                                     @Value("${vibecheck.registro.alunos-admitidos.ttl:30m}") Duration ttlAlunos) {
+        this.registroService = registroService;
+        this.habilitado = modo == ModoRegistro.ASSINCRONO;
+        this.arquivo = arquivo;
+        this.capacidade = Math.multiplyExact(capacidadeMb, 1024 * 1024);
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.threadsVirtuais = threadsVirtuais;
+        this.alunosAdmitidos = new CacheLimitado("alunosAdmitidos", tamanhoAlunos, ttlAlunos, CacheLimitado.Politica.LRU);
+    }
+
+    /**
+     * Abre o log e inicia o drenador. Roda depois da carga do CodigoAtivoRegistry e do
+     * PraticaAbertaIndex, para que a reaplicação encontre o estado em memória já montado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void iniciar() throws IOException {
+        if (!habilitado && !Files.exists(arquivo)) {
+            return;
+        }
+        if (arquivo.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        }
+        LogAppendOnly aberto = new LogAppendOnly(arquivo, capacidade);
+        if (aberto.getFimEscrito() > aberto.getCheckpoint()) {
+            log.info("Reaplicando registros pendentes do log {}", arquivo);
+        }
+        logRegistros = aberto;
+
+        Thread.Builder construtor = ThreadsVirtuaisConfig.construtor(threadsVirtuais);
+        Thread thread = construtor.name("drenagem-registros").unstarted(this::drenar);
+        drenador = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        Thread atual = drenador;
+        drenador = null;
+        if (atual != null) {
+            LockSupport.unpark(atual);
+            atual.join(ESPERA_MAXIMA_MS);
+        }
+        LogAppendOnly aberto = logRegistros;
+        logRegistros = null;
+        if (aberto != null) {
+            aberto.close(); // O que não foi aplicado fica no arquivo e é reaplicado na próxima inicialização.
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Valida a submissão, grava no log e retorna assim que ela estiver durável.
+     *
+     * @throws RuntimeException se o código ou o aluno forem inválidos, ou o log estiver cheio.
+     */
+    public RegistroAceitoDTO aceitar(SubmissaoRegistro submissao) {
+        LogAppendOnly aberto = logRegistros;
+        if (!habilitado || aberto == null) {
+            throw new RuntimeException("Registro assíncrono indisponível.");
+        }
+        CodigoAtivo codigo = registroService.buscarCodigoAtivo(submissao.codigo())
+                .orElseThrow(() -> new RuntimeException("Código inválido ou expirado."));
+        // O aluno também é validado aqui: depois do log, um erro só apareceria na drenagem, longe da requisição.
+        if (alunosAdmitidos.get(submissao.googleId()) == null) {
+            if (!registroService.alunoCadastrado(submissao.googleId())) {
+                throw new RuntimeException("Aluno não encontrado.");
+            }
+            alunosAdmitidos.put(submissao.googleId(), Boolean.TRUE);
+        }
+
+        SubmissaoRegistro aceita = submissao.comCodigoValidado(codigo.id());
+        if (aceita.chaveIdempotencia() == null) {
+            aceita = aceita.comChaveIdempotencia(UUID.randomUUID().toString());
+        }
+
+        long fim = aberto.anexar(codificar(aceita));
+        if (fim < 0) {
+            // Gravar direto no banco furaria a ordem das entradas pendentes do mesmo aluno.
+            throw new RuntimeException("Muitos registros pendentes. Tente novamente em instantes.");
+        }
+        Thread atual = drenador;
+        if (atual != null) {
+            LockSupport.unpark(atual);
+        }
+        aberto.tornarDuravel(fim);
+
+        return new RegistroAceitoDTO(aceita.chaveIdempotencia(), aceita.emocao(),
+                codigo.tipo().name(), aceita.timestamp().toString());
+    }
+
+    // Laço do drenador: lê um lote a partir do checkpoint, aplica e avança o checkpoint.
+    private void drenar() {
+        LogAppendOnly aberto = logRegistros;
+        long posicao = aberto.getCheckpoint();
+        long espera = intervaloNanos;
+        while (drenador != null) {
+            List<Entrada> entradas = new ArrayList<>();
+            long proxima = posicao;
+            Entrada entrada;
+            while (entradas.size() < tamanhoLote && (entrada = aberto.ler(proxima)) != null) {
+                entradas.add(entrada);
+                proxima = entrada.proxima();
+            }
+
+            if (entradas.isEmpty()) {
+                if (!habilitado && aberto.getCheckpoint() == aberto.getFimEscrito()) {
+                    encerrarLogDrenado(aberto);
+                    return;
+                }
+                LockSupport.parkNanos(intervaloNanos);
+                continue;
+            }
+
+            int aplicadas = aplicar(entradas.stream().map(e -> decodificar(e.dados())).toList());
+            if (aplicadas > 0) {
+                posicao = entradas.get(aplicadas - 1).proxima();
+                aberto.registrarCheckpoint(posicao);
+                espera = intervaloNanos;
+            }
+            if (aplicadas < entradas.size()) {
+                // Banco indisponível: espera cada vez mais (até o limite) antes de tentar de novo.
+                LockSupport.parkNanos(espera);
+                espera = Math.min(espera * 2, TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS));
+            }
+        }
+    }
+
+    /**
+     * Aplica as submissões (null = entrada ilegível, ignorada) e retorna quantas, a partir do início,
+     * foram concluídas (aplicadas ou descartadas por erro de negócio). Para na primeira falha transitória do banco.
+     */
+    private int aplicar(List<SubmissaoRegistro> submissoes) {
+        List<SubmissaoRegistro> validas = submissoes.stream().filter(Objects::nonNull).toList();
+        try {
+            List<ResultadoRegistro> resultados = registroService.registrarLote(validas);
+            for (int i = 0; i < resultados.size(); i++) {
+                if (resultados.get(i).erro() != null) {
+                    descartar(validas.get(i), resultados.get(i).erro());
+                }
+            }
+            return submissoes.size();
+        } catch (RuntimeException e) {
+            if (falhaTransitoria(e)) {
+                log.warn("Banco indisponível ao aplicar {} registros do log; nova tentativa em breve", validas.size(), e);
+                return 0;
+            }
+            // Falha do lote inteiro (ex: restrição violada): aplica um a um para isolar a entrada problemática.
+            log.warn("Lote de {} registros do log falhou; aplicando individualmente", validas.size(), e);
+        }
+        for (int i = 0; i < submissoes.size(); i++) {
+            if (submissoes.get(i) == null) {
+                continue;
+            }
+            try {
+                registroService.registrarEmocao(submissoes.get(i));
+            } catch (RuntimeException erro) {
+                if (falhaTransitoria(erro)) {
+                    return i;
+                }
+                descartar(submissoes.get(i), erro);
+            }
+        }
+        return submissoes.size();
+    }
+
+    // Sem modo assíncrono e sem pendências, o arquivo não é mais necessário.
+    private void encerrarLogDrenado(LogAppendOnly aberto) {
+        logRegistros = null;
+        aberto.close();
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o log drenado {}", arquivo, e);
+        }
+        log.info("Log de registros {} drenado e removido", arquivo);
+    }
+
+    private static void descartar(SubmissaoRegistro submissao, RuntimeException erro) {
+        log.error("Registro {} do aluno {} descartado ao aplicar o log: {}",
+                submissao.chaveIdempotencia(), submissao.googleId(), erro.getMessage());
+    }
+
+    private static boolean falhaTransitoria(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException
+                    || causa instanceof RecoverableDataAccessException
+                    || causa instanceof DataAccessResourceFailureException
+                    || causa instanceof CannotCreateTransactionException
+                    || causa instanceof SQLTransientException
+                    || causa instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] codificar(SubmissaoRegistro submissao) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream saida = new DataOutputStream(bytes);
+            saida.writeByte(VERSAO_FORMATO);
+            saida.writeUTF(submissao.chaveIdempotencia());
+            saida.writeUTF(submissao.googleId());
+            saida.writeUTF(submissao.codigo());
+            saida.writeLong(submissao.codigoAvaliacaoId());
+            saida.writeInt(submissao.emocao());
+            saida.writeUTF(submissao.timestamp().toString());
+            saida.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Retorna null para uma entrada ilegível (o CRC já descarta entradas corrompidas; isto cobre formatos desconhecidos).
+    private static SubmissaoRegistro decodificar(byte[] dados) {
+        try {
+            DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados));
+            byte versao = entrada.readByte();
+            if (versao != VERSAO_FORMATO) {
+                throw new IOException("Versão de entrada do log não suportada: " + versao);
+            }
+            String chave = entrada.readUTF();
+            String googleId = entrada.readUTF();
+            String codigo = entrada.readUTF();
+            long codigoAvaliacaoId = entrada.readLong();
+            int emocao = entrada.readInt();
+            LocalDateTime timestamp = LocalDateTime.parse(entrada.readUTF());
+            return new SubmissaoRegistro(googleId, codigo, emocao, timestamp, chave, codigoAvaliacaoId);
+        } catch (IOException | RuntimeException e) {
+            log.error("Entrada ilegível no log de registros; ignorada", e);
+            return null;
+        }
+    }
+}
@@ -6,34 +6,68 @@ import com.vibecheck.VibeCheck_Backend.commands.PraticaCommandInterface;
 import com.vibecheck.VibeCheck_Backend.models.*;
 import com.vibecheck.VibeCheck_Backend.repositories.*;
 import com.vibecheck.VibeCheck_Backend.dtos.DashboardRegistroDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.RegistroEmocionalDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.SubmissaoRegistro;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepositoryCustom.LinhaDashboard;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class RegistroEmocionalService {
 
+    // Maior página aceita pelo dashboard, para que um cliente não peça o histórico inteiro de uma vez.
+    public static final int TAMANHO_MAXIMO_PAGINA_DASHBOARD = 200;
+
     private final RegistroEmocionalRepository registroRepository;
     private final CodigoAvaliacaoRepository codigoRepository;
     private final AlunoRepository alunoRepository;
     private final PraticaService praticaService;
+    private final CodigoAtivoRegistry codigoAtivoRegistry;
+    private final ResumoDiarioService resumoDiarioService;
+    private final VersaoDados versaoDados;
+    private final FeedEventosService feedEventos;
+    private final HumorAoVivoService humorAoVivoService;
+    private final AnaliticoRegistrosService analiticoService;
 
     @Autowired
     public RegistroEmocionalService(
             RegistroEmocionalRepository registroRepository,
             CodigoAvaliacaoRepository codigoRepository,
             AlunoRepository alunoRepository,
-            PraticaService praticaService) {
+            PraticaService praticaService,
+            CodigoAtivoRegistry codigoAtivoRegistry,
+            ResumoDiarioService resumoDiarioService,
+            VersaoDados versaoDados,
+            FeedEventosService feedEventos,
+            HumorAoVivoService humorAoVivoService,
+            AnaliticoRegistrosService analiticoService) {
         this.registroRepository = registroRepository;
         this.codigoRepository = codigoRepository;
         this.alunoRepository = alunoRepository;
         this.praticaService = praticaService;
+        this.codigoAtivoRegistry = codigoAtivoRegistry;
+        this.resumoDiarioService = resumoDiarioService;
+        this.versaoDados = versaoDados;
+        this.feedEventos = feedEventos;
+        this.humorAoVivoService = humorAoVivoService;
+        this.analiticoService = analiticoService;
     }
 
     /**
@@ -42,81 +76,225 @@ public class RegistroEmocionalService {
      * @param codigo Código de avaliação
      * @return Verdadeiro se o código for válido, falso caso contrário.
      */
-    @Cacheable(value = "registroEmocional", key = "'dashboard'")
     public boolean verificarCodigoValido(String codigo) {
-        return codigoRepository.findByCodigoAndAtivoTrueAndDataExpiracaoAfter(codigo, LocalDateTime.now()).isPresent();
+        return buscarCodigoAtivo(codigo).isPresent();
+    }
+
+    /**
+     * Resolve um código vivo consultando primeiro o CodigoAtivoRegistry (ver CodigoAtivoRegistry.resolver()).
+     * Um código que não estava vivo em nenhuma instância na última sincronização é recusado sem
+     * consulta; o banco só é consultado quando o código passa pelo filtro, não está na memória e não
+     * foi consultado (sem sucesso) nos últimos segundos.
+     *
+     * @param codigo Código de avaliação digitado.
+     * @return O código vivo, se existir.
+     */
+    public Optional<CodigoAtivo> buscarCodigoAtivo(String codigo) {
+        return codigoAtivoRegistry.resolver(codigo);
+    }
+
+    /**
+     * @param googleId Google ID do aluno.
+     * @return true se o aluno estiver cadastrado.
+     */
+    @Transactional(readOnly = true)
+    public boolean alunoCadastrado(String googleId) {
+        return alunoRepository.existsByGoogleId(googleId);
+    }
+
+    /**
+     * Resultado individual de uma submissão dentro de um lote: o DTO, em caso de sucesso, ou o erro.
+     */
+    public record ResultadoRegistro(RegistroEmocionalDTO dto, RuntimeException erro) {
     }
 
     /**
      * Método para registrar uma emoção de um aluno, associando o código de avaliação.
+     * O registro e a abertura/fechamento da prática acontecem na mesma transação.
+     *
+     * @param submissao Dados da submissão (aluno, código, emoção e instante).
+     * @return O DTO do `RegistroEmocional` recém-criado.
+     */
+    @Transactional
+    public RegistroEmocionalDTO registrarEmocao(SubmissaoRegistro submissao) {
+        ResultadoRegistro resultado = registrarLote(List.of(submissao)).get(0);
+        if (resultado.erro() != null) {
+            throw resultado.erro();
+        }
+        return resultado.dto();
+    }
+
+    /**
+     * Registra várias submissões em uma única transação (group commit).
+     * Alunos e códigos são resolvidos com uma consulta cada para o lote inteiro, e os registros
+     * são inseridos juntos. Submissões inválidas (código expirado, aluno inexistente) não
+     * interrompem o lote: recebem o erro correspondente no resultado.
+     *
+     * Submissões com chave de idempotência já gravada (ou repetida dentro do lote) não são gravadas
+     * de novo nem executam comandos de prática: recebem o resultado do registro original.
      *
-     * @param googleId ID do aluno.
-     * @param codigo   Código de avaliação.
-     * @param emocao   Valor da emoção registrada.
-     * @return O objeto `RegistroEmocional` recém-criado.
+     * @param lote Submissões, na ordem em que chegaram.
+     * @return Um resultado por submissão, na mesma ordem.
      */
-    @CacheEvict(value = "registroEmocional", key = "'dashboard'") // Limpa o cache da dashboard quando um novo registro for feito
-    public RegistroEmocional registrarEmocao(String googleId, String codigo, int emocao) {
-        CodigoAvaliacao codigoAvaliacao = codigoRepository
-                .findByCodigoAndAtivoTrueAndDataExpiracaoAfter(codigo, LocalDateTime.now())
-                .orElseThrow(() -> new RuntimeException("Código inválido ou expirado."));
-
-        TipoAvaliacao tipo = codigoAvaliacao.getTipo();
-
-        Aluno aluno = alunoRepository.findByGoogleId(googleId)
-                .orElseThrow(() -> new RuntimeException("Aluno não encontrado."));
-
-        RegistroEmocional registro = new RegistroEmocional();
-        registro.setAluno(aluno);
-        registro.setCodigoAvaliacaoUsado(codigoAvaliacao);
-        registro.setEmocao(emocao);
-        registro.setTipoSubmissao(tipo);
-        registro.setTimestamp(LocalDateTime.now());
-        registro.setTurma(codigoAvaliacao.getTurma());
-
-        // Salva o registro no banco de dados
-        RegistroEmocional registroSalvo = registroRepository.save(registro);
-
-        // Usa o Padrão Command
-        PraticaCommandInterface command;
+    @Transactional
+    public List<ResultadoRegistro> registrarLote(List<SubmissaoRegistro> lote) {
+        // 1. Registros já gravados para as chaves de idempotência do lote (reenvios e reaplicações).
+        Set<String> chaves = lote.stream()
+                .map(SubmissaoRegistro::chaveIdempotencia)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, RegistroEmocional> existentes = chaves.isEmpty() ? new HashMap<>()
+                : registroRepository.findComDetalhesByChaveIdempotenciaIn(chaves).stream()
+                        .collect(Collectors.toMap(RegistroEmocional::getChaveIdempotencia, Function.identity()));
+
+        // 2. Resolve códigos (em memória) e alunos (uma consulta para o lote).
+        Map<String, Aluno> alunos = alunoRepository.findByGoogleIdIn(
+                        lote.stream().map(SubmissaoRegistro::googleId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Aluno::getGoogleId, Function.identity()));
+
+        List<Long> codigoIds = new ArrayList<>(lote.size());
+        for (SubmissaoRegistro submissao : lote) {
+            if (submissao.codigoAvaliacaoId() != null) {
+                codigoIds.add(submissao.codigoAvaliacaoId()); // Já validado na admissão.
+            } else {
+                codigoIds.add(buscarCodigoAtivo(submissao.codigo()).map(CodigoAtivo::id).orElse(null));
+            }
+        }
+
+        // 3. Carrega os códigos usados, com professor e turma, em uma única consulta (necessários para os DTOs).
+        Map<Long, CodigoAvaliacao> codigos = codigoRepository.findAllComDetalhesByIdIn(
+                        codigoIds.stream().filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CodigoAvaliacao::getId, Function.identity()));
+
+        // 4. Monta os registros novos e anota o erro dos inválidos.
+        RuntimeException[] erros = new RuntimeException[lote.size()];
+        RegistroEmocional[] registros = new RegistroEmocional[lote.size()];
+        boolean[] novos = new boolean[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            SubmissaoRegistro submissao = lote.get(i);
+            String chave = submissao.chaveIdempotencia();
+            if (chave != null && existentes.containsKey(chave)) {
+                registros[i] = existentes.get(chave);
+                continue;
+            }
+            Long codigoId = codigoIds.get(i);
+            CodigoAvaliacao codigoAvaliacao = codigoId == null ? null : codigos.get(codigoId);
+            if (codigoAvaliacao == null) {
+                erros[i] = new RuntimeException("Código inválido ou expirado.");
+                continue;
+            }
+            Aluno aluno = alunos.get(submissao.googleId());
+            if (aluno == null) {
+                erros[i] = new RuntimeException("Aluno não encontrado.");
+                continue;
+            }
+
+            RegistroEmocional registro = new RegistroEmocional();
+            registro.setAluno(aluno);
+            registro.setCodigoAvaliacaoUsado(codigoAvaliacao);
+            registro.setEmocao(submissao.emocao());
+            registro.setTipoSubmissao(codigoAvaliacao.getTipo());
+            registro.setTimestamp(submissao.timestamp());
+            registro.setTurma(codigoAvaliacao.getTurma());
+            registro.setChaveIdempotencia(chave);
+            registros[i] = registro;
+            novos[i] = true;
+            if (chave != null) {
+                existentes.put(chave, registro); // Repetições dentro do próprio lote reaproveitam este registro.
+            }
+        }
+
+        // 5. Salva todos os registros novos de uma vez.
+        List<RegistroEmocional> paraSalvar = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            if (novos[i]) {
+                paraSalvar.add(registros[i]);
+            }
+        }
+        registroRepository.saveAll(paraSalvar);
+
+        // 5.1. Soma os registros novos aos resumos diários, na mesma transação. O flush antes garante
+        // que os INSERTs (e o bloqueio da turma pela chave estrangeira) vêm antes das barras do resumo.
+        if (!paraSalvar.isEmpty()) {
+            registroRepository.flush();
+            resumoDiarioService.acumular(paraSalvar);
+        }
+
+        // 5.2. Novas versões (ETags) das turmas e dos dashboards afetados, a partir do commit.
+        paraSalvar.stream().map(r -> r.getTurma().getId()).distinct().forEach(versaoDados::alterouTurma);
+        paraSalvar.stream().map(r -> r.getCodigoAvaliacaoUsado().getProfessor().getGoogleId()).distinct()
+                .forEach(versaoDados::alterouProfessor);
+
+        // 6. Abre/fecha as práticas dos registros novos, na ordem de chegada, e monta os resultados.
+        List<ResultadoRegistro> resultados = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            if (registros[i] == null) {
+                resultados.add(new ResultadoRegistro(null, erros[i]));
+                continue;
+            }
+            if (novos[i]) {
+                feedEventos.registroGravado(registros[i]);
+                humorAoVivoService.registroGravado(registros[i]);
+                analiticoService.registroGravado(registros[i]);
+                criarComando(registros[i]).executar();
+            }
+            resultados.add(new ResultadoRegistro(new RegistroEmocionalDTO(registros[i]), null));
+        }
+        return resultados;
+    }
+
+    // Usa o Padrão Command: o serviço apenas invoca o comando, sem saber a implementação de 'abrir' ou 'fechar'.
+    private PraticaCommandInterface criarComando(RegistroEmocional registroSalvo) {
+        TipoAvaliacao tipo = registroSalvo.getTipoSubmissao();
         if (tipo == TipoAvaliacao.CHECKIN) {
             // Cria o comando de Checkin, passando o Receiver e o payload
-            command = new AbrirPraticaCommand(praticaService, registroSalvo);
+            return new AbrirPraticaCommand(praticaService, registroSalvo);
         } else if (tipo == TipoAvaliacao.CHECKOUT) {
             // Cria o comando de Checkout, passando o Receiver e o payload
-            command = new FecharPraticaCommand(praticaService, registroSalvo);
-        } else {
-            throw new IllegalArgumentException("Tipo de avaliação não suportado: " + tipo);
+            return new FecharPraticaCommand(praticaService, registroSalvo);
         }
-
-        // Executa o comando. O RegistroEmocionalService agora apenas invoca o Command,
-        // sem saber a implementação de 'abrir' ou 'fechar'.
-        command.executar();
-        
-        return registroSalvo;
+        throw new IllegalArgumentException("Tipo de avaliação não suportado: " + tipo);
     }
 
     /**
-     * Prepara os dados para o dashboard, retornando uma lista de DTOs com as informações
-     * formatadas de forma adequada.
+     * Busca uma página do dashboard do professor, com os registros formatados para exibição.
+     * Filtros, restrição às turmas do professor e paginação são feitos no banco
+     * (ver RegistroEmocionalRepository.buscarDashboard).
      *
-     * @return Lista de `DashboardRegistroDTO` com os registros emocionais formatados.
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param filtro            Filtros opcionais (turma, período, tipo).
+     * @param cursor            Cursor devolvido pela página anterior (null ou vazio na primeira página).
+     * @param tamanho           Itens por página, limitado a TAMANHO_MAXIMO_PAGINA_DASHBOARD.
+     * @return A página, com o cursor da próxima (null se não houver mais registros).
      */
-    @Cacheable(value = "registroEmocional", key = "'dashboard'") // Cache da dashboard
-    public List<DashboardRegistroDTO> getDashboardRegistros() {
-        // Busca todos os registros emocionais, já ordenados pelo mais recente
-        List<RegistroEmocional> registros = registroRepository.findAllByOrderByTimestampDesc();
+    @Transactional(readOnly = true)
+    public PaginaDTO<DashboardRegistroDTO> consultarDashboard(String googleIdProfessor, FiltroDashboard filtro,
+                                                            String cursor, int tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+        int limite = Math.min(tamanho, TAMANHO_MAXIMO_PAGINA_DASHBOARD);
+
+        // Pede uma linha a mais só para saber se existe próxima página.
+        List<LinhaDashboard> linhas = registroRepository.buscarDashboard(
+                googleIdProfessor, filtro, CursorKeyset.decodificar(cursor), limite + 1);
+        boolean haMais = linhas.size() > limite;
+        if (haMais) {
+            linhas = linhas.subList(0, limite);
+        }
 
-        // Define um formatador para a exibição de data e hora
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        List<DashboardRegistroDTO> itens = linhas.stream()
+                .map(l -> new DashboardRegistroDTO(l.timestamp().format(formatter), l.emocao(), l.tipo().name(), l.turma()))
+                .collect(Collectors.toList());
 
-        // Converte a lista de registros em uma lista de DTOs
-        return registros.stream()
-                .map(r -> new DashboardRegistroDTO(
-                        r.getTimestamp().format(formatter),
-                        r.getEmocao(),
-                        r.getTipoSubmissao().name(),
-                        r.getTurma().getNome()))
-                .collect(Collectors.toList()); // Retorna a lista de DTOs
+        String proximoCursor = null;
+        if (haMais) {
+            LinhaDashboard ultima = linhas.get(linhas.size() - 1);
+            proximoCursor = new CursorKeyset(ultima.timestamp(), ultima.id()).codificar();
+        }
+        return new PaginaDTO<>(itens, proximoCursor);
     }
 }
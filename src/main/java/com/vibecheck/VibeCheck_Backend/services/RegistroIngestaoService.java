@@ -0,0 +1,223 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.ThreadsVirtuaisConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.RegistroAceitoDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.RegistroEmocionalDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.SubmissaoRegistro;
+import com.vibecheck.VibeCheck_Backend.services.RegistroEmocionalService.ResultadoRegistro;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Estágio de ingestão na frente do RegistroEmocionalService.registrarEmocao.
+ *
+ * A carga de registros é em rajadas: a turma inteira envia a emoção nos segundos seguintes à
+ * liberação do código. No modo LOTE, as submissões concorrentes são enfileiradas, agrupadas
+ * durante uma janela curta (alguns milissegundos) e gravadas em uma única transação (group commit).
+ * Cada chamador continua recebendo o seu próprio RegistroEmocionalDTO.
+ *
+ * Modos (propriedade vibecheck.registro.modo):
+ * - SINCRONO: cada requisição grava na sua própria transação (comportamento original).
+ * - LOTE: group commit, descrito acima.
+ * - ASSINCRONO: a submissão é gravada em um log local e confirmada antes de chegar ao banco
+ *   (ver RegistroAssincronoService); a resposta é 202 em vez do registro criado.
+ *
+ * Com spring.threads.virtual.enabled=true, o coletor roda em uma thread virtual, como o restante
+ * da aplicação. Nada aqui usa blocos synchronized: a espera é feita na própria fila e nos futuros,
+ * que não prendem a thread virtual à thread de plataforma que a executa.
+ */
+@Service
+public class RegistroIngestaoService {
+
+    public enum ModoRegistro {
+        SINCRONO,
+        LOTE,
+        ASSINCRONO
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroIngestaoService.class);
+
+    // Item da fila: a submissão e o "futuro" onde o chamador aguarda o resultado.
+    private record Pendente(SubmissaoRegistro submissao, CompletableFuture<RegistroEmocionalDTO> resultado) {
+    }
+
+    private final RegistroEmocionalService registroService;
+    private final RegistroAssincronoService registroAssincronoService;
+    private final ModoRegistro modo;
+    private final long janelaNanos;
+    private final int tamanhoMaximoLote;
+    private final long tempoLimiteMs;
+    private final BlockingQueue<Pendente> fila;
+    private final boolean threadsVirtuais;
+    private volatile Thread coletor;
+
+    @Autowired
+    public RegistroIngestaoService(RegistroEmocionalService registroService,
+                                   RegistroAssincronoService registroAssincronoService,
+                                   @Value("${vibecheck.registro.modo:LOTE}") ModoRegistro modo,
+                                   @Value("${vibecheck.registro.lote.janela-ms:5}") long janelaMs,
+                                   @Value("${vibecheck.registro.lote.tamanho-maximo:100}") int tamanhoMaximoLote,
+                                   @Value("${vibecheck.registro.lote.capacidade-fila:10000}") int capacidadeFila,
+                                   @Value("${vibecheck.registro.lote.tempo-limite-ms:10000}") long tempoLimiteMs,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.registroService = registroService;
+        this.registroAssincronoService = registroAssincronoService;
+        this.modo = modo;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.tempoLimiteMs = tempoLimiteMs;
+        this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+        this.threadsVirtuais = threadsVirtuais;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (modo == ModoRegistro.LOTE) {
+            Thread.Builder construtor = ThreadsVirtuaisConfig.construtor(threadsVirtuais);
+            // A referência é publicada antes do start(): o laço do coletor roda enquanto ela não for nula.
+            Thread thread = construtor.name("ingestao-registros").unstarted(this::coletar);
+            coletor = thread;
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void parar() {
+        Thread atual = coletor;
+        coletor = null;
+        if (atual != null) {
+            atual.interrupt();
+        }
+    }
+
+    /**
+     * Registra uma submissão e aguarda o resultado.
+     *
+     * @throws RuntimeException com a mesma mensagem do registro síncrono em caso de erro de negócio.
+     */
+    public RegistroEmocionalDTO registrar(SubmissaoRegistro submissao) {
+        if (modo == ModoRegistro.SINCRONO || coletor == null) {
+            return registrarIndividual(submissao);
+        }
+
+        Pendente pendente = new Pendente(submissao, new CompletableFuture<>());
+        if (!fila.offer(pendente)) {
+            // Fila cheia: em vez de recusar o aluno, grava diretamente (pressão de volta no próprio chamador).
+            return registrarIndividual(submissao);
+        }
+
+        try {
+            return pendente.resultado().get(tempoLimiteMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new RuntimeException("Falha ao registrar emoção.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Tempo esgotado ao registrar emoção.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Registro interrompido.", e);
+        }
+    }
+
+    /**
+     * Grava uma submissão na sua própria transação. Se outra requisição com a mesma chave de idempotência
+     * gravou primeiro (a restrição UNIQUE recusa a segunda), uma nova tentativa encontra o registro
+     * original e o devolve.
+     */
+    private RegistroEmocionalDTO registrarIndividual(SubmissaoRegistro submissao) {
+        try {
+            return registroService.registrarEmocao(submissao);
+        } catch (DataIntegrityViolationException e) {
+            if (submissao.chaveIdempotencia() == null) {
+                throw e;
+            }
+            return registroService.registrarEmocao(submissao);
+        }
+    }
+
+    /**
+     * @return true se as submissões devem ser aceitas via {@link #aceitar(SubmissaoRegistro)} (modo ASSINCRONO).
+     */
+    public boolean isAssincrono() {
+        return modo == ModoRegistro.ASSINCRONO;
+    }
+
+    /**
+     * Modo ASSINCRONO: grava a submissão no log local e retorna assim que ela estiver durável.
+     */
+    public RegistroAceitoDTO aceitar(SubmissaoRegistro submissao) {
+        return registroAssincronoService.aceitar(submissao);
+    }
+
+    // Laço do coletor: espera a primeira submissão e agrega as que chegarem dentro da janela.
+    private void coletar() {
+        while (coletor != null) {
+            try {
+                List<Pendente> lote = new ArrayList<>();
+                lote.add(fila.take());
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < tamanhoMaximoLote) {
+                    long restante = prazo - System.nanoTime();
+                    Pendente proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado no coletor de registros", e);
+            }
+        }
+        // Não deixa chamadores presos se a aplicação estiver desligando.
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            restante.resultado().completeExceptionally(new RuntimeException("Serviço de registro encerrado."));
+        }
+    }
+
+    private void processar(List<Pendente> lote) {
+        try {
+            List<ResultadoRegistro> resultados = registroService.registrarLote(
+                    lote.stream().map(Pendente::submissao).toList());
+            for (int i = 0; i < lote.size(); i++) {
+                ResultadoRegistro resultado = resultados.get(i);
+                if (resultado.erro() != null) {
+                    lote.get(i).resultado().completeExceptionally(resultado.erro());
+                } else {
+                    lote.get(i).resultado().complete(resultado.dto());
+                }
+            }
+        } catch (RuntimeException e) {
+            // A transação do lote falhou por inteiro: grava um a um para isolar a submissão problemática.
+            log.warn("Lote de {} registros falhou; gravando individualmente", lote.size(), e);
+            for (Pendente pendente : lote) {
+                try {
+                    pendente.resultado().complete(registrarIndividual(pendente.submissao()));
+                } catch (RuntimeException erro) {
+                    pendente.resultado().completeExceptionally(erro);
+                }
+            }
+        }
+    }
+}
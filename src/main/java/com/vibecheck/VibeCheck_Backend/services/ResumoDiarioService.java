@@ -0,0 +1,235 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.ThreadsVirtuaisConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.ResumoDiarioDTO;
+import com.vibecheck.VibeCheck_Backend.models.RegistroEmocional;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.ResumoDiarioRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.ResumoDiarioRepository.LinhaResumo;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Resumos diários (rollups) dos registros emocionais por turma, dia, tipo e emoção.
+ *
+ * - acumular: chamado por RegistroEmocionalService.registrarLote na mesma transação dos registros,
+ *   então o resumo é confirmado (ou desfeito) junto com eles;
+ * - consultar: responde o dashboard lendo O(dias) linhas;
+ * - reconstruir: recalcula as turmas a partir de registros_emocionais, várias em paralelo, cada uma
+ *   na sua transação. Pode ser agendada com vibecheck.resumos.reconstrucao.cron (desligada por padrão).
+ */
+@Service
+public class ResumoDiarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoDiarioService.class);
+
+    // Maior período aceito por consulta, para que a resposta continue proporcional a poucos dias.
+    public static final int MAXIMO_DIAS_CONSULTA = 366;
+
+    // Ordem fixa de atualização das barras: duas transações que tocam as mesmas barras as bloqueiam
+    // na mesma ordem e não entram em deadlock.
+    private static final Comparator<Barra> ORDEM_BARRAS = Comparator.comparing(Barra::turmaId)
+            .thenComparing(Barra::dia)
+            .thenComparing(Barra::tipo)
+            .thenComparing(Barra::emocao);
+
+    private record Barra(Long turmaId, LocalDate dia, TipoAvaliacao tipo, Integer emocao) {
+    }
+
+    private final ResumoDiarioRepository resumoRepository;
+    private final TurmaRepository turmaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int paralelismo;
+    private final boolean threadsVirtuais;
+
+    @Autowired
+    public ResumoDiarioService(ResumoDiarioRepository resumoRepository,
+                               TurmaRepository turmaRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${vibecheck.resumos.reconstrucao.paralelismo:4}") int paralelismo,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.resumoRepository = resumoRepository;
+        this.turmaRepository = turmaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.paralelismo = Math.max(1, paralelismo);
+        this.threadsVirtuais = threadsVirtuais;
+    }
+
+    /**
+     * Soma os registros recém-gravados aos resumos: uma atualização por barra, não por registro.
+     * Deve ser chamado dentro da transação que gravou os registros, depois do flush dos INSERTs.
+     *
+     * @param registros Registros novos (ainda não contados).
+     */
+    @Transactional
+    public void acumular(Collection<RegistroEmocional> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        Map<Barra, Long> barras = new TreeMap<>(ORDEM_BARRAS);
+        for (RegistroEmocional registro : registros) {
+            Barra barra = new Barra(registro.getTurma().getId(), registro.getTimestamp().toLocalDate(),
+                    registro.getTipoSubmissao(), registro.getEmocao());
+            barras.merge(barra, 1L, Long::sum);
+        }
+        barras.forEach((barra, quantidade) -> resumoRepository.acumular(
+                barra.turmaId(), barra.dia(), barra.tipo().name(), barra.emocao(), quantidade));
+    }
+
+    /**
+     * Resumos do período nas turmas do professor, um por (dia, turma, tipo).
+     *
+     * @param googleIdProfessor ID do Google do professor autenticado.
+     * @param de                Primeiro dia, inclusivo.
+     * @param ate               Último dia, inclusivo.
+     * @param turmaId           Restringe a uma turma do professor (null = todas).
+     * @param tipo              Restringe a CHECKIN ou CHECKOUT (null = ambos).
+     */
+    @Transactional(readOnly = true)
+    public List<ResumoDiarioDTO> consultar(String googleIdProfessor, LocalDate de, LocalDate ate,
+                                           Long turmaId, TipoAvaliacao tipo) {
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial.");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException("O período máximo é de " + MAXIMO_DIAS_CONSULTA + " dias.");
+        }
+
+        // As linhas chegam ordenadas por (dia, turma, tipo, emoção): junta as barras consecutivas do mesmo grupo.
+        List<ResumoDiarioDTO> resumos = new ArrayList<>();
+        LinhaResumo grupo = null;
+        Map<Integer, Long> histograma = null;
+        long quantidade = 0;
+        long soma = 0;
+        for (LinhaResumo linha : resumoRepository.buscarDoProfessor(googleIdProfessor, de, ate, turmaId, tipo)) {
+            if (grupo == null || !mesmoGrupo(grupo, linha)) {
+                if (grupo != null) {
+                    resumos.add(criarDTO(grupo, quantidade, soma, histograma));
+                }
+                grupo = linha;
+                histograma = new TreeMap<>();
+                quantidade = 0;
+                soma = 0;
+            }
+            histograma.put(linha.emocao(), linha.quantidade());
+            quantidade += linha.quantidade();
+            soma += (long) linha.emocao() * linha.quantidade();
+        }
+        if (grupo != null) {
+            resumos.add(criarDTO(grupo, quantidade, soma, histograma));
+        }
+        return resumos;
+    }
+
+    /**
+     * Reconstrói os resumos das turmas do professor (todas, ou só 'turmaId' se for dele).
+     *
+     * @return Quantas turmas foram reconstruídas.
+     */
+    public int reconstruirDoProfessor(String googleIdProfessor, Long turmaId) {
+        List<Long> turmas = turmaRepository.findIdsByProfessorGoogleId(googleIdProfessor);
+        if (turmaId != null) {
+            if (!turmas.contains(turmaId)) {
+                throw new RuntimeException("Turma não encontrada.");
+            }
+            turmas = List.of(turmaId);
+        }
+        return reconstruir(turmas);
+    }
+
+    /**
+     * Reconstrói os resumos de todas as turmas.
+     * Agendada por vibecheck.resumos.reconstrucao.cron ("-", o padrão, desliga o agendamento).
+     */
+    @Scheduled(cron = "${vibecheck.resumos.reconstrucao.cron:-}")
+    public void reconstruirTodas() {
+        long inicio = System.nanoTime();
+        int turmas = reconstruir(turmaRepository.findAllIds());
+        log.info("Resumos diários reconstruídos: {} turmas em {} ms", turmas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Recalcula as turmas em paralelo ('paralelismo' por vez, para não ocupar todo o pool de conexões).
+     * São 'paralelismo' trabalhadores (virtuais ou de plataforma, conforme spring.threads.virtual.enabled)
+     * tirando turmas de uma fila comum, em vez de um pool: o limite vale igual nos dois modos.
+     * Cada turma é uma transação: bloqueia a turma (esperando as gravações em andamento), apaga os
+     * resumos dela e os recalcula com um INSERT ... SELECT. Gravações que chegam durante a
+     * reconstrução esperam o fim dela e somam sobre o valor recalculado, sem contar nada duas vezes.
+     *
+     * @return Quantas turmas foram reconstruídas.
+     */
+    public int reconstruir(List<Long> turmaIds) {
+        if (turmaIds.isEmpty()) {
+            return 0;
+        }
+        Queue<Long> pendentes = new ConcurrentLinkedQueue<>(turmaIds);
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                ThreadsVirtuaisConfig.construtor(threadsVirtuais).name("resumos-reconstrucao-", 0).factory());
+        try {
+            int trabalhadores = Math.min(paralelismo, turmaIds.size());
+            List<Future<?>> tarefas = new ArrayList<>(trabalhadores);
+            for (int i = 0; i < trabalhadores; i++) {
+                tarefas.add(executor.submit(() -> {
+                    Long turmaId;
+                    while ((turmaId = pendentes.poll()) != null) {
+                        reconstruirTurma(turmaId);
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            return turmaIds.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconstrução dos resumos interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha ao reconstruir os resumos diários.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void reconstruirTurma(Long turmaId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (resumoRepository.travarTurma(turmaId) == null) {
+                return; // Turma excluída nesse meio tempo.
+            }
+            resumoRepository.apagarDaTurma(turmaId);
+            resumoRepository.recalcularDaTurma(turmaId);
+        });
+    }
+
+    private static boolean mesmoGrupo(LinhaResumo a, LinhaResumo b) {
+        return a.dia().equals(b.dia()) && Objects.equals(a.turmaId(), b.turmaId()) && a.tipo() == b.tipo();
+    }
+
+    private static ResumoDiarioDTO criarDTO(LinhaResumo grupo, long quantidade, long soma, Map<Integer, Long> histograma) {
+        return new ResumoDiarioDTO(grupo.turmaId(), grupo.turma(), grupo.dia(), grupo.tipo().name(),
+                quantidade, soma, (double) soma / quantidade, histograma);
+    }
+}
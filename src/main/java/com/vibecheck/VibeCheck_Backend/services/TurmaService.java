@@ -6,8 +6,11 @@ import com.vibecheck.VibeCheck_Backend.repositories.ProfessorRepository;
 import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
 import com.vibecheck.VibeCheck_Backend.dtos.TurmaDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,18 +21,23 @@ public class TurmaService {
 
     private final TurmaRepository turmaRepository;
     private final ProfessorRepository professorRepository;
+    private final CacheManager cacheManager;
+    private final VersaoDados versaoDados;
 
     @Autowired
-    public TurmaService(TurmaRepository turmaRepository, ProfessorRepository professorRepository) {
+    public TurmaService(TurmaRepository turmaRepository, ProfessorRepository professorRepository,
+                        CacheManager cacheManager, VersaoDados versaoDados) {
         this.turmaRepository = turmaRepository;
         this.professorRepository = professorRepository;
+        this.cacheManager = cacheManager;
+        this.versaoDados = versaoDados;
     }
 
     /**
      * Lista as turmas de um professor, retornando DTOs que incluem o ID e o nome.
      * Ideal para preencher uma lista no frontend onde cada item precisa ser identificável.
      */
-    @Cacheable(value = "turmasPorProfessor", key = "#googleId") // Cache a lista de turmas por professor
+    @Cacheable(value = "turmasPorProfessor", key = "#googleId", sync = true) // Cache a lista de turmas por professor
     public List<TurmaDTO> listarTurmasComIdPorProfessor(String googleId) {
         // Encontra o professor pelo seu ID do Google.
         Professor professor = professorRepository.findByGoogleId(googleId)
@@ -48,7 +56,9 @@ public class TurmaService {
      * Lista apenas os nomes das turmas de um professor.
      * Útil para exibições mais simples.
      */
-    @Cacheable(value = "turmasPorProfessor", key = "#googleId") // Cache a lista de nomes de turmas
+    // Região própria: na mesma região de listarTurmasComIdPorProfessor, com a mesma chave, um método
+    // receberia a lista do outro (List<TurmaDTO> no lugar de List<String>).
+    @Cacheable(value = "nomesTurmasPorProfessor", key = "#googleId", sync = true) // Cache a lista de nomes de turmas
     public List<String> listarNomesPorProfessor(String googleId) {
         Professor professor = professorRepository.findByGoogleId(googleId)
                 .orElseThrow(() -> new RuntimeException("Professor não encontrado"));
@@ -66,7 +76,6 @@ public class TurmaService {
      * @param id       ID da turma.
      * @param novoNome Novo nome da turma.
      */
-    @CacheEvict(value = "turmasPorProfessor", key = "#googleId") // Limpa o cache quando o nome da turma for atualizado
     public void atualizarNomeTurma(Long id, String novoNome) {
         // Busca a turma pelo ID; se não encontrar, lança uma exceção.
         Turma turma = turmaRepository.findById(id)
@@ -76,13 +85,17 @@ public class TurmaService {
         turma.setNome(novoNome);
         // Salva a turma. O JPA detecta que a entidade já existe e executa um UPDATE.
         turmaRepository.save(turma);
+        // Limpa o cache do dono da turma (o googleId não é parâmetro, então não dá para usar @CacheEvict).
+        limparCacheDoProfessor(turma.getProfessor().getGoogleId());
+        // O nome da turma aparece no dashboard e nas listagens de práticas: muda as versões (ETags).
+        versaoDados.alterouTurma(id);
+        versaoDados.alterouProfessor(turma.getProfessor().getGoogleId());
     }
 
     /**
      * Exclui uma turma, mas apenas se não houver registros emocionais associados.
      * @param id ID da turma a ser excluída.
      */
-    @CacheEvict(value = "turmasPorProfessor", key = "#googleId") // Limpa o cache ao excluir a turma
     public void excluirTurma(Long id) {
         // Busca a turma pelo ID; se não encontrar, lança uma exceção.
         Turma turma = turmaRepository.findById(id)
@@ -97,6 +110,9 @@ public class TurmaService {
 
         // Se a verificação passar, a turma é excluída.
         turmaRepository.delete(turma);
+        limparCacheDoProfessor(turma.getProfessor().getGoogleId());
+        versaoDados.alterouTurma(id);
+        versaoDados.alterouProfessor(turma.getProfessor().getGoogleId());
     }
 
     /**
@@ -104,7 +120,10 @@ public class TurmaService {
      * @param googleId O ID do professor que cria a turma.
      * @param nomeTurma O nome da nova turma.
      */
-    @CacheEvict(value = "turmasPorProfessor", key = "#googleId") // Limpa o cache ao adicionar uma nova turma
+    @Caching(evict = { // Limpa o cache ao adicionar uma nova turma
+            @CacheEvict(value = "turmasPorProfessor", key = "#googleId"),
+            @CacheEvict(value = "nomesTurmasPorProfessor", key = "#googleId")
+    })
     public void adicionarTurma(String googleId, String nomeTurma) {
         // Encontra o professor pelo ID do Google.
         Professor professor = professorRepository.findByGoogleId(googleId)
@@ -118,4 +137,14 @@ public class TurmaService {
         // Salva a nova turma no banco de dados.
         turmaRepository.save(novaTurma);
     }
+
+    // Remove as listas de turmas de um professor das duas regiões de cache.
+    private void limparCacheDoProfessor(String googleId) {
+        for (String regiao : List.of("turmasPorProfessor", "nomesTurmasPorProfessor")) {
+            Cache cache = cacheManager.getCache(regiao);
+            if (cache != null) {
+                cache.evict(googleId);
+            }
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao;
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao.Invalidacao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versão dos dados lidos pelos endpoints consultados periodicamente (polling),
+ * usados para montar ETags: se a versão não mudou, a resposta também não, e o controlador
+ * devolve 304 Not Modified sem executar a consulta.
+ *
+ * - Por turma: muda a cada registro gravado na turma (que abre/fecha práticas), a cada prática
+ *   fechada automaticamente e quando a turma é renomeada. Cobre as listagens de práticas da turma.
+ * - Por professor: muda a cada registro gravado em uma turma do professor e quando uma turma dele
+ *   é renomeada ou excluída. Cobre o dashboard.
+ *
+ * O incremento local acontece depois do commit: uma requisição que leia a versão nova já encontra
+ * os dados novos no banco. As outras instâncias são avisadas pelo TransporteInvalidacao (região
+ * "versoes"); como cada instância tem seus próprios contadores, a ETag leva o identificador da
+ * instância e só coincide em requisições atendidas pela mesma instância (e desde o mesmo start).
+ *
+ * O aviso também sai depois do commit (ou na hora, fora de uma transação), e sempre fora da thread
+ * da requisição (uma thread virtual dedicada):
+ * as gravações de registros não pagam o INSERT do transporte pelo banco, e uma falha dele só é
+ * registrada no log, sem chegar à transação que gravou os dados.
+ */
+@Component
+public class VersaoDados {
+
+    static final String REGIAO = "versoes";
+    private static final String PREFIXO_TURMA = "turma:";
+    private static final String PREFIXO_PROFESSOR = "professor:";
+
+    private static final Logger log = LoggerFactory.getLogger(VersaoDados.class);
+
+    private final TransporteInvalidacao transporte;
+    private final String instancia = UUID.randomUUID().toString();
+    private final String prefixoEtag = instancia.substring(0, 8);
+    private final Map<Long, AtomicLong> turmas = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> professores = new ConcurrentHashMap<>();
+    // Uma única thread: os avisos saem na ordem dos commits.
+    private final ExecutorService publicacoes =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("versoes-publicacao").factory());
+
+    @Autowired
+    public VersaoDados(TransporteInvalidacao transporte) {
+        this.transporte = transporte;
+        transporte.assinar(this::receber);
+    }
+
+    public long versaoTurma(Long turmaId) {
+        AtomicLong versao = turmas.get(turmaId);
+        return versao == null ? 0 : versao.get();
+    }
+
+    public long versaoProfessor(String googleId) {
+        AtomicLong versao = professores.get(googleId);
+        return versao == null ? 0 : versao.get();
+    }
+
+    /**
+     * Registra que os dados da turma mudaram (a partir do commit da transação em andamento, se houver).
+     */
+    public void alterouTurma(Long turmaId) {
+        alterou(PREFIXO_TURMA + turmaId, () -> incrementar(turmas, turmaId));
+    }
+
+    /**
+     * Registra que os dados do dashboard do professor mudaram.
+     */
+    public void alterouProfessor(String googleId) {
+        alterou(PREFIXO_PROFESSOR + googleId, () -> incrementar(professores, googleId));
+    }
+
+    /**
+     * Monta uma ETag forte para um recurso na versão informada.
+     *
+     * @param recurso    Nome do endpoint (respostas de endpoints diferentes nunca compartilham ETag).
+     * @param versao     Versão lida ANTES da consulta (assim a resposta é no mínimo tão nova quanto ela).
+     * @param parametros Parâmetros que mudam a resposta (filtros, cursor, tamanho da página).
+     */
+    public String etag(String recurso, long versao, Object... parametros) {
+        String texto = recurso + '|' + Arrays.toString(parametros);
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            return '"' + prefixoEtag + '-' + versao + '-' + HexFormat.of().formatHex(resumo, 0, 8) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 existe em toda JVM.
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        publicacoes.close(); // Entrega os avisos já enfileirados.
+    }
+
+    private void alterou(String chave, Runnable incremento) {
+        Invalidacao invalidacao = new Invalidacao(instancia, REGIAO, chave);
+        AposCommit.executar(() -> {
+            incremento.run();
+            try {
+                publicacoes.execute(() -> publicar(invalidacao));
+            } catch (RejectedExecutionException e) {
+                // Aplicação encerrando: as outras instâncias seguem pelas próximas alterações.
+            }
+        });
+    }
+
+    private void publicar(Invalidacao invalidacao) {
+        try {
+            transporte.publicar(invalidacao);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível avisar as outras instâncias da versão {}: {}", invalidacao.chave(), e.getMessage());
+        }
+    }
+
+    // Aviso de outra instância.
+    private void receber(Invalidacao invalidacao) {
+        if (!REGIAO.equals(invalidacao.regiao()) || instancia.equals(invalidacao.origem()) || invalidacao.chave() == null) {
+            return;
+        }
+        String chave = invalidacao.chave();
+        if (chave.startsWith(PREFIXO_TURMA)) {
+            incrementar(turmas, Long.valueOf(chave.substring(PREFIXO_TURMA.length())));
+        } else if (chave.startsWith(PREFIXO_PROFESSOR)) {
+            incrementar(professores, chave.substring(PREFIXO_PROFESSOR.length()));
+        }
+    }
+
+    private static <K> void incrementar(Map<K, AtomicLong> versoes, K chave) {
+        versoes.computeIfAbsent(chave, k -> new AtomicLong()).incrementAndGet();
+    }
+}
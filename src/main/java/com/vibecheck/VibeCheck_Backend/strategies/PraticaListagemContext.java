@@ -1,9 +1,13 @@
 package com.vibecheck.VibeCheck_Backend.strategies;
 
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.Direcao;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.PedidoPagina;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.TipoEstrategia;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Component;
@@ -20,6 +24,9 @@ import java.util.Map;
 @Component
 public class PraticaListagemContext {
     
+    // Maior página aceita nas listagens paginadas.
+    public static final int TAMANHO_MAXIMO_PAGINA = 200;
+    
     private final Map<TipoEstrategia, PraticaListagemInterface> estrategias;
     
     @Autowired
@@ -61,6 +68,59 @@ public class PraticaListagemContext {
         return strategy.executar(turmaId, turma, aluno, inicio, fim, authentication);
     }
     
+    /**
+     * Executa a estratégia especificada devolvendo uma página e o cursor da próxima.
+     * 
+     * @param tipoEstrategia Tipo da estratégia a ser executada
+     * @param turmaId ID da turma (pode ser null dependendo da estratégia)
+     * @param turma Objeto turma (pode ser null dependendo da estratégia)
+     * @param aluno Objeto aluno (pode ser null dependendo da estratégia)
+     * @param inicio Data de início (pode ser null dependendo da estratégia)
+     * @param fim Data de fim (pode ser null dependendo da estratégia)
+     * @param authentication Token de autenticação (pode ser null dependendo da estratégia)
+     * @param cursor Cursor devolvido pela página anterior (null ou vazio na primeira página)
+     * @param tamanho Itens por página, limitado a TAMANHO_MAXIMO_PAGINA
+     * @param direcao Sentido da ordenação (null = MAIS_RECENTES)
+     * @return A página, com o cursor da próxima (null se não houver mais práticas)
+     * @throws IllegalArgumentException se a estratégia não for encontrada, o cursor for inválido ou o tamanho não for positivo
+     */
+    public PaginaDTO<PraticaResumoDTO> executarEstrategiaPaginada(TipoEstrategia tipoEstrategia,
+                                                                 Long turmaId,
+                                                                 Turma turma,
+                                                                 Aluno aluno,
+                                                                 LocalDateTime inicio,
+                                                                 LocalDateTime fim,
+                                                                 OAuth2AuthenticationToken authentication,
+                                                                 String cursor,
+                                                                 int tamanho,
+                                                                 Direcao direcao) {
+        PraticaListagemInterface strategy = estrategias.get(tipoEstrategia);
+        
+        if (strategy == null) {
+            throw new IllegalArgumentException("Estratégia não encontrada: " + tipoEstrategia);
+        }
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+        int limite = Math.min(tamanho, TAMANHO_MAXIMO_PAGINA);
+        
+        // Pede um item a mais só para saber se existe próxima página.
+        PedidoPagina pedido = new PedidoPagina(CursorKeyset.decodificar(cursor), limite + 1,
+                direcao != null ? direcao : Direcao.MAIS_RECENTES);
+        List<PraticaResumoDTO> itens = strategy.executarPagina(turmaId, turma, aluno, inicio, fim, authentication, pedido);
+        boolean haMais = itens.size() > limite;
+        if (haMais) {
+            itens = itens.subList(0, limite);
+        }
+        
+        String proximoCursor = null;
+        if (haMais) {
+            PraticaResumoDTO ultima = itens.get(itens.size() - 1);
+            proximoCursor = new CursorKeyset(ultima.getInicio(), ultima.getId()).codificar();
+        }
+        return new PaginaDTO<>(itens, proximoCursor);
+    }
+    
     /**
      * Verifica se uma estratégia está disponível.
      * 
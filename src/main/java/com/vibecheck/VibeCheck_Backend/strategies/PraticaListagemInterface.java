@@ -3,6 +3,7 @@ package com.vibecheck.VibeCheck_Backend.strategies;
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 
 import java.time.LocalDateTime;
@@ -29,6 +30,25 @@ public interface PraticaListagemInterface {
                                    LocalDateTime inicio, LocalDateTime fim, 
                                    OAuth2AuthenticationToken authentication);
     
+    /**
+     * Executa a estratégia de listagem de práticas, devolvendo só uma página.
+     * A ordem é por (inicio, id) e a página continua estritamente depois do cursor (paginação por keyset,
+     * sem OFFSET), então o custo de cada página não cresce com o histórico da turma.
+     * 
+     * @param turmaId ID da turma (pode ser null dependendo da estratégia)
+     * @param turma Objeto turma (pode ser null dependendo da estratégia)
+     * @param aluno Objeto aluno (pode ser null dependendo da estratégia)
+     * @param inicio Data de início (pode ser null dependendo da estratégia)
+     * @param fim Data de fim (pode ser null dependendo da estratégia)
+     * @param authentication Token de autenticação (pode ser null dependendo da estratégia)
+     * @param pagina Cursor, limite e direção da página
+     * @return Até 'pagina.limite()' práticas resumidas, na direção pedida
+     */
+    List<PraticaResumoDTO> executarPagina(Long turmaId, Turma turma, Aluno aluno,
+                                          LocalDateTime inicio, LocalDateTime fim,
+                                          OAuth2AuthenticationToken authentication,
+                                          PedidoPagina pagina);
+    
     /**
      * Retorna o tipo de estratégia para identificação.
      * 
@@ -46,5 +66,27 @@ public interface PraticaListagemInterface {
         MINHAS_ABERTAS,
         POR_TURMA_PERIODO
     }
+    
+    /**
+     * Sentido da paginação, pelo início da prática.
+     */
+    enum Direcao {
+        MAIS_RECENTES, // Da mais recente para a mais antiga (padrão das listagens).
+        MAIS_ANTIGAS   // Da mais antiga para a mais recente.
+    }
+    
+    /**
+     * Pedido de uma página.
+     * 
+     * @param cursor Chave (inicio, id) do último item da página anterior; null na primeira página
+     * @param limite Quantidade máxima de itens
+     * @param direcao Sentido da ordenação
+     */
+    record PedidoPagina(CursorKeyset cursor, int limite, Direcao direcao) {
+        
+        public boolean crescente() {
+            return direcao == Direcao.MAIS_ANTIGAS;
+        }
+    }
 }
 
@@ -2,9 +2,9 @@ package com.vibecheck.VibeCheck_Backend.strategies.impl;
 
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
-import com.vibecheck.VibeCheck_Backend.models.Pratica;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom.FiltroPraticas;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Estratégia para listar práticas abertas de uma turma específica (apenas para professores).
@@ -34,11 +33,18 @@ public class AbertasPorTurmaStrategy implements PraticaListagemInterface {
                                           OAuth2AuthenticationToken authentication) {
         validarParametros(turma);
         
-        List<Pratica> praticas = buscarPraticasAbertasPorTurma(turma);
+        return buscarPraticasAbertasPorTurma(turma);
+    }
+    
+    @Override
+    public List<PraticaResumoDTO> executarPagina(Long turmaId, Turma turma, Aluno aluno,
+                                                LocalDateTime inicio, LocalDateTime fim,
+                                                OAuth2AuthenticationToken authentication,
+                                                PedidoPagina pagina) {
+        validarParametros(turma);
         
-        return praticas.stream()
-                .map(PraticaResumoDTO::new)
-                .collect(Collectors.toList());
+        return praticaRepository.buscarResumos(new FiltroPraticas(turma.getId(), null, null, true, null, null),
+                pagina.cursor(), pagina.limite(), pagina.crescente());
     }
     
     /**
@@ -60,8 +66,8 @@ public class AbertasPorTurmaStrategy implements PraticaListagemInterface {
      * @param turma Objeto turma
      * @return Lista de práticas abertas da turma
      */
-    private List<Pratica> buscarPraticasAbertasPorTurma(Turma turma) {
-        return praticaRepository.findByTurmaAndCheckoutIsNullOrderByInicioDesc(turma);
+    private List<PraticaResumoDTO> buscarPraticasAbertasPorTurma(Turma turma) {
+        return praticaRepository.listarResumosAbertosPorTurma(turma.getId());
     }
     
     @Override
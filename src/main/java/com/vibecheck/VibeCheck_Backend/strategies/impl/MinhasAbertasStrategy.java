@@ -2,9 +2,9 @@ package com.vibecheck.VibeCheck_Backend.strategies.impl;
 
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
-import com.vibecheck.VibeCheck_Backend.models.Pratica;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom.FiltroPraticas;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Estratégia para listar práticas abertas do aluno autenticado (apenas para alunos).
@@ -34,11 +33,18 @@ public class MinhasAbertasStrategy implements PraticaListagemInterface {
                                           OAuth2AuthenticationToken authentication) {
         validarParametros(aluno);
         
-        List<Pratica> praticas = buscarPraticasAbertasPorAluno(aluno);
+        return buscarPraticasAbertasPorAluno(aluno);
+    }
+    
+    @Override
+    public List<PraticaResumoDTO> executarPagina(Long turmaId, Turma turma, Aluno aluno,
+                                                LocalDateTime inicio, LocalDateTime fim,
+                                                OAuth2AuthenticationToken authentication,
+                                                PedidoPagina pagina) {
+        validarParametros(aluno);
         
-        return praticas.stream()
-                .map(PraticaResumoDTO::new)
-                .collect(Collectors.toList());
+        return praticaRepository.buscarResumos(new FiltroPraticas(null, null, aluno.getId(), true, null, null),
+                pagina.cursor(), pagina.limite(), pagina.crescente());
     }
     
     /**
@@ -60,8 +66,8 @@ public class MinhasAbertasStrategy implements PraticaListagemInterface {
      * @param aluno Objeto aluno
      * @return Lista de práticas abertas do aluno
      */
-    private List<Pratica> buscarPraticasAbertasPorAluno(Aluno aluno) {
-        return praticaRepository.findByAlunoAndCheckoutIsNullOrderByInicioDesc(aluno);
+    private List<PraticaResumoDTO> buscarPraticasAbertasPorAluno(Aluno aluno) {
+        return praticaRepository.listarResumosAbertosPorAluno(aluno.getId());
     }
     
     @Override
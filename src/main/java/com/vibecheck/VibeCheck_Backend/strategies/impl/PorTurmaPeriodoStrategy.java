@@ -2,9 +2,9 @@ package com.vibecheck.VibeCheck_Backend.strategies.impl;
 
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
-import com.vibecheck.VibeCheck_Backend.models.Pratica;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom.FiltroPraticas;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Estratégia para listar práticas de uma turma em um período específico (apenas para professores).
@@ -34,11 +33,18 @@ public class PorTurmaPeriodoStrategy implements PraticaListagemInterface {
                                           OAuth2AuthenticationToken authentication) {
         validarParametros(turma, inicio, fim);
         
-        List<Pratica> praticas = buscarPraticasPorTurmaEPeriodo(turma, inicio, fim);
+        return buscarPraticasPorTurmaEPeriodo(turma, inicio, fim);
+    }
+    
+    @Override
+    public List<PraticaResumoDTO> executarPagina(Long turmaId, Turma turma, Aluno aluno,
+                                                LocalDateTime inicio, LocalDateTime fim,
+                                                OAuth2AuthenticationToken authentication,
+                                                PedidoPagina pagina) {
+        validarParametros(turma, inicio, fim);
         
-        return praticas.stream()
-                .map(PraticaResumoDTO::new)
-                .collect(Collectors.toList());
+        return praticaRepository.buscarResumos(new FiltroPraticas(turma.getId(), null, null, false, inicio, fim),
+                pagina.cursor(), pagina.limite(), pagina.crescente());
     }
     
     /**
@@ -70,8 +76,8 @@ public class PorTurmaPeriodoStrategy implements PraticaListagemInterface {
      * @param fim Data de fim do período
      * @return Lista de práticas da turma no período
      */
-    private List<Pratica> buscarPraticasPorTurmaEPeriodo(Turma turma, LocalDateTime inicio, LocalDateTime fim) {
-        return praticaRepository.findByTurmaAndInicioBetween(turma, inicio, fim);
+    private List<PraticaResumoDTO> buscarPraticasPorTurmaEPeriodo(Turma turma, LocalDateTime inicio, LocalDateTime fim) {
+        return praticaRepository.listarResumosPorTurmaEPeriodo(turma.getId(), inicio, fim);
     }
     
     @Override
@@ -2,9 +2,10 @@ package com.vibecheck.VibeCheck_Backend.strategies.impl;
 
 import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
 import com.vibecheck.VibeCheck_Backend.models.Aluno;
-import com.vibecheck.VibeCheck_Backend.models.Pratica;
 import com.vibecheck.VibeCheck_Backend.models.Turma;
 import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepositoryCustom.FiltroPraticas;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
 import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
@@ -12,49 +13,58 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Estratégia para listar todas as práticas (apenas para professores).
- * Encapsula a lógica de busca de todas as práticas do sistema.
- * TODO: Implementar busca por todas as turmas do professor.
+ * Encapsula a lógica de busca das práticas de todas as turmas do professor autenticado.
  */
 @Component
 public class TodasPraticasStrategy implements PraticaListagemInterface {
     
     private final PraticaRepository praticaRepository;
+    private final TurmaRepository turmaRepository;
     
     @Autowired
-    public TodasPraticasStrategy(PraticaRepository praticaRepository) {
+    public TodasPraticasStrategy(PraticaRepository praticaRepository, TurmaRepository turmaRepository) {
         this.praticaRepository = praticaRepository;
+        this.turmaRepository = turmaRepository;
     }
     
     @Override
     public List<PraticaResumoDTO> executar(Long turmaId, Turma turma, Aluno aluno, 
                                           LocalDateTime inicio, LocalDateTime fim, 
                                           OAuth2AuthenticationToken authentication) {
-        List<Pratica> praticas = buscarTodasPraticas();
-        
-        return praticas.stream()
-                .map(PraticaResumoDTO::new)
-                .collect(Collectors.toList());
+        List<Long> turmas = turmasDoProfessor(authentication);
+        return turmas.isEmpty() ? List.of() : praticaRepository.listarResumosPorTurmas(turmas);
+    }
+    
+    @Override
+    public List<PraticaResumoDTO> executarPagina(Long turmaId, Turma turma, Aluno aluno,
+                                                LocalDateTime inicio, LocalDateTime fim,
+                                                OAuth2AuthenticationToken authentication,
+                                                PedidoPagina pagina) {
+        return praticaRepository.buscarResumos(
+                new FiltroPraticas(null, turmasDoProfessor(authentication), null, false, null, null),
+                pagina.cursor(), pagina.limite(), pagina.crescente());
     }
     
     /**
-     * Busca todas as práticas do sistema.
-     * Encapsula a lógica específica de busca de todas as práticas.
-     * TODO: Implementar busca por todas as turmas do professor autenticado.
+     * IDs das turmas do professor autenticado.
      * 
-     * @return Lista de todas as práticas
+     * @param authentication Token de autenticação do professor.
+     * @return Os IDs das turmas (vazio se ele não tiver turmas).
+     * @throws IllegalArgumentException Se não houver usuário autenticado.
      */
-    private List<Pratica> buscarTodasPraticas() {
-        // Por enquanto, busca pela turma com ID 1 como fallback
-        // Futuramente, deve buscar por todas as turmas do professor autenticado
-        return praticaRepository.findByTurmaWithDetails(1L);
+    private List<Long> turmasDoProfessor(OAuth2AuthenticationToken authentication) {
+        if (authentication == null) {
+            throw new IllegalArgumentException("Listagem de todas as práticas exige um professor autenticado.");
+        }
+        String googleId = (String) authentication.getPrincipal().getAttributes().get("sub");
+        return turmaRepository.findIdsByProfessorGoogleId(googleId);
     }
     
     @Override
     public TipoEstrategia getTipo() {
         return TipoEstrategia.TODAS_PRATICAS;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer circular de tamanho fixo, com um escritor por vez e qualquer número de leitores independentes.
+ *
+ * Cada item recebe uma sequência crescente. Os leitores não são registrados no buffer: cada um guarda
+ * a sequência do próximo item que quer ler e chama {@link #ler(long, int)}. Assim:
+ * - Escrever é O(1) e nunca espera por leitores: o item mais antigo é sobrescrito.
+ * - A memória é fixa, não importa quantos leitores existam nem quão atrasados estejam.
+ * - Um leitor que ficou mais de 'capacidade' itens para trás perde os sobrescritos e é avisado
+ *   (ver {@link Leitura#perdidos()}).
+ *
+ * Os escritores se revezam em um ReentrantLock (e não em synchronized): publicar roda no commit de
+ * cada registro, muitas vezes em threads virtuais, que assim não prendem a thread portadora.
+ */
+public class AnelCircular<T> {
+
+    /**
+     * Item com a sua sequência.
+     */
+    public record Entrada<T>(long sequencia, T item) {
+    }
+
+    /**
+     * Resultado de uma leitura.
+     *
+     * @param entradas Itens lidos, em ordem.
+     * @param proxima  Sequência a passar na próxima leitura.
+     * @param perdidos Itens entre a sequência pedida e a primeira entrada que já tinham sido sobrescritos.
+     */
+    public record Leitura<T>(List<Entrada<T>> entradas, long proxima, long perdidos) {
+    }
+
+    private final AtomicReferenceArray<Entrada<T>> itens;
+    private final int capacidade;
+    private final ReentrantLock escrita = new ReentrantLock();
+    private volatile long proxima; // Sequência do próximo item a escrever.
+
+    public AnelCircular(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva.");
+        }
+        this.capacidade = capacidade;
+        this.itens = new AtomicReferenceArray<>(capacidade);
+    }
+
+    /**
+     * @return A sequência atribuída ao item.
+     */
+    public long publicar(T item) {
+        escrita.lock();
+        try {
+            long sequencia = proxima;
+            itens.set(indice(sequencia), new Entrada<>(sequencia, item));
+            proxima = sequencia + 1;
+            return sequencia;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * @return Sequência que o próximo item publicado receberá (um leitor em dia passa este valor em ler()).
+     */
+    public long getProxima() {
+        return proxima;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Lê até 'maximo' itens a partir da sequência 'desde'.
+     */
+    public Leitura<T> ler(long desde, int maximo) {
+        long fim = proxima;
+        long inicio = Math.max(desde, fim - capacidade);
+        long perdidos = inicio - desde;
+        List<Entrada<T>> lidas = new ArrayList<>((int) Math.min(maximo, Math.max(0, fim - inicio)));
+        long sequencia = inicio;
+        for (; sequencia < fim && lidas.size() < maximo; sequencia++) {
+            Entrada<T> entrada = itens.get(indice(sequencia));
+            if (entrada == null || entrada.sequencia() != sequencia) {
+                // Sobrescrito por um escritor durante esta leitura.
+                perdidos++;
+                continue;
+            }
+            lidas.add(entrada);
+        }
+        return new Leitura<>(lidas, sequencia, Math.max(0, perdidos));
+    }
+
+    private int indice(long sequencia) {
+        return (int) (sequencia % capacidade);
+    }
+}
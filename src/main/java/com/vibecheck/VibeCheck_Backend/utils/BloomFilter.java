@@ -0,0 +1,91 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom compacto para Strings, seguro para uso concorrente sem locks.
+ *
+ * Responde "definitivamente ausente" ou "talvez presente": se {@link #talvezContem(String)} retornar
+ * false, o valor nunca foi adicionado. Quem decide o que isso significa é quem alimenta o filtro
+ * (ver CodigoAtivoRegistry). Não suporta remoção; para "esquecer" valores, cria-se um novo filtro.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int totalBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param elementosEsperados Quantidade aproximada de elementos que serão adicionados.
+     * @param taxaFalsoPositivo  Probabilidade desejada de falso positivo (ex: 0.01 = 1%).
+     */
+    public BloomFilter(int elementosEsperados, double taxaFalsoPositivo) {
+        int n = Math.max(1, elementosEsperados);
+        // Fórmulas clássicas: m = -n·ln(p) / (ln 2)^2 e k = (m/n)·ln 2.
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) totalBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((totalBits + 63) / 64);
+    }
+
+    /**
+     * Adiciona um valor ao filtro.
+     */
+    public void adicionar(String valor) {
+        long h1 = hash1(valor);
+        long h2 = hash2(valor);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            int indice = indice(h1, h2, i);
+            long mascara = 1L << (indice & 63);
+            int palavra = indice >>> 6;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    /**
+     * @return false se o valor certamente nunca foi adicionado; true se talvez tenha sido.
+     */
+    public boolean talvezContem(String valor) {
+        long h1 = hash1(valor);
+        long h2 = hash2(valor);
+        for (int i = 0; i < quantidadeHashes; i++) {
+            int indice = indice(h1, h2, i);
+            if ((bits.get(indice >>> 6) & (1L << (indice & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing (Kirsch–Mitzenmacher): g_i(x) = h1(x) + i·h2(x).
+    private int indice(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) totalBits);
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8.
+    private static long hash1(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Finalizador do MurmurHash3 aplicado ao hashCode da String; garante h2 ímpar (nunca zero).
+    private static long hash2(String valor) {
+        long h = valor.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return h | 1L;
+    }
+}
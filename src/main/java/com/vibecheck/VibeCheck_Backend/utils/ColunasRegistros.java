@@ -0,0 +1,204 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Armazenamento colunar, somente de inclusão, dos registros emocionais para varreduras analíticas.
+ *
+ * Cada linha ocupa 10 bytes fora do heap (turma 4, instante 4, emoção 1, tipo 1),
+ * em segmentos de tamanho fixo com uma ByteBuffer direta por coluna. Assim:
+ * - Um milhão de registros cabe em ~10 MB, sem objetos por linha nem pressão no coletor de lixo.
+ * - Uma varredura lê só as colunas que usa, em sequência, com laços simples sobre primitivos.
+ * - Cada segmento guarda o menor e o maior instante: segmentos fora do período nem são lidos.
+ *
+ * O instante é guardado em segundos desde {@link #EPOCA} (cabe em um int até 2068); o dia é o
+ * do relógio da aplicação (o mesmo LocalDateTime gravado em registros_emocionais).
+ *
+ * Um escritor por vez (adicionar usa uma ReentrantLock, que não prende a thread virtual à
+ * thread da plataforma) e qualquer número de leitores sem trava:
+ * o tamanho de cada segmento é volátil e só é incrementado depois que a linha foi escrita,
+ * então um leitor nunca vê uma linha pela metade.
+ */
+public class ColunasRegistros {
+
+    public static final LocalDateTime EPOCA = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final long EPOCA_SEGUNDOS = EPOCA.toEpochSecond(ZoneOffset.UTC);
+    private static final int SEGUNDOS_DIA = 86_400;
+
+    /**
+     * Critérios de uma varredura.
+     *
+     * @param turmas Turmas aceitas (índice = id da turma); obrigatório.
+     * @param de     Início do período (inclusivo).
+     * @param ate    Fim do período (exclusivo).
+     * @param tipo   Código do tipo de submissão, ou -1 para todos.
+     */
+    public record Filtro(BitSet turmas, LocalDateTime de, LocalDateTime ate, int tipo) {
+    }
+
+    /**
+     * Resultado de uma varredura agrupada por dia.
+     *
+     * @param primeiroDia  Dia do índice 0 dos vetores por dia.
+     * @param quantidade   Registros por dia.
+     * @param soma         Soma das emoções por dia.
+     * @param histograma   Registros por valor de emoção (0 a 255), no período todo.
+     * @param linhasLidas  Linhas examinadas (as dos segmentos descartados pelo período não contam).
+     */
+    public record Resultado(LocalDate primeiroDia, long[] quantidade, long[] soma, long[] histograma,
+                            long linhasLidas) {
+    }
+
+    private final int capacidadeSegmento;
+    private final List<Segmento> segmentos = new CopyOnWriteArrayList<>();
+    private final ReentrantLock escrita = new ReentrantLock();
+    private Segmento atual; // Só acessado pelo escritor (sob 'escrita').
+
+    /**
+     * @param capacidadeSegmento Linhas por segmento (a memória é reservada um segmento por vez).
+     */
+    public ColunasRegistros(int capacidadeSegmento) {
+        if (capacidadeSegmento < 1) {
+            throw new IllegalArgumentException("A capacidade do segmento deve ser positiva.");
+        }
+        this.capacidadeSegmento = capacidadeSegmento;
+    }
+
+    /**
+     * Acrescenta uma linha.
+     *
+     * @return false se a linha não é representável (turma fora de int, emoção fora de 0..255,
+     * instante fora do intervalo suportado) e foi ignorada.
+     */
+    public boolean adicionar(long turmaId, LocalDateTime instante, int emocao, int tipo) {
+        long segundos = instante.toEpochSecond(ZoneOffset.UTC) - EPOCA_SEGUNDOS;
+        if (turmaId < 0 || turmaId > Integer.MAX_VALUE || emocao < 0 || emocao > 255 || tipo < 0 || tipo > 127
+                || segundos < 0 || segundos > Integer.MAX_VALUE) {
+            return false;
+        }
+        escrita.lock();
+        try {
+            if (atual == null || atual.tamanho == capacidadeSegmento) {
+                atual = new Segmento(capacidadeSegmento);
+                segmentos.add(atual);
+            }
+            atual.adicionar((int) turmaId, (int) segundos, (byte) emocao, (byte) tipo);
+        } finally {
+            escrita.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Varre as linhas do período e das turmas do filtro, agrupando por dia.
+     */
+    public Resultado agruparPorDia(Filtro filtro) {
+        int de = segundos(filtro.de());
+        int ate = segundos(filtro.ate());
+        int primeiroDia = Math.floorDiv(de, SEGUNDOS_DIA);
+        int dias = Math.max(0, Math.floorDiv(ate - 1, SEGUNDOS_DIA) - primeiroDia + 1);
+        long[] quantidade = new long[dias];
+        long[] soma = new long[dias];
+        long[] histograma = new long[256];
+        long linhasLidas = 0;
+        BitSet turmas = filtro.turmas();
+        int tipo = filtro.tipo();
+
+        for (Segmento segmento : segmentos) {
+            int n = segmento.tamanho; // Leitura volátil: as linhas [0, n) estão completas.
+            if (n == 0 || segmento.maximo < de || segmento.minimo >= ate) {
+                continue;
+            }
+            linhasLidas += n;
+            IntBuffer instantes = segmento.instantes;
+            IntBuffer turmaIds = segmento.turmas;
+            ByteBuffer emocoes = segmento.emocoes;
+            ByteBuffer tipos = segmento.tipos;
+            for (int i = 0; i < n; i++) {
+                int t = instantes.get(i);
+                if (t < de || t >= ate || (tipo >= 0 && tipos.get(i) != tipo) || !turmas.get(turmaIds.get(i))) {
+                    continue;
+                }
+                int emocao = emocoes.get(i) & 0xFF;
+                int dia = t / SEGUNDOS_DIA - primeiroDia;
+                quantidade[dia]++;
+                soma[dia] += emocao;
+                histograma[emocao]++;
+            }
+        }
+        return new Resultado(EPOCA.toLocalDate().plusDays(primeiroDia), quantidade, soma, histograma, linhasLidas);
+    }
+
+    public long getTamanho() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamanho;
+        }
+        return total;
+    }
+
+    public int getSegmentos() {
+        return segmentos.size();
+    }
+
+    /**
+     * @return Bytes fora do heap reservados pelos segmentos.
+     */
+    public long getBytesReservados() {
+        return (long) segmentos.size() * capacidadeSegmento * Segmento.BYTES_POR_LINHA;
+    }
+
+    private static int segundos(LocalDateTime instante) {
+        long segundos = instante.toEpochSecond(ZoneOffset.UTC) - EPOCA_SEGUNDOS;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, segundos));
+    }
+
+    private static final class Segmento {
+        private static final int BYTES_POR_LINHA = 4 + 4 + 1 + 1;
+
+        private final IntBuffer turmas;
+        private final IntBuffer instantes;
+        private final ByteBuffer emocoes;
+        private final ByteBuffer tipos;
+        private volatile int minimo = Integer.MAX_VALUE;
+        private volatile int maximo = Integer.MIN_VALUE;
+        private volatile int tamanho;
+
+        private Segmento(int capacidade) {
+            this.turmas = direta(capacidade * 4L).asIntBuffer();
+            this.instantes = direta(capacidade * 4L).asIntBuffer();
+            this.emocoes = direta(capacidade);
+            this.tipos = direta(capacidade);
+        }
+
+        private void adicionar(int turmaId, int segundos, byte emocao, byte tipo) {
+            int i = tamanho;
+            turmas.put(i, turmaId);
+            instantes.put(i, segundos);
+            emocoes.put(i, emocao);
+            tipos.put(i, tipo);
+            // Os limites vêm antes do tamanho: quem enxerga a linha nova também enxerga os limites que a cobrem.
+            if (segundos < minimo) {
+                minimo = segundos;
+            }
+            if (segundos > maximo) {
+                maximo = segundos;
+            }
+            tamanho = i + 1;
+        }
+
+        private static ByteBuffer direta(long bytes) {
+            return ByteBuffer.allocateDirect(Math.toIntExact(bytes)).order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Cursor de paginação por keyset (a "chave" do último item da página): um instante e um id.
+ *
+ * Em vez de OFFSET, que obriga o banco a percorrer e descartar todas as linhas anteriores, a próxima
+ * página é pedida com "depois de (instante, id)", que usa o índice diretamente. O id desempata itens
+ * com o mesmo instante. O cursor é opaco para o cliente: 16 bytes em Base64 URL-safe.
+ *
+ * @param instante Instante do último item retornado.
+ * @param id       Id do último item retornado.
+ */
+public record CursorKeyset(LocalDateTime instante, long id) {
+
+    private static final int TAMANHO = 2 * Long.BYTES;
+
+    /**
+     * @return O cursor codificado, para devolver ao cliente.
+     */
+    public String codificar() {
+        long nanosEpoca = instante.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + instante.getNano();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO).putLong(nanosEpoca).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor Cursor recebido do cliente (pode ser null ou vazio: primeira página).
+     * @return O cursor decodificado, ou null para a primeira página.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    public static CursorKeyset decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != TAMANHO) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long nanosEpoca = buffer.getLong();
+        long id = buffer.getLong();
+        LocalDateTime instante = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(nanosEpoca, 1_000_000_000L), (int) Math.floorMod(nanosEpoca, 1_000_000_000L), ZoneOffset.UTC);
+        return new CursorKeyset(instante, id);
+    }
+}
@@ -0,0 +1,181 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Escopo de subtarefas em threads virtuais, no estilo da concorrência estruturada: as subtarefas
+ * são iniciadas dentro do escopo, {@link #juntar()} espera por todas e, ao fechar, nenhuma delas
+ * continua rodando.
+ *
+ * - Falha rápida: a primeira subtarefa que falha, ou que passa do seu prazo, cancela (interrompe)
+ *   as demais, e juntar() relança o erro.
+ * - Prazo por subtarefa, contado a partir de quando ela começa a rodar; com um limite de vagas
+ *   (ver {@link #iniciar(String, Duration, Semaphore, Callable)}), a partir de quando ela consegue a vaga,
+ *   para que a espera na fila não consuma o prazo da consulta.
+ * - Prazo total opcional do escopo, contado da criação: limita a soma de fila e execução, que com
+ *   poucas vagas pode chegar a vários prazos de subtarefa. Ao passar dele, juntar() cancela o que
+ *   ainda não terminou (inclusive o que espera vaga).
+ *
+ * O StructuredTaskScope do Java 21 ainda é preview (exige --enable-preview na compilação e na
+ * execução); esta classe cobre o mesmo uso com a API estável. Deve ser usada por uma única thread,
+ * a dona do escopo, em um try-with-resources.
+ */
+public class EscopoTarefas implements AutoCloseable {
+
+    private static final class Pendente {
+        private final String nome;
+        private final long prazoNanos;
+        private volatile boolean comecou;
+        private volatile long limiteNanos; // System.nanoTime() do fim do prazo, depois que a subtarefa começou.
+
+        private Pendente(String nome, Duration prazo) {
+            this.nome = nome;
+            this.prazoNanos = prazo.toNanos();
+        }
+
+        private void comecar() {
+            limiteNanos = System.nanoTime() + prazoNanos;
+            comecou = true;
+        }
+
+        /**
+         * O fim do prazo ou, se a subtarefa ainda não começou, o mais cedo que ele pode ser.
+         */
+        private long limite(long agora) {
+            return comecou ? limiteNanos : agora + prazoNanos;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final CompletionService<Object> concluidas;
+    private final Map<Future<Object>, Pendente> pendentes = new HashMap<>();
+    private final String nome;
+    private final long limiteTotalNanos; // System.nanoTime() do fim do prazo total (Long.MAX_VALUE = sem prazo).
+
+    /**
+     * @param nome Prefixo do nome das threads (aparece nos dumps de threads).
+     */
+    public EscopoTarefas(String nome) {
+        this(nome, null);
+    }
+
+    /**
+     * @param nome       Prefixo do nome das threads (aparece nos dumps de threads).
+     * @param prazoTotal Tempo máximo do escopo inteiro, a partir de agora (null = sem prazo total).
+     */
+    public EscopoTarefas(String nome, Duration prazoTotal) {
+        this.nome = nome;
+        this.limiteTotalNanos = prazoTotal == null ? Long.MAX_VALUE : System.nanoTime() + prazoTotal.toNanos();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(nome + "-", 0).factory());
+        this.concluidas = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * Inicia uma subtarefa em uma thread virtual nova.
+     *
+     * @param nome   Identifica a subtarefa na mensagem de prazo excedido.
+     * @param prazo  Tempo máximo da subtarefa.
+     * @return O resultado, disponível depois de juntar() retornar sem erro.
+     */
+    public <T> Supplier<T> iniciar(String nome, Duration prazo, Callable<T> tarefa) {
+        return iniciar(nome, prazo, null, tarefa);
+    }
+
+    /**
+     * Inicia uma subtarefa que só roda depois de conseguir uma das vagas (ex: para não ocupar mais
+     * conexões do pool do que o semáforo permite). O prazo começa a contar quando ela consegue a vaga.
+     *
+     * @param vagas Semáforo compartilhado pelas subtarefas limitadas (null = sem limite).
+     */
+    public <T> Supplier<T> iniciar(String nome, Duration prazo, Semaphore vagas, Callable<T> tarefa) {
+        Pendente pendente = new Pendente(nome, prazo);
+        Future<Object> futuro = concluidas.submit(() -> {
+            if (vagas == null) {
+                pendente.comecar();
+                return tarefa.call();
+            }
+            vagas.acquire();
+            try {
+                pendente.comecar();
+                return tarefa.call();
+            } finally {
+                vagas.release();
+            }
+        });
+        pendentes.put(futuro, pendente);
+        @SuppressWarnings("unchecked")
+        Supplier<T> resultado = () -> (T) futuro.resultNow();
+        return resultado;
+    }
+
+    /**
+     * Espera todas as subtarefas iniciadas até aqui.
+     *
+     * @throws ExecutionException Se uma subtarefa falhou (a causa é o erro dela).
+     * @throws TimeoutException   Se uma subtarefa passou do prazo, ou o escopo do prazo total.
+     */
+    public void juntar() throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            while (!pendentes.isEmpty()) {
+                long agora = System.nanoTime();
+                Map.Entry<Future<Object>, Pendente> proxima = null;
+                for (Map.Entry<Future<Object>, Pendente> pendente : pendentes.entrySet()) {
+                    if (proxima == null || pendente.getValue().limite(agora) < proxima.getValue().limite(agora)) {
+                        proxima = pendente;
+                    }
+                }
+                // Espera a próxima conclusão, no máximo até o prazo mais próximo (ou o total, se vier antes).
+                long espera = Math.min(proxima.getValue().limite(agora) - agora, limiteTotalNanos - agora);
+                Future<Object> concluida = concluidas.poll(Math.max(0, espera), TimeUnit.NANOSECONDS);
+                if (concluida == null) {
+                    if (limiteTotalNanos - System.nanoTime() <= 0) {
+                        throw new TimeoutException("O escopo '" + nome + "' excedeu o prazo total.");
+                    }
+                    if (proxima.getKey().isDone() || !proxima.getValue().comecou) {
+                        continue; // Terminou no limite do prazo (já está na fila), ou ainda espera a vaga.
+                    }
+                    if (proxima.getValue().limiteNanos - System.nanoTime() > 0) {
+                        continue; // Começou durante a espera: o prazo dela vai além.
+                    }
+                    throw new TimeoutException("A subtarefa '" + proxima.getValue().nome + "' excedeu o prazo.");
+                }
+                pendentes.remove(concluida);
+                concluida.get();
+            }
+        } catch (Exception e) {
+            cancelarPendentes();
+            throw e;
+        }
+    }
+
+    private void cancelarPendentes() {
+        for (Future<Object> pendente : pendentes.keySet()) {
+            pendente.cancel(true);
+        }
+        pendentes.clear();
+    }
+
+    /**
+     * Cancela o que ainda não terminou e espera as threads saírem.
+     */
+    @Override
+    public void close() {
+        cancelarPendentes();
+        executor.shutdownNow();
+        executor.close();
+    }
+}
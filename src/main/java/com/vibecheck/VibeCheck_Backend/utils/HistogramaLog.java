@@ -0,0 +1,111 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histograma de faixas logarítmicas para valores positivos (ex: durações em segundos), com percentis
+ * de erro relativo limitado.
+ *
+ * A faixa i cobre os valores em (γ^(i-1), γ^i], com γ = (1 + α) / (1 - α) e α = {@link #ERRO_RELATIVO}:
+ * qualquer percentil devolvido está a no máximo 5% do valor real. Valores até 1 caem na faixa 0.
+ *
+ * - Compacto: uma duração de 12 horas está na faixa 107, então um dia de uma turma tem poucas dezenas
+ *   de faixas ocupadas, não importa quantas práticas.
+ * - Mesclável: as faixas são fixas (não dependem dos dados), então somar as contagens de dois
+ *   histogramas dá exatamente o histograma da união. Percentis de um período saem da soma dos dias.
+ *
+ * A mesma fórmula está no SQL da migração 008 (preenchimento do histórico); mudar γ exige reconstruir.
+ */
+public class HistogramaLog {
+
+    public static final double ERRO_RELATIVO = 0.05;
+    private static final double GAMA = (1 + ERRO_RELATIVO) / (1 - ERRO_RELATIVO);
+    private static final double LOG_GAMA = Math.log(GAMA);
+
+    private final TreeMap<Integer, Long> faixas = new TreeMap<>();
+    private long quantidade;
+
+    /**
+     * @return A faixa do valor (valores até 1, inclusive zero e negativos, ficam na faixa 0).
+     */
+    public static int faixa(long valor) {
+        if (valor <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(valor) / LOG_GAMA);
+    }
+
+    /**
+     * @return O maior valor inteiro da faixa.
+     */
+    public static long limiteSuperior(int faixa) {
+        return (long) Math.floor(Math.pow(GAMA, faixa));
+    }
+
+    /**
+     * @return O valor que representa a faixa nos percentis (a no máximo α de qualquer valor da faixa).
+     */
+    public static long valorRepresentativo(int faixa) {
+        if (faixa <= 0) {
+            return 1;
+        }
+        return Math.round(2 * Math.pow(GAMA, faixa) / (GAMA + 1));
+    }
+
+    public void registrar(long valor) {
+        adicionar(faixa(valor), 1);
+    }
+
+    /**
+     * Soma 'quantidade' à faixa (ex: ao montar o histograma a partir das linhas gravadas).
+     */
+    public void adicionar(int faixa, long quantidade) {
+        if (quantidade <= 0) {
+            return;
+        }
+        faixas.merge(faixa, quantidade, Long::sum);
+        this.quantidade += quantidade;
+    }
+
+    public void mesclar(HistogramaLog outro) {
+        outro.faixas.forEach(this::adicionar);
+    }
+
+    /**
+     * Percentil pelo posto mais próximo: o menor valor com pelo menos p% das observações até ele.
+     *
+     * @param percentil Entre 0 e 100.
+     * @return O valor representativo da faixa do percentil, ou null se o histograma estiver vazio.
+     */
+    public Long percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("O percentil deve estar entre 0 e 100.");
+        }
+        if (quantidade == 0) {
+            return null;
+        }
+        long posto = Math.max(1, (long) Math.ceil(percentil / 100 * quantidade));
+        long acumulado = 0;
+        for (Map.Entry<Integer, Long> entrada : faixas.entrySet()) {
+            acumulado += entrada.getValue();
+            if (acumulado >= posto) {
+                return valorRepresentativo(entrada.getKey());
+            }
+        }
+        return valorRepresentativo(faixas.lastKey());
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return Faixa -> quantidade, em ordem crescente de faixa.
+     */
+    public Map<Integer, Long> getFaixas() {
+        return Collections.unmodifiableMap(faixas);
+    }
+}
@@ -0,0 +1,73 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de taxa por chave (token bucket), sem locks.
+ *
+ * Implementado como GCRA (Generic Cell Rate Algorithm), a forma "virtual" do token bucket:
+ * em vez de um contador de fichas reabastecido por um relógio, cada chave guarda apenas um long,
+ * o instante teórico de chegada (TAT) da próxima requisição. Cada requisição aceita avança esse
+ * instante em um intervalo (1 / taxa); ela é recusada se isso o levar além da tolerância da rajada.
+ * A atualização é um único compareAndSet.
+ *
+ * Chaves cujo balde já está cheio de novo (TAT no passado) não carregam informação e são removidas
+ * por {@link #limparOciosas(long)}, chamado periodicamente.
+ */
+public class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final Map<String, AtomicLong> chegadas = new ConcurrentHashMap<>();
+
+    /**
+     * @param porSegundo Taxa sustentada permitida por chave.
+     * @param rajada     Quantidade de requisições aceitas de uma vez, com o balde cheio.
+     */
+    public LimitadorTaxa(double porSegundo, int rajada) {
+        if (porSegundo <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Taxa e rajada devem ser positivas.");
+        }
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000L / porSegundo));
+        this.toleranciaNanos = intervaloNanos * rajada;
+    }
+
+    /**
+     * Tenta consumir uma ficha da chave.
+     *
+     * @param agoraNanos Instante atual (System.nanoTime()).
+     * @return 0 se a requisição foi aceita; senão, quantos nanossegundos esperar até haver uma ficha.
+     */
+    public long tentar(String chave, long agoraNanos) {
+        AtomicLong chegada = chegadas.computeIfAbsent(chave, c -> new AtomicLong(agoraNanos));
+        while (true) {
+            long atual = chegada.get();
+            long novo = Math.max(atual - agoraNanos, 0) + agoraNanos + intervaloNanos;
+            long excesso = novo - agoraNanos - toleranciaNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (chegada.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove as chaves cujo balde já se reabasteceu por completo.
+     *
+     * @return Quantas chaves foram removidas.
+     */
+    public int limparOciosas(long agoraNanos) {
+        int antes = chegadas.size();
+        chegadas.values().removeIf(chegada -> chegada.get() - agoraNanos <= 0);
+        return Math.max(0, antes - chegadas.size());
+    }
+
+    public int getQuantidadeChaves() {
+        return chegadas.size();
+    }
+}
@@ -0,0 +1,265 @@
+// Define o pacote para classes utilitárias (estruturas de dados sem dependência do Spring).
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Log local somente-anexação (append-only), mapeado em memória, com um único consumidor.
+ *
+ * Layout do arquivo (tamanho fixo):
+ * - Cabeçalho (16 bytes): mágico, geração e checkpoint (posição lógica até onde o consumidor já aplicou).
+ * - Entradas: [tamanho (4)] [geração (4)] [CRC32C dos dados (4)] [dados].
+ *
+ * Escritores anexam em paralelo e chamam {@link #tornarDuravel(long)}, que faz o fsync em grupo:
+ * quem chega enquanto outro fsync está em andamento espera por ele e, na maioria das vezes,
+ * já sai coberto, sem um fsync próprio. O consumidor lê a partir do checkpoint e o avança.
+ *
+ * O arquivo é circular: quando uma entrada não cabe no fim, a escrita volta para o início em uma
+ * nova geração (deixando uma marca de volta no fim, se couber), desde que não alcance o checkpoint.
+ * Assim o espaço é reaproveitado conforme o consumidor avança, sem esperar o log esvaziar, e o
+ * log só recusa entradas quando as pendentes ocupam o arquivo inteiro.
+ * Entradas antigas que sobrarem no arquivo têm outra geração e são ignoradas, assim como uma entrada
+ * cortada por uma queda (CRC inválido): a leitura para na primeira entrada inválida.
+ *
+ * As posições expostas são lógicas: (geração << 32) | deslocamento, sempre crescentes.
+ */
+public class LogAppendOnly implements Closeable {
+
+    private static final int MAGICO = 0x56424C47; // "VBLG"
+    private static final int TAMANHO_CABECALHO = 16;
+    private static final int CABECALHO_ENTRADA = 12;
+    private static final int POSICAO_GERACAO = 4;
+    private static final int POSICAO_CHECKPOINT = 8;
+    private static final int MARCA_VOLTA = -1; // No campo tamanho: a próxima entrada está no início, na geração seguinte.
+
+    /**
+     * Uma entrada lida do log.
+     *
+     * @param posicao Posição lógica da entrada.
+     * @param proxima Posição lógica logo após a entrada (o novo checkpoint, depois de aplicá-la).
+     * @param dados   Conteúdo gravado.
+     */
+    public record Entrada(long posicao, long proxima, byte[] dados) {
+    }
+
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final int capacidade;
+
+    private final ReentrantLock escritaLock = new ReentrantLock();
+    private final ReentrantLock sincronizacaoLock = new ReentrantLock();
+    private final AtomicLong fimDuravel = new AtomicLong();
+    private volatile int geracao; // Geração da escrita (a do checkpoint é a mesma ou a anterior).
+    private volatile long fimEscrito;
+    private volatile long checkpoint;
+
+    /**
+     * Abre (ou cria) o log. Se o arquivo já existir, recupera o checkpoint e localiza o fim
+     * das entradas válidas, descartando uma eventual entrada incompleta.
+     *
+     * @param arquivo    Caminho do arquivo.
+     * @param capacidade Tamanho do arquivo em bytes (no máximo 2 GB).
+     */
+    public LogAppendOnly(Path arquivo, int capacidade) throws IOException {
+        if (capacidade <= TAMANHO_CABECALHO + CABECALHO_ENTRADA) {
+            throw new IllegalArgumentException("Capacidade do log muito pequena: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+
+        if (buffer.getInt(0) != MAGICO) {
+            geracao = 1;
+            checkpoint = logica(geracao, TAMANHO_CABECALHO);
+            escreverCabecalho();
+            buffer.force();
+            canal.force(true);
+            fimEscrito = checkpoint;
+        } else {
+            checkpoint = buffer.getLong(POSICAO_CHECKPOINT);
+            // Percorre as entradas válidas a partir do checkpoint (atravessando a volta ao início) para achar o fim.
+            long posicao = checkpoint;
+            Entrada entrada;
+            while ((entrada = lerValidada(seguir(posicao))) != null) {
+                posicao = entrada.proxima();
+            }
+            fimEscrito = posicao;
+            geracao = geracao(posicao);
+        }
+        fimDuravel.set(fimEscrito);
+    }
+
+    /**
+     * Anexa uma entrada. A entrada fica visível para o consumidor imediatamente,
+     * mas só é durável depois de {@link #tornarDuravel(long)}.
+     *
+     * @return A posição lógica logo após a entrada, ou -1 se não houver espaço.
+     */
+    public long anexar(byte[] dados) {
+        CRC32C crc = new CRC32C();
+        crc.update(dados);
+        long tamanhoEntrada = CABECALHO_ENTRADA + (long) dados.length;
+        escritaLock.lock();
+        try {
+            int inicio = deslocamento(fimEscrito);
+            // Na mesma geração do checkpoint, o espaço livre vai até o fim do arquivo (e depois, do
+            // início até o checkpoint); na geração seguinte, só até o checkpoint.
+            boolean mesmaGeracao = geracao(checkpoint) == geracao;
+            int limite = mesmaGeracao ? capacidade : deslocamento(checkpoint);
+            if (inicio + tamanhoEntrada > limite) {
+                if (!mesmaGeracao || TAMANHO_CABECALHO + tamanhoEntrada > deslocamento(checkpoint)) {
+                    return -1;
+                }
+                if (inicio + CABECALHO_ENTRADA <= capacidade) {
+                    buffer.putInt(inicio + 4, geracao);
+                    buffer.putInt(inicio + 8, 0);
+                    buffer.putInt(inicio, MARCA_VOLTA);
+                }
+                geracao++;
+                buffer.putInt(POSICAO_GERACAO, geracao);
+                inicio = TAMANHO_CABECALHO;
+            }
+            buffer.put(inicio + CABECALHO_ENTRADA, dados);
+            buffer.putInt(inicio + 4, geracao);
+            buffer.putInt(inicio + 8, (int) crc.getValue());
+            buffer.putInt(inicio, dados.length);
+            fimEscrito = logica(geracao, (int) (inicio + tamanhoEntrada));
+            return fimEscrito;
+        } finally {
+            escritaLock.unlock();
+        }
+    }
+
+    /**
+     * Garante que tudo o que foi escrito até a posição informada está no disco (fsync em grupo).
+     */
+    public void tornarDuravel(long posicao) {
+        if (fimDuravel.get() >= posicao) {
+            return;
+        }
+        sincronizacaoLock.lock();
+        try {
+            if (fimDuravel.get() >= posicao) {
+                return; // Coberto pelo fsync de quem estava na frente.
+            }
+            long alvo = fimEscrito;
+            buffer.force();
+            fimDuravel.accumulateAndGet(alvo, Math::max);
+        } finally {
+            sincronizacaoLock.unlock();
+        }
+    }
+
+    /**
+     * Lê a entrada na posição informada.
+     *
+     * @return A entrada, ou null se ainda não houver entrada escrita nessa posição.
+     */
+    public Entrada ler(long posicao) {
+        if (posicao >= fimEscrito) {
+            return null;
+        }
+        return lerValidada(seguir(posicao));
+    }
+
+    /**
+     * Registra que tudo antes da posição informada já foi aplicado, liberando o espaço para novas
+     * entradas. Não faz fsync: perder um checkpoint só faz algumas entradas serem lidas de novo na
+     * próxima inicialização.
+     */
+    public void registrarCheckpoint(long posicao) {
+        escritaLock.lock();
+        try {
+            if (posicao > checkpoint && posicao <= fimEscrito) {
+                buffer.putLong(POSICAO_CHECKPOINT, posicao);
+                checkpoint = posicao;
+            }
+        } finally {
+            escritaLock.unlock();
+        }
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getFimEscrito() {
+        return fimEscrito;
+    }
+
+    @Override
+    public void close() {
+        escritaLock.lock();
+        try {
+            buffer.force();
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            escritaLock.unlock();
+        }
+    }
+
+    // A posição onde a entrada está de fato: no fim de uma geração (marca de volta ou sem espaço
+    // para um cabeçalho), a leitura continua no início da geração seguinte.
+    private long seguir(long posicao) {
+        int deslocamento = deslocamento(posicao);
+        if (deslocamento + CABECALHO_ENTRADA > capacidade
+                || (buffer.getInt(deslocamento) == MARCA_VOLTA && buffer.getInt(deslocamento + 4) == geracao(posicao))) {
+            return logica(geracao(posicao) + 1, TAMANHO_CABECALHO);
+        }
+        return posicao;
+    }
+
+    // Lê e valida (tamanho, geração e CRC) a entrada na posição informada.
+    private Entrada lerValidada(long posicao) {
+        int deslocamento = deslocamento(posicao);
+        int geracaoEntrada = geracao(posicao);
+        if (deslocamento + CABECALHO_ENTRADA > capacidade) {
+            return null;
+        }
+        int tamanho = buffer.getInt(deslocamento);
+        if (tamanho <= 0 || (long) deslocamento + CABECALHO_ENTRADA + tamanho > capacidade) {
+            return null;
+        }
+        if (buffer.getInt(deslocamento + 4) != geracaoEntrada) {
+            return null;
+        }
+        byte[] dados = new byte[tamanho];
+        buffer.get(deslocamento + CABECALHO_ENTRADA, dados);
+        CRC32C crc = new CRC32C();
+        crc.update(dados);
+        if (buffer.getInt(deslocamento + 8) != (int) crc.getValue()) {
+            return null;
+        }
+        return new Entrada(posicao, logica(geracaoEntrada, deslocamento + CABECALHO_ENTRADA + tamanho), dados);
+    }
+
+    private void escreverCabecalho() {
+        buffer.putInt(0, MAGICO);
+        buffer.putInt(POSICAO_GERACAO, geracao);
+        buffer.putLong(POSICAO_CHECKPOINT, checkpoint);
+    }
+
+    private static long logica(int geracao, int deslocamento) {
+        return ((long) geracao << 32) | deslocamento;
+    }
+
+    private static int geracao(long posicao) {
+        return (int) (posicao >>> 32);
+    }
+
+    private static int deslocamento(long posicao) {
+        return (int) posicao;
+    }
+}
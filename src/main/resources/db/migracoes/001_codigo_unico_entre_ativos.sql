@@ -0,0 +1,35 @@
+-- Migração 001: unicidade de codigos_avaliacao.codigo apenas entre códigos ativos.
+--
+-- Antes, 'codigo' tinha uma restrição UNIQUE global, o que impedia reutilizar códigos expirados
+-- e fazia os INSERTs falharem à medida que a tabela crescia. Agora o CodigoAllocator reaproveita
+-- códigos vencidos, que são desativados periodicamente (ativo = false).
+--
+-- Executar manualmente no PostgreSQL (o ddl-auto do Hibernate não remove restrições nem cria índices parciais).
+
+BEGIN;
+
+-- Desativa os códigos que já expiraram, para que não conflitem com o novo índice.
+UPDATE codigos_avaliacao SET ativo = false WHERE ativo = true AND data_expiracao < now();
+
+-- Remove a restrição UNIQUE gerada pelo Hibernate (o nome é gerado automaticamente, por isso a busca).
+DO $$
+DECLARE
+    restricao text;
+BEGIN
+    FOR restricao IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = ANY (con.conkey)
+        WHERE con.conrelid = 'codigos_avaliacao'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'codigo'
+    LOOP
+        EXECUTE format('ALTER TABLE codigos_avaliacao DROP CONSTRAINT %I', restricao);
+    END LOOP;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_codigos_avaliacao_codigo ON codigos_avaliacao (codigo);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_codigos_avaliacao_codigo_ativo ON codigos_avaliacao (codigo) WHERE ativo;
+
+COMMIT;
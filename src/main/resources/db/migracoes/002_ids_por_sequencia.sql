@@ -0,0 +1,37 @@
+-- Migração 002: IDs gerados por sequência (em vez de colunas IDENTITY).
+--
+-- IDENTITY impede o Hibernate de agrupar INSERTs em lotes JDBC, porque o ID só é conhecido depois
+-- de cada INSERT. As entidades agora usam sequências com alocação em blocos (otimizador pooled-lo).
+--
+-- Cada sequência começa acima do maior ID existente, com folga de um bloco inteiro, o que a torna
+-- segura tanto para o otimizador "pooled-lo" quanto para o "pooled".
+-- O INCREMENT BY de cada sequência é o tamanho de alocação efetivo (ver config/JpaConfig);
+-- para alterá-lo depois basta um "ALTER SEQUENCE <nome> INCREMENT BY <n>".
+--
+-- Executar manualmente no PostgreSQL, com a aplicação parada.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS alunos_seq INCREMENT BY 10;
+CREATE SEQUENCE IF NOT EXISTS professores_seq INCREMENT BY 10;
+CREATE SEQUENCE IF NOT EXISTS turmas_seq INCREMENT BY 10;
+CREATE SEQUENCE IF NOT EXISTS codigos_avaliacao_seq INCREMENT BY 20;
+CREATE SEQUENCE IF NOT EXISTS registros_emocionais_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS praticas_seq INCREMENT BY 50;
+
+SELECT setval('alunos_seq', COALESCE((SELECT MAX(id) FROM alunos), 0) + 10, false);
+SELECT setval('professores_seq', COALESCE((SELECT MAX(id) FROM professores), 0) + 10, false);
+SELECT setval('turmas_seq', COALESCE((SELECT MAX(id) FROM turmas), 0) + 10, false);
+SELECT setval('codigos_avaliacao_seq', COALESCE((SELECT MAX(id) FROM codigos_avaliacao), 0) + 20, false);
+SELECT setval('registros_emocionais_seq', COALESCE((SELECT MAX(id) FROM registros_emocionais), 0) + 50, false);
+SELECT setval('praticas_seq', COALESCE((SELECT MAX(id) FROM praticas), 0) + 50, false);
+
+-- As colunas deixam de ser IDENTITY: o valor passa a vir sempre da aplicação.
+ALTER TABLE alunos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE professores ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE turmas ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE codigos_avaliacao ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE registros_emocionais ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE praticas ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+COMMIT;
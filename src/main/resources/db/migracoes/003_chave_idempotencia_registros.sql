@@ -0,0 +1,21 @@
+-- Migração 003: chave de idempotência nos registros emocionais.
+--
+-- Cada submissão carrega uma chave (gerada na admissão ou enviada pelo cliente). A restrição UNIQUE
+-- garante que reenvios e a reaplicação do log do modo assíncrono nunca gravem o mesmo registro duas vezes.
+-- Registros antigos ficam com a chave nula (o PostgreSQL permite vários NULLs em uma coluna UNIQUE).
+--
+-- Executar manualmente no PostgreSQL.
+
+BEGIN;
+
+ALTER TABLE registros_emocionais ADD COLUMN IF NOT EXISTS chave_idempotencia varchar(64);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_registros_emocionais_chave_idempotencia') THEN
+        ALTER TABLE registros_emocionais
+            ADD CONSTRAINT uk_registros_emocionais_chave_idempotencia UNIQUE (chave_idempotencia);
+    END IF;
+END $$;
+
+COMMIT;
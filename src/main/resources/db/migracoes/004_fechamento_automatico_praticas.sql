@@ -0,0 +1,11 @@
+-- Migração 004: índices do fechamento automático de práticas abandonadas (PraticaFechamentoAutomatico).
+--
+-- - Índice parcial com apenas as práticas abertas: a varredura não percorre o histórico inteiro.
+-- - Índice por turma/tipo/criação nos códigos: localiza a janela de check-out de cada turma.
+--
+-- Executar manualmente no PostgreSQL (o ddl-auto do Hibernate não cria índices parciais).
+-- CONCURRENTLY evita bloquear as escritas durante a criação, por isso fica fora de uma transação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_praticas_abertas ON praticas (id) WHERE fim IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_codigos_avaliacao_turma_tipo_criacao
+    ON codigos_avaliacao (turma_id, tipo, data_criacao);
@@ -0,0 +1,9 @@
+-- Migração 005: índice da consulta paginada do dashboard (RegistroEmocionalRepository.buscarDashboard).
+--
+-- A consulta filtra pelas turmas do professor e percorre os registros do mais recente para o mais
+-- antigo por (timestamp, id); o PostgreSQL lê este índice de trás para frente, sem ordenar em memória.
+--
+-- Executar manualmente no PostgreSQL. CONCURRENTLY evita bloquear as escritas durante a criação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_registros_emocionais_turma_timestamp
+    ON registros_emocionais (turma_id, timestamp, id);
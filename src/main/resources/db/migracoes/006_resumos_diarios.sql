@@ -0,0 +1,22 @@
+-- Migração 006: resumos diários dos registros emocionais (ResumoDiario / ResumoDiarioService).
+--
+-- Uma linha por (turma, dia, tipo, emoção) com a quantidade de registros. Mantida a cada registro
+-- pela aplicação; o INSERT ... SELECT abaixo preenche o histórico existente (equivale a
+-- POST /api/codigo/dashboard/resumos/reconstruir para todas as turmas).
+--
+-- Executar manualmente no PostgreSQL, de preferência antes de publicar a versão que mantém os resumos.
+
+CREATE TABLE IF NOT EXISTS resumos_diarios (
+    turma_id   BIGINT      NOT NULL REFERENCES turmas (id),
+    dia        DATE        NOT NULL,
+    tipo       VARCHAR(16) NOT NULL,
+    emocao     INTEGER     NOT NULL,
+    quantidade BIGINT      NOT NULL,
+    PRIMARY KEY (turma_id, dia, tipo, emocao)
+);
+
+INSERT INTO resumos_diarios (turma_id, dia, tipo, emocao, quantidade)
+SELECT turma_id, CAST(timestamp AS DATE), tipo_submissao, emocao, COUNT(*)
+FROM registros_emocionais
+GROUP BY turma_id, CAST(timestamp AS DATE), tipo_submissao, emocao
+ON CONFLICT (turma_id, dia, tipo, emocao) DO NOTHING;
@@ -0,0 +1,20 @@
+-- Migração 007: mensagens de invalidação de cache entre instâncias (InvalidacaoCache / TransporteInvalidacaoBanco).
+--
+-- Cada @CacheEvict grava uma linha; as outras instâncias leem as linhas recentes a cada segundo e
+-- removem a entrada do seu cache local. Linhas com mais de vibecheck.cache.invalidacao.retencao
+-- (padrão 1h) são apagadas pela própria aplicação.
+--
+-- Executar manualmente no PostgreSQL antes de publicar a versão com cache em duas camadas
+-- (até lá, as invalidações só valem na instância que as gerou e um aviso é registrado no log).
+
+CREATE SEQUENCE IF NOT EXISTS invalidacoes_cache_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS invalidacoes_cache (
+    id        BIGINT       PRIMARY KEY,
+    origem    VARCHAR(64)  NOT NULL,
+    regiao    VARCHAR(128) NOT NULL,
+    chave     VARCHAR(512),
+    criado_em TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_invalidacoes_cache_criado_em ON invalidacoes_cache (criado_em);
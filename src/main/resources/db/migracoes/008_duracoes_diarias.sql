@@ -0,0 +1,29 @@
+-- Migração 008: histogramas diários da duração das práticas (DuracaoDiaria / DuracaoPraticaService).
+--
+-- Uma linha por (turma, dia de início, aluno, faixa) com a quantidade de práticas fechadas cuja duração
+-- cai na faixa logarítmica. A faixa segue HistogramaLog.faixa: 0 até 1 segundo e, acima disso,
+-- CEIL(LN(duração) / LN(1.05 / 0.95)). Mantida pela aplicação a cada fechamento; o INSERT ... SELECT
+-- abaixo preenche o histórico existente.
+--
+-- Executar manualmente no PostgreSQL, de preferência antes de publicar a versão que mantém os histogramas.
+
+CREATE TABLE IF NOT EXISTS duracoes_diarias (
+    turma_id   BIGINT  NOT NULL REFERENCES turmas (id),
+    dia        DATE    NOT NULL,
+    aluno_id   BIGINT  NOT NULL REFERENCES alunos (id),
+    faixa      INTEGER NOT NULL,
+    quantidade BIGINT  NOT NULL,
+    PRIMARY KEY (turma_id, dia, aluno_id, faixa)
+);
+
+INSERT INTO duracoes_diarias (turma_id, dia, aluno_id, faixa, quantidade)
+SELECT turma_id, CAST(inicio AS DATE), aluno_id, faixa, COUNT(*)
+FROM (
+    SELECT turma_id, inicio, aluno_id,
+           CASE WHEN duracao_segundos <= 1 THEN 0
+                ELSE CAST(CEIL(LN(duracao_segundos) / LN(1.05 / 0.95)) AS INTEGER) END AS faixa
+    FROM praticas
+    WHERE fim IS NOT NULL AND duracao_segundos IS NOT NULL
+) p
+GROUP BY turma_id, CAST(inicio AS DATE), aluno_id, faixa
+ON CONFLICT (turma_id, dia, aluno_id, faixa) DO NOTHING;
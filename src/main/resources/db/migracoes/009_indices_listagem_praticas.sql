@@ -0,0 +1,11 @@
+-- Migração 009: índices das listagens paginadas de práticas (PraticaRepositoryCustomImpl.buscarResumos).
+--
+-- As listagens filtram por turma ou por aluno e percorrem as práticas por (inicio, id), nos dois sentidos;
+-- a condição do cursor e o ORDER BY usam o mesmo índice, então cada página lê só as suas linhas.
+-- O índice parcial atende "minhas práticas abertas" sem passar pelo histórico do aluno.
+--
+-- Executar manualmente no PostgreSQL. CONCURRENTLY evita bloquear as escritas durante a criação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_praticas_turma_inicio ON praticas (turma_id, inicio, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_praticas_aluno_abertas_inicio ON praticas (aluno_id, inicio, id)
+    WHERE fim IS NULL;
@@ -0,0 +1,8 @@
+-- Migração 010: índice da sincronização do armazenamento analítico (AnaliticoRegistrosService.sincronizar).
+--
+-- A cada ciclo, cada instância lê os registros com timestamp posterior à última leitura (menos a margem),
+-- de todas as turmas; sem este índice, a leitura seria uma varredura completa de registros_emocionais.
+--
+-- Executar manualmente no PostgreSQL. CONCURRENTLY evita bloquear as escritas durante a criação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_registros_emocionais_timestamp ON registros_emocionais (timestamp, id);
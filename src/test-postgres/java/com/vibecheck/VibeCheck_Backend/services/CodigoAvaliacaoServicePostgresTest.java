@@ -0,0 +1,28 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Os testes de CodigoAvaliacaoServiceTest contra um PostgreSQL de verdade, com o índice único
+ * parcial criado pela própria migração 001 (que também remove a restrição UNIQUE antiga, se houver).
+ * Roda só no perfil "postgres" (mvn test -Ppostgres), que exige Docker.
+ */
+@Testcontainers
+class CodigoAvaliacaoServicePostgresTest extends CodigoAvaliacaoServiceTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Override
+    void criarIndiceUnicoDosAtivos() throws Exception {
+        jdbcTemplate.execute(new ClassPathResource("db/migracoes/001_codigo_unico_entre_ativos.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,69 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.models.Pratica;
+import jakarta.persistence.LockModeType;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os testes de PraticaFechamentoAutomaticoTest contra um PostgreSQL de verdade, onde o fechamento
+ * é o UPDATE ... RETURNING único (LATERAL, make_interval, FOR UPDATE SKIP LOCKED), mais o pulo de
+ * uma prática bloqueada por outra transação.
+ * Roda só no perfil "postgres" (mvn test -Ppostgres), que exige Docker.
+ */
+@Testcontainers
+class PraticaFechamentoAutomaticoPostgresTest extends PraticaFechamentoAutomaticoTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void usaODialetoDoPostgres() {
+        assertThat(entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect()).isInstanceOf(PostgreSQLDialect.class);
+    }
+
+    @Test
+    void pulaAPraticaBloqueadaPorOutraTransacao() throws Exception {
+        Aberta bloqueada = abrir(semCheckout, AGORA.minusHours(20), 3);
+        abrir(semCheckout, AGORA.minusHours(15), 2);
+
+        // Outra transação (ex: um check-out em andamento) segura a primeira até o fechamento terminar.
+        CountDownLatch bloqueou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        try (ExecutorService outra = Executors.newSingleThreadExecutor()) {
+            Future<?> checkout = outra.submit(() -> transacao.executeWithoutResult(status -> {
+                entityManager.find(Pratica.class, bloqueada.id(), LockModeType.PESSIMISTIC_WRITE);
+                bloqueou.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(bloqueou.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(fechamento(10, 1).fecharAbandonadas()).isEqualTo(1);
+            assertThat(abertas()).containsExactly(bloqueada.id());
+
+            liberar.countDown();
+            checkout.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(fechamento(10, 1).fecharAbandonadas()).isEqualTo(1);
+        assertThat(abertas()).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.vibecheck.VibeCheck_Backend;
+
+import com.vibecheck.VibeCheck_Backend.models.*;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fábricas das entidades usadas pelos testes de banco, todas gravadas pelo EntityManager recebido
+ * (dentro da transação de quem chama), e os parâmetros do H2 no modo PostgreSQL.
+ * Os e-mails derivam do googleId, que cada teste escolhe único.
+ */
+public final class DadosTeste {
+
+    /**
+     * H2 no modo PostgreSQL (aceita ON CONFLICT), para um @DataJpaTest com banco próprio:
+     * {@code properties = "spring.datasource.url=jdbc:h2:mem:<nome>;" + DadosTeste.MODO_POSTGRES}.
+     * O mesmo de src/test/resources/application.properties.
+     */
+    public static final String MODO_POSTGRES = "MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private DadosTeste() {
+    }
+
+    public static Professor professor(EntityManager entityManager, String googleId) {
+        Professor professor = new Professor();
+        professor.setGoogleId(googleId);
+        professor.setEmail(googleId + "@teste.com");
+        professor.setNome("Professor");
+        entityManager.persist(professor);
+        return professor;
+    }
+
+    public static Turma turma(EntityManager entityManager, Professor professor, String nome) {
+        Turma turma = new Turma();
+        turma.setNome(nome);
+        turma.setProfessor(professor);
+        entityManager.persist(turma);
+        return turma;
+    }
+
+    // Turma de um professor novo.
+    public static Turma turma(EntityManager entityManager, String googleIdProfessor, String nome) {
+        return turma(entityManager, professor(entityManager, googleIdProfessor), nome);
+    }
+
+    public static Aluno aluno(EntityManager entityManager, String googleId, String nome) {
+        Aluno aluno = new Aluno();
+        aluno.setGoogleId(googleId);
+        aluno.setEmail(googleId + "@teste.com");
+        aluno.setNome(nome);
+        entityManager.persist(aluno);
+        return aluno;
+    }
+
+    // A turma pode vir de outra transação: professor e turma entram por referência.
+    public static CodigoAvaliacao codigo(EntityManager entityManager, Turma turma, String valor, TipoAvaliacao tipo,
+                                         LocalDateTime criacao, LocalDateTime expiracao, boolean ativo) {
+        CodigoAvaliacao codigo = new CodigoAvaliacao();
+        codigo.setCodigo(valor);
+        codigo.setTipo(tipo);
+        codigo.setDataCriacao(criacao);
+        codigo.setDataExpiracao(expiracao);
+        codigo.setAtivo(ativo);
+        codigo.setProfessor(entityManager.getReference(Professor.class, turma.getProfessor().getId()));
+        codigo.setTurma(entityManager.getReference(Turma.class, turma.getId()));
+        entityManager.persist(codigo);
+        return codigo;
+    }
+
+    public static RegistroEmocional registro(EntityManager entityManager, Aluno aluno, Turma turma,
+                                             CodigoAvaliacao codigo, TipoAvaliacao tipo, int emocao,
+                                             LocalDateTime instante) {
+        RegistroEmocional registro = new RegistroEmocional();
+        registro.setAluno(aluno);
+        registro.setTurma(entityManager.getReference(Turma.class, turma.getId()));
+        registro.setCodigoAvaliacaoUsado(codigo);
+        registro.setEmocao(emocao);
+        registro.setTipoSubmissao(tipo);
+        registro.setTimestamp(instante);
+        entityManager.persist(registro);
+        return registro;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vibecheck.VibeCheck_Backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duas "instâncias" na mesma JVM: camada compartilhada comum e invalidações pelo transporte local.
+ */
+class CacheDuasCamadasTest {
+
+    private final TransporteInvalidacao transporte = new TransporteInvalidacaoLocal();
+    private final ConcurrentMapCacheManager compartilhado = new ConcurrentMapCacheManager();
+    private final Cache noA = criarNo("a");
+    private final Cache noB = criarNo("b");
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    @Test
+    void segundaInstanciaLeDaCamadaCompartilhada() {
+        assertThat(noA.get("prof", this::carregar)).isEqualTo("valor-1");
+        assertThat(noB.get("prof", this::carregar)).isEqualTo("valor-1");
+        assertThat(cargas.get()).isEqualTo(1);
+    }
+
+    @Test
+    void evictEmUmaInstanciaRemoveDoCacheLocalDaOutra() {
+        noA.get("prof", this::carregar);
+        noB.get("prof", this::carregar);
+
+        noA.evict("prof");
+
+        assertThat(noB.get("prof")).isNull();
+        assertThat(noB.get("prof", this::carregar)).isEqualTo("valor-2");
+        assertThat(noA.get("prof", this::carregar)).isEqualTo("valor-2");
+        assertThat(cargas.get()).isEqualTo(2);
+    }
+
+    @Test
+    void putEClearTambemInvalidamAsOutras() {
+        noB.get("prof", this::carregar);
+        noA.put("prof", "novo");
+        assertThat(noB.get("prof").get()).isEqualTo("novo");
+
+        noA.clear();
+        assertThat(noB.get("prof")).isNull();
+    }
+
+    private String carregar() {
+        return "valor-" + cargas.incrementAndGet();
+    }
+
+    private Cache criarNo(String origem) {
+        CacheLimitadoManager manager = new CacheLimitadoManager(new MockEnvironment(), List.of("turmas"),
+                transporte, compartilhado::getCache, origem);
+        manager.afterPropertiesSet();
+        return manager.getCache("turmas");
+    }
+}
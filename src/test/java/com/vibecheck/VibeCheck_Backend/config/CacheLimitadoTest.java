@@ -0,0 +1,91 @@
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.config.CacheLimitado.Politica;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limite de tamanho (LRU e FIFO), expiração por TTL e carga única por chave.
+ */
+class CacheLimitadoTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    @Test
+    void lruRemoveAMenosUsadaEFifoAMaisAntiga() {
+        CacheLimitado lru = new CacheLimitado("lru", 2, Duration.ZERO, Politica.LRU, relogio::get);
+        CacheLimitado fifo = new CacheLimitado("fifo", 2, Duration.ZERO, Politica.FIFO, relogio::get);
+        for (CacheLimitado cache : new CacheLimitado[]{lru, fifo}) {
+            cache.put("a", 1);
+            cache.put("b", 2);
+            cache.get("a");
+            cache.put("c", 3);
+        }
+
+        assertThat(lru.get("a")).isNotNull();
+        assertThat(lru.get("b")).isNull();
+        assertThat(fifo.get("a")).isNull();
+        assertThat(fifo.get("b")).isNotNull();
+        assertThat(lru.getEstatisticas().remocoesPorTamanho()).isEqualTo(1);
+        assertThat(lru.getTamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void entradasVencemAposOTtl() {
+        CacheLimitado cache = new CacheLimitado("ttl", 10, Duration.ofSeconds(5), Politica.LRU, relogio::get);
+        cache.put("a", 1);
+        cache.put("b", null);
+        relogio.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(cache.get("a").get()).isEqualTo(1);
+        assertThat(cache.get("b")).isNotNull(); // null também fica em cache
+
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.limparExpiradas()).isEqualTo(1);
+        assertThat(cache.getTamanho()).isZero();
+
+        CacheLimitado.Estatisticas estatisticas = cache.getEstatisticas();
+        assertThat(estatisticas.acertos()).isEqualTo(2);
+        assertThat(estatisticas.faltas()).isEqualTo(1);
+        assertThat(estatisticas.remocoesPorExpiracao()).isEqualTo(2);
+    }
+
+    @Test
+    void cargasConcorrentesDaMesmaChaveExecutamOCarregadorUmaVez() throws Exception {
+        CacheLimitado cache = new CacheLimitado("carga", 10, Duration.ofMinutes(1), Politica.LRU);
+        AtomicInteger chamadas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] resultados = new Future<?>[8];
+            for (int i = 0; i < resultados.length; i++) {
+                resultados[i] = executor.submit(() -> cache.get("chave", () -> {
+                    chamadas.incrementAndGet();
+                    liberar.await();
+                    return "valor";
+                }));
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+            for (Future<?> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("valor");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(chamadas.get()).isEqualTo(1);
+        assertThat(cache.getCarregamentos()).isEqualTo(1);
+        assertThat(cache.get("chave").get()).isEqualTo("valor");
+    }
+}
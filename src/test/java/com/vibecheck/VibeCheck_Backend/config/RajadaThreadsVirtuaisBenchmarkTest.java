@@ -0,0 +1,179 @@
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.dtos.SubmissaoRegistro;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry;
+import com.vibecheck.VibeCheck_Backend.services.RegistroIngestaoService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comparação de vazão e p99 entre o pool de threads de plataforma do Tomcat e threads virtuais,
+ * sob uma rajada de check-ins (várias turmas liberando o código ao mesmo tempo).
+ *
+ * Cada requisição percorre o caminho real do registro: RegistroIngestaoService (modo SINCRONO) e
+ * RegistroEmocionalService, com a busca do aluno e do código, a abertura da prática e o save, em
+ * transações de verdade sobre o pool do Hikari. O banco é um H2 em memória próprio do benchmark.
+ *
+ * Não roda por padrão. Para executar:
+ *   mvn test -Dtest=RajadaThreadsVirtuaisBenchmarkTest -Dbenchmark=true
+ * Parâmetros opcionais: -Dbenchmark.requisicoes (padrão 2000) e -Dbenchmark.pool (conexões, padrão 10).
+ *
+ * O resultado (vazão, p50 e p99 de cada modelo) vai para o log (INFO); o teste confere que, nos dois
+ * modelos, todas as submissões foram gravadas e abriram a prática do aluno. A comparação em si não é
+ * asserção: depende do número de núcleos (registrado junto) e do banco. Com um só núcleo, por exemplo,
+ * as threads virtuais dividem um único carrier e não têm como ganhar do pool de plataforma.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;" + DadosTeste.MODO_POSTGRES,
+        "spring.datasource.hikari.maximum-pool-size=${benchmark.pool:10}",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+class RajadaThreadsVirtuaisBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RajadaThreadsVirtuaisBenchmarkTest.class);
+    private static final int THREADS_TOMCAT = 200; // server.tomcat.threads.max padrão
+
+    private final int requisicoes = Integer.getInteger("benchmark.requisicoes", 2000);
+
+    @Autowired
+    private RegistroIngestaoService ingestaoService;
+
+    @Autowired
+    private CodigoAtivoRegistry codigoAtivoRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    private TransactionTemplate transacao;
+    private final AtomicInteger rodadas = new AtomicInteger();
+
+    private record Resultado(String cenario, int erros, RuntimeException primeiroErro, double vazao, double p50, double p99) {
+    }
+
+    @BeforeEach
+    void criarTransacao() {
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void compararPlataformaComVirtuais() throws Exception {
+        // Aquecimento (JIT, pool de conexões, caches), descartado.
+        executar("aquecimento", Executors.newVirtualThreadPerTaskExecutor());
+
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(executar("plataforma (" + THREADS_TOMCAT + " threads)", Executors.newFixedThreadPool(THREADS_TOMCAT)));
+        resultados.add(executar("virtuais", Executors.newVirtualThreadPerTaskExecutor()));
+
+        log.info("Rajada de {} check-ins, pool de {} conexões, {} núcleos", requisicoes,
+                dataSource.getMaximumPoolSize(), Runtime.getRuntime().availableProcessors());
+        for (Resultado r : resultados) {
+            log.info(String.format("%-30s %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  erros %d",
+                    r.cenario(), r.vazao(), r.p50(), r.p99(), r.erros()));
+        }
+
+        assertThat(resultados).allSatisfy(r -> assertThat(r.primeiroErro()).as(r.cenario()).isNull());
+    }
+
+    private Resultado executar(String cenario, ExecutorService executor) throws InterruptedException {
+        String prefixo = "bench-" + rodadas.incrementAndGet() + "-";
+        String codigo = criarTurma(prefixo);
+
+        long[] latencias = new long[requisicoes];
+        AtomicInteger erros = new AtomicInteger();
+        AtomicReference<RuntimeException> primeiroErro = new AtomicReference<>();
+        CountDownLatch fim = new CountDownLatch(requisicoes);
+
+        long inicio = System.nanoTime();
+        try (executor) {
+            for (int i = 0; i < requisicoes; i++) {
+                int indice = i;
+                // A latência conta desde a chegada, incluindo a fila do executor (como no Tomcat).
+                long chegada = System.nanoTime();
+                executor.submit(() -> {
+                    try {
+                        ingestaoService.registrar(new SubmissaoRegistro(prefixo + indice, codigo, 1 + indice % 5,
+                                LocalDateTime.now()));
+                    } catch (RuntimeException e) {
+                        erros.incrementAndGet();
+                        primeiroErro.compareAndSet(null, e);
+                    } finally {
+                        latencias[indice] = System.nanoTime() - chegada;
+                        fim.countDown();
+                    }
+                });
+            }
+            assertThat(fim.await(2, TimeUnit.MINUTES)).as("rajada terminou").isTrue();
+        }
+        long totalNanos = System.nanoTime() - inicio;
+
+        // Cada check-in abriu a prática do seu aluno.
+        long abertas = transacao.execute(status -> entityManager.createQuery(
+                        "SELECT COUNT(p) FROM Pratica p WHERE p.aluno.googleId LIKE :prefixo AND p.fim IS NULL", Long.class)
+                .setParameter("prefixo", prefixo + "%")
+                .getSingleResult());
+        assertThat(abertas).as(cenario).isEqualTo(requisicoes - erros.get());
+
+        Arrays.sort(latencias);
+        return new Resultado(cenario, erros.get(), primeiroErro.get(),
+                requisicoes / (totalNanos / 1e9),
+                percentil(latencias, 0.50),
+                percentil(latencias, 0.99));
+    }
+
+    // Uma turma com um código de check-in ativo e um aluno por requisição.
+    private String criarTurma(String prefixo) {
+        String codigo = String.format("B%05d", rodadas.get());
+        transacao.executeWithoutResult(status -> {
+            Turma turma = DadosTeste.turma(entityManager, prefixo + "professor", "Turma " + prefixo);
+            DadosTeste.codigo(entityManager, turma, codigo, TipoAvaliacao.CHECKIN,
+                    LocalDateTime.now(), LocalDateTime.now().plusHours(1), true);
+
+            for (int i = 0; i < requisicoes; i++) {
+                DadosTeste.aluno(entityManager, prefixo + i, "Aluno " + i);
+                if (i % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        // Gravado direto no banco, como se viesse de outra instância: entra pela sincronização.
+        codigoAtivoRegistry.sincronizar();
+        return codigo;
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
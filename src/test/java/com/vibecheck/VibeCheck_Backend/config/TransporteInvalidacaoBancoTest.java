@@ -0,0 +1,79 @@
+package com.vibecheck.VibeCheck_Backend.config;
+
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao.Invalidacao;
+import com.vibecheck.VibeCheck_Backend.models.InvalidacaoCache;
+import com.vibecheck.VibeCheck_Backend.repositories.InvalidacaoCacheRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publicação pelo banco: só depois do commit, em lote, e sem afetar a transação de quem publicou.
+ * Os testes controlam as próprias transações (sem a transação que o @DataJpaTest abriria).
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransporteInvalidacaoBancoTest {
+
+    @Autowired
+    private InvalidacaoCacheRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransporteInvalidacaoBanco transporte;
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void criarTransporte() {
+        transporte = new TransporteInvalidacaoBanco(repository, transactionManager, "a",
+                Duration.ofSeconds(5), Duration.ofHours(1));
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void limpar() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void gravaDepoisDoCommitENadaSeATransacaoForDesfeita() {
+        transacao.executeWithoutResult(status -> {
+            transporte.publicar(new Invalidacao("a", "versoes", "turma:1"));
+            transporte.publicar(new Invalidacao("a", "versoes", "professor:p"));
+            assertThat(repository.count()).isZero();
+        });
+        assertThat(repository.findAll()).extracting(InvalidacaoCache::getChave)
+                .containsExactlyInAnyOrder("turma:1", "professor:p");
+
+        transacao.executeWithoutResult(status -> {
+            transporte.publicar(new Invalidacao("a", "versoes", "turma:2"));
+            status.setRollbackOnly();
+        });
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void falhaDoTransporteNaoDesfazATransacaoDeQuemPublicou() {
+        // Chave maior que a coluna: o INSERT da invalidação falha.
+        transacao.executeWithoutResult(status -> {
+            repository.save(new InvalidacaoCache(null, "a", "gravacao-do-negocio", "1", LocalDateTime.now()));
+            transporte.publicar(new Invalidacao("a", "versoes", "x".repeat(600)));
+        });
+
+        assertThat(repository.findAll()).extracting(InvalidacaoCache::getRegiao).containsExactly("gravacao-do-negocio");
+    }
+}
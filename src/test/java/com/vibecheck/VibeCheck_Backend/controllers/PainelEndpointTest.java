@@ -0,0 +1,83 @@
+package com.vibecheck.VibeCheck_Backend.controllers;
+
+import com.vibecheck.VibeCheck_Backend.config.SecurityConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.PainelProfessorDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.services.*;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/codigo/painel: só para professores, com o professor do login; 504 quando uma consulta passa do prazo.
+ */
+@WebMvcTest(CodigoAvaliacaoController.class)
+@Import(SecurityConfig.class)
+class PainelEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PainelProfessorService painelService;
+    @MockitoBean
+    private CodigoAvaliacaoService codigoService;
+    @MockitoBean
+    private RegistroEmocionalService registroService;
+    @MockitoBean
+    private ResumoDiarioService resumoDiarioService;
+    @MockitoBean
+    private VersaoDados versaoDados;
+    @MockitoBean
+    private HumorAoVivoService humorAoVivoService;
+    @MockitoBean
+    private AnaliticoRegistrosService analiticoService;
+    @MockitoBean
+    private TurmaService turmaService;
+    @MockitoBean
+    private CustomOAuth2UserService customOAuth2UserService;
+    @MockitoBean
+    private AdmissaoService admissaoService; // Do AdmissaoInterceptor; o painel não tem @LimiteAdmissao.
+
+    @Test
+    void respondeOPainelDoProfessorAutenticado() throws Exception {
+        Mockito.when(painelService.montar("professor-painel")).thenReturn(new PainelProfessorDTO(
+                List.of(new PainelProfessorDTO.TurmaPainel(1L, "Turma A", new PaginaDTO<>(List.of(), null))),
+                new PaginaDTO<>(List.of(), null)));
+
+        mockMvc.perform(get("/api/codigo/painel").with(login("ROLE_PROFESSOR")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.turmas[0].nome").value("Turma A"));
+    }
+
+    @Test
+    void prazoExcedidoViraGatewayTimeoutEAlunoNaoEntra() throws Exception {
+        Mockito.when(painelService.montar("professor-painel"))
+                .thenThrow(new TimeoutException("A subtarefa 'dashboard' excedeu o prazo."));
+
+        mockMvc.perform(get("/api/codigo/painel").with(login("ROLE_PROFESSOR")))
+                .andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/api/codigo/painel").with(login("ROLE_ALUNO")))
+                .andExpect(status().isForbidden());
+    }
+
+    private static RequestPostProcessor login(String papel) {
+        return oauth2Login()
+                .attributes(atributos -> atributos.put("sub", "professor-painel"))
+                .authorities(new SimpleGrantedAuthority(papel));
+    }
+}
@@ -0,0 +1,159 @@
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.FiltroDashboard;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepositoryCustom.LinhaDashboard;
+import com.vibecheck.VibeCheck_Backend.utils.CursorKeyset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Consulta paginada do dashboard: só as turmas do professor, filtros no SQL
+ * e paginação por (timestamp, id) sem repetir nem pular registros com o mesmo instante;
+ * a exportação usa os mesmos filtros, e a de práticas só limita o período pelas pontas informadas.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+class DashboardConsultaTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0);
+    private static final FiltroDashboard SEM_FILTRO = new FiltroDashboard(null, null, null, null);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RegistroEmocionalRepository registroRepository;
+
+    @Autowired
+    private PraticaRepository praticaRepository;
+
+    private Turma turmaA;
+
+    @BeforeEach
+    void criarDados() {
+        turmaA = criarTurma("professor-a", "Turma A");
+        Turma turmaB = criarTurma("professor-b", "Turma B");
+        Aluno aluno = DadosTeste.aluno(entityManager, "aluno-dashboard", "Aluno");
+
+        // Três registros no mesmo instante, para exercitar o desempate pelo id.
+        criarRegistro(aluno, turmaA, TipoAvaliacao.CHECKIN, BASE);
+        criarRegistro(aluno, turmaA, TipoAvaliacao.CHECKIN, BASE);
+        criarRegistro(aluno, turmaA, TipoAvaliacao.CHECKIN, BASE);
+        criarRegistro(aluno, turmaA, TipoAvaliacao.CHECKOUT, BASE.plusHours(1));
+        criarRegistro(aluno, turmaA, TipoAvaliacao.CHECKOUT, BASE.plusHours(2));
+        criarRegistro(aluno, turmaB, TipoAvaliacao.CHECKIN, BASE.plusHours(3));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void paginaSomenteTurmasDoProfessorSemRepetir() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        List<LinhaDashboard> todas = new ArrayList<>();
+        CursorKeyset cursor = null;
+        int paginas = 0;
+        while (true) {
+            List<LinhaDashboard> pagina = registroRepository.buscarDashboard("professor-a", SEM_FILTRO, cursor, 2);
+            paginas++;
+            todas.addAll(pagina);
+            if (pagina.size() < 2) {
+                break;
+            }
+            LinhaDashboard ultima = pagina.get(pagina.size() - 1);
+            cursor = CursorKeyset.decodificar(new CursorKeyset(ultima.timestamp(), ultima.id()).codificar());
+        }
+
+        assertThat(todas).hasSize(5).allMatch(l -> l.turma().equals("Turma A"));
+        assertThat(todas).extracting(LinhaDashboard::id).doesNotHaveDuplicates();
+        assertThat(todas).extracting(LinhaDashboard::timestamp).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        // Uma consulta por página: nada de carregar turma ou professor depois.
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(paginas);
+    }
+
+    @Test
+    void aplicaFiltrosDeTurmaPeriodoETipo() {
+        assertThat(registroRepository.buscarDashboard("professor-a",
+                new FiltroDashboard(null, null, null, TipoAvaliacao.CHECKOUT), null, 10)).hasSize(2);
+        assertThat(registroRepository.buscarDashboard("professor-a",
+                new FiltroDashboard(null, BASE.plusMinutes(30), BASE.plusHours(2), null), null, 10)).hasSize(1);
+        assertThat(registroRepository.buscarDashboard("professor-a",
+                new FiltroDashboard(turmaA.getId(), null, null, null), null, 10)).hasSize(5);
+        // A turma de outro professor não aparece nem quando pedida explicitamente.
+        assertThat(registroRepository.buscarDashboard("professor-b",
+                new FiltroDashboard(turmaA.getId(), null, null, null), null, 10)).isEmpty();
+    }
+
+    @Test
+    void exportacaoLeEmOrdemCronologicaComAlunoETurma() {
+        try (Stream<RegistroEmocionalRepositoryCustom.LinhaExportacao> linhas = registroRepository.streamParaExportacao(
+                "professor-a", new FiltroDashboard(null, null, null, TipoAvaliacao.CHECKOUT))) {
+            assertThat(linhas.toList())
+                    .extracting(RegistroEmocionalRepositoryCustom.LinhaExportacao::timestamp,
+                            RegistroEmocionalRepositoryCustom.LinhaExportacao::aluno,
+                            RegistroEmocionalRepositoryCustom.LinhaExportacao::turma)
+                    .containsExactly(tuple(BASE.plusHours(1), "Aluno", "Turma A"), tuple(BASE.plusHours(2), "Aluno", "Turma A"));
+        }
+    }
+
+    @Test
+    void exportacaoDePraticasAplicaSoOsLimitesDoPeriodoInformados() {
+        // Uma prática por registro: em A, três às 8 h, uma às 9 h e uma às 10 h; em B, uma às 11 h.
+        for (RegistroEmocional registro : entityManager.createQuery(
+                "SELECT r FROM RegistroEmocional r", RegistroEmocional.class).getResultList()) {
+            Pratica pratica = new Pratica();
+            pratica.abrir(registro);
+            entityManager.persist(pratica);
+        }
+        entityManager.flush();
+
+        assertThat(inicios(turmaA.getId(), null, null)).hasSize(5).isSorted();
+        assertThat(inicios(turmaA.getId(), BASE.plusHours(1), null)).containsExactly(BASE.plusHours(1), BASE.plusHours(2));
+        assertThat(inicios(turmaA.getId(), null, BASE.plusHours(1))).containsExactly(BASE, BASE, BASE);
+        assertThat(inicios(turmaA.getId(), BASE, BASE.plusHours(2))).hasSize(4);
+    }
+
+    private List<LocalDateTime> inicios(Long turmaId, LocalDateTime inicio, LocalDateTime fim) {
+        try (Stream<PraticaRepositoryCustom.LinhaExportacao> linhas =
+                     praticaRepository.streamParaExportacao("professor-a", turmaId, inicio, fim)) {
+            return linhas.map(PraticaRepositoryCustom.LinhaExportacao::inicio).toList();
+        }
+    }
+
+    // Turma de um professor novo, com um código de check-in.
+    private Turma criarTurma(String googleIdProfessor, String nome) {
+        Turma turma = DadosTeste.turma(entityManager, googleIdProfessor, nome);
+        DadosTeste.codigo(entityManager, turma, nome.replace(" ", "").toUpperCase(), TipoAvaliacao.CHECKIN,
+                BASE, BASE.plusMinutes(10), true);
+        return turma;
+    }
+
+    private void criarRegistro(Aluno aluno, Turma turma, TipoAvaliacao tipo, LocalDateTime instante) {
+        CodigoAvaliacao codigo = entityManager.createQuery(
+                "SELECT c FROM CodigoAvaliacao c WHERE c.turma = :turma", CodigoAvaliacao.class)
+                .setParameter("turma", turma).getSingleResult();
+        DadosTeste.registro(entityManager, aluno, turma, codigo, tipo, 3, instante);
+    }
+}
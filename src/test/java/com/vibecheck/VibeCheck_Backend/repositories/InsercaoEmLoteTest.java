@@ -0,0 +1,83 @@
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a gravação de uma rajada de registros e práticas é agrupada em lotes JDBC,
+ * em vez de um INSERT (e um ida e volta ao banco) por entidade.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+class InsercaoEmLoteTest {
+
+    private static final int QUANTIDADE = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RegistroEmocionalRepository registroRepository;
+
+    @Autowired
+    private PraticaRepository praticaRepository;
+
+    @Test
+    void rajadaDeCheckinsUsaPoucosComandos() {
+        Turma turma = DadosTeste.turma(entityManager, "professor-lote", "Turma");
+        CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, "ABC123", TipoAvaliacao.CHECKIN,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(10), true);
+
+        List<Aluno> alunos = new ArrayList<>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            alunos.add(DadosTeste.aluno(entityManager, "aluno-" + i, "Aluno " + i));
+        }
+        entityManager.flush();
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        List<RegistroEmocional> registros = new ArrayList<>();
+        List<Pratica> praticas = new ArrayList<>();
+        for (Aluno aluno : alunos) {
+            RegistroEmocional registro = new RegistroEmocional();
+            registro.setAluno(aluno);
+            registro.setTurma(turma);
+            registro.setCodigoAvaliacaoUsado(codigo);
+            registro.setEmocao(3);
+            registro.setTipoSubmissao(TipoAvaliacao.CHECKIN);
+            registro.setTimestamp(LocalDateTime.now());
+            registros.add(registro);
+
+            Pratica pratica = new Pratica();
+            pratica.abrir(registro);
+            praticas.add(pratica);
+        }
+        registroRepository.saveAll(registros);
+        praticaRepository.saveAll(praticas);
+        entityManager.flush();
+
+        assertThat(estatisticas.getEntityInsertCount()).isEqualTo(2L * QUANTIDADE);
+        // Com IDENTITY seriam 40 INSERTs individuais. Com sequência pooled + batching:
+        // uma chamada a cada sequência e um lote de INSERT por tabela.
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+}
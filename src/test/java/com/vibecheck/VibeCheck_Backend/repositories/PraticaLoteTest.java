@@ -0,0 +1,101 @@
+package com.vibecheck.VibeCheck_Backend.repositories;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaDTO;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca em lote: um único SELECT para qualquer quantidade de IDs, PraticaDTO montado sem cargas LAZY,
+ * e só as práticas que o usuário pode ver.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+class PraticaLoteTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PraticaRepository praticaRepository;
+
+    private final List<Long> daTurmaA = new ArrayList<>();
+    private Long daTurmaB;
+
+    @BeforeEach
+    void criarDados() {
+        Turma turmaA = DadosTeste.turma(entityManager, "professor-lote-a", "Turma A");
+        Turma turmaB = DadosTeste.turma(entityManager, "professor-lote-b", "Turma B");
+        for (int i = 0; i < 5; i++) {
+            daTurmaA.add(criarPratica(turmaA, "aluno-lote-" + i, i % 2 == 0));
+        }
+        daTurmaB = criarPratica(turmaB, "aluno-lote-b", true);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void umaConsultaPorLoteEApenasAsPraticasAutorizadas() {
+        List<Long> ids = new ArrayList<>(daTurmaA);
+        ids.add(daTurmaB);
+        ids.add(-1L);
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        List<PraticaDTO> dtos = praticaRepository.buscarLoteAutorizado(ids, "professor-lote-a").stream()
+                .map(PraticaDTO::new)
+                .toList();
+
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(dtos).extracting(PraticaDTO::getId).containsExactlyInAnyOrderElementsOf(daTurmaA);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getNomeProfessor()).isEqualTo("Professor");
+            assertThat(dto.getCheckinRegistroId()).isNotNull();
+        });
+        assertThat(dtos).filteredOn(dto -> dto.getStatus().equals("FECHADA"))
+                .allSatisfy(dto -> assertThat(dto.getCheckoutRegistroId()).isNotNull());
+
+        // O aluno só recebe a própria prática, mesmo pedindo as dos colegas.
+        assertThat(praticaRepository.buscarLoteAutorizado(ids, "aluno-lote-3"))
+                .extracting(Pratica::getId).containsExactly(daTurmaA.get(3));
+    }
+
+    private Long criarPratica(Turma turma, String googleIdAluno, boolean aberta) {
+        Aluno aluno = DadosTeste.aluno(entityManager, googleIdAluno, googleIdAluno);
+        CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, "LOT123", TipoAvaliacao.CHECKIN,
+                BASE, BASE.plusMinutes(10), false);
+
+        RegistroEmocional checkin = DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN, 3, BASE);
+        Pratica pratica = new Pratica();
+        pratica.abrir(checkin);
+        if (!aberta) {
+            pratica.setCheckout(DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKOUT, 3,
+                    BASE.plusMinutes(45)));
+            pratica.setFim(BASE.plusMinutes(45));
+            pratica.setDuracaoSegundos(2700L);
+            pratica.setEmocaoFinal(4);
+        }
+        entityManager.persist(pratica);
+        return pratica.getId();
+    }
+}
@@ -0,0 +1,121 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.RegistroEmocionalRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Registros gravados por outra instância (sem o commit local) entram pela sincronização periódica,
+ * e os que chegam pelos dois caminhos são contados uma vez só.
+ * Os testes controlam as próprias transações (sem a transação que o @DataJpaTest abriria).
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnaliticoRegistrosServiceTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.now().withNano(0);
+    private static final LocalDate HOJE = AGORA.toLocalDate();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RegistroEmocionalRepository registroRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private AnaliticoRegistrosService analitico;
+    private Long turmaId;
+    private Long alunoId;
+    private Long codigoId;
+
+    @BeforeEach
+    void criarDados() {
+        transacao = new TransactionTemplate(transactionManager);
+        analitico = new AnaliticoRegistrosService(registroRepository, turmaRepository, transactionManager,
+                new SimpleMeterRegistry(), true, 16, 3660, Duration.ofMinutes(10), false);
+        transacao.executeWithoutResult(status -> {
+            Turma turma = DadosTeste.turma(entityManager, "professor-analitico", "Turma");
+            turmaId = turma.getId();
+            alunoId = DadosTeste.aluno(entityManager, "aluno-analitico", "Aluno").getId();
+            CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, "ANA123", TipoAvaliacao.CHECKIN,
+                    AGORA.minusDays(1), AGORA.plusHours(1), true);
+            codigoId = codigo.getId();
+        });
+    }
+
+    @AfterEach
+    void limpar() {
+        transacao.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM RegistroEmocional r WHERE r.turma.id = :turma")
+                    .setParameter("turma", turmaId).executeUpdate();
+            entityManager.createQuery("DELETE FROM CodigoAvaliacao c WHERE c.id = :id")
+                    .setParameter("id", codigoId).executeUpdate();
+            entityManager.createQuery("DELETE FROM Aluno a WHERE a.id = :id").setParameter("id", alunoId).executeUpdate();
+            entityManager.createQuery("DELETE FROM Turma t WHERE t.id = :id").setParameter("id", turmaId).executeUpdate();
+            entityManager.createQuery("DELETE FROM Professor p WHERE p.googleId = 'professor-analitico'").executeUpdate();
+        });
+    }
+
+    @Test
+    void registrosDeOutraInstanciaChegamPelaSincronizacaoSemDuplicar() {
+        gravar(AGORA.minusDays(1), false); // Antigo: só na carga.
+        gravar(AGORA.minusMinutes(1), false); // Dentro da margem: a carga e a primeira sincronização leem.
+        analitico.carregar();
+        assertThat(quantidade()).isEqualTo(2);
+
+        // Gravado "por outra instância": nenhum commit local avisa este armazenamento.
+        gravar(AGORA, false);
+        assertThat(quantidade()).isEqualTo(2);
+        analitico.sincronizar();
+        assertThat(quantidade()).isEqualTo(3);
+
+        // Gravado aqui: entra no commit, e a sincronização seguinte não o conta de novo.
+        gravar(AGORA, true);
+        assertThat(quantidade()).isEqualTo(4);
+        analitico.sincronizar();
+        analitico.sincronizar();
+        assertThat(quantidade()).isEqualTo(4);
+    }
+
+    private void gravar(LocalDateTime instante, boolean avisarCommit) {
+        transacao.executeWithoutResult(status -> {
+            RegistroEmocional registro = DadosTeste.registro(entityManager, entityManager.getReference(Aluno.class, alunoId),
+                    entityManager.find(Turma.class, turmaId), entityManager.getReference(CodigoAvaliacao.class, codigoId),
+                    TipoAvaliacao.CHECKIN, 3, instante);
+            if (avisarCommit) {
+                analitico.registroGravado(registro);
+            }
+        });
+    }
+
+    private long quantidade() {
+        return analitico.consultar("professor-analitico", HOJE.minusDays(1), HOJE, null, null).getQuantidade();
+    }
+}
@@ -0,0 +1,65 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fora de uma transação a ação roda na hora; dentro, todas as ações da transação ficam em uma só
+ * sincronização e rodam em ordem no commit, mesmo que uma delas falhe; no rollback, nenhuma roda.
+ */
+class AposCommitTest {
+
+    private final List<String> executadas = new ArrayList<>();
+
+    @AfterEach
+    void limpar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void semTransacaoRodaNaHora() {
+        AposCommit.executar(() -> executadas.add("agora"));
+
+        assertThat(executadas).containsExactly("agora");
+    }
+
+    @Test
+    void umaSoSincronizacaoPorTransacaoRodandoTudoEmOrdem() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 3; i++) {
+            int numero = i;
+            AposCommit.executar(() -> executadas.add("registro " + numero));
+        }
+        AposCommit.executar(() -> {
+            throw new IllegalStateException("falhou");
+        });
+        AposCommit.executar(() -> executadas.add("depois da falha"));
+
+        assertThat(executadas).isEmpty();
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(sincronizacoes).hasSize(1);
+
+        sincronizacoes.get(0).afterCommit();
+        assertThat(executadas).containsExactly("registro 0", "registro 1", "registro 2", "depois da falha");
+    }
+
+    @Test
+    void rollbackDescartaAsAcoes() {
+        TransactionSynchronizationManager.initSynchronization();
+        AposCommit.executar(() -> executadas.add("desfeita"));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(executadas).isEmpty();
+    }
+}
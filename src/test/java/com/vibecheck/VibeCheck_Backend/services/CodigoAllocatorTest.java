@@ -0,0 +1,94 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A permutação é uma bijeção: num espaço pequeno (36^2 códigos, rede de 12 bits) um ciclo inteiro
+ * não repete código, o contador dá a volta no fim do espaço e o "cycle walking" mantém os valores
+ * dentro dele. Códigos ainda vivos no registro são pulados.
+ */
+class CodigoAllocatorTest {
+
+    private static final int TAMANHO = 2;
+    private static final long ESPACO = 36 * 36;
+    private static final int[] CHAVES = {0x1234_5678, 0x9ABC_DEF0, 0x0F0F_0F0F, 0x7654_3210};
+
+    private final CodigoAtivoRegistry registry = Mockito.mock(CodigoAtivoRegistry.class);
+
+    @Test
+    void cicloCompletoNaoRepeteCodigos() {
+        CodigoAllocator allocator = allocator(0);
+
+        Set<String> codigos = new HashSet<>();
+        for (long i = 0; i < ESPACO; i++) {
+            String codigo = allocator.alocar();
+            assertThat(codigo).hasSize(TAMANHO).matches("[A-Z0-9]+");
+            codigos.add(codigo);
+        }
+
+        assertThat(codigos).hasSize((int) ESPACO);
+    }
+
+    @Test
+    void contadorDaAVoltaNoFimDoEspaco() {
+        CodigoAllocator doZero = allocator(0);
+        String primeiro = doZero.alocar();
+        String segundo = doZero.alocar();
+
+        // Começa três posições antes do fim: a quarta alocação volta ao início do espaço.
+        CodigoAllocator perto = allocator(ESPACO - 3);
+        Set<String> antes = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            antes.add(perto.alocar());
+        }
+
+        assertThat(perto.alocar()).isEqualTo(primeiro);
+        assertThat(perto.alocar()).isEqualTo(segundo);
+        assertThat(antes).hasSize(3).doesNotContain(primeiro, segundo);
+    }
+
+    @Test
+    void cycleWalkingMantemOsValoresNoEspaco() {
+        CodigoAllocator allocator = allocator(0);
+
+        // A rede de 12 bits permuta [0, 4096); só 1296 valores são códigos válidos.
+        long foraDoEspaco = 0;
+        Set<Long> imagens = new HashSet<>();
+        for (long i = 0; i < ESPACO; i++) {
+            if (allocator.feistel(i) >= ESPACO) {
+                foraDoEspaco++;
+            }
+            long imagem = allocator.permutar(i);
+            assertThat(imagem).isBetween(0L, ESPACO - 1);
+            imagens.add(imagem);
+        }
+
+        assertThat(foraDoEspaco).isPositive(); // O walking foi de fato exercitado.
+        assertThat(imagens).hasSize((int) ESPACO);
+    }
+
+    @Test
+    void codigoAindaVivoEhPulado() {
+        String vivo = allocator(0).alocar();
+        String seguinte = allocator(1).alocar();
+        Mockito.when(registry.buscar(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(registry.buscar(vivo)).thenReturn(Optional.of(
+                new CodigoAtivo(1L, vivo, null, 1L, 1L, LocalDateTime.now(), LocalDateTime.now().plusMinutes(30))));
+
+        assertThat(allocator(0).alocar()).isEqualTo(seguinte);
+    }
+
+    private CodigoAllocator allocator(long inicio) {
+        return new CodigoAllocator(Mockito.mock(CodigoAvaliacaoRepository.class), registry, TAMANHO, CHAVES, inicio);
+    }
+}
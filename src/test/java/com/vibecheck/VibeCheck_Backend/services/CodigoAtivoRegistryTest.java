@@ -0,0 +1,107 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.models.CodigoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.models.Professor;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.models.Turma;
+import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Códigos vivos valem até a expiração; o cache negativo é curto e some quando o código é publicado.
+ * Um código fora do filtro é recusado sem consultar o banco; um código de outra instância entra
+ * pela sincronização, e um que passa pelo filtro sem estar na memória é procurado no banco uma vez por TTL.
+ */
+class CodigoAtivoRegistryTest {
+
+    private final CodigoAvaliacaoRepository repository = Mockito.mock(CodigoAvaliacaoRepository.class);
+    private final CodigoAtivoRegistry registry = new CodigoAtivoRegistry(repository, 100, 0.01, Duration.ofMillis(50), 100);
+
+    @Test
+    void publicarCodigoRemoveEntradaNegativa() {
+        registry.registrarInvalido("ABC123");
+        assertThat(registry.invalidoRecente("ABC123")).isTrue();
+
+        registry.registrar(codigo("ABC123", LocalDateTime.now().plusMinutes(30)));
+
+        assertThat(registry.invalidoRecente("ABC123")).isFalse();
+        assertThat(registry.buscar("ABC123")).isPresent();
+    }
+
+    @Test
+    void entradaNegativaExpiraECodigoVencidoSaiNaLeitura() throws InterruptedException {
+        registry.registrarInvalido("XYZ789");
+        Thread.sleep(60);
+        assertThat(registry.invalidoRecente("XYZ789")).isFalse();
+
+        registry.registrar(codigo("VEN000", LocalDateTime.now().minusSeconds(1)));
+        assertThat(registry.buscar("VEN000")).isEmpty();
+    }
+
+    @Test
+    void codigoForaDoFiltroEhRecusadoSemConsultarOBanco() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(registry.resolver(String.format("LIX%03d", i))).isEmpty();
+        }
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    void codigoDeOutraInstanciaEntraPelaSincronizacao() {
+        registry.carregar();
+        CodigoAvaliacao daOutraInstancia = entidade("OUT123", LocalDateTime.now().plusMinutes(30));
+        Mockito.when(repository.findByAtivoTrueAndDataCriacaoAfter(Mockito.any()))
+                .thenReturn(List.of(daOutraInstancia));
+
+        registry.sincronizar();
+
+        assertThat(registry.resolver("OUT123")).map(CodigoAtivo::turmaId).contains(7L);
+        Mockito.verify(repository, Mockito.never()).findByCodigoAndAtivoTrueAndDataExpiracaoAfter(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void codigoDesativadoQuePassaPeloFiltroEhConsultadoUmaVezPorTtl() throws InterruptedException {
+        // Estava vivo (e entrou no filtro), mas saiu da memória antes da reconstrução do filtro.
+        registry.registrar(codigo("VEN123", LocalDateTime.now().minusSeconds(1)));
+        assertThat(registry.buscar("VEN123")).isEmpty();
+
+        assertThat(registry.resolver("VEN123")).isEmpty();
+        assertThat(registry.resolver("VEN123")).isEmpty(); // Cache negativo.
+        Mockito.verify(repository, Mockito.times(1)).findByCodigoAndAtivoTrueAndDataExpiracaoAfter(Mockito.eq("VEN123"), Mockito.any());
+
+        // Depois da recarga, o filtro já não o tem: nem com o cache negativo vencido o banco é consultado de novo.
+        Thread.sleep(60);
+        registry.recarregar();
+        assertThat(registry.resolver("VEN123")).isEmpty();
+        Mockito.verify(repository, Mockito.times(1)).findByCodigoAndAtivoTrueAndDataExpiracaoAfter(Mockito.eq("VEN123"), Mockito.any());
+    }
+
+    private static CodigoAvaliacao entidade(String codigo, LocalDateTime expiracao) {
+        Turma turma = new Turma();
+        turma.setId(7L);
+        Professor professor = new Professor();
+        professor.setId(3L);
+        CodigoAvaliacao entidade = new CodigoAvaliacao();
+        entidade.setId(11L);
+        entidade.setCodigo(codigo);
+        entidade.setTipo(TipoAvaliacao.CHECKIN);
+        entidade.setTurma(turma);
+        entidade.setProfessor(professor);
+        entidade.setDataCriacao(expiracao.minusMinutes(30));
+        entidade.setDataExpiracao(expiracao);
+        entidade.setAtivo(true);
+        return entidade;
+    }
+
+    private static CodigoAtivo codigo(String codigo, LocalDateTime expiracao) {
+        return new CodigoAtivo(1L, codigo, TipoAvaliacao.CHECKIN, 1L, 1L, expiracao.minusMinutes(30), expiracao);
+    }
+}
@@ -0,0 +1,147 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.CodigoAvaliacaoRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.ProfessorRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * A unicidade entre códigos ativos é do banco: quando ele recusa o código alocado (ativo em outra
+ * instância), gerarCodigo aloca outro e tenta de novo, e desiste depois de TENTATIVAS_ALOCACAO.
+ * Um código inativo pode ser reutilizado.
+ * O H2 não tem índice parcial: criarIndiceUnicoDosAtivos emula o da migração 001 com uma coluna
+ * gerada que só tem valor nos ativos; CodigoAvaliacaoServicePostgresTest (perfil Maven "postgres")
+ * roda os mesmos testes com a própria migração.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:codigos;" + DadosTeste.MODO_POSTGRES)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CodigoAvaliacaoServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CodigoAvaliacaoRepository codigoRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CodigoAllocator allocator = Mockito.mock(CodigoAllocator.class);
+    private final CodigoAtivoRegistry registry = Mockito.mock(CodigoAtivoRegistry.class);
+    private TransactionTemplate transacao;
+    private CodigoAvaliacaoService service;
+    private Turma turma;
+
+    @BeforeEach
+    void criarDados() throws Exception {
+        criarIndiceUnicoDosAtivos();
+        service = new CodigoAvaliacaoService(codigoRepository, professorRepository, turmaRepository, registry,
+                allocator, Mockito.mock(HumorAoVivoService.class));
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> turma = DadosTeste.turma(entityManager, "professor-codigos", "Turma"));
+    }
+
+    // Equivalente ao índice único parcial da migração 001 (ON codigos_avaliacao (codigo) WHERE ativo).
+    void criarIndiceUnicoDosAtivos() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE codigos_avaliacao ADD COLUMN IF NOT EXISTS codigo_ativo VARCHAR(6)"
+                + " GENERATED ALWAYS AS (CASE WHEN ativo THEN codigo END)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_codigos_avaliacao_codigo_ativo"
+                + " ON codigos_avaliacao (codigo_ativo)");
+    }
+
+    @AfterEach
+    void limpar() {
+        transacao.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM CodigoAvaliacao c WHERE c.professor.googleId = 'professor-codigos'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Turma t WHERE t.professor.googleId = 'professor-codigos'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Professor p WHERE p.googleId = 'professor-codigos'").executeUpdate();
+        });
+    }
+
+    @Test
+    void codigoAtivoEmOutraInstanciaFazAlocarOutro() {
+        inserirCodigo("DUP001", true);
+        Mockito.when(allocator.alocar()).thenReturn("DUP001", "DUP001", "NOV002");
+
+        CodigoAvaliacao gerado = service.gerarCodigoCheckin("professor-codigos", "Turma");
+
+        assertThat(gerado.getCodigo()).isEqualTo("NOV002");
+        Mockito.verify(allocator, Mockito.times(3)).alocar();
+        Mockito.verify(registry).registrar(gerado);
+        assertThat(codigos()).containsExactlyInAnyOrder(tuple("DUP001", true), tuple("NOV002", true));
+    }
+
+    @Test
+    void codigoInativoEhReutilizado() {
+        inserirCodigo("VEL003", false);
+        Mockito.when(allocator.alocar()).thenReturn("VEL003");
+
+        assertThat(service.gerarCodigoCheckout("professor-codigos", "Turma").getCodigo()).isEqualTo("VEL003");
+        assertThat(codigos()).containsExactlyInAnyOrder(tuple("VEL003", false), tuple("VEL003", true));
+    }
+
+    @Test
+    void desisteDepoisDasTentativas() {
+        inserirCodigo("DUP001", true);
+        Mockito.when(allocator.alocar()).thenReturn("DUP001");
+
+        assertThatThrownBy(() -> service.gerarCodigoCheckin("professor-codigos", "Turma"))
+                .hasMessage("Não foi possível alocar um código único.")
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        Mockito.verify(allocator, Mockito.times(5)).alocar();
+        Mockito.verifyNoInteractions(registry);
+    }
+
+    // Grava um código como se viesse de outra instância (fora do registro em memória).
+    private void inserirCodigo(String valor, boolean ativo) {
+        transacao.executeWithoutResult(status -> DadosTeste.codigo(entityManager, turma, valor, TipoAvaliacao.CHECKIN,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(ativo ? 30 : -30), ativo));
+    }
+
+    private List<Tuple> codigos() {
+        return transacao.execute(status -> entityManager.createQuery(
+                        "SELECT c FROM CodigoAvaliacao c WHERE c.turma.id = :turma", CodigoAvaliacao.class)
+                .setParameter("turma", turma.getId())
+                .getResultStream()
+                .map(codigo -> tuple(codigo.getCodigo(), codigo.isAtivo()))
+                .toList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vibecheck.VibeCheck_Backend.services.ExportacaoService.FormatoExportacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportacaoServiceTest {
+
+    record Linha(Long id, String aluno, LocalDateTime inicio, Integer emocao) {
+    }
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    private final ExportacaoService service = new ExportacaoService(null, null,
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    @Test
+    void csvTemCabecalhoECamposEscapados() throws IOException {
+        StringWriter destino = new StringWriter();
+        long total = service.escrever(Stream.of(
+                new Linha(1L, "Ana, \"Aninha\"", INICIO, 3),
+                new Linha(2L, "Bruno", INICIO.plusHours(1), null)), Linha.class, FormatoExportacao.CSV, destino);
+
+        assertThat(total).isEqualTo(2);
+        assertThat(destino.toString()).isEqualTo(
+                "id,aluno,inicio,emocao\r\n" +
+                "1,\"Ana, \"\"Aninha\"\"\",2025-03-10T08:00,3\r\n" +
+                "2,Bruno,2025-03-10T09:00,\r\n");
+    }
+
+    @Test
+    void ndjsonTemUmObjetoPorLinha() throws IOException {
+        StringWriter destino = new StringWriter();
+        service.escrever(Stream.of(new Linha(1L, "Ana", INICIO, 3), new Linha(2L, "Bruno", INICIO, 4)),
+                Linha.class, FormatoExportacao.NDJSON, destino);
+
+        assertThat(destino.toString().split("\n")).containsExactly(
+                "{\"id\":1,\"aluno\":\"Ana\",\"inicio\":\"2025-03-10T08:00:00\",\"emocao\":3}",
+                "{\"id\":2,\"aluno\":\"Bruno\",\"inicio\":\"2025-03-10T08:00:00\",\"emocao\":4}");
+    }
+}
@@ -0,0 +1,84 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.models.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada assinante tem o seu anel: uma rajada em outra turma não o atrasa, e o PERDIDOS conta só
+ * os eventos que ele mesmo receberia.
+ */
+class FeedEventosServiceTest {
+
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    // Histórico de 16 eventos e 4 por assinante.
+    private final FeedEventosService feed = new FeedEventosService(16, 4, 10, Duration.ofMinutes(1),
+            Duration.ofMinutes(1), metricas);
+
+    @AfterEach
+    void encerrar() {
+        feed.encerrarTodas();
+    }
+
+    @Test
+    void rajadaEmOutraTurmaNaoGeraPerdasEContaSoOsEventosDoAssinante() throws InterruptedException {
+        feed.assinar(1L, 10L, null); // Turma quieta, só o código 10.
+        feed.assinar(3L, null, null); // Turma com mais eventos do que o anel do assinante.
+
+        for (int i = 0; i < 1000; i++) {
+            feed.praticaFechadaAutomaticamente((long) i, 1L, 2L, LocalDateTime.now());
+        }
+        for (int i = 0; i < 8; i++) {
+            feed.registroGravado(registro(1L, 11L)); // Outro código da turma 1: não é do assinante.
+        }
+        feed.registroGravado(registro(1L, 10L));
+        feed.praticaFechadaAutomaticamente(1L, 1L, 1L, LocalDateTime.now()); // Sem código: vale para a turma.
+        for (int i = 0; i < 6; i++) {
+            feed.praticaFechadaAutomaticamente((long) i, 1L, 3L, LocalDateTime.now());
+        }
+
+        // O assinante da turma 1 recebeu dois eventos; o da 3, seis, dos quais só os quatro últimos cabem no anel.
+        feed.despachar();
+        assertThat(esperarPerdidos(2)).isEqualTo(2);
+    }
+
+    private static RegistroEmocional registro(Long turmaId, Long codigoId) {
+        Turma turma = new Turma();
+        turma.setId(turmaId);
+        CodigoAvaliacao codigo = new CodigoAvaliacao();
+        codigo.setId(codigoId);
+        Aluno aluno = new Aluno();
+        aluno.setId(1L);
+        aluno.setNome("Aluno");
+        RegistroEmocional registro = new RegistroEmocional();
+        registro.setTurma(turma);
+        registro.setCodigoAvaliacaoUsado(codigo);
+        registro.setAluno(aluno);
+        registro.setTipoSubmissao(TipoAvaliacao.CHECKIN);
+        registro.setEmocao(3);
+        registro.setTimestamp(LocalDateTime.now());
+        return registro;
+    }
+
+    // Espera os envios terminarem (a contagem parar de mudar) e devolve o total de perdidos.
+    private double esperarPerdidos(double esperado) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        double atual = perdidos();
+        while (atual < esperado && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            atual = perdidos();
+        }
+        Thread.sleep(100);
+        return perdidos();
+    }
+
+    private double perdidos() {
+        return metricas.counter("vibecheck.feed.perdidos").count();
+    }
+}
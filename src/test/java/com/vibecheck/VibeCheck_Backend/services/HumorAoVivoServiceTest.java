@@ -0,0 +1,72 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.dtos.HumorAoVivoDTO;
+import com.vibecheck.VibeCheck_Backend.models.TipoAvaliacao;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.services.CodigoAtivoRegistry.CodigoAtivo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Agregados por código, comparação check-in x check-out e descarte na expiração.
+ */
+class HumorAoVivoServiceTest {
+
+    private final TurmaRepository turmaRepository = Mockito.mock(TurmaRepository.class);
+    private final HumorAoVivoService service = new HumorAoVivoService(turmaRepository, Duration.ofHours(12));
+    private final LocalDateTime agora = LocalDateTime.now();
+
+    @Test
+    void agregaCheckinECheckoutDaTurma() {
+        Mockito.when(turmaRepository.existsByIdAndProfessorGoogleId(5L, "prof")).thenReturn(true);
+        CodigoAtivo checkin = codigo(1L, TipoAvaliacao.CHECKIN, agora.minusMinutes(40), agora.plusMinutes(10));
+        CodigoAtivo checkout = codigo(2L, TipoAvaliacao.CHECKOUT, agora.minusMinutes(1), agora.plusMinutes(29));
+        service.iniciar(checkin);
+        for (int emocao : new int[]{2, 2, 3, 5}) {
+            service.acumular(checkin, emocao);
+        }
+        service.acumular(checkout, 4);
+        service.acumular(checkout, 5);
+
+        HumorAoVivoDTO humor = service.consultar("prof", 5L).orElseThrow();
+
+        assertThat(humor.getCheckin().getQuantidade()).isEqualTo(4);
+        assertThat(humor.getCheckin().getMedia()).isEqualTo(3.0);
+        assertThat(humor.getCheckin().getHistograma()).containsExactly(entry(2, 2L), entry(3, 1L), entry(5, 1L));
+        assertThat(humor.getCheckout().getMedia()).isEqualTo(4.5);
+        assertThat(humor.getDeltaMedia()).isEqualTo(1.5);
+        assertThat(service.consultar("outro", 5L)).isEmpty();
+    }
+
+    @Test
+    void codigoExpiradoSaiDosAtivosMasOResultadoFicaCongelado() {
+        Mockito.when(turmaRepository.existsByIdAndProfessorGoogleId(5L, "prof")).thenReturn(true);
+        CodigoAtivo checkin = codigo(1L, TipoAvaliacao.CHECKIN, LocalDateTime.now().minusMinutes(30), LocalDateTime.now().plusNanos(200_000_000));
+        service.acumular(checkin, 4);
+
+        service.descartarExpirados(); // Ainda válido.
+        awaitExpiracao(checkin);
+        service.descartarExpirados();
+        service.acumular(checkin, 1); // Depois da expiração: ignorado.
+
+        HumorAoVivoDTO.Agregado congelado = service.consultar("prof", 5L).orElseThrow().getCheckin();
+        assertThat(congelado.isAtivo()).isFalse();
+        assertThat(congelado.getQuantidade()).isEqualTo(1);
+    }
+
+    private static void awaitExpiracao(CodigoAtivo codigo) {
+        while (codigo.isValidoEm(LocalDateTime.now())) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static CodigoAtivo codigo(Long id, TipoAvaliacao tipo, LocalDateTime criacao, LocalDateTime expiracao) {
+        return new CodigoAtivo(id, "COD" + id, tipo, 5L, 9L, criacao, expiracao);
+    }
+}
@@ -0,0 +1,59 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotenciaServiceTest {
+
+    @Test
+    void reenvioDevolveOResultadoOriginal() {
+        IdempotenciaService service = new IdempotenciaService(Duration.ofMinutes(10), 100, 1000);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        String primeiro = service.executar("k", () -> "registro-" + execucoes.incrementAndGet());
+        String reenvio = service.executar("k", () -> "registro-" + execucoes.incrementAndGet());
+
+        assertThat(reenvio).isEqualTo(primeiro);
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void falhaNaoFicaGuardada() {
+        IdempotenciaService service = new IdempotenciaService(Duration.ofMinutes(10), 100, 1000);
+
+        assertThatThrownBy(() -> service.executar("k", () -> {
+            throw new RuntimeException("Código inválido ou expirado.");
+        })).hasMessage("Código inválido ou expirado.");
+
+        assertThat(service.executar("k", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void respeitaCapacidadeETempoDeVida() {
+        IdempotenciaService limitado = new IdempotenciaService(Duration.ofMinutes(10), 2, 1000);
+        for (int i = 0; i < 10; i++) {
+            limitado.executar("k" + i, () -> "v");
+        }
+        assertThat(limitado.getTamanho()).isLessThanOrEqualTo(3);
+
+        IdempotenciaService expirado = new IdempotenciaService(Duration.ZERO, 100, 1000);
+        AtomicInteger execucoes = new AtomicInteger();
+        expirado.executar("k", execucoes::incrementAndGet);
+        expirado.executar("k", execucoes::incrementAndGet);
+        assertThat(execucoes).hasValue(2);
+    }
+
+    @Test
+    void chaveDoClienteERestritaAoAluno() {
+        String alunoA = IdempotenciaService.chaveDoUsuario("aluno-a", "retry-1");
+        String alunoB = IdempotenciaService.chaveDoUsuario("aluno-b", "retry-1");
+
+        assertThat(alunoA).hasSize(64).isNotEqualTo(alunoB);
+        assertThat(IdempotenciaService.chaveDoUsuario("aluno-a", "retry-1")).isEqualTo(alunoA);
+    }
+}
@@ -0,0 +1,161 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.PainelProfessorDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.models.Professor;
+import com.vibecheck.VibeCheck_Backend.models.Turma;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * O painel junta turmas, práticas abertas e dashboard; cada consulta roda em uma transação somente
+ * leitura cujo timeout o banco respeita, mesmo que a thread ignore a interrupção do escopo.
+ * As vagas de conexão são compartilhadas entre montagens simultâneas.
+ * A busca das turmas roda fora da thread do teste, então os dados são gravados de verdade
+ * (sem a transação que o @DataJpaTest abriria) e apagados ao final.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PainelProfessorServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final PraticaService praticaService = Mockito.mock(PraticaService.class);
+    private final RegistroEmocionalService registroService = Mockito.mock(RegistroEmocionalService.class);
+
+    private Turma turmaA;
+    private Turma turmaB;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void criarDados() {
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            Professor professor = DadosTeste.professor(entityManager, "professor-painel");
+            turmaA = DadosTeste.turma(entityManager, professor, "Turma A");
+            turmaB = DadosTeste.turma(entityManager, professor, "Turma B");
+        });
+    }
+
+    @AfterEach
+    void limpar() {
+        transacao.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Turma t WHERE t.professor.googleId = 'professor-painel'").executeUpdate();
+            entityManager.createQuery("DELETE FROM Professor p WHERE p.googleId = 'professor-painel'").executeUpdate();
+        });
+    }
+
+    @Test
+    void montaCadaTurmaComAsSuasPraticasEODashboardEmTransacoesSomenteLeitura() throws TimeoutException {
+        Mockito.when(praticaService.listarPaginaAbertasPorTurma(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.anyInt(), Mockito.any())).thenAnswer(chamada -> {
+            assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+            return new PaginaDTO<>(List.of(), "turma-" + chamada.getArgument(0));
+        });
+        Mockito.when(registroService.consultarDashboard(Mockito.eq("professor-painel"), Mockito.any(), Mockito.any(),
+                Mockito.anyInt())).thenReturn(new PaginaDTO<>(List.of(), "dashboard"));
+
+        PainelProfessorDTO painel = painel(3000, 2).montar("professor-painel");
+
+        assertThat(painel.getTurmas()).extracting(PainelProfessorDTO.TurmaPainel::getNome)
+                .containsExactly("Turma A", "Turma B");
+        assertThat(painel.getTurmas()).extracting(t -> t.getPraticasAbertas().getProximoCursor())
+                .containsExactly("turma-" + turmaA.getId(), "turma-" + turmaB.getId());
+        assertThat(painel.getDashboard().getProximoCursor()).isEqualTo("dashboard");
+    }
+
+    @Test
+    void consultaQuePassaDoPrazoEhCortadaPeloTimeoutDaTransacao() {
+        AtomicReference<RuntimeException> noBanco = new AtomicReference<>();
+        Mockito.when(registroService.consultarDashboard(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(chamada -> {
+                    // Espera ocupada: ignora a interrupção, como um comando JDBC já enviado ao banco.
+                    long fim = System.nanoTime() + 1_200_000_000L;
+                    while (System.nanoTime() < fim) {
+                        Thread.onSpinWait();
+                    }
+                    try {
+                        return turmaRepository.count();
+                    } catch (RuntimeException e) {
+                        noBanco.set(e);
+                        throw e;
+                    }
+                });
+
+        assertThatThrownBy(() -> painel(1000, 2).montar("professor-painel")).isInstanceOf(TimeoutException.class);
+        assertThat(noBanco.get()).isInstanceOf(TransactionTimedOutException.class);
+    }
+
+    @Test
+    void montagensSimultaneasDividemAsMesmasVagas() throws Exception {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        Mockito.when(praticaService.listarPaginaAbertasPorTurma(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.anyInt(), Mockito.any())).thenAnswer(chamada -> {
+            maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            emAndamento.decrementAndGet();
+            return new PaginaDTO<>(List.of(), null);
+        });
+        Mockito.when(registroService.consultarDashboard(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(new PaginaDTO<>(List.of(), null));
+
+        // Duas vagas para o serviço inteiro: quatro montagens ao mesmo tempo não passam de duas consultas.
+        PainelProfessorService painel = painel(3000, 2);
+        try (ExecutorService requisicoes = Executors.newFixedThreadPool(4)) {
+            List<Future<PainelProfessorDTO>> montagens = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                montagens.add(requisicoes.submit(() -> painel.montar("professor-painel")));
+            }
+            for (Future<PainelProfessorDTO> montagem : montagens) {
+                assertThat(montagem.get().getTurmas()).hasSize(2);
+            }
+        }
+        assertThat(maximo.get()).isBetween(1, 2);
+    }
+
+    private PainelProfessorService painel(long prazoMs, int paralelismo) {
+        return new PainelProfessorService(turmaRepository, praticaService, registroService, transactionManager,
+                dataSource, prazoMs, 2 * prazoMs, paralelismo, 10, 10);
+    }
+}
@@ -0,0 +1,205 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.DuracoesPraticaDTO;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.DuracaoDiariaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import com.vibecheck.VibeCheck_Backend.utils.HistogramaLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Fechamento automático: quais práticas são abandonadas (janela de check-out encerrada ou duração
+ * máxima), o fim atribuído a cada uma, o limite por bloco e por execução, e as barras do histograma
+ * de duração gravadas na mesma transação, consultadas depois pela turma ou por um aluno.
+ * Usa um H2 próprio no modo PostgreSQL (o banco embutido padrão do @DataJpaTest não aceita ON CONFLICT),
+ * que exercita o caminho portável de PraticaRepositoryCustom.fecharAbandonadas; o UPDATE do PostgreSQL
+ * roda nos mesmos testes em PraticaFechamentoAutomaticoPostgresTest (perfil Maven "postgres").
+ * Controla as próprias transações (sem a transação que o @DataJpaTest abriria).
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:fechamento;" + DadosTeste.MODO_POSTGRES)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PraticaFechamentoAutomaticoTest {
+
+    static final LocalDateTime AGORA = LocalDateTime.now().withNano(0);
+    private static final Duration DURACAO_MAXIMA = Duration.ofHours(12);
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    private PraticaRepository praticaRepository;
+
+    @Autowired
+    private DuracaoDiariaRepository duracaoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FeedEventosService feedEventos = Mockito.mock(FeedEventosService.class);
+    TransactionTemplate transacao;
+    private Professor professor;
+    private int praticas;
+    private Turma comCheckout;
+    Turma semCheckout;
+
+    @BeforeEach
+    void criarDados() {
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            professor = DadosTeste.professor(entityManager, "professor-fechamento");
+            comCheckout = DadosTeste.turma(entityManager, professor, "Com check-out");
+            semCheckout = DadosTeste.turma(entityManager, professor, "Sem check-out");
+            // Janela de check-out liberada há 5 h e encerrada há 4 h.
+            DadosTeste.codigo(entityManager, comCheckout, "FEC001", TipoAvaliacao.CHECKOUT,
+                    AGORA.minusHours(5), AGORA.minusHours(4), false);
+        });
+    }
+
+    @AfterEach
+    void limpar() {
+        transacao.executeWithoutResult(status -> {
+            for (String entidade : List.of("DuracaoDiaria d WHERE d.turma", "Pratica d WHERE d.turma",
+                    "RegistroEmocional d WHERE d.turma", "CodigoAvaliacao d WHERE d.turma")) {
+                entityManager.createQuery("DELETE FROM " + entidade + ".professor.googleId = 'professor-fechamento'")
+                        .executeUpdate();
+            }
+            entityManager.createQuery("DELETE FROM Turma t WHERE t.professor.googleId = 'professor-fechamento'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Aluno a WHERE a.googleId LIKE 'aluno-fechamento-%'").executeUpdate();
+            entityManager.createQuery("DELETE FROM Professor p WHERE p.googleId = 'professor-fechamento'").executeUpdate();
+        });
+    }
+
+    @Test
+    void fechaAsAbandonadasEmBlocosComOFimDeCadaRegraEOHistograma() {
+        Aberta antesDaJanela = abrir(comCheckout, AGORA.minusHours(6), 4); // Janela encerrada: fim na expiração.
+        Aberta passouDoMaximo = abrir(semCheckout, AGORA.minusHours(13), 2); // Fim em início + 12 h.
+        Aberta muitoAntiga = abrir(semCheckout, AGORA.minusHours(30), 5);
+        Aberta outraAntiga = abrir(semCheckout, AGORA.minusHours(20), 3);
+        Aberta dentroDoMaximo = abrir(semCheckout, AGORA.minusHours(11), 1);
+        Aberta depoisDaJanela = abrir(comCheckout, AGORA.minusHours(3), 1); // O código é anterior a ela.
+
+        // Blocos de 3, um bloco por execução: as 4 abandonadas saem em duas execuções, por ordem de id.
+        PraticaFechamentoAutomatico fechamento = fechamento(3, 1);
+        assertThat(fechamento.fecharAbandonadas()).isEqualTo(3);
+        assertThat(abertas()).containsExactlyInAnyOrder(outraAntiga.id(), dentroDoMaximo.id(), depoisDaJanela.id());
+        assertThat(fechamento.fecharAbandonadas()).isEqualTo(1);
+        assertThat(fechamento.fecharAbandonadas()).isZero();
+        assertThat(abertas()).containsExactlyInAnyOrder(dentroDoMaximo.id(), depoisDaJanela.id());
+
+        Pratica fechadaPelaJanela = praticaRepository.findById(antesDaJanela.id()).orElseThrow();
+        assertThat(fechadaPelaJanela.getFim()).isEqualTo(AGORA.minusHours(4));
+        assertThat(fechadaPelaJanela.getDuracaoSegundos()).isEqualTo(2 * 3600);
+        assertThat(fechadaPelaJanela.getEmocaoFinal()).isEqualTo(4);
+        Pratica fechadaPeloMaximo = praticaRepository.findById(passouDoMaximo.id()).orElseThrow();
+        assertThat(fechadaPeloMaximo.getFim()).isEqualTo(AGORA.minusHours(1));
+        assertThat(fechadaPeloMaximo.getDuracaoSegundos()).isEqualTo(DURACAO_MAXIMA.toSeconds());
+        assertThat(fechadaPeloMaximo.getEmocaoFinal()).isEqualTo(2);
+        Mockito.verify(feedEventos).praticaFechadaAutomaticamente(antesDaJanela.id(), antesDaJanela.alunoId(),
+                comCheckout.getId(), AGORA.minusHours(4));
+        Mockito.verify(feedEventos, Mockito.times(4))
+                .praticaFechadaAutomaticamente(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+
+        // Uma barra por prática fechada (cada uma é de um aluno), no dia em que ela começou.
+        int faixaMaxima = HistogramaLog.faixa(DURACAO_MAXIMA.toSeconds());
+        List<Tuple> barras = transacao.execute(status -> duracaoRepository.findAll().stream()
+                .map(barra -> tuple(barra.getId().getAlunoId(), barra.getId().getTurmaId(), barra.getId().getDia(),
+                        barra.getId().getFaixa(), barra.getQuantidade()))
+                .toList());
+        assertThat(barras).containsExactlyInAnyOrder(
+                        barra(antesDaJanela, comCheckout, HistogramaLog.faixa(2 * 3600)),
+                        barra(passouDoMaximo, semCheckout, faixaMaxima),
+                        barra(muitoAntiga, semCheckout, faixaMaxima),
+                        barra(outraAntiga, semCheckout, faixaMaxima));
+    }
+
+    @Test
+    void consultaDasDuracoesDaTurmaOuDeUmAluno() {
+        Aberta primeira = abrir(semCheckout, AGORA.minusHours(30), 5);
+        Aberta segunda = abrir(semCheckout, AGORA.minusHours(20), 3);
+        fechamento(10, 1).fecharAbandonadas();
+
+        DuracaoPraticaService duracoes = new DuracaoPraticaService(duracaoRepository, turmaRepository);
+        LocalDate de = AGORA.minusDays(3).toLocalDate();
+        LocalDate ate = AGORA.toLocalDate();
+
+        DuracoesPraticaDTO daTurma = transacao.execute(status -> duracoes.consultar("professor-fechamento",
+                semCheckout.getId(), de, ate, null).orElseThrow());
+        assertThat(daTurma.getTurma().getQuantidade()).isEqualTo(2);
+        assertThat(daTurma.getAlunos()).extracting(DuracoesPraticaDTO.Percentis::getAlunoId)
+                .containsExactly(primeira.alunoId(), segunda.alunoId());
+
+        DuracoesPraticaDTO doAluno = transacao.execute(status -> duracoes.consultar("professor-fechamento",
+                semCheckout.getId(), de, ate, segunda.alunoId()).orElseThrow());
+        assertThat(doAluno.getTurma().getQuantidade()).isEqualTo(1);
+        assertThat(doAluno.getAlunos()).extracting(DuracoesPraticaDTO.Percentis::getAlunoId)
+                .containsExactly(segunda.alunoId());
+    }
+
+    record Aberta(Long id, Long alunoId, LocalDateTime inicio) {
+    }
+
+    private static Tuple barra(Aberta pratica, Turma turma, int faixa) {
+        return tuple(pratica.alunoId(), turma.getId(), pratica.inicio().toLocalDate(), faixa, 1L);
+    }
+
+    PraticaFechamentoAutomatico fechamento(int tamanhoBloco, int maximoBlocos) {
+        return new PraticaFechamentoAutomatico(praticaRepository, new PraticaAbertaIndex(praticaRepository),
+                Mockito.mock(VersaoDados.class), feedEventos, new DuracaoPraticaService(duracaoRepository, turmaRepository),
+                transactionManager, new SimpleMeterRegistry(), true, DURACAO_MAXIMA, tamanhoBloco, maximoBlocos);
+    }
+
+    List<Long> abertas() {
+        return transacao.execute(status -> entityManager.createQuery(
+                        "SELECT p.id FROM Pratica p WHERE p.fim IS NULL AND p.turma.professor.id = :professor", Long.class)
+                .setParameter("professor", professor.getId())
+                .getResultList());
+    }
+
+    // Abre uma prática de um aluno novo.
+    Aberta abrir(Turma turma, LocalDateTime inicio, int emocao) {
+        int numero = ++praticas;
+        return transacao.execute(status -> {
+            Aluno aluno = DadosTeste.aluno(entityManager, "aluno-fechamento-" + numero, "Aluno " + numero);
+            CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, String.format("FEC%03d", 100 + numero),
+                    TipoAvaliacao.CHECKIN, inicio.minusMinutes(5), inicio.plusMinutes(5), false);
+            RegistroEmocional checkin = DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN,
+                    emocao, inicio);
+
+            Pratica pratica = new Pratica();
+            pratica.abrir(checkin);
+            entityManager.persist(pratica);
+            return new Aberta(pratica.getId(), aluno.getId(), inicio);
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.PraticaRepository;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Check-in com o índice de práticas abertas incompleto (ex: prática aberta por outra instância):
+ * a prática anterior é encontrada no banco e fechada, e o índice só muda depois do commit.
+ * Uma entrada desatualizada (prática já fechada por outro caminho) não gera evento de fechamento.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+class PraticaServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.now().minusHours(2).withNano(0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PraticaRepository praticaRepository;
+
+    private final FeedEventosService feedEventos = Mockito.mock(FeedEventosService.class);
+    private final DuracaoPraticaService duracoes = Mockito.mock(DuracaoPraticaService.class);
+    private PraticaAbertaIndex indice;
+    private PraticaService praticaService;
+
+    private Aluno aluno;
+    private Turma turma;
+    private CodigoAvaliacao codigo;
+
+    @BeforeEach
+    void criarDados() {
+        indice = new PraticaAbertaIndex(praticaRepository);
+        praticaService = new PraticaService(praticaRepository, Mockito.mock(PraticaListagemContext.class), indice,
+                feedEventos, duracoes, 100);
+
+        turma = DadosTeste.turma(entityManager, "professor-pratica", "Turma");
+        aluno = DadosTeste.aluno(entityManager, "aluno-pratica", "Aluno");
+        codigo = DadosTeste.codigo(entityManager, turma, "PRA123", TipoAvaliacao.CHECKIN, BASE, BASE.plusHours(3), true);
+    }
+
+    @Test
+    void checkinSemEntradaNoIndiceFechaAPraticaAbertaNoBanco() {
+        // Aberta "por outra instância": está no banco, mas não no índice desta.
+        Pratica anterior = new Pratica();
+        anterior.abrir(checkin(BASE));
+        entityManager.persist(anterior);
+        entityManager.flush();
+        assertThat(indice.buscar(aluno.getId(), turma.getId())).isEmpty();
+
+        Pratica nova = praticaService.abrirPratica(checkin(BASE.plusHours(1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Pratica> abertas = praticaRepository.findAll().stream().filter(Pratica::isAberta).toList();
+        assertThat(abertas).extracting(Pratica::getId).containsExactly(nova.getId());
+        assertThat(praticaRepository.findById(anterior.getId()).orElseThrow().getDuracaoSegundos()).isNotNull();
+    }
+
+    @Test
+    void indiceSoRecebeAAberturaDepoisDoCommit() {
+        praticaService.abrirPratica(checkin(BASE));
+        assertThat(indice.buscar(aluno.getId(), turma.getId())).isEmpty();
+
+        // Transação desfeita: nenhuma entrada fantasma.
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+        assertThat(indice.buscar(aluno.getId(), turma.getId())).isEmpty();
+    }
+
+    @Test
+    void entradaDesatualizadaNaoPublicaFechamentoFalso() {
+        Pratica anterior = new Pratica();
+        anterior.abrir(checkin(BASE));
+        entityManager.persist(anterior);
+        entityManager.flush();
+        indice.reconstruir();
+        // Fechada pelo fechamento automático (ou outra instância) depois que o índice a registrou.
+        praticaRepository.fecharSemCheckout(anterior.getId(), BASE.plusMinutes(30), 3, 1800L);
+
+        praticaService.abrirPratica(checkin(BASE.plusHours(1)));
+
+        Mockito.verify(feedEventos, Mockito.never())
+                .praticaFechada(Mockito.eq(anterior.getId()), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(duracoes);
+    }
+
+    private RegistroEmocional checkin(LocalDateTime instante) {
+        return DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN, 3, instante);
+    }
+}
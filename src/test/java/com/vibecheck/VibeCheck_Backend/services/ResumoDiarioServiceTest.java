@@ -0,0 +1,169 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.ResumoDiarioDTO;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.repositories.ResumoDiarioRepository;
+import com.vibecheck.VibeCheck_Backend.repositories.TurmaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Resumos diários recalculados a partir de registros_emocionais e agrupados por dia, turma e tipo;
+ * os mantidos incrementalmente a cada gravação batem com os reconstruídos do zero.
+ * Usa um H2 próprio no modo PostgreSQL (o banco embutido padrão do @DataJpaTest não aceita ON CONFLICT).
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:resumos;" + DadosTeste.MODO_POSTGRES)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaConfig.class, ResumoDiarioService.class})
+class ResumoDiarioServiceTest {
+
+    private static final LocalDateTime SEGUNDA = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ResumoDiarioRepository resumoRepository;
+
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void limpar() {
+        // Só o teste sem transação de teste deixa dados confirmados; no outro, isto é desfeito junto.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM ResumoDiario r WHERE r.turma.professor.googleId = 'professor-incremental'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM RegistroEmocional r WHERE r.turma.professor.googleId = 'professor-incremental'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM CodigoAvaliacao c WHERE c.professor.googleId = 'professor-incremental'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Turma t WHERE t.professor.googleId = 'professor-incremental'")
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM Aluno a WHERE a.googleId = 'aluno-incremental'").executeUpdate();
+            entityManager.createQuery("DELETE FROM Professor p WHERE p.googleId = 'professor-incremental'").executeUpdate();
+        });
+    }
+
+    @Test
+    void recalculaEAgrupaPorDiaTurmaETipo() {
+        Turma turma = DadosTeste.turma(entityManager, "professor-resumo", "Turma");
+        CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, "RES123", TipoAvaliacao.CHECKIN,
+                SEGUNDA, SEGUNDA.plusMinutes(10), true);
+        Aluno aluno = DadosTeste.aluno(entityManager, "aluno-resumo", "Aluno");
+
+        int[] emocoesSegunda = {1, 3, 3, 5};
+        for (int emocao : emocoesSegunda) {
+            DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN, emocao, SEGUNDA);
+        }
+        DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKOUT, 4, SEGUNDA.plusHours(2));
+        DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN, 2, SEGUNDA.plusDays(1));
+        entityManager.flush();
+
+        resumoRepository.apagarDaTurma(turma.getId());
+        resumoRepository.recalcularDaTurma(turma.getId());
+        entityManager.clear();
+
+        List<ResumoDiarioDTO> resumos = resumoDiarioService.consultar("professor-resumo",
+                SEGUNDA.toLocalDate(), SEGUNDA.toLocalDate().plusDays(1), null, null);
+
+        assertThat(resumos).extracting(ResumoDiarioDTO::getDia, ResumoDiarioDTO::getTipo, ResumoDiarioDTO::getQuantidade)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 3, 10), "CHECKIN", 4L),
+                        tuple(LocalDate.of(2025, 3, 10), "CHECKOUT", 1L),
+                        tuple(LocalDate.of(2025, 3, 11), "CHECKIN", 1L));
+        ResumoDiarioDTO checkinSegunda = resumos.get(0);
+        assertThat(checkinSegunda.getSoma()).isEqualTo(12);
+        assertThat(checkinSegunda.getMedia()).isEqualTo(3.0);
+        assertThat(checkinSegunda.getHistograma()).containsExactly(entry(1, 1L), entry(3, 2L), entry(5, 1L));
+
+        // Outro professor não vê os resumos desta turma.
+        assertThat(resumoDiarioService.consultar("outro-professor",
+                SEGUNDA.toLocalDate(), SEGUNDA.toLocalDate().plusDays(1), null, null)).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void incrementalBateComAReconstrucaoParalela() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Long> turmas = new ArrayList<>();
+        transacao.executeWithoutResult(status -> {
+            Professor professor = DadosTeste.professor(entityManager, "professor-incremental");
+            DadosTeste.aluno(entityManager, "aluno-incremental", "Aluno");
+            for (int t = 0; t < 3; t++) {
+                Turma turma = DadosTeste.turma(entityManager, professor, "Turma " + t);
+                turmas.add(turma.getId());
+            }
+        });
+
+        // Vários lotes, cada um na sua transação e somado como no registro: barras novas e já existentes,
+        // dias e tipos diferentes, e a mesma barra repetida dentro do lote.
+        for (int lote = 0; lote < 6; lote++) {
+            int numeroLote = lote;
+            transacao.executeWithoutResult(status -> {
+                Aluno aluno = entityManager.createQuery("SELECT a FROM Aluno a WHERE a.googleId = 'aluno-incremental'",
+                        Aluno.class).getSingleResult();
+                List<RegistroEmocional> registros = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    Turma turma = entityManager.find(Turma.class, turmas.get((numeroLote + i) % turmas.size()));
+                    TipoAvaliacao tipo = i % 3 == 0 ? TipoAvaliacao.CHECKOUT : TipoAvaliacao.CHECKIN;
+                    CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, String.format("I%d%04d", numeroLote, i),
+                            tipo, SEGUNDA, SEGUNDA.plusMinutes(10), false);
+                    registros.add(DadosTeste.registro(entityManager, aluno, turma, codigo, tipo, 1 + (numeroLote * i) % 5,
+                            SEGUNDA.plusDays(i % 2).plusMinutes(numeroLote)));
+                }
+                entityManager.flush();
+                resumoDiarioService.acumular(registros);
+            });
+        }
+        Map<List<Object>, Long> incremental = barras(turmas);
+        assertThat(incremental.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(60);
+
+        assertThat(resumoDiarioService.reconstruir(turmas)).isEqualTo(turmas.size());
+
+        assertThat(barras(turmas)).isEqualTo(incremental);
+
+        // O mesmo com spring.threads.virtual.enabled=true: dois trabalhadores virtuais para as turmas.
+        ResumoDiarioService comThreadsVirtuais = new ResumoDiarioService(resumoRepository, turmaRepository,
+                transactionManager, 2, true);
+        assertThat(comThreadsVirtuais.reconstruir(turmas)).isEqualTo(turmas.size());
+        assertThat(barras(turmas)).isEqualTo(incremental);
+    }
+
+    // Barras das turmas, por (turma, dia, tipo, emoção).
+    private Map<List<Object>, Long> barras(List<Long> turmas) {
+        return new TransactionTemplate(transactionManager).execute(status -> resumoRepository.findAll().stream()
+                .filter(resumo -> turmas.contains(resumo.getId().getTurmaId()))
+                .collect(Collectors.toMap(resumo -> List.of(resumo.getId().getTurmaId(), resumo.getId().getDia(),
+                                resumo.getId().getTipo(), resumo.getId().getEmocao()),
+                        ResumoDiario::getQuantidade)));
+    }
+}
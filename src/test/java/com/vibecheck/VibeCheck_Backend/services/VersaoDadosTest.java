@@ -0,0 +1,85 @@
+package com.vibecheck.VibeCheck_Backend.services;
+
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao;
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacao.Invalidacao;
+import com.vibecheck.VibeCheck_Backend.config.TransporteInvalidacaoLocal;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Versões por turma e por professor, propagadas às outras instâncias, e ETags que mudam com elas.
+ * Dentro de uma transação, nada muda antes do commit e falhas do transporte não chegam a quem gravou.
+ */
+class VersaoDadosTest {
+
+    private final TransporteInvalidacao transporte = new TransporteInvalidacaoLocal();
+    private final VersaoDados instanciaA = new VersaoDados(transporte);
+    private final VersaoDados instanciaB = new VersaoDados(transporte);
+
+    @Test
+    void alteracaoMudaAVersaoNasDuasInstancias() {
+        instanciaA.alterouTurma(7L);
+        instanciaA.alterouProfessor("prof");
+
+        assertThat(instanciaA.versaoTurma(7L)).isEqualTo(1);
+        assertThat(instanciaA.versaoTurma(8L)).isZero();
+        instanciaA.encerrar(); // Espera os avisos enfileirados.
+        assertThat(instanciaB.versaoTurma(7L)).isEqualTo(1);
+        assertThat(instanciaB.versaoProfessor("prof")).isEqualTo(1);
+    }
+
+    @Test
+    void etagMudaComVersaoEParametros() {
+        String etag = instanciaA.etag("dashboard", 3, "prof", 1L, null);
+
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(instanciaA.etag("dashboard", 3, "prof", 1L, null)).isEqualTo(etag);
+        assertThat(instanciaA.etag("dashboard", 4, "prof", 1L, null)).isNotEqualTo(etag);
+        assertThat(instanciaA.etag("dashboard", 3, "prof", 2L, null)).isNotEqualTo(etag);
+        // Outra instância (contadores próprios) nunca gera a mesma ETag.
+        assertThat(instanciaB.etag("dashboard", 3, "prof", 1L, null)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void dentroDeTransacaoSoMudaNoCommitEOAvisoSaiForaDaThread() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            instanciaA.alterouTurma(7L);
+            assertThat(instanciaA.versaoTurma(7L)).isZero();
+            assertThat(instanciaB.versaoTurma(7L)).isZero();
+
+            for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacao.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(instanciaA.versaoTurma(7L)).isEqualTo(1);
+        instanciaA.encerrar(); // Espera o aviso enfileirado.
+        assertThat(instanciaB.versaoTurma(7L)).isEqualTo(1);
+    }
+
+    @Test
+    void falhaDoTransporteNaoChegaAQuemGravou() {
+        VersaoDados instancia = new VersaoDados(new TransporteInvalidacao() {
+            @Override
+            public void publicar(Invalidacao invalidacao) {
+                throw new IllegalStateException("relation \"invalidacoes_cache\" does not exist");
+            }
+
+            @Override
+            public void assinar(Consumer<Invalidacao> assinante) {
+            }
+        });
+
+        instancia.alterouProfessor("prof");
+
+        assertThat(instancia.versaoProfessor("prof")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,196 @@
+package com.vibecheck.VibeCheck_Backend.strategies;
+
+import com.vibecheck.VibeCheck_Backend.DadosTeste;
+import com.vibecheck.VibeCheck_Backend.config.JpaConfig;
+import com.vibecheck.VibeCheck_Backend.dtos.PaginaDTO;
+import com.vibecheck.VibeCheck_Backend.dtos.PraticaResumoDTO;
+import com.vibecheck.VibeCheck_Backend.models.*;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.Direcao;
+import com.vibecheck.VibeCheck_Backend.strategies.PraticaListagemInterface.TipoEstrategia;
+import com.vibecheck.VibeCheck_Backend.strategies.impl.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada estratégia de listagem monta os PraticaResumoDTO com um único SELECT,
+ * sem cargas LAZY de aluno, turma ou professor por linha; as páginas por cursor também.
+ * "Todas as práticas" são as das turmas do professor autenticado, nunca as de outro professor.
+ */
+@DataJpaTest
+@Import({JpaConfig.class, PraticaListagemContext.class, TodasPraticasStrategy.class, PorTurmaStrategy.class, AbertasPorTurmaStrategy.class,
+        MinhasAbertasStrategy.class, PorTurmaPeriodoStrategy.class})
+class PraticaListagemStrategiesTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0);
+    private static final int ALUNOS = 4;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PraticaListagemContext contexto;
+
+    @Autowired
+    private TodasPraticasStrategy todas;
+
+    @Autowired
+    private PorTurmaStrategy porTurma;
+
+    @Autowired
+    private AbertasPorTurmaStrategy abertasPorTurma;
+
+    @Autowired
+    private MinhasAbertasStrategy minhasAbertas;
+
+    @Autowired
+    private PorTurmaPeriodoStrategy porTurmaPeriodo;
+
+    private Turma turma;
+    private Aluno primeiroAluno;
+
+    @BeforeEach
+    void criarDados() {
+        turma = DadosTeste.turma(entityManager, "professor-listagem", "Turma");
+        CodigoAvaliacao codigo = DadosTeste.codigo(entityManager, turma, "LIS123", TipoAvaliacao.CHECKIN,
+                BASE, BASE.plusMinutes(10), true);
+
+        // Um aluno diferente por prática: com entidades, cada um seria uma carga LAZY.
+        for (int i = 0; i < ALUNOS; i++) {
+            Aluno aluno = DadosTeste.aluno(entityManager, "aluno-listagem-" + i, "Aluno " + i);
+            if (i == 0) {
+                primeiroAluno = aluno;
+            }
+
+            RegistroEmocional checkin = DadosTeste.registro(entityManager, aluno, turma, codigo, TipoAvaliacao.CHECKIN,
+                    3, BASE.plusMinutes(i));
+            Pratica pratica = new Pratica();
+            pratica.abrir(checkin);
+            if (i % 2 == 1) {
+                pratica.setFim(checkin.getTimestamp().plusMinutes(90));
+                pratica.setDuracaoSegundos(5400L);
+                pratica.setEmocaoFinal(4);
+            }
+            entityManager.persist(pratica);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cadaEstrategiaUsaUmaConsulta() {
+        assertThat(umaConsulta(() -> porTurma.executar(turma.getId(), null, null, null, null, null))).hasSize(ALUNOS);
+        assertThat(umaConsulta(() -> abertasPorTurma.executar(null, turma, null, null, null, null))).hasSize(ALUNOS / 2);
+        assertThat(umaConsulta(() -> minhasAbertas.executar(null, null, primeiroAluno, null, null, null))).hasSize(1);
+        assertThat(umaConsulta(() -> porTurmaPeriodo.executar(null, turma, null, BASE, BASE.plusHours(1), null))).hasSize(ALUNOS);
+    }
+
+    @Test
+    void todasAsPraticasSaoSoAsDasTurmasDoProfessor() {
+        assertThat(todas.executar(null, null, null, null, null, autenticado("professor-listagem"))).hasSize(ALUNOS);
+        assertThat(todas.executar(null, null, null, null, null, autenticado("outro-professor"))).isEmpty();
+        assertThat(contexto.executarEstrategiaPaginada(TipoEstrategia.TODAS_PRATICAS, null, null, null, null, null,
+                autenticado("outro-professor"), null, 10, Direcao.MAIS_RECENTES).getItens()).isEmpty();
+    }
+
+    @Test
+    void projecaoPreencheOsMesmosCamposQueAEntidade() {
+        List<PraticaResumoDTO> resumos = porTurma.executar(turma.getId(), null, null, null, null, null);
+
+        PraticaResumoDTO fechada = resumos.stream().filter(r -> r.getStatus().equals("FECHADA")).findFirst().orElseThrow();
+        assertThat(fechada.getNomeProfessor()).isEqualTo("Professor");
+        assertThat(fechada.getNomeTurma()).isEqualTo("Turma");
+        assertThat(fechada.getDuracaoFormatada()).isEqualTo("01:30:00");
+        assertThat(fechada.getEmocaoFinal()).isEqualTo(4);
+
+        PraticaResumoDTO aberta = resumos.stream().filter(r -> r.getStatus().equals("ABERTA")).findFirst().orElseThrow();
+        assertThat(aberta.getDuracaoFormatada()).isEqualTo("Em andamento");
+        assertThat(aberta.getNomeAluno()).startsWith("Aluno ");
+    }
+
+    @Test
+    void paginasPorCursorPercorremATurmaSemRepetirNemPular() {
+        for (Direcao direcao : Direcao.values()) {
+            List<PraticaResumoDTO> percorridas = new ArrayList<>();
+            String cursor = null;
+            do {
+                String cursorAtual = cursor;
+                List<PaginaDTO<PraticaResumoDTO>> pagina = new ArrayList<>();
+                umaConsulta(() -> {
+                    pagina.add(contexto.executarEstrategiaPaginada(TipoEstrategia.POR_TURMA, turma.getId(), null, null,
+                            null, null, null, cursorAtual, 1, direcao));
+                    return pagina.get(0).getItens();
+                });
+                percorridas.addAll(pagina.get(0).getItens());
+                cursor = pagina.get(0).getProximoCursor();
+            } while (cursor != null);
+
+            assertThat(percorridas).hasSize(ALUNOS)
+                    .extracting(PraticaResumoDTO::getId).doesNotHaveDuplicates();
+            assertThat(percorridas).isSortedAccordingTo(ordem(direcao));
+        }
+    }
+
+    @Test
+    void paginasDeTodasAsPraticasDoProfessor() {
+        OAuth2AuthenticationToken professor = autenticado("professor-listagem");
+        for (Direcao direcao : Direcao.values()) {
+            List<PraticaResumoDTO> percorridas = new ArrayList<>();
+            String cursor = null;
+            do {
+                PaginaDTO<PraticaResumoDTO> pagina = contexto.executarEstrategiaPaginada(TipoEstrategia.TODAS_PRATICAS,
+                        null, null, null, null, null, professor, cursor, 3, direcao);
+                percorridas.addAll(pagina.getItens());
+                cursor = pagina.getProximoCursor();
+            } while (cursor != null);
+
+            assertThat(percorridas).hasSize(ALUNOS)
+                    .extracting(PraticaResumoDTO::getId).doesNotHaveDuplicates();
+            assertThat(percorridas).isSortedAccordingTo(ordem(direcao));
+        }
+    }
+
+    private static Comparator<PraticaResumoDTO> ordem(Direcao direcao) {
+        Comparator<PraticaResumoDTO> ordem = Comparator.comparing(PraticaResumoDTO::getInicio)
+                .thenComparing(PraticaResumoDTO::getId);
+        return direcao == Direcao.MAIS_ANTIGAS ? ordem : ordem.reversed();
+    }
+
+    private static OAuth2AuthenticationToken autenticado(String googleId) {
+        List<GrantedAuthority> papeis = List.of(new SimpleGrantedAuthority("ROLE_PROFESSOR"));
+        return new OAuth2AuthenticationToken(new DefaultOAuth2User(papeis, Map.of("sub", googleId), "sub"),
+                papeis, "google");
+    }
+
+    private List<PraticaResumoDTO> umaConsulta(Supplier<List<PraticaResumoDTO>> estrategia) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        estatisticas.clear();
+        List<PraticaResumoDTO> resumos = estrategia.get();
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+        return resumos;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import com.vibecheck.VibeCheck_Backend.utils.AnelCircular.Entrada;
+import com.vibecheck.VibeCheck_Backend.utils.AnelCircular.Leitura;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Leitores independentes, leitura em lotes e aviso de itens perdidos por quem ficou para trás.
+ */
+class AnelCircularTest {
+
+    @Test
+    void leitoresAvancamCadaUmNoSeuRitmo() {
+        AnelCircular<String> anel = new AnelCircular<>(8);
+        anel.publicar("a");
+        anel.publicar("b");
+        anel.publicar("c");
+
+        Leitura<String> primeira = anel.ler(0, 2);
+        assertThat(primeira.entradas()).extracting(Entrada::item).containsExactly("a", "b");
+        assertThat(primeira.perdidos()).isZero();
+
+        Leitura<String> segunda = anel.ler(primeira.proxima(), 10);
+        assertThat(segunda.entradas()).extracting(Entrada::item).containsExactly("c");
+        assertThat(segunda.proxima()).isEqualTo(anel.getProxima());
+
+        // Outro leitor, em dia, não recebe nada até a próxima publicação.
+        assertThat(anel.ler(anel.getProxima(), 10).entradas()).isEmpty();
+    }
+
+    @Test
+    void leitorAtrasadoPerdeOsSobrescritos() {
+        AnelCircular<Integer> anel = new AnelCircular<>(4);
+        for (int i = 0; i < 10; i++) {
+            anel.publicar(i);
+        }
+
+        Leitura<Integer> leitura = anel.ler(0, 10);
+
+        assertThat(leitura.perdidos()).isEqualTo(6);
+        assertThat(leitura.entradas()).extracting(Entrada::item).containsExactly(6, 7, 8, 9);
+        assertThat(leitura.entradas()).extracting(Entrada::sequencia).containsExactly(6L, 7L, 8L, 9L);
+        assertThat(leitura.proxima()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,63 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import com.vibecheck.VibeCheck_Backend.utils.ColunasRegistros.Filtro;
+import com.vibecheck.VibeCheck_Backend.utils.ColunasRegistros.Resultado;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varredura por turma, período e tipo, agrupada por dia, atravessando vários segmentos.
+ */
+class ColunasRegistrosTest {
+
+    private static final LocalDateTime SEGUNDA = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    @Test
+    void agrupaPorDiaSomenteTurmasPeriodoETipoPedidos() {
+        ColunasRegistros colunas = new ColunasRegistros(4); // Segmentos pequenos: a varredura cruza vários.
+        colunas.adicionar(10, SEGUNDA, 3, 0);
+        colunas.adicionar(10, SEGUNDA.plusHours(1), 5, 0);
+        colunas.adicionar(10, SEGUNDA.plusHours(2), 4, 1);
+        colunas.adicionar(20, SEGUNDA, 1, 0);              // Outra turma.
+        colunas.adicionar(10, SEGUNDA.plusDays(1), 2, 0);
+        colunas.adicionar(10, SEGUNDA.plusDays(2).plusHours(15), 4, 0);
+        colunas.adicionar(10, SEGUNDA.plusDays(5), 5, 0);  // Fora do período.
+        assertThat(colunas.getSegmentos()).isEqualTo(2);
+
+        BitSet turmas = new BitSet();
+        turmas.set(10);
+        Resultado resultado = colunas.agruparPorDia(new Filtro(turmas,
+                SEGUNDA.toLocalDate().atStartOfDay(), SEGUNDA.toLocalDate().plusDays(3).atStartOfDay(), 0));
+
+        assertThat(resultado.primeiroDia()).isEqualTo(LocalDate.of(2025, 3, 10));
+        assertThat(resultado.quantidade()).containsExactly(2, 1, 1);
+        assertThat(resultado.soma()).containsExactly(8, 2, 4);
+        assertThat(resultado.histograma()[4]).isEqualTo(1);
+        assertThat(resultado.histograma()[5]).isEqualTo(1);
+        assertThat(resultado.histograma()[1]).isZero();
+    }
+
+    @Test
+    void pulaSegmentosForaDoPeriodoERecusaLinhasNaoRepresentaveis() {
+        ColunasRegistros colunas = new ColunasRegistros(2);
+        colunas.adicionar(1, SEGUNDA.minusYears(1), 3, 0);
+        colunas.adicionar(1, SEGUNDA.minusYears(1), 3, 0);
+        colunas.adicionar(1, SEGUNDA, 3, 0);
+        assertThat(colunas.adicionar(1, SEGUNDA, 300, 0)).isFalse();
+        assertThat(colunas.adicionar(1L << 40, SEGUNDA, 3, 0)).isFalse();
+        assertThat(colunas.adicionar(1, LocalDateTime.of(1990, 1, 1, 0, 0), 3, 0)).isFalse();
+
+        BitSet turmas = new BitSet();
+        turmas.set(1);
+        Resultado resultado = colunas.agruparPorDia(new Filtro(turmas, SEGUNDA.minusHours(1), SEGUNDA.plusHours(1), -1));
+
+        assertThat(resultado.quantidade()).containsExactly(1);
+        assertThat(resultado.linhasLidas()).isEqualTo(1); // O segmento do ano anterior nem foi lido.
+        assertThat(colunas.getTamanho()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,118 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Subtarefas rodam em paralelo; uma falha ou um prazo excedido cancela as demais.
+ * Com vagas limitadas, a espera pela vaga não conta no prazo da subtarefa, mas conta no prazo total.
+ */
+class EscopoTarefasTest {
+
+    private static final Duration PRAZO = Duration.ofSeconds(5);
+
+    @Test
+    void subtarefasRodamEmParaleloEEntregamOsResultados() throws Exception {
+        // As duas só terminam se estiverem rodando ao mesmo tempo.
+        CountDownLatch ambas = new CountDownLatch(2);
+        try (EscopoTarefas escopo = new EscopoTarefas("teste")) {
+            Supplier<String> a = escopo.iniciar("a", PRAZO, () -> {
+                ambas.countDown();
+                return ambas.await(2, TimeUnit.SECONDS) ? "a" : "sozinha";
+            });
+            Supplier<Integer> b = escopo.iniciar("b", PRAZO, () -> {
+                ambas.countDown();
+                return ambas.await(2, TimeUnit.SECONDS) ? 2 : -1;
+            });
+            escopo.juntar();
+
+            assertThat(a.get()).isEqualTo("a");
+            assertThat(b.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void falhaOuPrazoExcedidoCancelaAsDemais() throws Exception {
+        CountDownLatch interrompida = new CountDownLatch(1);
+        try (EscopoTarefas escopo = new EscopoTarefas("teste")) {
+            escopo.iniciar("lenta", PRAZO, () -> esperarInterrupcao(interrompida));
+            escopo.iniciar("falha", PRAZO, () -> {
+                throw new IllegalStateException("banco fora");
+            });
+
+            assertThatThrownBy(escopo::juntar)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(interrompida.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+
+        CountDownLatch estourada = new CountDownLatch(1);
+        try (EscopoTarefas escopo = new EscopoTarefas("teste")) {
+            escopo.iniciar("travada", Duration.ofMillis(50), () -> esperarInterrupcao(estourada));
+
+            assertThatThrownBy(escopo::juntar)
+                    .isInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("travada");
+            assertThat(estourada.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void prazoComecaQuandoASubtarefaConsegueAVaga() throws Exception {
+        // Uma vaga: a segunda espera a primeira (~250 ms) e termina ~500 ms depois de iniciada,
+        // além do prazo de 400 ms se ele contasse desde o início, mas dentro dele contando da vaga.
+        Semaphore vagas = new Semaphore(1);
+        try (EscopoTarefas escopo = new EscopoTarefas("teste")) {
+            Supplier<String> a = escopo.iniciar("a", Duration.ofMillis(400), vagas, () -> dormir("a"));
+            Supplier<String> b = escopo.iniciar("b", Duration.ofMillis(400), vagas, () -> dormir("b"));
+            escopo.juntar();
+
+            assertThat(a.get()).isEqualTo("a");
+            assertThat(b.get()).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void prazoTotalCortaAFilaDeVagas() throws Exception {
+        // Uma vaga e três subtarefas de ~250 ms: cada uma cabe no próprio prazo, mas a fila inteira
+        // (~750 ms) passa do prazo total, e a que ainda espera a vaga é cancelada.
+        Semaphore vagas = new Semaphore(1);
+        try (EscopoTarefas escopo = new EscopoTarefas("teste", Duration.ofMillis(600))) {
+            Supplier<String> a = escopo.iniciar("a", Duration.ofMillis(400), vagas, () -> dormir("a"));
+            escopo.iniciar("b", Duration.ofMillis(400), vagas, () -> dormir("b"));
+            escopo.iniciar("c", Duration.ofMillis(400), vagas, () -> dormir("c"));
+
+            long inicio = System.nanoTime();
+            assertThatThrownBy(escopo::juntar)
+                    .isInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("prazo total");
+            assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(700));
+            assertThat(a.get()).isEqualTo("a");
+        }
+        assertThat(vagas.availablePermits()).isEqualTo(1);
+    }
+
+    private static String dormir(String resultado) throws InterruptedException {
+        Thread.sleep(250);
+        return resultado;
+    }
+
+    private static Object esperarInterrupcao(CountDownLatch interrompida) {
+        try {
+            Thread.sleep(Duration.ofMinutes(1));
+        } catch (InterruptedException e) {
+            interrompida.countDown();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Percentis dentro do erro relativo prometido e mesclagem equivalente a registrar tudo em um só histograma.
+ */
+class HistogramaLogTest {
+
+    @Test
+    void percentisFicamDentroDoErroRelativo() {
+        HistogramaLog histograma = new HistogramaLog();
+        for (long segundos = 1; segundos <= 10_000; segundos++) {
+            histograma.registrar(segundos);
+        }
+
+        assertThat(histograma.getQuantidade()).isEqualTo(10_000);
+        assertThat((double) histograma.percentil(50)).isCloseTo(5_000, within(5_000 * HistogramaLog.ERRO_RELATIVO));
+        assertThat((double) histograma.percentil(90)).isCloseTo(9_000, within(9_000 * HistogramaLog.ERRO_RELATIVO));
+        assertThat((double) histograma.percentil(99)).isCloseTo(9_900, within(9_900 * HistogramaLog.ERRO_RELATIVO));
+        // Uma duração de 12 horas ainda cabe em poucas faixas.
+        assertThat(HistogramaLog.faixa(12 * 3600)).isLessThan(110);
+        assertThat(new HistogramaLog().percentil(50)).isNull();
+    }
+
+    @Test
+    void mesclarDiasEquivaleARegistrarOPeriodoTodo() {
+        Random aleatorio = new Random(42);
+        HistogramaLog periodo = new HistogramaLog();
+        HistogramaLog mesclado = new HistogramaLog();
+        for (int dia = 0; dia < 7; dia++) {
+            HistogramaLog doDia = new HistogramaLog();
+            for (int i = 0; i < 50; i++) {
+                long duracao = 60 + aleatorio.nextInt(3 * 3600);
+                doDia.registrar(duracao);
+                periodo.registrar(duracao);
+            }
+            mesclado.mesclar(doDia);
+        }
+
+        assertThat(mesclado.getFaixas()).isEqualTo(periodo.getFaixas());
+        assertThat(mesclado.percentil(90)).isEqualTo(periodo.percentil(90));
+    }
+}
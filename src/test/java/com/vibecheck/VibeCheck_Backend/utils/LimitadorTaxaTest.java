@@ -0,0 +1,45 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorTaxaTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void aceitaARajadaERecusaOExcedente() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 3);
+        long agora = 0;
+
+        assertThat(limitador.tentar("aluno", agora)).isZero();
+        assertThat(limitador.tentar("aluno", agora)).isZero();
+        assertThat(limitador.tentar("aluno", agora)).isZero();
+        // A quarta requisição só cabe daqui a um intervalo (1 s).
+        assertThat(limitador.tentar("aluno", agora)).isEqualTo(SEGUNDO);
+        // Outra chave tem o seu próprio balde.
+        assertThat(limitador.tentar("outro", agora)).isZero();
+    }
+
+    @Test
+    void reabasteceNaTaxaConfigurada() {
+        LimitadorTaxa limitador = new LimitadorTaxa(2, 1);
+
+        assertThat(limitador.tentar("aluno", 0)).isZero();
+        assertThat(limitador.tentar("aluno", SEGUNDO / 4)).isPositive();
+        assertThat(limitador.tentar("aluno", SEGUNDO / 2)).isZero();
+    }
+
+    @Test
+    void limpaSomenteChavesComBaldeCheio() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 5);
+        limitador.tentar("ocioso", 0);
+        limitador.tentar("ativo", 10 * SEGUNDO);
+
+        assertThat(limitador.limparOciosas(10 * SEGUNDO)).isEqualTo(1);
+        assertThat(limitador.getQuantidadeChaves()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.vibecheck.VibeCheck_Backend.utils;
+
+import com.vibecheck.VibeCheck_Backend.utils.LogAppendOnly.Entrada;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogAppendOnlyTest {
+
+    private static final int CAPACIDADE = 4096;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reabreAPartirDoCheckpoint() throws IOException {
+        Path arquivo = diretorio.resolve("registros.log");
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, CAPACIDADE)) {
+            log.anexar(bytes("a"));
+            long fimB = log.anexar(bytes("b"));
+            long fimC = log.anexar(bytes("c"));
+            log.tornarDuravel(fimC);
+            log.registrarCheckpoint(fimB);
+        }
+
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, CAPACIDADE)) {
+            assertThat(lerTudo(log)).containsExactly("c");
+        }
+    }
+
+    @Test
+    void descartaEntradaIncompletaAposQueda() throws IOException {
+        Path arquivo = diretorio.resolve("registros.log");
+        long fimA;
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, CAPACIDADE)) {
+            fimA = log.anexar(bytes("a"));
+            log.tornarDuravel(log.anexar(bytes("bbbb")));
+        }
+        // Simula uma escrita cortada: corrompe o último byte da segunda entrada.
+        try (RandomAccessFile raw = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            raw.seek((int) fimA + 12 + 3);
+            raw.write('x');
+        }
+
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, CAPACIDADE)) {
+            assertThat(lerTudo(log)).containsExactly("a");
+            assertThat(log.getFimEscrito()).isEqualTo(fimA);
+        }
+    }
+
+    @Test
+    void reaproveitaOEspacoConsumidoSemEsperarOLogEsvaziar() throws IOException {
+        try (LogAppendOnly log = new LogAppendOnly(diretorio.resolve("registros.log"), 256)) {
+            List<String> lidas = new ArrayList<>();
+            long posicao = log.getCheckpoint();
+            for (int i = 0; i < 500; i++) {
+                assertThat(log.anexar(bytes("entrada-" + i))).as("entrada %d", i).isPositive();
+                // O consumidor fica sempre duas entradas atrás: o log nunca esvazia.
+                if (i >= 2) {
+                    Entrada entrada = log.ler(posicao);
+                    lidas.add(new String(entrada.dados(), StandardCharsets.UTF_8));
+                    posicao = entrada.proxima();
+                    log.registrarCheckpoint(posicao);
+                }
+            }
+            assertThat(lidas).hasSize(498).startsWith("entrada-0").endsWith("entrada-497");
+            assertThat(lerTudo(log)).containsExactly("entrada-498", "entrada-499");
+        }
+    }
+
+    @Test
+    void reabreComEntradasDosDoisLadosDaVolta() throws IOException {
+        Path arquivo = diretorio.resolve("registros.log");
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, 128)) {
+            long fim = log.anexar(bytes("antiga-a".repeat(3)));
+            log.anexar(bytes("antiga-b".repeat(3)));
+            log.anexar(bytes("antiga-c".repeat(3)));
+            log.registrarCheckpoint(fim);
+            // Não cabe no fim: volta ao início, no espaço que "antiga-a" liberou.
+            long depoisDaVolta = log.anexar(bytes("nova"));
+            assertThat(depoisDaVolta >>> 32).isGreaterThan(fim >>> 32);
+            log.tornarDuravel(depoisDaVolta);
+            assertThat(log.anexar(bytes("x".repeat(40)))).isEqualTo(-1);
+        }
+
+        try (LogAppendOnly log = new LogAppendOnly(arquivo, 128)) {
+            assertThat(lerTudo(log)).containsExactly("antiga-b".repeat(3), "antiga-c".repeat(3), "nova");
+        }
+    }
+
+    @Test
+    void recusaQuandoNaoHaEspaco() throws IOException {
+        try (LogAppendOnly log = new LogAppendOnly(diretorio.resolve("registros.log"), 64)) {
+            assertThat(log.anexar(new byte[30])).isPositive();
+            assertThat(log.anexar(new byte[30])).isEqualTo(-1);
+        }
+    }
+
+    private static List<String> lerTudo(LogAppendOnly log) {
+        List<String> valores = new ArrayList<>();
+        long posicao = log.getCheckpoint();
+        Entrada entrada;
+        while ((entrada = log.ler(posicao)) != null) {
+            valores.add(new String(entrada.dados(), StandardCharsets.UTF_8));
+            posicao = entrada.proxima();
+        }
+        return valores;
+    }
+
+    private static byte[] bytes(String valor) {
+        return valor.getBytes(StandardCharsets.UTF_8);
+    }
+}